@@ -2,6 +2,18 @@
 INSERT INTO ACT_GE_PROPERTY
   VALUES ('deployment.lock', '0', 1);
 
+-- add authorization.revision row to property table --
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision', '0', 1);
+
+-- add second-level-cache.revision row to property table --
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('second-level-cache.revision', '0', 1);
+
+-- add history-outbox.lock row to property table --
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('history-outbox.lock', '0', 1);
+
 -- add revision column to incident table --
 ALTER TABLE ACT_RU_INCIDENT
   ADD REV_ INTEGER;
@@ -201,3 +213,53 @@ create table ACT_RU_FILTER (
   PROPERTIES_ CLOB,
   primary key (ID_)
 );
+
+-- job priority --
+ALTER TABLE ACT_RU_JOB
+  ADD PRIORITY_ bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE ACT_RU_JOBDEF
+  ADD JOB_PRIORITY_ bigint;
+
+create index ACT_IDX_JOB_PRIORITY on ACT_RU_JOB(PRIORITY_ desc, DUEDATE_);
+
+-- indexes used to prefetch the entities of a process instance --
+create index ACT_IDX_JOB_PROCINST on ACT_RU_JOB(PROCESS_INSTANCE_ID_);
+create index ACT_IDX_EVENT_SUBSCR_PROCINST on ACT_RU_EVENT_SUBSCR(PROC_INST_ID_);
+
+-- history event outbox --
+create table ACT_HI_OUTBOX (
+    ID_ varchar(64) not null,
+    REV_ integer,
+    SEQUENCE_ bigint not null generated always as identity,
+    CREATE_TIME_ timestamp not null,
+    EVENT_COUNT_ integer,
+    BYTES_ BLOB,
+    STATE_ integer,
+    ATTEMPTS_ integer,
+    EXCEPTION_MSG_ varchar(4000),
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_OUTBOX_SEQ on ACT_HI_OUTBOX(SEQUENCE_);
+
+-- shared byte arrays --
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD HASH_ varchar(64);
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD REF_COUNT_ integer;
+
+create index ACT_IDX_BYTEAR_HASH on ACT_GE_BYTEARRAY(HASH_);
+
+-- engine metrics --
+create table ACT_RU_METER_LOG (
+  ID_ varchar(64) not null,
+  NAME_ varchar(64) not null,
+  REPORTER_ varchar(255),
+  VALUE_ bigint,
+  TIMESTAMP_ timestamp,
+  primary key (ID_)
+);
+
+create index ACT_IDX_METER_LOG on ACT_RU_METER_LOG(NAME_,TIMESTAMP_);
@@ -2,6 +2,18 @@
 INSERT INTO ACT_GE_PROPERTY
   VALUES ('deployment.lock', '0', 1);
 
+-- add authorization.revision row to property table --
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision', '0', 1);
+
+-- add second-level-cache.revision row to property table --
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('second-level-cache.revision', '0', 1);
+
+-- add history-outbox.lock row to property table --
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('history-outbox.lock', '0', 1);
+
 -- add revision column to incident table --
 ALTER TABLE ACT_RU_INCIDENT
   ADD REV_ INTEGER;
@@ -195,3 +207,55 @@ create table ACT_RU_FILTER (
   PROPERTIES_ CLOB,
   primary key (ID_)
 );
+
+-- job priority --
+ALTER TABLE ACT_RU_JOB
+  ADD PRIORITY_ NUMBER(19,0) DEFAULT 0 NOT NULL;
+
+ALTER TABLE ACT_RU_JOBDEF
+  ADD JOB_PRIORITY_ NUMBER(19,0);
+
+create index ACT_IDX_JOB_PRIORITY on ACT_RU_JOB(PRIORITY_ desc, DUEDATE_);
+
+-- indexes used to prefetch the entities of a process instance --
+create index ACT_IDX_JOB_PROCINST on ACT_RU_JOB(PROCESS_INSTANCE_ID_);
+create index ACT_IDX_EVENT_SUBSCR_PROCINST on ACT_RU_EVENT_SUBSCR(PROC_INST_ID_);
+
+-- history event outbox --
+create sequence ACT_HI_OUTBOX_SEQ;
+
+create table ACT_HI_OUTBOX (
+    ID_ NVARCHAR2(64) not null,
+    REV_ INTEGER,
+    SEQUENCE_ NUMBER(19,0) not null,
+    CREATE_TIME_ TIMESTAMP(6) not null,
+    EVENT_COUNT_ INTEGER,
+    BYTES_ BLOB,
+    STATE_ INTEGER,
+    ATTEMPTS_ INTEGER,
+    EXCEPTION_MSG_ NVARCHAR2(2000),
+    primary key (ID_)
+);
+
+create index ACT_IDX_HI_OUTBOX_SEQ on ACT_HI_OUTBOX(SEQUENCE_);
+
+-- shared byte arrays --
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD HASH_ NVARCHAR2(64);
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD REF_COUNT_ INTEGER;
+
+create index ACT_IDX_BYTEAR_HASH on ACT_GE_BYTEARRAY(HASH_);
+
+-- engine metrics --
+create table ACT_RU_METER_LOG (
+  ID_ NVARCHAR2(64) not null,
+  NAME_ NVARCHAR2(64) not null,
+  REPORTER_ NVARCHAR2(255),
+  VALUE_ NUMBER(19,0),
+  TIMESTAMP_ TIMESTAMP(6),
+  primary key (ID_)
+);
+
+create index ACT_IDX_METER_LOG on ACT_RU_METER_LOG(NAME_,TIMESTAMP_);
@@ -16,12 +16,8 @@ import org.camunda.bpm.engine.cdi.impl.el.CdiResolver;
 import org.camunda.bpm.engine.delegate.VariableScope;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.el.VariableScopeElResolver;
-import org.camunda.bpm.engine.impl.javax.el.ArrayELResolver;
-import org.camunda.bpm.engine.impl.javax.el.BeanELResolver;
 import org.camunda.bpm.engine.impl.javax.el.CompositeELResolver;
 import org.camunda.bpm.engine.impl.javax.el.ELResolver;
-import org.camunda.bpm.engine.impl.javax.el.ListELResolver;
-import org.camunda.bpm.engine.impl.javax.el.MapELResolver;
 
 /**
  * {@link ExpressionManager} for resolving Cdi-managed beans.
@@ -47,10 +43,10 @@ public class CdiExpressionManager extends ExpressionManager {
 
     compositeElResolver.add(new CdiResolver());
 
-    compositeElResolver.add(new ArrayELResolver());
-    compositeElResolver.add(new ListELResolver());
-    compositeElResolver.add(new MapELResolver());
-    compositeElResolver.add(new BeanELResolver());
+    compositeElResolver.add(arrayElResolver);
+    compositeElResolver.add(listElResolver);
+    compositeElResolver.add(mapElResolver);
+    compositeElResolver.add(beanElResolver);
     return compositeElResolver;
   }
 
@@ -85,6 +85,9 @@ public interface ProcessEngineRestService {
   @Path("/{name}" + FilterRestService.PATH)
   FilterRestService getFilterRestService(@PathParam("name") String engineName);
 
+  @Path("/{name}" + MetricsRestService.PATH)
+  MetricsRestService getMetricsRestService(@PathParam("name") String engineName);
+
   @GET
   @Produces(MediaType.APPLICATION_JSON)
   List<ProcessEngineDto> getProcessEngineNames();
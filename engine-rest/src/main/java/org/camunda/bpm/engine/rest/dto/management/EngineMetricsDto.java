@@ -0,0 +1,75 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.management;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.management.EngineMetrics;
+import org.camunda.bpm.engine.management.LatencyMetrics;
+
+public class EngineMetricsDto {
+
+  protected Date startTime;
+  protected List<LatencyMetricsDto> commands;
+  protected List<LatencyMetricsDto> statements;
+  protected List<LatencyMetricsDto> jobs;
+  protected List<LatencyMetricsDto> activities;
+  protected Map<String, Long> counters;
+
+  public EngineMetricsDto() { }
+
+  public Date getStartTime() {
+    return startTime;
+  }
+  public List<LatencyMetricsDto> getCommands() {
+    return commands;
+  }
+  public List<LatencyMetricsDto> getStatements() {
+    return statements;
+  }
+  public List<LatencyMetricsDto> getJobs() {
+    return jobs;
+  }
+  public List<LatencyMetricsDto> getActivities() {
+    return activities;
+  }
+  public Map<String, Long> getCounters() {
+    return counters;
+  }
+
+  public static EngineMetricsDto fromEngineMetrics(EngineMetrics engineMetrics) {
+    EngineMetricsDto dto = new EngineMetricsDto();
+
+    dto.startTime = engineMetrics.getStartTime();
+    dto.commands = fromLatencyMetrics(engineMetrics.getCommandLatencies());
+    dto.statements = fromLatencyMetrics(engineMetrics.getStatementLatencies());
+    dto.jobs = fromLatencyMetrics(engineMetrics.getJobLatencies());
+    dto.activities = fromLatencyMetrics(engineMetrics.getActivityLatencies());
+    dto.counters = new HashMap<String, Long>(engineMetrics.getCounters());
+
+    return dto;
+  }
+
+  protected static List<LatencyMetricsDto> fromLatencyMetrics(List<LatencyMetrics> latencies) {
+    List<LatencyMetricsDto> dtos = new ArrayList<LatencyMetricsDto>();
+    for (LatencyMetrics latencyMetrics : latencies) {
+      dtos.add(LatencyMetricsDto.fromLatencyMetrics(latencyMetrics));
+    }
+    return dtos;
+  }
+
+}
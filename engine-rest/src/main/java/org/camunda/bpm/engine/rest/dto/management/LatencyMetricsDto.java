@@ -0,0 +1,70 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.dto.management;
+
+import org.camunda.bpm.engine.management.LatencyMetrics;
+
+public class LatencyMetricsDto {
+
+  protected String name;
+  protected long count;
+  protected long totalTime;
+  protected long meanTime;
+  protected long maxTime;
+  protected long percentile50;
+  protected long percentile95;
+  protected long percentile99;
+
+  public LatencyMetricsDto() { }
+
+  public String getName() {
+    return name;
+  }
+  public long getCount() {
+    return count;
+  }
+  public long getTotalTime() {
+    return totalTime;
+  }
+  public long getMeanTime() {
+    return meanTime;
+  }
+  public long getMaxTime() {
+    return maxTime;
+  }
+  public long getPercentile50() {
+    return percentile50;
+  }
+  public long getPercentile95() {
+    return percentile95;
+  }
+  public long getPercentile99() {
+    return percentile99;
+  }
+
+  public static LatencyMetricsDto fromLatencyMetrics(LatencyMetrics latencyMetrics) {
+    LatencyMetricsDto dto = new LatencyMetricsDto();
+
+    dto.name = latencyMetrics.getName();
+    dto.count = latencyMetrics.getCount();
+    dto.totalTime = latencyMetrics.getTotalTime();
+    dto.meanTime = latencyMetrics.getMeanTime();
+    dto.maxTime = latencyMetrics.getMaxTime();
+    dto.percentile50 = latencyMetrics.getPercentile(0.5);
+    dto.percentile95 = latencyMetrics.getPercentile(0.95);
+    dto.percentile99 = latencyMetrics.getPercentile(0.99);
+
+    return dto;
+  }
+
+}
@@ -55,6 +55,7 @@ public class CamundaRestResources {
     RESOURCE_CLASSES.add(HistoryRestServiceImpl.class);
     RESOURCE_CLASSES.add(DeploymentRestServiceImpl.class);
     RESOURCE_CLASSES.add(FilterRestServiceImpl.class);
+    RESOURCE_CLASSES.add(MetricsRestServiceImpl.class);
 
     RESOURCE_CLASSES.add(CaseDefinitionRestServiceImpl.class);
     RESOURCE_CLASSES.add(CaseInstanceRestServiceImpl.class);
@@ -0,0 +1,39 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.rest.impl;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.rest.MetricsRestService;
+import org.camunda.bpm.engine.rest.dto.management.EngineMetricsDto;
+
+public class MetricsRestServiceImpl extends AbstractRestProcessEngineAware implements MetricsRestService {
+
+  public MetricsRestServiceImpl() {
+    super();
+  }
+
+  public MetricsRestServiceImpl(String engineName) {
+    super(engineName);
+  }
+
+  public EngineMetricsDto getEngineMetrics() {
+    ManagementService managementService = getProcessEngine().getManagementService();
+    return EngineMetricsDto.fromEngineMetrics(managementService.getEngineMetrics());
+  }
+
+  public void resetEngineMetrics() {
+    ManagementService managementService = getProcessEngine().getManagementService();
+    managementService.resetEngineMetrics();
+  }
+
+}
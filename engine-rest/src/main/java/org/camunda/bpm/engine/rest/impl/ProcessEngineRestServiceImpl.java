@@ -35,6 +35,7 @@ import org.camunda.bpm.engine.rest.IncidentRestService;
 import org.camunda.bpm.engine.rest.JobDefinitionRestService;
 import org.camunda.bpm.engine.rest.JobRestService;
 import org.camunda.bpm.engine.rest.MessageRestService;
+import org.camunda.bpm.engine.rest.MetricsRestService;
 import org.camunda.bpm.engine.rest.ProcessDefinitionRestService;
 import org.camunda.bpm.engine.rest.ProcessEngineRestService;
 import org.camunda.bpm.engine.rest.ProcessInstanceRestService;
@@ -197,6 +198,13 @@ public class ProcessEngineRestServiceImpl implements ProcessEngineRestService {
     return subResource;
   }
 
+  public MetricsRestService getMetricsRestService(String engineName) {
+    String rootResourcePath = getRelativeEngineUri(engineName).toASCIIString();
+    MetricsRestServiceImpl subResource = new MetricsRestServiceImpl(engineName);
+    subResource.setRelativeRootResourceUri(rootResourcePath);
+    return subResource;
+  }
+
   @Override
   public List<ProcessEngineDto> getProcessEngineNames() {
     ProcessEngineProvider provider = getProcessEngineProvider();
@@ -0,0 +1,81 @@
+package org.camunda.bpm.engine.rest;
+
+import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.ws.rs.core.Response.Status;
+
+import org.camunda.bpm.engine.ManagementService;
+import org.camunda.bpm.engine.management.EngineMetrics;
+import org.camunda.bpm.engine.management.LatencyMetrics;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jayway.restassured.http.ContentType;
+
+public abstract class AbstractMetricsRestServiceTest extends AbstractRestServiceTest {
+
+  protected static final String METRICS_URL = TEST_RESOURCE_ROOT_PATH + "/metrics";
+  protected static final String RESET_METRICS_URL = METRICS_URL + "/reset";
+
+  private ManagementService managementServiceMock;
+
+  @Before
+  public void setupMocks() {
+    managementServiceMock = mock(ManagementService.class);
+    when(processEngine.getManagementService()).thenReturn(managementServiceMock);
+
+    LatencyMetrics commandLatency = mock(LatencyMetrics.class);
+    when(commandLatency.getName()).thenReturn("aCommand");
+    when(commandLatency.getCount()).thenReturn(10L);
+    when(commandLatency.getTotalTime()).thenReturn(1000L);
+    when(commandLatency.getMeanTime()).thenReturn(100L);
+    when(commandLatency.getMaxTime()).thenReturn(300L);
+    when(commandLatency.getPercentile(0.99)).thenReturn(255L);
+
+    Map<String, Long> counters = new HashMap<String, Long>();
+    counters.put(EngineMetrics.FLUSHES, 10L);
+
+    EngineMetrics engineMetrics = mock(EngineMetrics.class);
+    when(engineMetrics.getCommandLatencies()).thenReturn(Collections.singletonList(commandLatency));
+    when(engineMetrics.getStatementLatencies()).thenReturn(Collections.<LatencyMetrics>emptyList());
+    when(engineMetrics.getJobLatencies()).thenReturn(Collections.<LatencyMetrics>emptyList());
+    when(engineMetrics.getActivityLatencies()).thenReturn(Collections.<LatencyMetrics>emptyList());
+    when(engineMetrics.getCounters()).thenReturn(counters);
+
+    when(managementServiceMock.getEngineMetrics()).thenReturn(engineMetrics);
+  }
+
+  @Test
+  public void testGetEngineMetrics() {
+    given()
+      .then().expect().statusCode(Status.OK.getStatusCode())
+        .contentType(ContentType.JSON)
+        .body("commands.size()", equalTo(1))
+        .body("commands[0].name", equalTo("aCommand"))
+        .body("commands[0].count", equalTo(10))
+        .body("commands[0].meanTime", equalTo(100))
+        .body("commands[0].maxTime", equalTo(300))
+        .body("commands[0].percentile99", equalTo(255))
+        .body("statements.size()", equalTo(0))
+        .body("counters.flushes", equalTo(10))
+      .when().get(METRICS_URL);
+  }
+
+  @Test
+  public void testResetEngineMetrics() {
+    given()
+      .then().expect().statusCode(Status.NO_CONTENT.getStatusCode())
+      .when().post(RESET_METRICS_URL);
+
+    verify(managementServiceMock).resetEngineMetrics();
+  }
+
+}
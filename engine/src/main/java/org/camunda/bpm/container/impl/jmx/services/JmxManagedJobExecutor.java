@@ -15,6 +15,7 @@ package org.camunda.bpm.container.impl.jmx.services;
 import org.camunda.bpm.container.impl.spi.PlatformService;
 import org.camunda.bpm.container.impl.spi.PlatformServiceContainer;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.ThreadPoolJobExecutor;
 
 /**
  * @author Daniel Meyer
@@ -80,6 +81,45 @@ public class JmxManagedJobExecutor implements PlatformService<JobExecutor>, JmxM
     return jobExecutor.getName();
   }
 
+  // metrics are only available for job executors managing their own thread pool
+
+  public int getPrefetchQueueDepth() {
+    ThreadPoolJobExecutor threadPoolJobExecutor = getThreadPoolJobExecutor();
+    return threadPoolJobExecutor != null ? threadPoolJobExecutor.getPrefetchQueueDepth() : 0;
+  }
+
+  public int getPrefetchQueueCapacity() {
+    ThreadPoolJobExecutor threadPoolJobExecutor = getThreadPoolJobExecutor();
+    return threadPoolJobExecutor != null ? threadPoolJobExecutor.getPrefetchQueueCapacity() : 0;
+  }
+
+  public int getExecutionQueueDepth() {
+    ThreadPoolJobExecutor threadPoolJobExecutor = getThreadPoolJobExecutor();
+    return threadPoolJobExecutor != null ? threadPoolJobExecutor.getExecutionQueueDepth() : 0;
+  }
+
+  public double getPrefetchHitRate() {
+    ThreadPoolJobExecutor threadPoolJobExecutor = getThreadPoolJobExecutor();
+    return threadPoolJobExecutor != null ? threadPoolJobExecutor.getPrefetchHitRate() : 0;
+  }
+
+  public long getRejectedJobs() {
+    ThreadPoolJobExecutor threadPoolJobExecutor = getThreadPoolJobExecutor();
+    return threadPoolJobExecutor != null ? threadPoolJobExecutor.getRejectedJobs() : 0;
+  }
+
+  public long getExpiredJobLocks() {
+    ThreadPoolJobExecutor threadPoolJobExecutor = getThreadPoolJobExecutor();
+    return threadPoolJobExecutor != null ? threadPoolJobExecutor.getExpiredJobLocks() : 0;
+  }
+
+  protected ThreadPoolJobExecutor getThreadPoolJobExecutor() {
+    if (jobExecutor instanceof ThreadPoolJobExecutor) {
+      return (ThreadPoolJobExecutor) jobExecutor;
+    }
+    return null;
+  }
+
   public JobExecutor getValue() {
     return jobExecutor;
   }
@@ -39,6 +39,34 @@ public interface JmxManagedJobExecutorMBean {
 
   public int getWaitTimeInMillis();
 
+  /**
+   * @return the number of acquired job batches waiting for a free thread of the job executor
+   */
+  public int getPrefetchQueueDepth();
+
+  public int getPrefetchQueueCapacity();
+
+  /**
+   * @return the number of job batches waiting in the work queue of the thread pool
+   */
+  public int getExecutionQueueDepth();
+
+  /**
+   * @return the share of job batches which were handed to a thread right after it
+   * became available, without waiting for job acquisition
+   */
+  public double getPrefetchHitRate();
+
+  /**
+   * @return the number of acquired jobs which were rejected and unlocked
+   */
+  public long getRejectedJobs();
+
+  /**
+   * @return the number of prefetched jobs which were not executed because their lock expired
+   */
+  public long getExpiredJobLocks();
+
   public void shutdown();
 
   public void start();
@@ -12,13 +12,17 @@
  */
 package org.camunda.bpm.container.impl.jmx.services;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 import org.camunda.bpm.container.impl.jmx.MBeanServiceContainer;
 import org.camunda.bpm.container.impl.spi.PlatformService;
 import org.camunda.bpm.container.impl.spi.PlatformServiceContainer;
 import org.camunda.bpm.engine.ManagementService;
 import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.management.LatencyMetrics;
 
 /**
  * <p>Represents a process engine managed by the {@link MBeanServiceContainer}</p>
@@ -73,4 +77,43 @@ public class JmxManagedProcessEngine implements PlatformService<ProcessEngine>,
     managementService.unregisterDeploymentForJobExecutor(deploymentId);
   }
 
+  public Map<String, Long> getMetricCounters() {
+    ManagementService managementService = processEngine.getManagementService();
+    return new TreeMap<String, Long>(managementService.getEngineMetrics().getCounters());
+  }
+
+  public Map<String, String> getCommandLatencies() {
+    ManagementService managementService = processEngine.getManagementService();
+    return summarize(managementService.getEngineMetrics().getCommandLatencies());
+  }
+
+  public Map<String, String> getStatementLatencies() {
+    ManagementService managementService = processEngine.getManagementService();
+    return summarize(managementService.getEngineMetrics().getStatementLatencies());
+  }
+
+  public Map<String, String> getJobLatencies() {
+    ManagementService managementService = processEngine.getManagementService();
+    return summarize(managementService.getEngineMetrics().getJobLatencies());
+  }
+
+  public Map<String, String> getActivityLatencies() {
+    ManagementService managementService = processEngine.getManagementService();
+    return summarize(managementService.getEngineMetrics().getActivityLatencies());
+  }
+
+  public void resetMetrics() {
+    ManagementService managementService = processEngine.getManagementService();
+    managementService.resetEngineMetrics();
+  }
+
+  protected Map<String, String> summarize(List<LatencyMetrics> latencies) {
+    Map<String, String> summary = new TreeMap<String, String>();
+    for (LatencyMetrics latency : latencies) {
+      summary.put(latency.getName(), String.format("count=%d, mean=%dus, p99=%dus, max=%dus",
+          latency.getCount(), latency.getMeanTime(), latency.getPercentile(0.99), latency.getMaxTime()));
+    }
+    return summary;
+  }
+
 }
@@ -12,6 +12,7 @@
  */
 package org.camunda.bpm.container.impl.jmx.services;
 
+import java.util.Map;
 import java.util.Set;
 
 import org.camunda.bpm.engine.ProcessEngine;
@@ -40,4 +41,34 @@ public interface JmxManagedProcessEngineMBean {
   public void registerDeployment(String deploymentId);
   
   public void unregisterDeployment(String deploymentId);
+
+  /**
+   * @return the counters of the engine metrics (flushes, cache hits, ...)
+   */
+  public Map<String, Long> getMetricCounters();
+
+  /**
+   * @return a summary of the latencies per command class
+   */
+  public Map<String, String> getCommandLatencies();
+
+  /**
+   * @return a summary of the latencies per SQL statement
+   */
+  public Map<String, String> getStatementLatencies();
+
+  /**
+   * @return a summary of the latencies per job handler type
+   */
+  public Map<String, String> getJobLatencies();
+
+  /**
+   * @return a summary of the latencies per activity type
+   */
+  public Map<String, String> getActivityLatencies();
+
+  /**
+   * Discards the collected engine metrics.
+   */
+  public void resetMetrics();
 }
@@ -22,8 +22,10 @@ import org.camunda.bpm.application.ProcessApplicationRegistration;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.management.ActivityStatisticsQuery;
 import org.camunda.bpm.engine.management.DeploymentStatisticsQuery;
+import org.camunda.bpm.engine.management.EngineMetrics;
 import org.camunda.bpm.engine.management.JobDefinition;
 import org.camunda.bpm.engine.management.JobDefinitionQuery;
+import org.camunda.bpm.engine.management.MetricsQuery;
 import org.camunda.bpm.engine.management.ProcessDefinitionStatisticsQuery;
 import org.camunda.bpm.engine.management.TableMetaData;
 import org.camunda.bpm.engine.management.TablePage;
@@ -512,6 +514,44 @@ public interface ManagementService {
    */
   void setJobRetriesByJobDefinitionId(String jobDefinitionId, int retries);
 
+  /**
+   * <p>Sets a priority for the jobs of the given job definition which overrides the
+   * priority declared in the BPMN 2.0 Xml (<code>camunda:jobPriority</code>).
+   * The priority is applied to all jobs created from now on. Jobs which already
+   * exist keep their priority.</p>
+   *
+   * <p>Jobs with a higher priority are acquired first if the job executor acquires
+   * jobs by priority and are executed first by the job executor.</p>
+   *
+   * @param jobDefinitionId id of the job definition, cannot be null.
+   * @param priority the priority of the jobs.
+   *
+   * @throws ProcessEngineException if no such job definition can be found.
+   */
+  void setOverridingJobPriorityForJobDefinition(String jobDefinitionId, long priority);
+
+  /**
+   * <p>Sets a priority for the jobs of the given job definition which overrides the
+   * priority declared in the BPMN 2.0 Xml (<code>camunda:jobPriority</code>).</p>
+   *
+   * @param jobDefinitionId id of the job definition, cannot be null.
+   * @param priority the priority of the jobs.
+   * @param cascade if true, the priority of all existing jobs of the job definition is set as well.
+   *
+   * @throws ProcessEngineException if no such job definition can be found.
+   */
+  void setOverridingJobPriorityForJobDefinition(String jobDefinitionId, long priority, boolean cascade);
+
+  /**
+   * <p>Removes the overriding priority of the given job definition: jobs created from now on
+   * get the priority declared in the BPMN 2.0 Xml again. Existing jobs keep their priority.</p>
+   *
+   * @param jobDefinitionId id of the job definition, cannot be null.
+   *
+   * @throws ProcessEngineException if no such job definition can be found.
+   */
+  void clearOverridingJobPriorityForJobDefinition(String jobDefinitionId);
+
   /**
    * Sets a new due date for the provided id.
    * When newDuedate is null, the job is executed with the next
@@ -595,4 +635,33 @@ public interface ManagementService {
    */
   int getHistoryLevel();
 
+  /**
+   * Get the metrics collected by the process engine: the latencies of commands, SQL statements,
+   * jobs and activities and the counters of the entity manager. The metrics are only collected
+   * if the engine configuration property <code>metricsEnabled</code> is set, otherwise
+   * the returned metrics are empty.
+   */
+  EngineMetrics getEngineMetrics();
+
+  /**
+   * Discards the metrics collected by the process engine.
+   */
+  void resetEngineMetrics();
+
+  /**
+   * Query for the sum of the metrics reported to the database. Metrics are reported
+   * periodically if the engine configuration properties <code>metricsEnabled</code> and
+   * <code>dbMetricsReporterActivate</code> are set.
+   *
+   * @see EngineMetrics#ROOT_PROCESS_INSTANCE_START
+   */
+  MetricsQuery createMetricsQuery();
+
+  /**
+   * Deletes the metrics reported at or before the given timestamp.
+   *
+   * @param timestamp the reported metrics are deleted up to this date, all of them if it is null
+   */
+  void deleteMetrics(Date timestamp);
+
 }
@@ -29,6 +29,7 @@ import org.camunda.bpm.engine.runtime.NativeExecutionQuery;
 import org.camunda.bpm.engine.runtime.NativeProcessInstanceQuery;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
+import org.camunda.bpm.engine.runtime.SignalDeliveryProgress;
 import org.camunda.bpm.engine.runtime.VariableInstanceQuery;
 
 
@@ -843,6 +844,48 @@ public interface RuntimeService {
    */
   void signalEventReceived(String signalName, String executionId, Map<String, Object> processVariables);
 
+  /**
+   * Notifies the process engine that a signal event of name 'signalName' has
+   * been received. In contrast to {@link #signalEventReceived(String, Map)}, the signal
+   * is delivered in chunks of the given size, each chunk in its own transaction.
+   * The subscriptions receive the signal in the order of their creation.<p/>
+   *
+   * Only the subscriptions which exist when the delivery starts receive the signal:
+   * their ids are read before the first chunk, see
+   * {@link SignalDeliveryProgress#getSubscriptionIds()}.
+   * If a chunk fails, it is delivered again one subscription per transaction. The
+   * subscriptions which still fail are skipped and reported by
+   * {@link SignalDeliveryProgress#getFailedSubscriptionIds()}. If the delivery itself
+   * fails, the chunks delivered before stay committed and a {@link SignalDeliveryException}
+   * is thrown, which provides the progress to resume the delivery with
+   * {@link #resumeSignalEventDelivery(SignalDeliveryProgress, Map, int)}.
+   *
+   * @param signalName
+   *          the name of the signal event
+   * @param processVariables
+   *          a map of variables added to the execution(s), may be null
+   * @param chunkSize
+   *          the maximum number of subscriptions receiving the signal in one transaction
+   * @return the progress of the completed delivery
+   * @throws SignalDeliveryException if a chunk fails
+   */
+  SignalDeliveryProgress signalEventReceivedInChunks(String signalName, Map<String, Object> processVariables, int chunkSize);
+
+  /**
+   * Resumes a signal delivery started by {@link #signalEventReceivedInChunks(String, Map, int)}
+   * after the last subscription which received the signal.
+   *
+   * @param progress
+   *          the progress of the delivery, see {@link SignalDeliveryException#getProgress()}
+   * @param processVariables
+   *          a map of variables added to the execution(s), may be null
+   * @param chunkSize
+   *          the maximum number of subscriptions receiving the signal in one transaction
+   * @return the progress of the completed delivery
+   * @throws SignalDeliveryException if a chunk fails
+   */
+  SignalDeliveryProgress resumeSignalEventDelivery(SignalDeliveryProgress progress, Map<String, Object> processVariables, int chunkSize);
+
   /**
    * Notifies the process engine that a message event with name 'messageName' has
    * been received and has been correlated to an execution with id 'executionId'.
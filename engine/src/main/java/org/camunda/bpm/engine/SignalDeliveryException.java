@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine;
+
+import org.camunda.bpm.engine.runtime.SignalDeliveryProgress;
+
+/**
+ * Thrown if a chunk of a signal delivered in chunks fails. The chunks delivered before
+ * are committed; the delivery can be resumed with the {@link #getProgress() progress}, see
+ * {@link RuntimeService#resumeSignalEventDelivery(SignalDeliveryProgress, java.util.Map, int)}.
+ */
+public class SignalDeliveryException extends ProcessEngineException {
+
+  private static final long serialVersionUID = 1L;
+
+  protected SignalDeliveryProgress progress;
+
+  public SignalDeliveryException(SignalDeliveryProgress progress, Throwable cause) {
+    super("Cannot deliver signal " + progress.getSignalName() + " after subscription " + progress.getLastSubscriptionId()
+        + ", delivered to " + progress.getDeliveredCount() + " subscriptions: " + cause.getMessage(), cause);
+    this.progress = progress;
+  }
+
+  /**
+   * @return the progress of the delivery until the failed chunk
+   */
+  public SignalDeliveryProgress getProgress() {
+    return progress;
+  }
+
+}
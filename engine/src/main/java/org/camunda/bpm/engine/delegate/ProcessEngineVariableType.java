@@ -99,6 +99,15 @@ import org.camunda.bpm.engine.impl.core.variable.DefaultProcessEngineVariableTyp
  *   </tr>
  *
  *   <tr>
+ *   <td>compact-serializable</td>
+ *   <td>&lt;Custom Class&gt; implements Serializable</td>
+ *   <td>byte[]</td>
+ *   <td>No configuration</td>
+ *   <td>Applies Java object serialization without class metadata, compressed
+ *   above a size threshold. Values in standard Java serialization format can be set as well.</td>
+ *   </tr>
+ *
+ *   <tr>
  *   <td>null</td>
  *   <td>null</td>
  *   <td>null</td>
@@ -211,6 +220,15 @@ public interface ProcessEngineVariableType {
    */
   public static final ProcessEngineVariableType SERIALIZABLE = new DefaultProcessEngineVariableType("serializable");
 
+  /**
+   * <ul>
+   * <li>Name "compact-serializable"</li>
+   * <li>Value is of type that implements {@link Serializable}</li>
+   * <li>No configuration</li>
+   * </ul>
+   */
+  public static final ProcessEngineVariableType COMPACT_SERIALIZABLE = new DefaultProcessEngineVariableType("compact-serializable");
+
   /**
    * <ul>
    * <li>Name "null"</li>
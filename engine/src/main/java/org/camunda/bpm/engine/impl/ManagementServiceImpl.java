@@ -27,6 +27,7 @@ import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.metrics.MetricsQueryImpl;
 import org.camunda.bpm.engine.management.*;
 import org.camunda.bpm.engine.runtime.JobQuery;
 
@@ -83,6 +84,18 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     commandExecutor.execute(new SetJobRetriesCmd(null, jobDefinitionId, retries));
   }
 
+  public void setOverridingJobPriorityForJobDefinition(String jobDefinitionId, long priority) {
+    commandExecutor.execute(new SetJobDefinitionPriorityCmd(jobDefinitionId, priority, false));
+  }
+
+  public void setOverridingJobPriorityForJobDefinition(String jobDefinitionId, long priority, boolean cascade) {
+    commandExecutor.execute(new SetJobDefinitionPriorityCmd(jobDefinitionId, priority, cascade));
+  }
+
+  public void clearOverridingJobPriorityForJobDefinition(String jobDefinitionId) {
+    commandExecutor.execute(new SetJobDefinitionPriorityCmd(jobDefinitionId, null, false));
+  }
+
   public void setJobDuedate(String jobId, Date newDuedate) {
     commandExecutor.execute(new SetJobDuedateCmd(jobId, newDuedate));
   }
@@ -274,4 +287,20 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     return commandExecutor.execute(new GetHistoryLevelCmd());
   }
 
+  public EngineMetrics getEngineMetrics() {
+    return commandExecutor.execute(new GetEngineMetricsCmd());
+  }
+
+  public void resetEngineMetrics() {
+    commandExecutor.execute(new ResetEngineMetricsCmd());
+  }
+
+  public MetricsQuery createMetricsQuery() {
+    return new MetricsQueryImpl(commandExecutor);
+  }
+
+  public void deleteMetrics(Date timestamp) {
+    commandExecutor.execute(new DeleteMetricsCmd(timestamp));
+  }
+
 }
@@ -20,9 +20,11 @@ import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventOutboxWriter;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.metrics.DbMetricsReporter;
 
 /**
  * @author Tom Baeyens
@@ -44,6 +46,8 @@ public class ProcessEngineImpl implements ProcessEngine {
   protected FilterService filterService;
   protected String databaseSchemaUpdate;
   protected JobExecutor jobExecutor;
+  protected HistoryEventOutboxWriter historyEventOutboxWriter;
+  protected DbMetricsReporter dbMetricsReporter;
   protected CommandExecutor commandExecutor;
   protected CommandExecutor commandExecutorSchemaOperations;
   protected Map<Class<?>, SessionFactory> sessionFactories;
@@ -89,6 +93,16 @@ public class ProcessEngineImpl implements ProcessEngine {
       // register process engine with Job Executor
       jobExecutor.registerProcessEngine(this);
     }
+
+    historyEventOutboxWriter = processEngineConfiguration.getHistoryEventOutboxWriter();
+    if (historyEventOutboxWriter != null && processEngineConfiguration.isHistoryEventOutboxWriterActivate()) {
+      historyEventOutboxWriter.start();
+    }
+
+    dbMetricsReporter = processEngineConfiguration.getDbMetricsReporter();
+    if (dbMetricsReporter != null && processEngineConfiguration.isDbMetricsReporterActivate()) {
+      dbMetricsReporter.start();
+    }
   }
 
   protected void executeSchemaOperations() {
@@ -104,6 +118,14 @@ public class ProcessEngineImpl implements ProcessEngine {
       jobExecutor.unregisterProcessEngine(this);
     }
 
+    if (historyEventOutboxWriter != null) {
+      historyEventOutboxWriter.stop();
+    }
+
+    if (dbMetricsReporter != null) {
+      dbMetricsReporter.stop();
+    }
+
     commandExecutorSchemaOperations.execute(new SchemaOperationProcessEngineClose());
   }
 
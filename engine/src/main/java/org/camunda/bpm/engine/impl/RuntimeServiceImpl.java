@@ -13,19 +13,25 @@
 package org.camunda.bpm.engine.impl;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensurePositive;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import org.camunda.bpm.engine.RuntimeService;
+import org.camunda.bpm.engine.SignalDeliveryException;
 import org.camunda.bpm.engine.form.FormData;
 import org.camunda.bpm.engine.impl.cmd.ActivateProcessInstanceCmd;
 import org.camunda.bpm.engine.impl.cmd.CorrelateMessageCmd;
 import org.camunda.bpm.engine.impl.cmd.DeleteProcessInstanceCmd;
 import org.camunda.bpm.engine.impl.cmd.FindActiveActivityIdsCmd;
+import org.camunda.bpm.engine.impl.cmd.FindSignalEventSubscriptionIdsCmd;
 import org.camunda.bpm.engine.impl.cmd.GetActivityInstanceCmd;
 import org.camunda.bpm.engine.impl.cmd.GetExecutionVariableCmd;
 import org.camunda.bpm.engine.impl.cmd.GetExecutionVariablesCmd;
@@ -36,10 +42,12 @@ import org.camunda.bpm.engine.impl.cmd.RemoveExecutionVariablesCmd;
 import org.camunda.bpm.engine.impl.cmd.SetExecutionVariableFromSerializedCmd;
 import org.camunda.bpm.engine.impl.cmd.SetExecutionVariablesCmd;
 import org.camunda.bpm.engine.impl.cmd.SignalCmd;
+import org.camunda.bpm.engine.impl.cmd.SignalEventReceivedChunkCmd;
 import org.camunda.bpm.engine.impl.cmd.SignalEventReceivedCmd;
 import org.camunda.bpm.engine.impl.cmd.StartProcessInstanceByMessageCmd;
 import org.camunda.bpm.engine.impl.cmd.StartProcessInstanceCmd;
 import org.camunda.bpm.engine.impl.cmd.SuspendProcessInstanceCmd;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.runtime.ActivityInstance;
 import org.camunda.bpm.engine.runtime.EventSubscriptionQuery;
 import org.camunda.bpm.engine.runtime.ExecutionQuery;
@@ -49,6 +57,7 @@ import org.camunda.bpm.engine.runtime.NativeExecutionQuery;
 import org.camunda.bpm.engine.runtime.NativeProcessInstanceQuery;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.runtime.ProcessInstanceQuery;
+import org.camunda.bpm.engine.runtime.SignalDeliveryProgress;
 import org.camunda.bpm.engine.runtime.VariableInstanceQuery;
 
 /**
@@ -57,6 +66,8 @@ import org.camunda.bpm.engine.runtime.VariableInstanceQuery;
  */
 public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
 
+  private static final Logger LOG = Logger.getLogger(RuntimeServiceImpl.class.getName());
+
   public ProcessInstance startProcessInstanceByKey(String processDefinitionKey) {
     return commandExecutor.execute(new StartProcessInstanceCmd(processDefinitionKey, null, null, null, null));
   }
@@ -313,6 +324,80 @@ public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
     commandExecutor.execute(new SignalEventReceivedCmd(signalName, executionId, processVariables));
   }
 
+  public SignalDeliveryProgress signalEventReceivedInChunks(String signalName, Map<String, Object> processVariables, int chunkSize) {
+    ensureNotNull("signalName", signalName);
+    SignalDeliveryProgressImpl progress = new SignalDeliveryProgressImpl(signalName, ClockUtil.getCurrentTime());
+    return deliverSignalInChunks(progress, processVariables, chunkSize);
+  }
+
+  public SignalDeliveryProgress resumeSignalEventDelivery(SignalDeliveryProgress progress, Map<String, Object> processVariables, int chunkSize) {
+    ensureNotNull("progress", progress);
+    return deliverSignalInChunks(new SignalDeliveryProgressImpl(progress), processVariables, chunkSize);
+  }
+
+  /**
+   * Delivers the signal chunk by chunk, each chunk in its own transaction, until all
+   * subscriptions existing at the start of the delivery are processed. A failed chunk
+   * is delivered again one subscription per transaction; the subscriptions which fail
+   * are skipped and recorded in the progress.
+   */
+  protected SignalDeliveryProgress deliverSignalInChunks(SignalDeliveryProgressImpl progress, Map<String, Object> processVariables, int chunkSize) {
+    ensurePositive("chunkSize", chunkSize);
+
+    if (!progress.isCompleted() && progress.getSubscriptionIds() == null) {
+      // the subscriptions created after this point are not delivered, independent of clocks and id formats
+      List<String> subscriptionIds = commandExecutor.execute(new FindSignalEventSubscriptionIdsCmd(progress.getSignalName()));
+      progress.setSubscriptionIds(subscriptionIds);
+    }
+
+    while (!progress.isCompleted() && !progress.hasProcessedAllSubscriptions()) {
+      List<String> chunk = progress.getNextSubscriptionIds(chunkSize);
+      try {
+        try {
+          List<String> receivingSubscriptionIds = commandExecutor.execute(new SignalEventReceivedChunkCmd(progress.getSignalName(),
+              chunk, processVariables));
+          progress.chunkDelivered(chunk, receivingSubscriptionIds.size());
+
+        } catch (RuntimeException e) {
+          LOG.log(Level.FINE, "Cannot deliver signal '" + progress.getSignalName() + "' to a chunk of subscriptions, "
+              + "delivering it to one subscription per transaction", e);
+          deliverSignalPerSubscription(progress, processVariables, chunk);
+        }
+
+      } catch (RuntimeException e) {
+        throw new SignalDeliveryException(progress, e);
+      }
+
+      LOG.fine("Delivered signal '" + progress.getSignalName() + "' to " + progress.getDeliveredCount() + " subscriptions");
+    }
+
+    progress.setCompleted(true);
+    return progress;
+  }
+
+  /**
+   * Delivers the signal to the subscriptions of a chunk, each in its own transaction.
+   */
+  protected void deliverSignalPerSubscription(SignalDeliveryProgressImpl progress, Map<String, Object> processVariables, List<String> chunk) {
+    for (String subscriptionId : chunk) {
+      List<String> subscriptionIds = Collections.singletonList(subscriptionId);
+      List<String> receivingSubscriptionIds = null;
+      try {
+        receivingSubscriptionIds = commandExecutor.execute(new SignalEventReceivedChunkCmd(progress.getSignalName(),
+            subscriptionIds, processVariables));
+
+      } catch (RuntimeException e) {
+        // skip the failing subscription so that it cannot block the delivery
+        progress.subscriptionFailed(subscriptionId);
+        LOG.log(Level.WARNING, "Cannot deliver signal '" + progress.getSignalName() + "' to subscription " + subscriptionId
+            + ", the subscription is skipped", e);
+        continue;
+      }
+
+      progress.chunkDelivered(subscriptionIds, receivingSubscriptionIds.size());
+    }
+  }
+
   public void messageEventReceived(String messageName, String executionId) {
     commandExecutor.execute(new MessageEventReceivedCmd(messageName, executionId, null));
   }
@@ -0,0 +1,146 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.runtime.SignalDeliveryProgress;
+
+public class SignalDeliveryProgressImpl implements SignalDeliveryProgress, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String signalName;
+  protected Date startTime;
+  protected List<String> subscriptionIds;
+  protected int processedCount;
+  protected String lastSubscriptionId;
+  protected long deliveredCount;
+  protected int chunkCount;
+  protected boolean isCompleted;
+  protected List<String> failedSubscriptionIds = new ArrayList<String>();
+
+  public SignalDeliveryProgressImpl(String signalName, Date startTime) {
+    this.signalName = signalName;
+    this.startTime = startTime;
+  }
+
+  public SignalDeliveryProgressImpl(SignalDeliveryProgress progress) {
+    this(progress.getSignalName(), progress.getStartTime());
+    this.lastSubscriptionId = progress.getLastSubscriptionId();
+    if (progress.getSubscriptionIds() != null) {
+      this.subscriptionIds = new ArrayList<String>(progress.getSubscriptionIds());
+      // the subscriptions up to the last one are processed
+      this.processedCount = subscriptionIds.indexOf(lastSubscriptionId) + 1;
+    }
+    this.deliveredCount = progress.getDeliveredCount();
+    this.chunkCount = progress.getChunkCount();
+    this.isCompleted = progress.isCompleted();
+    this.failedSubscriptionIds.addAll(progress.getFailedSubscriptionIds());
+  }
+
+  /**
+   * @return the ids of the next subscriptions to process, at most maxResults
+   */
+  public List<String> getNextSubscriptionIds(int maxResults) {
+    int toIndex = Math.min(processedCount + maxResults, subscriptionIds.size());
+    return new ArrayList<String>(subscriptionIds.subList(processedCount, toIndex));
+  }
+
+  /**
+   * Records a chunk of subscriptions which was processed in one transaction.
+   *
+   * @param subscriptionIds the ids of the processed subscriptions, in order
+   * @param subscriptionCount the number of subscriptions which received the signal,
+   * the others no longer existed or belonged to a suspended execution
+   */
+  public void chunkDelivered(List<String> subscriptionIds, int subscriptionCount) {
+    this.lastSubscriptionId = subscriptionIds.get(subscriptionIds.size() - 1);
+    this.processedCount += subscriptionIds.size();
+    this.deliveredCount += subscriptionCount;
+    this.chunkCount++;
+  }
+
+  /**
+   * Records a subscription which could not receive the signal and is skipped.
+   */
+  public void subscriptionFailed(String subscriptionId) {
+    this.lastSubscriptionId = subscriptionId;
+    this.processedCount++;
+    this.failedSubscriptionIds.add(subscriptionId);
+  }
+
+  /**
+   * @return true if all subscriptions existing when the delivery started are processed
+   */
+  public boolean hasProcessedAllSubscriptions() {
+    return processedCount >= subscriptionIds.size();
+  }
+
+  public String getSignalName() {
+    return signalName;
+  }
+
+  public Date getStartTime() {
+    return startTime;
+  }
+
+  public List<String> getSubscriptionIds() {
+    return subscriptionIds;
+  }
+
+  public void setSubscriptionIds(List<String> subscriptionIds) {
+    this.subscriptionIds = subscriptionIds;
+    this.processedCount = 0;
+  }
+
+  public String getLastSubscriptionId() {
+    return lastSubscriptionId;
+  }
+
+  public long getDeliveredCount() {
+    return deliveredCount;
+  }
+
+  public int getChunkCount() {
+    return chunkCount;
+  }
+
+  public List<String> getFailedSubscriptionIds() {
+    return failedSubscriptionIds;
+  }
+
+  public boolean isCompleted() {
+    return isCompleted;
+  }
+
+  public void setCompleted(boolean isCompleted) {
+    this.isCompleted = isCompleted;
+  }
+
+  public String toString() {
+    return "SignalDeliveryProgressImpl [signalName=" + signalName
+        + ", startTime=" + startTime
+        + ", subscriptionCount=" + (subscriptionIds == null ? null : subscriptionIds.size())
+        + ", processedCount=" + processedCount
+        + ", lastSubscriptionId=" + lastSubscriptionId
+        + ", deliveredCount=" + deliveredCount
+        + ", chunkCount=" + chunkCount
+        + ", failedSubscriptionIds=" + failedSubscriptionIds
+        + ", isCompleted=" + isCompleted + "]";
+  }
+
+}
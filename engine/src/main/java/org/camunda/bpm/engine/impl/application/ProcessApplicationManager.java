@@ -14,6 +14,7 @@ package org.camunda.bpm.engine.impl.application;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -29,6 +30,7 @@ import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionEntity;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentFailListener;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
@@ -66,6 +68,7 @@ public class ProcessApplicationManager {
 
   public synchronized void unregisterProcessApplicationForDeployments(Set<String> deploymentIds, boolean removeProcessesFromCache) {
     removeJobExecutorRegistrations(deploymentIds);
+    purgeExpressionManagerCaches(deploymentIds);
     removeProcessApplicationRegistration(deploymentIds, removeProcessesFromCache);
   }
 
@@ -99,6 +102,37 @@ public class ProcessApplicationManager {
     }
   }
 
+  /**
+   * The bean resolver of the expression manager caches the classes of the beans used
+   * in expressions. The classes of the unregistered process applications are removed
+   * so that their class loaders can be collected.
+   */
+  protected void purgeExpressionManagerCaches(Set<String> deploymentIds) {
+    try {
+      ExpressionManager expressionManager = Context.getProcessEngineConfiguration().getExpressionManager();
+      if (expressionManager == null) {
+        return;
+      }
+
+      Set<ClassLoader> classLoaders = new HashSet<ClassLoader>();
+      for (String deploymentId : deploymentIds) {
+        DefaultProcessApplicationRegistration registration = registrationsByDeploymentId.get(deploymentId);
+        if (registration != null) {
+          ClassLoader classLoader = registration.getReference()
+            .getProcessApplication()
+            .getProcessApplicationClassloader();
+          if (classLoader != null && classLoaders.add(classLoader)) {
+            expressionManager.purgeBeanClasses(classLoader);
+          }
+        }
+      }
+
+    } catch (Exception e) {
+      LOGGER.log(Level.WARNING, "Could not remove classes of process application from expression manager caches.", e);
+
+    }
+  }
+
   protected void createJobExecutorRegistrations(Set<String> deploymentIds) {
     try {
       Context.getCommandContext()
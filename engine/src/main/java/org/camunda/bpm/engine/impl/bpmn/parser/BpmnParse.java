@@ -1737,6 +1737,7 @@ public class BpmnParse extends Parse {
     boolean isAsyncBefore = isAsyncBefore(element);
     boolean isAsyncAfter = isAsyncAfter(element);
     boolean exclusive = isExclusive(element);
+    long jobPriority = parseJobPriority(element);
 
     // set properties on activity
     activity.setAsyncBefore(isAsyncBefore);
@@ -1746,6 +1747,7 @@ public class BpmnParse extends Parse {
 
       MessageJobDeclaration messageJobDeclaration = new AsyncBeforeMessageJobDeclaration();
       messageJobDeclaration.setExclusive(exclusive);
+      messageJobDeclaration.setJobPriority(jobPriority);
       messageJobDeclaration.setActivityId(activity.getId());
 
       addMessageJobDeclarationToActivity(messageJobDeclaration, activity);
@@ -1756,6 +1758,7 @@ public class BpmnParse extends Parse {
 
       MessageJobDeclaration messageJobDeclaration = new AsyncAfterMessageJobDeclaration();
       messageJobDeclaration.setExclusive(exclusive);
+      messageJobDeclaration.setJobPriority(jobPriority);
       messageJobDeclaration.setActivityId(activity.getId());
 
       addMessageJobDeclarationToActivity(messageJobDeclaration, activity);
@@ -2682,6 +2685,7 @@ public class BpmnParse extends Parse {
     TimerDeclarationImpl timerDeclaration = new TimerDeclarationImpl(expression, type, jobHandlerType);
     timerDeclaration.setJobHandlerConfiguration(timerActivity.getId());
     timerDeclaration.setExclusive("true".equals(timerEventDefinition.attributeNS(BpmnParser.ACTIVITI_BPMN_EXTENSIONS_NS, "exclusive", String.valueOf(JobEntity.DEFAULT_EXCLUSIVE))));
+    timerDeclaration.setJobPriority(parseJobPriority(timerEventDefinition));
     if(timerActivity.getId() == null) {
       addError("Attribute \"id\" is required!",timerEventDefinition);
     }
@@ -3432,6 +3436,22 @@ public class BpmnParse extends Parse {
     return "true".equals(element.attributeNS(BpmnParser.ACTIVITI_BPMN_EXTENSIONS_NS, "exclusive", String.valueOf(JobEntity.DEFAULT_EXCLUSIVE)));
   }
 
+  /**
+   * @return the value of the <code>camunda:jobPriority</code> attribute or the default priority if it is not set
+   */
+  protected long parseJobPriority(Element element) {
+    String jobPriority = element.attributeNS(BpmnParser.ACTIVITI_BPMN_EXTENSIONS_NS, "jobPriority");
+    if (jobPriority == null) {
+      return JobEntity.DEFAULT_PRIORITY;
+    }
+    try {
+      return Long.parseLong(jobPriority.trim());
+    } catch (NumberFormatException e) {
+      addError("Cannot parse jobPriority '" + jobPriority + "': must be an integer", element);
+      return JobEntity.DEFAULT_PRIORITY;
+    }
+  }
+
   protected boolean isAsyncBefore(Element element) {
     return "true".equals(element.attributeNS(BpmnParser.ACTIVITI_BPMN_EXTENSIONS_NS, "async"))
         || "true".equals(element.attributeNS(BpmnParser.ACTIVITI_BPMN_EXTENSIONS_NS, "asyncBefore"));
@@ -24,6 +24,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -98,8 +99,11 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.DefaultCmmnTranformFactory;
 import org.camunda.bpm.engine.impl.connector.Connectors;
 import org.camunda.bpm.engine.impl.db.DbIdGenerator;
 import org.camunda.bpm.engine.impl.db.IbatisVariableTypeHandler;
+import org.camunda.bpm.engine.impl.db.PrefetchingDbIdGenerator;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntitySecondLevelCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DefaultDbEntitySecondLevelCache;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.delegate.DefaultDelegateInterceptor;
@@ -132,9 +136,13 @@ import org.camunda.bpm.engine.impl.form.validator.RequiredValidator;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventOutboxWriter;
+import org.camunda.bpm.engine.impl.history.handler.OutboxDbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.OutboxHistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.parser.HistoryParseListener;
 import org.camunda.bpm.engine.impl.history.producer.CacheAwareHistoryEventProducer;
 import org.camunda.bpm.engine.impl.history.producer.HistoryEventProducer;
+import org.camunda.bpm.engine.impl.identity.AuthorizationCache;
 import org.camunda.bpm.engine.impl.identity.ReadOnlyIdentityProvider;
 import org.camunda.bpm.engine.impl.identity.WritableIdentityProvider;
 import org.camunda.bpm.engine.impl.identity.db.DbIdentityServiceProvider;
@@ -145,6 +153,7 @@ import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutorImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandInterceptor;
 import org.camunda.bpm.engine.impl.interceptor.DelegateInterceptor;
+import org.camunda.bpm.engine.impl.interceptor.MetricsInterceptor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.CallerRunsRejectedJobsHandler;
@@ -163,13 +172,18 @@ import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventSubprocessJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerSuspendJobDefinitionHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerSuspendProcessDefinitionHandler;
+import org.camunda.bpm.engine.impl.metrics.DbMetricsReporter;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.GenericManagerFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
 import org.camunda.bpm.engine.impl.persistence.entity.AttachmentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
 import org.camunda.bpm.engine.impl.persistence.entity.CommentManager;
+import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionManager;
@@ -179,15 +193,20 @@ import org.camunda.bpm.engine.impl.persistence.entity.HistoricDetailManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricIncidentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricStatisticsManager;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventOutboxManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricTaskInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityInfoManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IncidentManager;
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
+import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.StatisticsManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TableDataManager;
@@ -219,6 +238,8 @@ import org.camunda.bpm.engine.impl.variable.IntegerType;
 import org.camunda.bpm.engine.impl.variable.JPAEntityVariableType;
 import org.camunda.bpm.engine.impl.variable.LongType;
 import org.camunda.bpm.engine.impl.variable.NullType;
+import org.camunda.bpm.engine.impl.variable.CompactSerializableType;
+import org.camunda.bpm.engine.impl.variable.CompactSerializableTypeResolver;
 import org.camunda.bpm.engine.impl.variable.SerializableType;
 import org.camunda.bpm.engine.impl.variable.SerializableTypeResolver;
 import org.camunda.bpm.engine.impl.variable.SerializationVariableTypeResolver;
@@ -298,12 +319,30 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<Deployer> deployers;
   protected DeploymentCache deploymentCache;
 
+  /** creates the process definition, case definition and model instance caches of the {@link #deploymentCache} */
+  protected CacheFactory deploymentCacheFactory;
+  protected int deploymentCacheCapacity = DeploymentCache.DEFAULT_CACHE_CAPACITY;
+  protected int modelInstanceCacheCapacity = DeploymentCache.DEFAULT_MODEL_INSTANCE_CACHE_CAPACITY;
+
   // JOB EXECUTOR /////////////////////////////////////////////////////////////
 
   protected List<JobHandler> customJobHandlers;
   protected Map<String, JobHandler> jobHandlers;
   protected JobExecutor jobExecutor;
 
+  /** If true, the job executor acquires jobs with <code>select ... for update skip locked</code>
+   * on PostgreSQL, Oracle and MySQL (8.0 or later): rows claimed by concurrent acquisitions are skipped
+   * instead of failing with an optimistic locking exception. Other databases ignore this setting.
+   * Default setting is false as older MySQL versions do not support <code>skip locked</code>.
+   */
+  protected boolean jobExecutorAcquireWithSkipLocked = false;
+
+  /** If true, the job executor acquires the jobs with the highest priority first,
+   * jobs of the same priority are acquired in the order of their due date.
+   * Default setting is false, enabling it sorts the executable jobs on every acquisition.
+   */
+  protected boolean jobExecutorAcquireByPriority = false;
+
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
 
   protected SqlSessionFactory sqlSessionFactory;
@@ -314,6 +353,8 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected IdGenerator idGenerator;
   protected DataSource idGeneratorDataSource;
   protected String idGeneratorDataSourceJndiName;
+  /** if true, the default id generator prefetches id blocks in the background, see {@link PrefetchingDbIdGenerator} */
+  protected boolean idBlockPrefetchEnabled = false;
 
   // INCIDENT HANDLER /////////////////////////////////////////////////////////
 
@@ -335,6 +376,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected VariableTypes variableTypes;
   protected String defaultSerializationFormat;
 
+  /**
+   * Size in bytes above which values of the <code>compact-serializable</code> variable type
+   * are deflated; -1 disables compression.
+   */
+  protected int compactSerializationCompressionThreshold = 1024;
+
   protected ExpressionManager expressionManager;
   protected List<String> customScriptingEngineClasses;
   protected ScriptingEngines scriptingEngines;
@@ -415,8 +462,70 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected HistoryEventHandler historyEventHandler;
 
+  /** If true, history events are appended to the history event outbox in the
+   * transaction of the command and written to the history tables asynchronously
+   * by the {@link HistoryEventOutboxWriter}.
+   */
+  protected boolean historyEventOutboxEnabled = false;
+  protected int historyEventOutboxBatchSize = 100;
+  protected long historyEventOutboxWaitTimeInMillis = 1000;
+  protected boolean historyEventOutboxWriterActivate = true;
+  protected HistoryEventOutboxWriter historyEventOutboxWriter;
+
+  /** The number of times the events of an outbox entry are read before the entry is marked as
+   * failed and no longer drained. Other entries are drained regardless of failed entries.
+   */
+  protected int historyEventOutboxMaxAttempts = 3;
+
+  /** If true, the outbox entries are claimed with <code>select ... for update skip locked</code>
+   * on PostgreSQL, Oracle, MySQL (8.0 or later) and SQL Server, so that process engines sharing the
+   * database drain disjoint entries concurrently. Otherwise, or on other databases, the drains of
+   * all process engines are serialized by an exclusive lock.
+   */
+  protected boolean historyEventOutboxDrainWithSkipLocked = false;
+
   protected boolean isExecutionTreePrefetchEnabled = true;
 
+  /**
+   * If true, the variable instances, tasks, jobs and event subscriptions of all executions
+   * of a process instance are fetched together with its execution tree, using a single
+   * query per table.
+   */
+  protected boolean isProcessInstancePrefetchEnabled = false;
+
+  /**
+   * If true, reading a single variable only loads this variable instead of all
+   * variables of its scope. All variables are still loaded when they are requested
+   * as a whole.
+   */
+  protected boolean isVariableLoadingByNameEnabled = false;
+
+  /**
+   * If true, the byte arrays of historic variable instances and historic variable updates
+   * are stored once per distinct content and shared by reference counting. Commands which
+   * concurrently store the same content may fail with an optimistic locking exception.
+   */
+  protected boolean isByteArrayDeduplicationEnabled = false;
+
+  /**
+   * If true, the latencies of commands, SQL statements, jobs and activities, the counters
+   * of the entity manager and the meters of started activity instances, jobs and root
+   * process instances are collected in the {@link #metricsRegistry}.
+   */
+  protected boolean isMetricsEnabled = false;
+
+  protected MetricsRegistry metricsRegistry;
+
+  /**
+   * If true and metrics are enabled, the meters of the {@link #metricsRegistry} are
+   * written to the database periodically by the {@link DbMetricsReporter}.
+   */
+  protected boolean dbMetricsReporterActivate = false;
+  protected long dbMetricsReporterIntervalInSeconds = 15 * 60;
+  /** identifies the values reported by this process engine, defaults to <code>host$processEngineName</code> */
+  protected String dbMetricsReporterId;
+  protected DbMetricsReporter dbMetricsReporter;
+
   /** If true the process engine will attempt to acquire an exclusive lock before
    * creating a deployment.
    */
@@ -427,6 +536,17 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean isDbEntityCacheReuseEnabled = false;
 
+  /** If true, the insert, update and delete statements of a flush are executed as JDBC batches.
+   * Default setting is false, enabling it reduces the number of round trips to the database.
+   */
+  protected boolean jdbcBatchProcessing = false;
+
+  /** If true, updates of executions, tasks, jobs and variable instances only write the columns
+   * of the properties which have changed since the entity was loaded.
+   * Default setting is false, enabling it reduces the amount of data written on every update.
+   */
+  protected boolean dbPartialUpdateEnabled = false;
+
   protected Connectors connectors;
 
   protected List<SerializationVariableTypeResolver> serializationTypeResolvers = new ArrayList<SerializationVariableTypeResolver>();
@@ -441,6 +561,34 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected DbEntityCacheKeyMapping dbEntityCacheKeyMapping = DbEntityCacheKeyMapping.defaultEntityCacheKeyMapping();
 
+  /** If true, entities of the {@link #dbEntitySecondLevelCacheTypes} are kept in an engine-wide
+   * second level cache which is consulted before they are selected from the database.
+   * Default setting is false.
+   */
+  protected boolean dbEntitySecondLevelCacheEnabled = false;
+  protected DbEntitySecondLevelCache dbEntitySecondLevelCache;
+  protected Set<Class<?>> dbEntitySecondLevelCacheTypes;
+  protected int dbEntitySecondLevelCacheCapacity = DefaultDbEntitySecondLevelCache.DEFAULT_CAPACITY;
+  protected long dbEntitySecondLevelCacheTimeToLive = DefaultDbEntitySecondLevelCache.DEFAULT_TIME_TO_LIVE;
+  /** The time in milliseconds for which commands reuse a second level cache revision read by another command,
+   * which bounds how long changes committed by other process engines may be served from the cache. */
+  protected long dbEntitySecondLevelCacheRevisionCheckInterval = DefaultDbEntitySecondLevelCache.DEFAULT_REVISION_CHECK_INTERVAL;
+
+  /** If true, authorization checks for a single resource are evaluated against the
+   * permission sets kept in the {@link #authorizationCache} instead of querying the
+   * database. Default setting is false.
+   */
+  protected boolean isAuthorizationCacheEnabled = false;
+  protected AuthorizationCache authorizationCache;
+  protected int authorizationCacheCapacity = AuthorizationCache.DEFAULT_CAPACITY;
+
+  /** If true, queries with authorization checks evaluate the authorizations of the
+   * user once before the query and restrict it by the ids of the resources the user is
+   * (not) authorized for, instead of evaluating the authorizations for each row.
+   * Default setting is false.
+   */
+  protected boolean isQueryAuthorizationPrefetchEnabled = false;
+
   // buildProcessEngine ///////////////////////////////////////////////////////
 
   public ProcessEngine buildProcessEngine() {
@@ -467,16 +615,22 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initBusinessCalendarManager();
     initCommandContextFactory();
     initTransactionContextFactory();
+    initMetricsRegistry();
     initCommandExecutors();
+    initHistoryEventOutboxWriter();
+    initDbMetricsReporter();
     initServices();
     initIdGenerator();
     initDeployers();
     initJobExecutor();
     initDataSource();
+    initJdbcBatchProcessing();
     initTransactionFactory();
     initSqlSessionFactory();
     initIdentityProviderSessionFactory();
     initSessionFactories();
+    initDbEntitySecondLevelCache();
+    initAuthorizationCache();
     initSpin();
     initSerializationTypeResolvers();
     initVariableTypes();
@@ -543,6 +697,30 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  // metrics //////////////////////////////////////////////////////////////////
+
+  protected void initMetricsRegistry() {
+    if (isMetricsEnabled && metricsRegistry == null) {
+      metricsRegistry = new MetricsRegistry();
+    }
+  }
+
+  protected void initDbMetricsReporter() {
+    if (metricsRegistry == null) {
+      // nothing is counted which could be reported
+      return;
+    }
+    if (dbMetricsReporter == null) {
+      dbMetricsReporter = new DbMetricsReporter(metricsRegistry);
+    }
+    if (dbMetricsReporterId == null) {
+      dbMetricsReporterId = DbMetricsReporter.createReporterId(processEngineName);
+    }
+    dbMetricsReporter.setCommandExecutor(commandExecutorTxRequired);
+    dbMetricsReporter.setReporterId(dbMetricsReporterId);
+    dbMetricsReporter.setReportingIntervalInSeconds(dbMetricsReporterIntervalInSeconds);
+  }
+
   // command executors ////////////////////////////////////////////////////////
 
   protected abstract Collection< ? extends CommandInterceptor> getDefaultCommandInterceptorsTxRequired();
@@ -573,6 +751,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         commandInterceptorsTxRequired.addAll(customPostCommandInterceptorsTxRequired);
       }
       commandInterceptorsTxRequired.add(actualCommandExecutor);
+      if (metricsRegistry != null) {
+        commandInterceptorsTxRequired.add(0, new MetricsInterceptor(metricsRegistry));
+      }
     }
   }
 
@@ -588,6 +769,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         commandInterceptorsTxRequiresNew.addAll(customPostCommandInterceptorsTxRequiresNew);
       }
       commandInterceptorsTxRequiresNew.add(actualCommandExecutor);
+      if (metricsRegistry != null) {
+        commandInterceptorsTxRequiresNew.add(0, new MetricsInterceptor(metricsRegistry));
+      }
     }
   }
 
@@ -752,6 +936,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  /**
+   * Disables JDBC batch processing if the JDBC driver cannot report the number of rows
+   * affected by each batched statement, which is required to detect concurrent modifications.
+   */
+  protected void initJdbcBatchProcessing() {
+    if (!jdbcBatchProcessing) {
+      return;
+    }
+    Connection connection = null;
+    try {
+      connection = dataSource.getConnection();
+      DatabaseMetaData databaseMetaData = connection.getMetaData();
+      if (!databaseMetaData.supportsBatchUpdates()) {
+        log.warning("JDBC batch processing disabled: the JDBC driver does not support batch updates.");
+        jdbcBatchProcessing = false;
+
+      } else if ("oracle".equals(databaseType) && databaseMetaData.getDriverMajorVersion() < 12) {
+        // Oracle drivers before 12c return SUCCESS_NO_INFO for every batched statement
+        log.warning("JDBC batch processing disabled: the Oracle JDBC driver " + databaseMetaData.getDriverVersion()
+            + " does not report the number of rows affected by batched statements. Use a driver of version 12 or later.");
+        jdbcBatchProcessing = false;
+      }
+
+    } catch (SQLException e) {
+      throw new ProcessEngineException("Could not check the JDBC driver for batch processing", e);
+    } finally {
+      try {
+        if (connection!=null) {
+          connection.close();
+        }
+      } catch (SQLException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
   // myBatis SqlSessionFactory ////////////////////////////////////////////////
 
   protected void initTransactionFactory() {
@@ -826,6 +1046,27 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  protected void initDbEntitySecondLevelCache() {
+    if (dbEntitySecondLevelCacheEnabled && dbEntitySecondLevelCache == null) {
+      if (dbEntitySecondLevelCacheTypes == null) {
+        dbEntitySecondLevelCacheTypes = new HashSet<Class<?>>();
+        dbEntitySecondLevelCacheTypes.add(JobDefinitionEntity.class);
+        dbEntitySecondLevelCacheTypes.add(ProcessDefinitionEntity.class);
+        dbEntitySecondLevelCacheTypes.add(DeploymentEntity.class);
+        dbEntitySecondLevelCacheTypes.add(ResourceEntity.class);
+      }
+      dbEntitySecondLevelCache = new DefaultDbEntitySecondLevelCache(dbEntitySecondLevelCacheTypes,
+          dbEntitySecondLevelCacheCapacity, dbEntitySecondLevelCacheTimeToLive, dbEntitySecondLevelCacheRevisionCheckInterval);
+    }
+  }
+
+  protected void initAuthorizationCache() {
+    if (authorizationCache == null) {
+      // created even if disabled, so that the cache can be enabled at runtime
+      authorizationCache = new AuthorizationCache(authorizationCacheCapacity);
+    }
+  }
+
   protected void initSessionFactories() {
     if (sessionFactories==null) {
       sessionFactories = new HashMap<Class<?>, SessionFactory>();
@@ -846,6 +1087,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(HistoricTaskInstanceManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricVariableInstanceManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricIncidentManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryEventOutboxManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityInfoManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityLinkManager.class));
       addSessionFactory(new GenericManagerFactory(JobManager.class));
@@ -862,6 +1104,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(IncidentManager.class));
       addSessionFactory(new GenericManagerFactory(AuthorizationManager.class));
       addSessionFactory(new GenericManagerFactory(FilterManager.class));
+      addSessionFactory(new GenericManagerFactory(MeterLogManager.class));
 
       addSessionFactory(new GenericManagerFactory(CaseDefinitionManager.class));
       addSessionFactory(new GenericManagerFactory(CaseExecutionManager.class));
@@ -895,6 +1138,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     dbSqlSessionFactory.setCmmnEnabled(cmmnEnabled);
     dbSqlSessionFactory.setDatabaseTablePrefix(databaseTablePrefix);
     dbSqlSessionFactory.setDatabaseSchema(databaseSchema);
+    dbSqlSessionFactory.setJdbcBatchProcessing(jdbcBatchProcessing);
+    dbSqlSessionFactory.setDbPartialUpdateEnabled(dbPartialUpdateEnabled);
+    dbSqlSessionFactory.setMetricsRegistry(metricsRegistry);
     addSessionFactory(dbSqlSessionFactory);
     addSessionFactory(new DbSqlPersistenceProviderFactory());
   }
@@ -926,7 +1172,11 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         deployers.addAll(customPostDeployers);
       }
 
-      deploymentCache = new DeploymentCache();
+      if (deploymentCacheFactory == null) {
+        deploymentCacheFactory = new DefaultCacheFactory();
+      }
+
+      deploymentCache = new DeploymentCache(deploymentCacheFactory, deploymentCacheCapacity, modelInstanceCacheCapacity);
       deploymentCache.setDeployers(deployers);
     }
   }
@@ -1114,7 +1364,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         idGeneratorCommandExecutor = commandExecutorTxRequiresNew;
       }
 
-      DbIdGenerator dbIdGenerator = new DbIdGenerator();
+      DbIdGenerator dbIdGenerator;
+      if (idBlockPrefetchEnabled) {
+        dbIdGenerator = new PrefetchingDbIdGenerator();
+      } else {
+        dbIdGenerator = new DbIdGenerator();
+      }
       dbIdGenerator.setIdBlockSize(idBlockSize);
       dbIdGenerator.setCommandExecutor(idGeneratorCommandExecutor);
       idGenerator = dbIdGenerator;
@@ -1138,6 +1393,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initSerializationTypeResolvers() {
     serializationTypeResolvers.add(new SerializableTypeResolver());
+    serializationTypeResolvers.add(new CompactSerializableTypeResolver(compactSerializationCompressionThreshold));
   }
 
   protected void initVariableTypes() {
@@ -1171,12 +1427,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
         if (serializationType != null) {
           variableTypes.addType(serializationType);
+          if (serializationType instanceof SerializableType
+              && variableTypes.getVariableType(ProcessEngineVariableType.SERIALIZABLE.getName()) == null) {
+            // keep variables written in the standard java serialization format readable
+            variableTypes.addType(new SerializableType());
+          }
         } else {
           throw new ProcessEngineException("Cannot find a VariableType that serializes objects"
               + " for the default format '" + defaultSerializationFormat + "'");
         }
       } else {
         variableTypes.addType(new SerializableType());
+        // only used for variables explicitly set with this type, as objects are stored by the type above
+        variableTypes.addType(new CompactSerializableType(compactSerializationCompressionThreshold));
         if(ProcessEngineSpinSupport.isSpinAvailable()) {
           VariableType spinVariableType = ProcessEngineSpinSupport
             .getVariableTypeResolver()
@@ -1394,11 +1657,29 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   }
 
   protected void initHistoryEventHandler() {
+    if(historyEventOutboxEnabled && historyEventOutboxWriter == null) {
+      // the configured handler writes the events drained from the outbox
+      HistoryEventHandler outboxWriterHandler = historyEventHandler;
+      if(outboxWriterHandler == null) {
+        outboxWriterHandler = new OutboxDbHistoryEventHandler();
+      }
+      historyEventOutboxWriter = new HistoryEventOutboxWriter(outboxWriterHandler);
+      historyEventHandler = new OutboxHistoryEventHandler();
+    }
     if(historyEventHandler == null) {
       historyEventHandler = new DbHistoryEventHandler();
     }
   }
 
+  protected void initHistoryEventOutboxWriter() {
+    if(historyEventOutboxWriter != null) {
+      historyEventOutboxWriter.setCommandExecutor(commandExecutorTxRequired);
+      historyEventOutboxWriter.setMaxEntriesPerBatch(historyEventOutboxBatchSize);
+      historyEventOutboxWriter.setWaitTimeInMillis(historyEventOutboxWaitTimeInMillis);
+      historyEventOutboxWriter.setMaxAttempts(historyEventOutboxMaxAttempts);
+    }
+  }
+
   // password digest //////////////////////////////////////////////////////////
 
   protected void initPasswordDigest() {
@@ -1632,6 +1913,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isIdBlockPrefetchEnabled() {
+    return idBlockPrefetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setIdBlockPrefetchEnabled(boolean idBlockPrefetchEnabled) {
+    this.idBlockPrefetchEnabled = idBlockPrefetchEnabled;
+    return this;
+  }
+
   public String getWsSyncFactoryClassName() {
     return wsSyncFactoryClassName;
   }
@@ -2087,6 +2377,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.deploymentCache = deploymentCache;
   }
 
+  public CacheFactory getDeploymentCacheFactory() {
+    return deploymentCacheFactory;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheFactory(CacheFactory deploymentCacheFactory) {
+    this.deploymentCacheFactory = deploymentCacheFactory;
+    return this;
+  }
+
+  public int getDeploymentCacheCapacity() {
+    return deploymentCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setDeploymentCacheCapacity(int deploymentCacheCapacity) {
+    this.deploymentCacheCapacity = deploymentCacheCapacity;
+    return this;
+  }
+
+  public int getModelInstanceCacheCapacity() {
+    return modelInstanceCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setModelInstanceCacheCapacity(int modelInstanceCacheCapacity) {
+    this.modelInstanceCacheCapacity = modelInstanceCacheCapacity;
+    return this;
+  }
+
   public ProcessEngineConfigurationImpl setDelegateInterceptor(DelegateInterceptor delegateInterceptor) {
     this.delegateInterceptor = delegateInterceptor;
     return this;
@@ -2222,6 +2539,69 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return historyEventHandler;
   }
 
+  public boolean isHistoryEventOutboxEnabled() {
+    return historyEventOutboxEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxEnabled(boolean historyEventOutboxEnabled) {
+    this.historyEventOutboxEnabled = historyEventOutboxEnabled;
+    return this;
+  }
+
+  public int getHistoryEventOutboxBatchSize() {
+    return historyEventOutboxBatchSize;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxBatchSize(int historyEventOutboxBatchSize) {
+    this.historyEventOutboxBatchSize = historyEventOutboxBatchSize;
+    return this;
+  }
+
+  public long getHistoryEventOutboxWaitTimeInMillis() {
+    return historyEventOutboxWaitTimeInMillis;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxWaitTimeInMillis(long historyEventOutboxWaitTimeInMillis) {
+    this.historyEventOutboxWaitTimeInMillis = historyEventOutboxWaitTimeInMillis;
+    return this;
+  }
+
+  public boolean isHistoryEventOutboxWriterActivate() {
+    return historyEventOutboxWriterActivate;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxWriterActivate(boolean historyEventOutboxWriterActivate) {
+    this.historyEventOutboxWriterActivate = historyEventOutboxWriterActivate;
+    return this;
+  }
+
+  public boolean isHistoryEventOutboxDrainWithSkipLocked() {
+    return historyEventOutboxDrainWithSkipLocked;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxDrainWithSkipLocked(boolean historyEventOutboxDrainWithSkipLocked) {
+    this.historyEventOutboxDrainWithSkipLocked = historyEventOutboxDrainWithSkipLocked;
+    return this;
+  }
+
+  public int getHistoryEventOutboxMaxAttempts() {
+    return historyEventOutboxMaxAttempts;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxMaxAttempts(int historyEventOutboxMaxAttempts) {
+    this.historyEventOutboxMaxAttempts = historyEventOutboxMaxAttempts;
+    return this;
+  }
+
+  public HistoryEventOutboxWriter getHistoryEventOutboxWriter() {
+    return historyEventOutboxWriter;
+  }
+
+  public ProcessEngineConfigurationImpl setHistoryEventOutboxWriter(HistoryEventOutboxWriter historyEventOutboxWriter) {
+    this.historyEventOutboxWriter = historyEventOutboxWriter;
+    return this;
+  }
+
   public IncidentHandler getIncidentHandler(String incidentType) {
     return incidentHandlers.get(incidentType);
   }
@@ -2314,6 +2694,90 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.isExecutionTreePrefetchEnabled = isExecutionTreePrefetchingEnabled;
   }
 
+  public boolean isProcessInstancePrefetchEnabled() {
+    return isProcessInstancePrefetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessInstancePrefetchEnabled(boolean isProcessInstancePrefetchEnabled) {
+    this.isProcessInstancePrefetchEnabled = isProcessInstancePrefetchEnabled;
+    return this;
+  }
+
+  public boolean isVariableLoadingByNameEnabled() {
+    return isVariableLoadingByNameEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setVariableLoadingByNameEnabled(boolean isVariableLoadingByNameEnabled) {
+    this.isVariableLoadingByNameEnabled = isVariableLoadingByNameEnabled;
+    return this;
+  }
+
+  public boolean isByteArrayDeduplicationEnabled() {
+    return isByteArrayDeduplicationEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setByteArrayDeduplicationEnabled(boolean isByteArrayDeduplicationEnabled) {
+    this.isByteArrayDeduplicationEnabled = isByteArrayDeduplicationEnabled;
+    return this;
+  }
+
+  public boolean isMetricsEnabled() {
+    return isMetricsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsEnabled(boolean isMetricsEnabled) {
+    this.isMetricsEnabled = isMetricsEnabled;
+    return this;
+  }
+
+  /**
+   * @return the registry collecting the metrics of the engine, null if metrics are disabled
+   */
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+  public ProcessEngineConfigurationImpl setMetricsRegistry(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+    return this;
+  }
+
+  public boolean isDbMetricsReporterActivate() {
+    return dbMetricsReporterActivate;
+  }
+
+  public ProcessEngineConfigurationImpl setDbMetricsReporterActivate(boolean dbMetricsReporterActivate) {
+    this.dbMetricsReporterActivate = dbMetricsReporterActivate;
+    return this;
+  }
+
+  public long getDbMetricsReporterIntervalInSeconds() {
+    return dbMetricsReporterIntervalInSeconds;
+  }
+
+  public ProcessEngineConfigurationImpl setDbMetricsReporterIntervalInSeconds(long dbMetricsReporterIntervalInSeconds) {
+    this.dbMetricsReporterIntervalInSeconds = dbMetricsReporterIntervalInSeconds;
+    return this;
+  }
+
+  public String getDbMetricsReporterId() {
+    return dbMetricsReporterId;
+  }
+
+  public ProcessEngineConfigurationImpl setDbMetricsReporterId(String dbMetricsReporterId) {
+    this.dbMetricsReporterId = dbMetricsReporterId;
+    return this;
+  }
+
+  public DbMetricsReporter getDbMetricsReporter() {
+    return dbMetricsReporter;
+  }
+
+  public ProcessEngineConfigurationImpl setDbMetricsReporter(DbMetricsReporter dbMetricsReporter) {
+    this.dbMetricsReporter = dbMetricsReporter;
+    return this;
+  }
+
   public ProcessEngineImpl getProcessEngine() {
     return processEngine;
   }
@@ -2422,6 +2886,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public int getCompactSerializationCompressionThreshold() {
+    return compactSerializationCompressionThreshold;
+  }
+
+  public ProcessEngineConfigurationImpl setCompactSerializationCompressionThreshold(int compactSerializationCompressionThreshold) {
+    this.compactSerializationCompressionThreshold = compactSerializationCompressionThreshold;
+    return this;
+  }
+
   public List<SerializationVariableTypeResolver> getSerializationTypeResolvers() {
     return serializationTypeResolvers;
   }
@@ -2440,6 +2913,132 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isJdbcBatchProcessing() {
+    return jdbcBatchProcessing;
+  }
+
+  public ProcessEngineConfigurationImpl setJdbcBatchProcessing(boolean jdbcBatchProcessing) {
+    this.jdbcBatchProcessing = jdbcBatchProcessing;
+    return this;
+  }
+
+  public boolean isDbPartialUpdateEnabled() {
+    return dbPartialUpdateEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbPartialUpdateEnabled(boolean dbPartialUpdateEnabled) {
+    this.dbPartialUpdateEnabled = dbPartialUpdateEnabled;
+    return this;
+  }
+
+  public boolean isDbEntitySecondLevelCacheEnabled() {
+    return dbEntitySecondLevelCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCacheEnabled(boolean dbEntitySecondLevelCacheEnabled) {
+    this.dbEntitySecondLevelCacheEnabled = dbEntitySecondLevelCacheEnabled;
+    return this;
+  }
+
+  public DbEntitySecondLevelCache getDbEntitySecondLevelCache() {
+    return dbEntitySecondLevelCache;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCache(DbEntitySecondLevelCache dbEntitySecondLevelCache) {
+    this.dbEntitySecondLevelCache = dbEntitySecondLevelCache;
+    return this;
+  }
+
+  public Set<Class<?>> getDbEntitySecondLevelCacheTypes() {
+    return dbEntitySecondLevelCacheTypes;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCacheTypes(Set<Class<?>> dbEntitySecondLevelCacheTypes) {
+    this.dbEntitySecondLevelCacheTypes = dbEntitySecondLevelCacheTypes;
+    return this;
+  }
+
+  public int getDbEntitySecondLevelCacheCapacity() {
+    return dbEntitySecondLevelCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCacheCapacity(int dbEntitySecondLevelCacheCapacity) {
+    this.dbEntitySecondLevelCacheCapacity = dbEntitySecondLevelCacheCapacity;
+    return this;
+  }
+
+  public long getDbEntitySecondLevelCacheTimeToLive() {
+    return dbEntitySecondLevelCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCacheTimeToLive(long dbEntitySecondLevelCacheTimeToLive) {
+    this.dbEntitySecondLevelCacheTimeToLive = dbEntitySecondLevelCacheTimeToLive;
+    return this;
+  }
+
+  public long getDbEntitySecondLevelCacheRevisionCheckInterval() {
+    return dbEntitySecondLevelCacheRevisionCheckInterval;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntitySecondLevelCacheRevisionCheckInterval(long dbEntitySecondLevelCacheRevisionCheckInterval) {
+    this.dbEntitySecondLevelCacheRevisionCheckInterval = dbEntitySecondLevelCacheRevisionCheckInterval;
+    return this;
+  }
+
+  public boolean isAuthorizationCacheEnabled() {
+    return isAuthorizationCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationCacheEnabled(boolean isAuthorizationCacheEnabled) {
+    this.isAuthorizationCacheEnabled = isAuthorizationCacheEnabled;
+    return this;
+  }
+
+  public boolean isQueryAuthorizationPrefetchEnabled() {
+    return isQueryAuthorizationPrefetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setQueryAuthorizationPrefetchEnabled(boolean isQueryAuthorizationPrefetchEnabled) {
+    this.isQueryAuthorizationPrefetchEnabled = isQueryAuthorizationPrefetchEnabled;
+    return this;
+  }
+
+  public AuthorizationCache getAuthorizationCache() {
+    return authorizationCache;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationCache(AuthorizationCache authorizationCache) {
+    this.authorizationCache = authorizationCache;
+    return this;
+  }
+
+  public int getAuthorizationCacheCapacity() {
+    return authorizationCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationCacheCapacity(int authorizationCacheCapacity) {
+    this.authorizationCacheCapacity = authorizationCacheCapacity;
+    return this;
+  }
+
+  public boolean isJobExecutorAcquireWithSkipLocked() {
+    return jobExecutorAcquireWithSkipLocked;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorAcquireWithSkipLocked(boolean jobExecutorAcquireWithSkipLocked) {
+    this.jobExecutorAcquireWithSkipLocked = jobExecutorAcquireWithSkipLocked;
+    return this;
+  }
+
+  public boolean isJobExecutorAcquireByPriority() {
+    return jobExecutorAcquireByPriority;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorAcquireByPriority(boolean jobExecutorAcquireByPriority) {
+    this.jobExecutorAcquireByPriority = jobExecutorAcquireByPriority;
+    return this;
+  }
+
   public DbEntityCacheKeyMapping getDbEntityCacheKeyMapping() {
     return dbEntityCacheKeyMapping;
   }
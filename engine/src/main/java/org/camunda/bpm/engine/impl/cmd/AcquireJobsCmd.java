@@ -18,6 +18,8 @@ import java.util.GregorianCalendar;
 import java.util.List;
 
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.OptimisticLockingListener;
@@ -27,8 +29,10 @@ import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.EngineMetrics;
 
 
 /**
@@ -40,16 +44,22 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
   private final JobExecutor jobExecutor;
 
   protected AcquiredJobs acquiredJobs;
+  protected int numJobsToAcquire;
 
   public AcquireJobsCmd(JobExecutor jobExecutor) {
+    this(jobExecutor, jobExecutor.getMaxJobsPerAcquisition());
+  }
+
+  public AcquireJobsCmd(JobExecutor jobExecutor, int numJobsToAcquire) {
     this.jobExecutor = jobExecutor;
+    this.numJobsToAcquire = numJobsToAcquire;
   }
 
   public AcquiredJobs execute(CommandContext commandContext) {
 
     String lockOwner = jobExecutor.getLockOwner();
     int lockTimeInMillis = jobExecutor.getLockTimeInMillis();
-    int maxNonExclusiveJobsPerAcquisition = jobExecutor.getMaxJobsPerAcquisition();
+    int maxNonExclusiveJobsPerAcquisition = numJobsToAcquire;
 
     acquiredJobs = new AcquiredJobs();
     List<JobEntity> jobs = commandContext
@@ -58,6 +68,7 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
 
     for (JobEntity job: jobs) {
       List<String> jobIds = new ArrayList<String>();
+      long priority = JobEntity.DEFAULT_PRIORITY;
 
       if (job != null && !acquiredJobs.contains(job.getId())) {
         if (job.isExclusive() && job.getProcessInstanceId() != null) {
@@ -65,20 +76,23 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
           // (includes the current job)
           List<JobEntity> exclusiveJobs = commandContext.getJobManager()
             .findExclusiveJobsToExecute(job.getProcessInstanceId());
+          priority = job.getPriority();
           for (JobEntity exclusiveJob : exclusiveJobs) {
             if(exclusiveJob != null) {
               lockJob(exclusiveJob, lockOwner, lockTimeInMillis);
               jobIds.add(exclusiveJob.getId());
+              priority = Math.max(priority, exclusiveJob.getPriority());
             }
           }
         } else {
           lockJob(job, lockOwner, lockTimeInMillis);
           jobIds.add(job.getId());
+          priority = job.getPriority();
         }
 
       }
 
-      acquiredJobs.addJobIdBatch(jobIds);
+      acquiredJobs.addJobIdBatch(jobIds, priority);
     }
 
     // register an OptimisticLockingListener which is notified about jobs which cannot be acquired.
@@ -87,6 +101,17 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
       .getDbEntityManager()
       .registerOptimisticLockingListener(this);
 
+    final MetricsRegistry metricsRegistry = Context.getProcessEngineConfiguration().getMetricsRegistry();
+    if (metricsRegistry != null) {
+      final AcquiredJobs jobs = acquiredJobs;
+      // count the jobs once the jobs which failed to lock are removed
+      commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+        public void execute(CommandContext commandContext) {
+          metricsRegistry.markTimes(EngineMetrics.JOB_ACQUIRED, jobs.size());
+        }
+      });
+    }
+
     return acquiredJobs;
   }
 
@@ -0,0 +1,91 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventOutboxEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventOutboxManager;
+
+/**
+ * <p>Writes the history events of the oldest entries of the history event outbox
+ * using the given {@link HistoryEventHandler} and deletes the entries in the same
+ * transaction.</p>
+ *
+ * <p>The entries are claimed before their events are written, so that process engines
+ * sharing the database never write the events of the same entry twice, see
+ * {@link HistoryEventOutboxManager#claimOldestEntries(int)}.</p>
+ *
+ * <p>Entries whose events cannot be read are kept and read again by the next drains.
+ * After <code>maxAttempts</code> attempts they are marked as failed and no longer drained.</p>
+ */
+public class DrainHistoryEventOutboxCmd implements Command<List<HistoryEventOutboxEntity>> {
+
+  private static Logger log = Logger.getLogger(DrainHistoryEventOutboxCmd.class.getName());
+
+  protected final int maxEntries;
+  protected final int maxAttempts;
+  protected final HistoryEventHandler historyEventHandler;
+
+  public DrainHistoryEventOutboxCmd(int maxEntries, HistoryEventHandler historyEventHandler) {
+    this(maxEntries, 1, historyEventHandler);
+  }
+
+  public DrainHistoryEventOutboxCmd(int maxEntries, int maxAttempts, HistoryEventHandler historyEventHandler) {
+    this.maxEntries = maxEntries;
+    this.maxAttempts = maxAttempts;
+    this.historyEventHandler = historyEventHandler;
+  }
+
+  public List<HistoryEventOutboxEntity> execute(CommandContext commandContext) {
+    ensureNotNull("historyEventHandler", historyEventHandler);
+
+    HistoryEventOutboxManager outboxManager = commandContext.getHistoryEventOutboxManager();
+
+    // an update of a history entity which is not inserted yet fails the drain instead of being lost,
+    // the entries are drained again once the transaction inserting the entity is committed
+    commandContext.getDbSqlSession().setFailOnMissingRows(true);
+
+    List<HistoryEventOutboxEntity> drainedEntries = new ArrayList<HistoryEventOutboxEntity>();
+    for (HistoryEventOutboxEntity entry : outboxManager.claimOldestEntries(maxEntries)) {
+      List<HistoryEvent> events;
+      try {
+        events = entry.getEvents();
+
+      } catch (ProcessEngineException e) {
+        // the other entries are drained regardless
+        log.log(Level.WARNING, "Could not read the history events of outbox entry '" + entry.getId() + "': " + e.getMessage(), e);
+        entry.failedAttempt(e.getMessage(), maxAttempts);
+        continue;
+
+      }
+
+      historyEventHandler.handleEvents(events);
+      outboxManager.deleteEntry(entry);
+      drainedEntries.add(entry);
+    }
+
+    return drainedEntries;
+  }
+
+}
@@ -17,6 +17,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.TransactionContext;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.Command;
@@ -24,7 +26,9 @@ import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobListener;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.management.EngineMetrics;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
@@ -53,6 +57,7 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
     JobEntity job = commandContext.getDbEntityManager().selectById(JobEntity.class, jobId);
 
     final CommandExecutor commandExecutor = Context.getProcessEngineConfiguration().getCommandExecutorTxRequiresNew();
+    final MetricsRegistry metricsRegistry = Context.getProcessEngineConfiguration().getMetricsRegistry();
     final JobExecutorContext jobExecutorContext = Context.getJobExecutorContext();
 
     if (job == null) {
@@ -85,8 +90,10 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
 
     if (jobExecutorContext != null) { // if null, then we are not called by the job executor
       jobExecutorContext.setCurrentJob(job);
+      registerJobMeterListeners(commandContext);
     }
 
+    long startTime = metricsRegistry != null ? System.nanoTime() : 0;
     try {
       job.execute(commandContext);
       return null;
@@ -101,6 +108,9 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
       throw exception;
 
     } finally {
+      if (metricsRegistry != null) {
+        metricsRegistry.recordJob(job.getJobHandlerType(), System.nanoTime() - startTime);
+      }
       if (jobExecutorContext != null) {
         jobExecutorContext.setCurrentJob(null);
       }
@@ -108,6 +118,29 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
 
   }
 
+  /**
+   * Counts the job as successful once the transaction is committed and as failed
+   * if the transaction is rolled back.
+   */
+  protected void registerJobMeterListeners(CommandContext commandContext) {
+    final MetricsRegistry metricsRegistry = Context.getProcessEngineConfiguration().getMetricsRegistry();
+    if (metricsRegistry == null) {
+      return;
+    }
+
+    TransactionContext transactionContext = commandContext.getTransactionContext();
+    transactionContext.addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        metricsRegistry.markOccurrence(EngineMetrics.JOB_SUCCESSFUL);
+      }
+    });
+    transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        metricsRegistry.markOccurrence(EngineMetrics.JOB_FAILED);
+      }
+    });
+  }
+
   protected FailedJobListener createFailedJobListener(CommandExecutor commandExecutor) {
     return new FailedJobListener(commandExecutor, jobId);
   }
@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Returns the ids of the subscriptions to a signal in the order of their creation,
+ * which bound a signal delivered in chunks to the subscriptions existing when the
+ * delivery starts, see {@link SignalEventReceivedChunkCmd}.
+ */
+public class FindSignalEventSubscriptionIdsCmd implements Command<List<String>> {
+
+  protected final String eventName;
+
+  public FindSignalEventSubscriptionIdsCmd(String eventName) {
+    this.eventName = eventName;
+  }
+
+  public List<String> execute(CommandContext commandContext) {
+    ensureNotNull("eventName", eventName);
+
+    return commandContext.getEventSubscriptionManager()
+      .findSignalEventSubscriptionIdsByEventName(eventName);
+  }
+
+}
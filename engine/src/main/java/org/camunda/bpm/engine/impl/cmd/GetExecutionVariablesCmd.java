@@ -14,7 +14,6 @@ package org.camunda.bpm.engine.impl.cmd;
 
 import java.io.Serializable;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -48,24 +47,20 @@ public class GetExecutionVariablesCmd implements Command<Map<String, Object>>, S
 
     ensureNotNull("execution " + executionId + " doesn't exist", "execution", execution);
 
-    Map<String, Object> executionVariables;
-    if (isLocal) {
-      executionVariables = execution.getVariablesLocal();
-    } else {
-      executionVariables = execution.getVariables();
-    }
-
     if (variableNames != null && variableNames.size() > 0) {
-      // if variableNames is not empty, return only variable names mentioned in it
-      Map<String, Object> tempVariables = new HashMap<String, Object>();
-      for (String variableName : variableNames) {
-        if (executionVariables.containsKey(variableName)) {
-          tempVariables.put(variableName, executionVariables.get(variableName));
-        }
+      // if variableNames is not empty, return only variable names mentioned in it:
+      // only these variables are loaded and deserialized
+      if (isLocal) {
+        return execution.getVariablesLocal(variableNames);
+      } else {
+        return execution.getVariables(variableNames);
       }
-      executionVariables = tempVariables;
     }
 
-    return executionVariables;
+    if (isLocal) {
+      return execution.getVariablesLocal();
+    } else {
+      return execution.getVariables();
+    }
   }
 }
@@ -0,0 +1,30 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * <p>Returns the number of entries of the history event outbox ("entryCount") and the
+ * create time of the oldest entry ("oldestCreateTime").</p>
+ */
+public class GetHistoryEventOutboxStatisticsCmd implements Command<Map<String, Object>> {
+
+  public Map<String, Object> execute(CommandContext commandContext) {
+    return commandContext.getHistoryEventOutboxManager().getStatistics();
+  }
+
+}
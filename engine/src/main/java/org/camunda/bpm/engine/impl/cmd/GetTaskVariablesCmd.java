@@ -54,20 +54,21 @@ public class GetTaskVariablesCmd implements Command<Map<String, Object>>, Serial
     ensureNotNull("task " + taskId + " doesn't exist", "task", task);
 
     Map<String, Object> taskVariables;
-    if (isLocal) {
+    if (variableNames != null) {
+      // only the requested variables are loaded and deserialized
+      taskVariables = task.getVariables(variableNames);
+    } else if (isLocal) {
       taskVariables = task.getVariablesLocal();
+      variableNames = taskVariables.keySet();
     } else {
       taskVariables = task.getVariables();
-    }
-
-    if (variableNames == null) {
       variableNames = taskVariables.keySet();
     }
 
     // this copy is made to avoid lazy initialization outside a command context
     Map<String, Object> variables = new HashMap<String, Object>();
     for (String variableName : variableNames) {
-      variables.put(variableName, task.getVariable(variableName));
+      variables.put(variableName, taskVariables.get(variableName));
     }
 
     return variables;
@@ -0,0 +1,47 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
+
+/**
+ * Inserts the values of the meters for a reporting interval.
+ */
+public class ReportDbMetricsCmd implements Command<Void> {
+
+  protected String reporterId;
+  protected Date timestamp;
+  protected Map<String, Long> values;
+
+  public ReportDbMetricsCmd(String reporterId, Date timestamp, Map<String, Long> values) {
+    this.reporterId = reporterId;
+    this.timestamp = timestamp;
+    this.values = values;
+  }
+
+  public Void execute(CommandContext commandContext) {
+    MeterLogManager meterLogManager = commandContext.getMeterLogManager();
+    for (Entry<String, Long> value : values.entrySet()) {
+      meterLogManager.insert(new MeterLogEntity(value.getKey(), reporterId, value.getValue(), timestamp));
+    }
+    return null;
+  }
+
+}
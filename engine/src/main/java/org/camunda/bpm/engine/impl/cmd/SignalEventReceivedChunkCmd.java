@@ -0,0 +1,60 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.SignalEventSubscriptionEntity;
+
+/**
+ * Delivers a signal to a chunk of subscriptions given by their ids. Returns the ids of
+ * the subscriptions which received the signal; subscriptions which no longer exist or
+ * belong to a suspended execution are left out.
+ */
+public class SignalEventReceivedChunkCmd implements Command<List<String>> {
+
+  protected final String eventName;
+  protected final List<String> subscriptionIds;
+  protected final Map<String, Object> variables;
+
+  public SignalEventReceivedChunkCmd(String eventName, List<String> subscriptionIds, Map<String, Object> variables) {
+    this.eventName = eventName;
+    this.subscriptionIds = subscriptionIds;
+    this.variables = variables;
+  }
+
+  public List<String> execute(CommandContext commandContext) {
+
+    List<SignalEventSubscriptionEntity> signalEvents = commandContext.getEventSubscriptionManager()
+      .findSignalEventSubscriptionsByEventNameAndIds(eventName, subscriptionIds);
+
+    HashMap<String, Object> payload = null;
+    if(variables != null) {
+      payload = new HashMap<String, Object>(variables);
+    }
+
+    List<String> receivingSubscriptionIds = new ArrayList<String>();
+    for (SignalEventSubscriptionEntity signalEventSubscriptionEntity : signalEvents) {
+      receivingSubscriptionIds.add(signalEventSubscriptionEntity.getId());
+      signalEventSubscriptionEntity.eventReceived(payload, false);
+    }
+
+    return receivingSubscriptionIds;
+  }
+
+}
@@ -0,0 +1,57 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * <p>Releases the locks of acquired jobs which are not going to be executed by
+ * the lock owner, so that they can be acquired again without waiting for the
+ * lock to expire.</p>
+ *
+ * <p>Jobs which have been deleted or which are locked by a different owner
+ * in the meantime are ignored.</p>
+ */
+public class UnlockJobsCmd implements Command<Integer> {
+
+  protected final List<String> jobIds;
+  protected final String lockOwner;
+
+  public UnlockJobsCmd(List<String> jobIds, String lockOwner) {
+    this.jobIds = jobIds;
+    this.lockOwner = lockOwner;
+  }
+
+  public Integer execute(CommandContext commandContext) {
+    ensureNotNull("jobIds", jobIds);
+    ensureNotNull("lockOwner", lockOwner);
+
+    int unlockedJobs = 0;
+    for (String jobId : jobIds) {
+      JobEntity job = commandContext.getJobManager().findJobById(jobId);
+      if (job != null && lockOwner.equals(job.getLockOwner())) {
+        job.setLockOwner(null);
+        job.setLockExpirationTime(null);
+        unlockedJobs++;
+      }
+    }
+    return unlockedJobs;
+  }
+
+}
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.cmmn.entity.runtime;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -459,6 +460,13 @@ public class CaseExecutionEntity extends CmmnExecution implements CaseExecution,
         .findVariableInstancesByCaseExecutionId(id);
   }
 
+  protected List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames) {
+    return Context
+        .getCommandContext()
+        .getVariableInstanceManager()
+        .findVariableInstancesByCaseExecutionIdAndNames(id, variableNames);
+  }
+
   // toString /////////////////////////////////////////////////////////////
 
   public String toString() {
@@ -59,8 +59,38 @@ public abstract class CoreVariableScope<T extends CoreVariableInstance> implemen
     return collectVariableInstances(new HashMap<String, T>(), variableNames);
   }
 
+  /**
+   * Returns the values of the variables with the given names which are visible from this scope.
+   * Only the requested variables are loaded (if supported by the variable store) and
+   * their values resolved.
+   */
+  public Map<String, Object> getVariables(Collection<String> variableNames) {
+    return collectVariableValues(getVariableInstances(variableNames));
+  }
+
+  /**
+   * Returns the values of the local variables with the given names. Only the requested
+   * variables are loaded (if supported by the variable store) and their values resolved.
+   */
+  public Map<String, Object> getVariablesLocal(Collection<String> variableNames) {
+    return collectVariableValues(getVariableStore().getVariableInstances(variableNames));
+  }
+
+  protected Map<String, Object> collectVariableValues(Map<String, T> variableInstances) {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    for (T variableInstance : variableInstances.values()) {
+      variables.put(variableInstance.getName(), variableInstance.getValue());
+    }
+    return variables;
+  }
+
   public Map<String, T> collectVariableInstances(Map<String, T> variables, Collection<String> variableNames) {
-    Map<String, T> variableInstances = getVariableInstancesLocal();
+    Map<String, T> variableInstances;
+    if (variableNames == null) {
+      variableInstances = getVariableInstancesLocal();
+    } else {
+      variableInstances = getVariableStore().getVariableInstances(variableNames);
+    }
     for (T variable : variableInstances.values()) {
       if(!variables.containsKey(variable.getName())
          && (variableNames == null || variableNames.contains(variable.getName()))) {
@@ -68,7 +98,7 @@ public abstract class CoreVariableScope<T extends CoreVariableInstance> implemen
       }
     }
     CoreVariableScope<T> parentScope = getParentVariableScope();
-    if(parentScope != null && (variableNames == null || !variables.keySet().equals(variableNames))) {
+    if(parentScope != null && (variableNames == null || !variables.keySet().containsAll(variableNames))) {
       parentScope.collectVariableInstances(variables, variableNames);
     }
     return variables;
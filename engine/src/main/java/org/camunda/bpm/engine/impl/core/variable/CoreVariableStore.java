@@ -40,6 +40,11 @@ public interface CoreVariableStore<T extends CoreVariableInstance> {
 
   Map<String, T> getVariableInstances();
 
+  /**
+   * @return the variable instances with the given names, missing variables are not contained
+   */
+  Map<String, T> getVariableInstances(Collection<String> variableNames);
+
   void createOrUpdateVariable(String variableName, Object value, CoreVariableScope<T> sourceActivityExecution);
 
 }
\ No newline at end of file
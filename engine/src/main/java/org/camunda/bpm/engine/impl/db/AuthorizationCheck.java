@@ -56,6 +56,22 @@ public class AuthorizationCheck implements Serializable {
   /** the default permissions to use if no matching authorization 
    * can be found.*/
   protected int authDefaultPerm = Permissions.ALL.getValue();
+
+  /**
+   * If true, the authorizations of the user were resolved before the query is executed:
+   * the query is restricted by the {@link #authResourceIdChunks} instead of evaluating
+   * the authorizations for each row.
+   */
+  protected boolean isAuthResourceIdsResolved = false;
+
+  /**
+   * If true, the user is authorized for all resources except the {@link #authResourceIdChunks},
+   * otherwise only for the {@link #authResourceIdChunks}.
+   */
+  protected boolean isAuthDefaultGranted = false;
+
+  /** the resource ids for which the default does not apply, split into chunks which fit into an IN clause */
+  protected List<List<String>> authResourceIdChunks = new ArrayList<List<String>>();
   
   // getters / setters /////////////////////////////////////////
   
@@ -122,4 +138,28 @@ public class AuthorizationCheck implements Serializable {
   public void setAuthResourceIdQueryParam(String authResourceIdQueryParam) {
     this.authResourceIdQueryParam = authResourceIdQueryParam;
   }
+
+  public boolean isAuthResourceIdsResolved() {
+    return isAuthResourceIdsResolved;
+  }
+
+  public void setAuthResourceIdsResolved(boolean isAuthResourceIdsResolved) {
+    this.isAuthResourceIdsResolved = isAuthResourceIdsResolved;
+  }
+
+  public boolean isAuthDefaultGranted() {
+    return isAuthDefaultGranted;
+  }
+
+  public void setAuthDefaultGranted(boolean isAuthDefaultGranted) {
+    this.isAuthDefaultGranted = isAuthDefaultGranted;
+  }
+
+  public List<List<String>> getAuthResourceIdChunks() {
+    return authResourceIdChunks;
+  }
+
+  public void setAuthResourceIdChunks(List<List<String>> authResourceIdChunks) {
+    this.authResourceIdChunks = authResourceIdChunks;
+  }
 }
@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+/**
+ * Entities which track changes to their persistent state using a compact
+ * snapshot may implement this interface. The entity cache then uses the
+ * snapshot for dirty checking instead of comparing the maps returned by
+ * {@link DbEntity#getPersistentState()}.
+ *
+ * <p>Each persistent property is assigned a fixed index (at most 31) into the
+ * snapshot array. Changes are reported as a bit mask in which bit <code>i</code>
+ * is set if the property with index <code>i</code> has changed.</p>
+ */
+public interface HasDbChangeTracking {
+
+  /**
+   * @return a new snapshot of the current persistent state of the entity.
+   */
+  Object[] getPersistentStateSnapshot();
+
+  /**
+   * Compares the current persistent state of the entity to the given snapshot
+   * without creating a new snapshot.
+   *
+   * @param snapshot a snapshot previously created by {@link #getPersistentStateSnapshot()}
+   * @return the bit mask of the changed properties, 0 if nothing has changed.
+   */
+  int getChangedProperties(Object[] snapshot);
+
+}
@@ -0,0 +1,62 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import org.camunda.bpm.engine.impl.util.PersistentStateUtil;
+
+/**
+ * Parameter object of the partial update statements (<code>partialUpdate*</code>)
+ * which only write the columns of the properties changed since the entity was
+ * loaded. The changed properties are addressed by the indices of the
+ * {@link HasDbChangeTracking#getPersistentStateSnapshot() persistent state snapshot},
+ * which are referenced through the named constants of the entity:
+ *
+ * <pre>
+ * &lt;if test="changed[@org.camunda.bpm.engine.impl.persistence.entity.TaskEntity@ASSIGNEE_PROPERTY]"&gt;
+ *   ASSIGNEE_ = #{entity.assignee, jdbcType=VARCHAR},
+ * &lt;/if&gt;
+ * </pre>
+ */
+public class PartialUpdateParameterObject {
+
+  protected DbEntity entity;
+  protected int changedProperties;
+  protected boolean[] changed;
+
+  public PartialUpdateParameterObject(DbEntity entity, int changedProperties) {
+    this.entity = entity;
+    this.changedProperties = changedProperties;
+
+    changed = new boolean[Integer.SIZE];
+    for (int i = 0; i < changed.length; i++) {
+      changed[i] = PersistentStateUtil.isChanged(changedProperties, i);
+    }
+  }
+
+  public DbEntity getEntity() {
+    return entity;
+  }
+
+  public int getChangedProperties() {
+    return changedProperties;
+  }
+
+  public boolean[] getChanged() {
+    return changed;
+  }
+
+  public String toString() {
+    return "PartialUpdateParameterObject[entity=" + entity + ", changedProperties=" + Integer.toBinaryString(changedProperties) + "]";
+  }
+
+}
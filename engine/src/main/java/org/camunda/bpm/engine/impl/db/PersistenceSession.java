@@ -28,8 +28,23 @@ public interface PersistenceSession extends Session {
 
   void executeDbOperation(DbOperation operation);
 
+  /**
+   * Executes all operations which were deferred by this session (for instance
+   * because they were added to a JDBC batch) and returns them. The result of each
+   * returned operation is available through {@link DbOperation#isFailed()}.
+   *
+   * @return the operations executed by this flush, never null
+   */
+  List<DbOperation> flushOperations();
+
   List<?> selectList(String statement, Object parameter);
 
+  /**
+   * Selects at most <code>maxRows</code> rows. The limit is applied while fetching
+   * the result set, for statements which cannot limit their result themselves.
+   */
+  List<?> selectList(String statement, Object parameter, int maxRows);
+
   <T extends DbEntity> T selectById(Class<T> type, String id);
 
   Object selectOne(String statement, Object parameter);
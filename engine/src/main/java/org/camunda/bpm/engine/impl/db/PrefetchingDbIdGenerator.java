@@ -0,0 +1,292 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+
+/**
+ * <p>{@link DbIdGenerator} which does not block the threads requesting ids while a new
+ * id block is fetched from the database.</p>
+ *
+ * <ul>
+ *   <li>Every thread takes ids from a small segment of the current id block. Segments are
+ *   handed out using an {@link AtomicLong}, taking an id from a segment does not synchronize
+ *   at all.</li>
+ *   <li>Once the ids of the current block are handed out up to the
+ *   {@link #getPrefetchThreshold() prefetch threshold}, the next block is fetched in a
+ *   background thread. Threads only wait for a block if it is not prefetched in time.</li>
+ *   <li>The size of the fetched blocks adapts to the rate at which ids are requested: it is
+ *   increased if a block lasts shorter than the
+ *   {@link #getTargetBlockLifetimeInMillis() target lifetime} and decreased if it lasts
+ *   significantly longer, between the configured id block size and the
+ *   {@link #getMaxIdBlockSize() maximum id block size}. Larger blocks mean fewer updates of
+ *   the <code>next.dbid</code> property, which all process engines of a cluster share.</li>
+ * </ul>
+ *
+ * <p>Like with the {@link DbIdGenerator}, ids of blocks and segments which are not used
+ * up are lost when the process engine is stopped.</p>
+ */
+public class PrefetchingDbIdGenerator extends DbIdGenerator {
+
+  private static Logger log = Logger.getLogger(PrefetchingDbIdGenerator.class.getName());
+
+  protected int segmentSize = 10;
+  protected float prefetchThreshold = 0.5f;
+  protected long targetBlockLifetimeInMillis = 10 * 1000;
+  /** the maximum size of fetched blocks, defaults to 100 times the id block size if not positive */
+  protected int maxIdBlockSize = 0;
+
+  protected final AtomicReference<IdRange> currentRange = new AtomicReference<IdRange>(new IdRange(0, -1, 0));
+
+  protected final ThreadLocal<IdSegment> segments = new ThreadLocal<IdSegment>() {
+    protected IdSegment initialValue() {
+      return new IdSegment();
+    }
+  };
+
+  /** guards the prefetched range and the block size adaption */
+  protected final Object prefetchLock = new Object();
+  protected Future<IdRange> prefetchedRange;
+  protected ThreadPoolExecutor prefetchExecutor;
+  protected int currentIdBlockSize = 0;
+  protected long lastFetchTime = 0;
+
+  protected AtomicLong fetchedBlocks = new AtomicLong();
+  protected AtomicLong stalls = new AtomicLong();
+
+  public String getNextId() {
+    IdSegment segment = segments.get();
+    if (segment.next > segment.last) {
+      allocateSegment(segment);
+    }
+    return Long.toString(segment.next++);
+  }
+
+  protected void allocateSegment(IdSegment segment) {
+    int size = Math.max(1, segmentSize);
+
+    while (true) {
+      IdRange range = currentRange.get();
+      long first = range.next.getAndAdd(size);
+
+      if (first <= range.last) {
+        segment.next = first;
+        segment.last = Math.min(first + size - 1, range.last);
+
+        if (segment.last >= range.prefetchAt && range.isPrefetchTriggered.compareAndSet(false, true)) {
+          prefetch();
+        }
+        return;
+      }
+
+      switchRange(range);
+    }
+  }
+
+  /**
+   * Replaces the exhausted range with the next one unless another thread did so already.
+   */
+  protected synchronized void switchRange(IdRange exhaustedRange) {
+    if (currentRange.get() == exhaustedRange) {
+      currentRange.set(takeNextRange());
+    }
+  }
+
+  protected IdRange takeNextRange() {
+    Future<IdRange> prefetched;
+    synchronized (prefetchLock) {
+      prefetched = prefetchedRange;
+      prefetchedRange = null;
+    }
+
+    if (prefetched != null) {
+      if (!prefetched.isDone()) {
+        stalls.incrementAndGet();
+      }
+      try {
+        return prefetched.get();
+
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+
+      } catch (ExecutionException e) {
+        log.log(Level.FINE, "Could not prefetch id block, fetching it again", e.getCause());
+
+      }
+    }
+    else {
+      stalls.incrementAndGet();
+    }
+
+    return fetchRange();
+  }
+
+  protected void prefetch() {
+    synchronized (prefetchLock) {
+      if (prefetchedRange == null) {
+        prefetchedRange = getPrefetchExecutor().submit(new Callable<IdRange>() {
+          public IdRange call() {
+            return fetchRange();
+          }
+        });
+      }
+    }
+  }
+
+  protected IdRange fetchRange() {
+    IdBlock idBlock = commandExecutor.execute(new GetNextIdBlockCmd(nextIdBlockSize()));
+    fetchedBlocks.incrementAndGet();
+    return new IdRange(idBlock.getNextId(), idBlock.getLastId(), prefetchThreshold);
+  }
+
+  /**
+   * @return the size of the next block, adapted to the time the previous block lasted
+   */
+  protected int nextIdBlockSize() {
+    synchronized (prefetchLock) {
+      long now = System.currentTimeMillis();
+
+      if (currentIdBlockSize == 0) {
+        currentIdBlockSize = idBlockSize;
+      }
+      else {
+        long blockLifetime = now - lastFetchTime;
+        if (blockLifetime < targetBlockLifetimeInMillis / 2) {
+          currentIdBlockSize = (int) Math.min((long) getMaxIdBlockSize(), 2L * currentIdBlockSize);
+        }
+        else if (blockLifetime > targetBlockLifetimeInMillis * 2) {
+          currentIdBlockSize = Math.max(idBlockSize, currentIdBlockSize / 2);
+        }
+      }
+
+      lastFetchTime = now;
+      return currentIdBlockSize;
+    }
+  }
+
+  protected ThreadPoolExecutor getPrefetchExecutor() {
+    synchronized (prefetchLock) {
+      if (prefetchExecutor == null) {
+        // the thread terminates while no blocks are prefetched
+        prefetchExecutor = new ThreadPoolExecutor(0, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+          public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "IdBlockPrefetcher");
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+      }
+      return prefetchExecutor;
+    }
+  }
+
+  // metrics //////////////////////////////////////////////////////////////////
+
+  /**
+   * @return the number of id blocks fetched from the database
+   */
+  public long getFetchedBlocks() {
+    return fetchedBlocks.get();
+  }
+
+  /**
+   * @return the number of times threads had to wait for an id block
+   */
+  public long getStalls() {
+    return stalls.get();
+  }
+
+  /**
+   * @return the size of the last fetched block, 0 if no block was fetched yet
+   */
+  public int getCurrentIdBlockSize() {
+    synchronized (prefetchLock) {
+      return currentIdBlockSize;
+    }
+  }
+
+  // getters / setters ////////////////////////////////////////////////////////
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public void setSegmentSize(int segmentSize) {
+    this.segmentSize = segmentSize;
+  }
+
+  public float getPrefetchThreshold() {
+    return prefetchThreshold;
+  }
+
+  /**
+   * @param prefetchThreshold the share of a block's ids handed out before the next block is prefetched
+   */
+  public void setPrefetchThreshold(float prefetchThreshold) {
+    this.prefetchThreshold = prefetchThreshold;
+  }
+
+  public long getTargetBlockLifetimeInMillis() {
+    return targetBlockLifetimeInMillis;
+  }
+
+  public void setTargetBlockLifetimeInMillis(long targetBlockLifetimeInMillis) {
+    this.targetBlockLifetimeInMillis = targetBlockLifetimeInMillis;
+  }
+
+  public int getMaxIdBlockSize() {
+    if (maxIdBlockSize > 0) {
+      return Math.max(maxIdBlockSize, idBlockSize);
+    }
+    return 100 * idBlockSize;
+  }
+
+  public void setMaxIdBlockSize(int maxIdBlockSize) {
+    this.maxIdBlockSize = maxIdBlockSize;
+  }
+
+  protected static class IdRange {
+
+    protected final AtomicLong next;
+    protected final long last;
+    /** the id after which the next range is prefetched */
+    protected final long prefetchAt;
+    protected final AtomicBoolean isPrefetchTriggered = new AtomicBoolean(false);
+
+    public IdRange(long first, long last, float prefetchThreshold) {
+      this.next = new AtomicLong(first);
+      this.last = last;
+      this.prefetchAt = first + (long) ((last - first) * prefetchThreshold);
+    }
+  }
+
+  /** the ids of a range reserved for a single thread */
+  protected static class IdSegment {
+    protected long next = 0;
+    protected long last = -1;
+  }
+
+}
@@ -56,6 +56,7 @@ import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.db.PersistenceSession;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntitySecondLevelCache;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
@@ -66,6 +67,8 @@ import org.camunda.bpm.engine.impl.identity.db.DbGroupQueryImpl;
 import org.camunda.bpm.engine.impl.identity.db.DbUserQueryImpl;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
 
 /**
  *
@@ -83,15 +86,31 @@ public class DbEntityManager implements Session {
 
   protected DbEntityCache dbEntityCache;
 
+  protected DbEntitySecondLevelCache secondLevelCache;
+
+  /** operations flushed by this entity manager which invalidated entries of the second level cache */
+  protected List<DbOperation> secondLevelCacheInvalidations = new ArrayList<DbOperation>();
+
+  /** the second level cache revision read by this entity manager, null if not read yet */
+  protected Long secondLevelCacheRevision;
+
+  /** true if this entity manager incremented the second level cache revision */
+  protected boolean secondLevelCacheRevisionIncremented = false;
+
   protected DbOperationManager dbOperationManager;
 
   protected PersistenceSession persistenceSession;
 
+  /** null if metrics are disabled */
+  protected MetricsRegistry metricsRegistry;
+
   public DbEntityManager(IdGenerator idGenerator, PersistenceSession persistenceSession) {
     this.idGenerator = idGenerator;
     this.persistenceSession = persistenceSession;
     initializeEntityCache();
+    initializeSecondLevelCache();
     initializeOperationManager();
+    initializeMetricsRegistry();
   }
 
   protected void initializeOperationManager() {
@@ -124,6 +143,20 @@ public class DbEntityManager implements Session {
 
   }
 
+  protected void initializeSecondLevelCache() {
+    final ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null) {
+      secondLevelCache = processEngineConfiguration.getDbEntitySecondLevelCache();
+    }
+  }
+
+  protected void initializeMetricsRegistry() {
+    final ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    if (processEngineConfiguration != null) {
+      metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+    }
+  }
+
   // selects /////////////////////////////////////////////////
 
   public List selectList(String statement) {
@@ -163,6 +196,19 @@ public class DbEntityManager implements Session {
     return filterLoadedObjects(loadedObjects);
   }
 
+  /**
+   * Selects at most <code>maxResults</code> rows of a statement which cannot limit its
+   * result itself, for instance because it locks the selected rows with 'for update'.
+   */
+  @SuppressWarnings("unchecked")
+  public List selectListWithRowLimit(String statement, ListQueryParameterObject parameter, int maxResults) {
+    if (maxResults <= 0) {
+      return Collections.EMPTY_LIST;
+    }
+    List loadedObjects = persistenceSession.selectList(statement, parameter, maxResults);
+    return filterLoadedObjects(loadedObjects);
+  }
+
   public Object selectOne(String statement, Object parameter) {
     Object result = persistenceSession.selectOne(statement, parameter);
     if (result instanceof DbEntity) {
@@ -185,14 +231,33 @@ public class DbEntityManager implements Session {
   public <T extends DbEntity> T selectById(Class<T> entityClass, String id) {
     T persistentObject = dbEntityCache.get(entityClass, id);
     if (persistentObject!=null) {
+      if (metricsRegistry != null) {
+        metricsRegistry.markEntityCacheHit();
+      }
       return persistentObject;
     }
+
+    if (secondLevelCache != null && secondLevelCache.isCacheable(entityClass) && readSecondLevelCacheRevision()) {
+      persistentObject = secondLevelCache.get(entityClass, id, secondLevelCacheRevision);
+      if (persistentObject != null) {
+        if (metricsRegistry != null) {
+          metricsRegistry.markSecondLevelCacheHit();
+        }
+        dbEntityCache.putPersistent(persistentObject);
+        return persistentObject;
+      }
+    }
+
+    if (metricsRegistry != null) {
+      metricsRegistry.markEntityCacheMiss();
+    }
     persistentObject = persistenceSession.selectById(entityClass, id);
 
     if (persistentObject==null) {
       return null;
     }
     dbEntityCache.putPersistent(persistentObject);
+    putIntoSecondLevelCache(persistentObject);
     return persistentObject;
   }
 
@@ -231,8 +296,54 @@ public class DbEntityManager implements Session {
     return persistentObject;
   }
 
+  /**
+   * Adds an entity loaded by id to the second level cache unless entities of
+   * its type have been written by this entity manager: the loaded state may
+   * then not be committed yet.
+   */
+  protected void putIntoSecondLevelCache(DbEntity persistentObject) {
+    if (secondLevelCache != null && secondLevelCache.isCacheable(persistentObject.getClass()) && readSecondLevelCacheRevision()) {
+      for (DbOperation invalidation : secondLevelCacheInvalidations) {
+        if (invalidation.getEntityType().isAssignableFrom(persistentObject.getClass())) {
+          return;
+        }
+      }
+      secondLevelCache.put(persistentObject, secondLevelCacheRevision);
+    }
+  }
+
+  /**
+   * Obtains the second level cache revision once per entity manager. Every transaction
+   * which updates or deletes cacheable entities increments the revision, so the second
+   * level cache discards its entries once a command reads a different revision. This way
+   * changes made by other process engines on the same database are seen once the revision
+   * is read again. The revision is only selected if the second level cache has not been
+   * handed a revision within its revision check interval; changes made by this process
+   * engine invalidate the affected entries right away.
+   *
+   * @return false if the second level cache cannot be used since the database schema
+   * has no second level cache revision
+   */
+  protected boolean readSecondLevelCacheRevision() {
+    if (secondLevelCacheRevision == null) {
+      secondLevelCacheRevision = secondLevelCache.getCheckedRevision();
+      if (secondLevelCacheRevision == null) {
+        Integer revision = (Integer) persistenceSession.selectOne("selectSecondLevelCacheRevision", null);
+        if (revision == null) {
+          return false;
+        }
+        secondLevelCacheRevision = revision.longValue();
+        secondLevelCache.revisionChecked(secondLevelCacheRevision);
+      }
+    }
+    return true;
+  }
+
   public void lock(String statement) {
     persistenceSession.lock(statement);
+
+    // pending batched operations are executed together with the lock
+    flushPersistenceSessionOperations();
   }
 
   public boolean isDirty(DbEntity dbEntity) {
@@ -246,6 +357,10 @@ public class DbEntityManager implements Session {
 
   public void flush() {
 
+    if (metricsRegistry != null) {
+      metricsRegistry.markFlush();
+    }
+
     // flush the entity cache
     flushEntityCache();
 
@@ -253,6 +368,14 @@ public class DbEntityManager implements Session {
     List<DbOperation> operationsToFlush = dbOperationManager.calculateFlush();
     logFlushSummary(operationsToFlush);
 
+    // entries of the second level cache are invalid once the changes are executed
+    boolean secondLevelCacheChanged = invalidateSecondLevelCache(operationsToFlush);
+    if (secondLevelCacheChanged && !secondLevelCacheRevisionIncremented) {
+      // other process engines discard their entries once the transaction is committed
+      secondLevelCacheRevisionIncremented = true;
+      operationsToFlush.add(createSecondLevelCacheRevisionIncrement());
+    }
+
     // execute the flush
     for (DbOperation dbOperation : operationsToFlush) {
       persistenceSession.executeDbOperation(dbOperation);
@@ -261,9 +384,71 @@ public class DbEntityManager implements Session {
       }
     }
 
+    // execute the operations deferred by the persistence session (e.g. JDBC batches)
+    flushPersistenceSessionOperations();
+
+  }
+
+  /**
+   * Executes the operations deferred by the persistence session and reports the failed
+   * ones to the optimistic locking listeners. Since every flush ends with this call, no
+   * deferred operation is left to be executed when the transaction is committed.
+   */
+  protected void flushPersistenceSessionOperations() {
+    for (DbOperation dbOperation : persistenceSession.flushOperations()) {
+      if(dbOperation.isFailed()) {
+        handleOptimisticLockingException(dbOperation);
+      }
+    }
+  }
+
+  /**
+   * @return true if the operations update or delete cacheable entities
+   */
+  protected boolean invalidateSecondLevelCache(List<DbOperation> operations) {
+    if (secondLevelCache == null) {
+      return false;
+    }
+    boolean cacheableEntitiesChanged = false;
+    for (DbOperation dbOperation : operations) {
+      if (dbOperation.getOperationType() != INSERT) {
+        secondLevelCacheInvalidations.add(dbOperation);
+        cacheableEntitiesChanged |= invalidateSecondLevelCache(dbOperation);
+      }
+    }
+    return cacheableEntitiesChanged;
+  }
+
+  /**
+   * @return true if the operation updates or deletes cacheable entities
+   */
+  protected boolean invalidateSecondLevelCache(DbOperation dbOperation) {
+    if (dbOperation instanceof DbEntityOperation) {
+      DbEntity dbEntity = ((DbEntityOperation) dbOperation).getEntity();
+      if (secondLevelCache.isCacheable(dbEntity.getClass())) {
+        secondLevelCache.invalidate(dbEntity);
+        return true;
+      }
+      return false;
+    } else {
+      secondLevelCache.invalidateAll(dbOperation.getEntityType());
+      return secondLevelCache.isCacheable(dbOperation.getEntityType());
+    }
+  }
+
+  protected DbBulkOperation createSecondLevelCacheRevisionIncrement() {
+    DbBulkOperation bulkOperation = new DbBulkOperation();
+    bulkOperation.setOperationType(UPDATE_BULK);
+    bulkOperation.setEntityType(PropertyEntity.class);
+    bulkOperation.setStatement("incrementSecondLevelCacheRevision");
+    return bulkOperation;
   }
 
   protected void handleOptimisticLockingException(DbOperation dbOperation) {
+    if (metricsRegistry != null) {
+      metricsRegistry.markOptimisticLockingFailure();
+    }
+
     boolean isHandled = false;
 
     if(optimisticLockingListeners != null) {
@@ -289,6 +474,9 @@ public class DbEntityManager implements Session {
     List<CachedDbEntity> cachedEntities = dbEntityCache.getCachedEntities();
     for (CachedDbEntity cachedDbEntity : cachedEntities) {
 
+      // whether the persistent state of the entity is written by this flush
+      boolean isFlushed = true;
+
       if(cachedDbEntity.getEntityState() == TRANSIENT) {
         // perform INSERT
         performEntityOperation(cachedDbEntity, INSERT);
@@ -296,8 +484,9 @@ public class DbEntityManager implements Session {
         cachedDbEntity.setEntityState(PERSISTENT);
 
       } else if(cachedDbEntity.isDirty()) {
-        // object is dirty -> perform UPDATE
-        performEntityOperation(cachedDbEntity, UPDATE);
+        // object is dirty -> perform UPDATE of the changed properties
+        DbEntityOperation dbOperation = performEntityOperation(cachedDbEntity, UPDATE);
+        dbOperation.setChangedProperties(cachedDbEntity.getChangedProperties());
 
       } else if(cachedDbEntity.getEntityState() == MERGED) {
         // perform UPDATE
@@ -316,10 +505,14 @@ public class DbEntityManager implements Session {
         // remove from cache
         dbEntityCache.remove(cachedDbEntity);
 
+      } else {
+        // the entity is unchanged, its copy is still up to date
+        isFlushed = false;
+
       }
 
       // if object is PERSISTENT after flush
-      if(cachedDbEntity.getEntityState() == PERSISTENT) {
+      if(isFlushed && cachedDbEntity.getEntityState() == PERSISTENT) {
         // make a new copy
         cachedDbEntity.makeCopy();
       }
@@ -392,11 +585,12 @@ public class DbEntityManager implements Session {
     return bulkOperation;
   }
 
-  protected void performEntityOperation(CachedDbEntity cachedDbEntity, DbOperationType type) {
+  protected DbEntityOperation performEntityOperation(CachedDbEntity cachedDbEntity, DbOperationType type) {
     DbEntityOperation dbOperation = new DbEntityOperation();
     dbOperation.setEntity(cachedDbEntity.getEntity());
     dbOperation.setOperationType(type);
     dbOperationManager.addOperation(dbOperation);
+    return dbOperation;
   }
 
   protected void logFlushSummary(Collection<DbOperation> operations) {
@@ -407,7 +601,11 @@ public class DbEntityManager implements Session {
   }
 
   public void close() {
-
+    // the transaction is completed: remove the entries which other commands
+    // have loaded between the flush and the commit of this transaction
+    for (DbOperation dbOperation : secondLevelCacheInvalidations) {
+      invalidateSecondLevelCache(dbOperation);
+    }
   }
 
   public boolean isDeleted(DbEntity object) {
@@ -449,6 +647,14 @@ public class DbEntityManager implements Session {
     this.dbEntityCache = dbEntityCache;
   }
 
+  public DbEntitySecondLevelCache getSecondLevelCache() {
+    return secondLevelCache;
+  }
+
+  public void setSecondLevelCache(DbEntitySecondLevelCache secondLevelCache) {
+    this.secondLevelCache = secondLevelCache;
+  }
+
   // query factory methods ////////////////////////////////////////////////////
 
   public DeploymentQueryImpl createDeploymentQuery() {
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.db.entitymanager.cache;
 
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
 
 /**
@@ -45,7 +46,27 @@ public class CachedDbEntity implements Recyclable {
       // the entity is PERSISTENT
       entityState == DbEntityState.PERSISTENT
       // AND it has changed
-      && !dbEntity.getPersistentState().equals(copy);
+      && hasChanged();
+  }
+
+  protected boolean hasChanged() {
+    if (dbEntity instanceof HasDbChangeTracking) {
+      return getChangedProperties() != 0;
+    } else {
+      return !dbEntity.getPersistentState().equals(copy);
+    }
+  }
+
+  /**
+   * @return the bit mask of the properties changed since the last copy was made
+   * if the entity implements {@link HasDbChangeTracking}, -1 (all properties) otherwise.
+   */
+  public int getChangedProperties() {
+    if (dbEntity instanceof HasDbChangeTracking && copy instanceof Object[]) {
+      return ((HasDbChangeTracking) dbEntity).getChangedProperties((Object[]) copy);
+    } else {
+      return -1;
+    }
   }
 
   public void forceSetDirty() {
@@ -54,7 +75,11 @@ public class CachedDbEntity implements Recyclable {
   }
 
   public void makeCopy() {
-    copy = dbEntity.getPersistentState();
+    if (dbEntity instanceof HasDbChangeTracking) {
+      copy = ((HasDbChangeTracking) dbEntity).getPersistentStateSnapshot();
+    } else {
+      copy = dbEntity.getPersistentState();
+    }
   }
 
   public String toString() {
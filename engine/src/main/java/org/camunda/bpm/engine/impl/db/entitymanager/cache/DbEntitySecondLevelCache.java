@@ -0,0 +1,100 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * <p>An engine-wide cache for {@link DbEntity Entities} which rarely change, shared by
+ * all {@link org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager DbEntityManagers}
+ * of a process engine. It is consulted when an entity cannot be found in the
+ * first level {@link DbEntityCache}.</p>
+ *
+ * <p>Implementations must be thread safe and must never hand out the same entity instance
+ * twice: each {@link #get(Class, String, long)} returns an instance which is owned by the caller.</p>
+ *
+ * <p>The cache is tied to the second level cache revision stored in the database, which is
+ * incremented by every transaction updating or deleting cacheable entities. Each command obtains
+ * the revision once and passes it to the cache; all entries are discarded once the cache sees a
+ * different revision. A command only selects the revision from the database if the cache does not
+ * provide a {@link #getCheckedRevision() recently checked revision}.</p>
+ */
+public interface DbEntitySecondLevelCache {
+
+  /**
+   * @return true if entities of the given type are kept in this cache
+   */
+  boolean isCacheable(Class<?> entityType);
+
+  /**
+   * @return the second level cache revision if it was read from the database recently enough
+   * to be used by a command without reading it again, null otherwise
+   */
+  Long getCheckedRevision();
+
+  /**
+   * Called after a command read the second level cache revision from the database.
+   */
+  void revisionChecked(long cacheRevision);
+
+  /**
+   * @param cacheRevision the second level cache revision read by the current command
+   * @return a new instance of the cached entity or null if the entity is not cached for the revision
+   */
+  <T extends DbEntity> T get(Class<T> entityType, String id, long cacheRevision);
+
+  /**
+   * Adds an entity loaded from the database by its id. If the entity implements
+   * {@link org.camunda.bpm.engine.impl.db.HasDbRevision}, an entry with a higher revision
+   * is not replaced.
+   *
+   * @param cacheRevision the second level cache revision read by the command which loaded the entity
+   */
+  void put(DbEntity dbEntity, long cacheRevision);
+
+  /**
+   * Removes the given entity from the cache.
+   */
+  void invalidate(DbEntity dbEntity);
+
+  /**
+   * Removes all entities of the given type (including its subtypes) from the cache.
+   */
+  void invalidateAll(Class<?> entityType);
+
+  /**
+   * Removes all entities from the cache.
+   */
+  void clear();
+
+  /**
+   * @return the number of entities currently cached
+   */
+  int size();
+
+  /**
+   * @return the number of lookups answered by the cache
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of lookups of cacheable entities not answered by the cache
+   */
+  long getMissCount();
+
+  /**
+   * @return the number of entities removed because the cache reached its capacity
+   */
+  long getEvictionCount();
+
+}
@@ -0,0 +1,339 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+
+/**
+ * <p>Default {@link DbEntitySecondLevelCache}: a size bounded cache evicting the least
+ * recently used entities. An entity is kept in serialized form so that every lookup
+ * returns a new instance and no state is shared between commands.</p>
+ *
+ * <p>All entries are discarded when a different second level cache revision is passed,
+ * so that changes committed by other process engines on the same database are not
+ * served from the cache. A revision read from the database is handed out to the following
+ * commands for the revision check interval, so that the revision is not selected by every
+ * command. In addition, entries expire after a configurable time to live.</p>
+ */
+public class DefaultDbEntitySecondLevelCache implements DbEntitySecondLevelCache {
+
+  public static final int DEFAULT_CAPACITY = 1000;
+  public static final long DEFAULT_TIME_TO_LIVE = 60000;
+  public static final long DEFAULT_REVISION_CHECK_INTERVAL = 1000;
+
+  protected Set<Class<?>> cacheableTypes;
+  protected int capacity;
+  protected long timeToLive;
+  protected volatile long revisionCheckInterval;
+
+  /** guarded by itself */
+  protected Map<CacheKey, CacheEntry> entries;
+  /** guarded by entries */
+  protected long cacheRevision = -1;
+  /** the time the cache revision was last read from the database, guarded by entries */
+  protected long revisionCheckTime;
+
+  protected AtomicLong hitCount = new AtomicLong();
+  protected AtomicLong missCount = new AtomicLong();
+  protected AtomicLong evictionCount = new AtomicLong();
+
+  public DefaultDbEntitySecondLevelCache(Collection<Class<?>> cacheableTypes) {
+    this(cacheableTypes, DEFAULT_CAPACITY, DEFAULT_TIME_TO_LIVE);
+  }
+
+  public DefaultDbEntitySecondLevelCache(Collection<Class<?>> cacheableTypes, int capacity, long timeToLive) {
+    this(cacheableTypes, capacity, timeToLive, DEFAULT_REVISION_CHECK_INTERVAL);
+  }
+
+  /**
+   * @param cacheableTypes the entity types to cache, subtypes of these are not cached
+   * @param capacity the maximum number of cached entities
+   * @param timeToLive the time in milliseconds after which an entry expires, no expiry if &lt;= 0
+   * @param revisionCheckInterval the time in milliseconds for which a revision read from the database
+   *   is handed out to other commands, every command reads the revision if &lt;= 0
+   */
+  public DefaultDbEntitySecondLevelCache(Collection<Class<?>> cacheableTypes, final int capacity, long timeToLive, long revisionCheckInterval) {
+    for (Class<?> type : cacheableTypes) {
+      if (!DbEntity.class.isAssignableFrom(type) || !Serializable.class.isAssignableFrom(type)) {
+        throw new ProcessEngineException("Cannot add " + type.getName() + " to the second level cache: only serializable entities can be cached");
+      }
+    }
+
+    this.cacheableTypes = new HashSet<Class<?>>(cacheableTypes);
+    this.capacity = capacity;
+    this.timeToLive = timeToLive;
+    this.revisionCheckInterval = revisionCheckInterval;
+
+    this.entries = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+        boolean evict = size() > capacity;
+        if (evict) {
+          evictionCount.incrementAndGet();
+        }
+        return evict;
+      }
+    };
+  }
+
+  public boolean isCacheable(Class<?> entityType) {
+    return cacheableTypes.contains(entityType);
+  }
+
+  public Long getCheckedRevision() {
+    if (revisionCheckInterval <= 0) {
+      return null;
+    }
+    synchronized (entries) {
+      if (cacheRevision < 0 || System.currentTimeMillis() - revisionCheckTime > revisionCheckInterval) {
+        return null;
+      }
+      return cacheRevision;
+    }
+  }
+
+  public void revisionChecked(long cacheRevision) {
+    synchronized (entries) {
+      updateCacheRevision(cacheRevision);
+      revisionCheckTime = System.currentTimeMillis();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public <T extends DbEntity> T get(Class<T> entityType, String id, long cacheRevision) {
+    CacheKey key = new CacheKey(entityType, id);
+    CacheEntry entry;
+
+    synchronized (entries) {
+      updateCacheRevision(cacheRevision);
+      entry = entries.get(key);
+      if (entry != null && entry.isExpired(timeToLive)) {
+        entries.remove(key);
+        entry = null;
+      }
+    }
+
+    if (entry == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    else {
+      hitCount.incrementAndGet();
+      return (T) deserialize(entry.serializedEntity);
+    }
+  }
+
+  public void put(DbEntity dbEntity, long cacheRevision) {
+    CacheKey key = new CacheKey(dbEntity.getClass(), dbEntity.getId());
+    int revision = getRevision(dbEntity);
+    CacheEntry entry = new CacheEntry(revision, serialize(dbEntity));
+
+    synchronized (entries) {
+      updateCacheRevision(cacheRevision);
+      CacheEntry existingEntry = entries.get(key);
+      if (existingEntry == null || existingEntry.revision <= revision) {
+        entries.put(key, entry);
+      }
+    }
+  }
+
+  public void invalidate(DbEntity dbEntity) {
+    CacheKey key = new CacheKey(dbEntity.getClass(), dbEntity.getId());
+    synchronized (entries) {
+      entries.remove(key);
+    }
+  }
+
+  public void invalidateAll(Class<?> entityType) {
+    if (!isAffected(entityType)) {
+      return;
+    }
+    synchronized (entries) {
+      Iterator<CacheKey> keys = entries.keySet().iterator();
+      while (keys.hasNext()) {
+        if (entityType.isAssignableFrom(keys.next().type)) {
+          keys.remove();
+        }
+      }
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /**
+   * Discards all entries if the revision changed. The revision may also decrease,
+   * e.g. if the database is recreated or a transaction incrementing it is rolled back.
+   */
+  protected void updateCacheRevision(long cacheRevision) {
+    if (cacheRevision != this.cacheRevision) {
+      entries.clear();
+      this.cacheRevision = cacheRevision;
+    }
+  }
+
+  /**
+   * @return true if entities of the given type or its subtypes are cached
+   */
+  protected boolean isAffected(Class<?> entityType) {
+    for (Class<?> cacheableType : cacheableTypes) {
+      if (entityType.isAssignableFrom(cacheableType)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  protected int getRevision(DbEntity dbEntity) {
+    if (dbEntity instanceof HasDbRevision) {
+      return ((HasDbRevision) dbEntity).getRevision();
+    }
+    else {
+      return 0;
+    }
+  }
+
+  protected byte[] serialize(DbEntity dbEntity) {
+    ByteArrayOutputStream byteStream = new ByteArrayOutputStream();
+    ObjectOutputStream objectStream = null;
+    try {
+      objectStream = new ObjectOutputStream(byteStream);
+      objectStream.writeObject(dbEntity);
+      objectStream.flush();
+      return byteStream.toByteArray();
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Cannot add entity " + dbEntity + " to the second level cache", e);
+    }
+    finally {
+      IoUtil.closeSilently(objectStream);
+    }
+  }
+
+  protected DbEntity deserialize(byte[] serializedEntity) {
+    ObjectInputStream objectStream = null;
+    try {
+      objectStream = new ObjectInputStream(new ByteArrayInputStream(serializedEntity));
+      return (DbEntity) objectStream.readObject();
+    }
+    catch (Exception e) {
+      throw new ProcessEngineException("Cannot read entity from the second level cache", e);
+    }
+    finally {
+      IoUtil.closeSilently(objectStream);
+    }
+  }
+
+  // getters ////////////////////////////////////////////
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  public long getRevisionCheckInterval() {
+    return revisionCheckInterval;
+  }
+
+  public void setRevisionCheckInterval(long revisionCheckInterval) {
+    this.revisionCheckInterval = revisionCheckInterval;
+  }
+
+  public Set<Class<?>> getCacheableTypes() {
+    return cacheableTypes;
+  }
+
+  protected static class CacheKey {
+
+    protected final Class<?> type;
+    protected final String id;
+
+    public CacheKey(Class<?> type, String id) {
+      this.type = type;
+      this.id = id;
+    }
+
+    public int hashCode() {
+      return 31 * type.hashCode() + id.hashCode();
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) obj;
+      return type == other.type && id.equals(other.id);
+    }
+  }
+
+  protected static class CacheEntry {
+
+    protected final int revision;
+    protected final byte[] serializedEntity;
+    protected final long createTime = System.currentTimeMillis();
+
+    public CacheEntry(int revision, byte[] serializedEntity) {
+      this.revision = revision;
+      this.serializedEntity = serializedEntity;
+    }
+
+    public boolean isExpired(long timeToLive) {
+      return timeToLive > 0 && System.currentTimeMillis() - createTime > timeToLive;
+    }
+  }
+
+}
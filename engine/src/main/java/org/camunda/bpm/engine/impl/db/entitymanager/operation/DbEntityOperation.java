@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.db.entitymanager.operation;
 
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
 
 /**
@@ -33,8 +34,16 @@ public class DbEntityOperation extends DbOperation {
    */
   protected boolean failed = false;
 
+  /**
+   * For an UPDATE of an entity implementing {@link HasDbChangeTracking}: the bit mask
+   * of the properties changed since the entity was loaded. -1 if unknown, in which case
+   * all columns are written.
+   */
+  protected int changedProperties = -1;
+
   public void recycle() {
     entity = null;
+    changedProperties = -1;
     super.recycle();
   }
 
@@ -55,6 +64,14 @@ public class DbEntityOperation extends DbOperation {
     return failed;
   }
 
+  public int getChangedProperties() {
+    return changedProperties;
+  }
+
+  public void setChangedProperties(int changedProperties) {
+    this.changedProperties = changedProperties;
+  }
+
   public String toString() {
     return operationType + " " + ClassNameUtil.getClassNameWithoutPackage(entity)+"["+entity.getId()+"]";
   }
@@ -18,10 +18,17 @@ import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -29,8 +36,12 @@ import org.camunda.bpm.engine.WrongDbException;
 import org.camunda.bpm.engine.impl.db.AbstractPersistenceSession;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.db.PartialUpdateParameterObject;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.impl.util.ReflectUtil;
@@ -57,27 +68,69 @@ public class DbSqlSession extends AbstractPersistenceSession {
   protected String connectionMetadataDefaultCatalog = null;
   protected String connectionMetadataDefaultSchema = null;
 
+  /** true if insert, update and delete statements are added to a JDBC batch */
+  protected boolean isBatchProcessing;
+
+  /** true if updates of entities without revision fail if the row to update does not exist */
+  protected boolean failOnMissingRows = false;
+
+  /** the entity operations added to the current JDBC batch, keyed by their entity */
+  protected Map<Object, DbEntityOperation> batchedEntityOperations = new IdentityHashMap<Object, DbEntityOperation>();
+
+  /** all operations added to the current JDBC batch, in the order of execution */
+  protected List<DbOperation> batchedOperations = new ArrayList<DbOperation>();
+
+  /** records the latencies of the statements, null if metrics are disabled */
+  protected MetricsRegistry metricsRegistry;
+
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
+    this.metricsRegistry = dbSqlSessionFactory.getMetricsRegistry();
+    this.isBatchProcessing = dbSqlSessionFactory.isJdbcBatchProcessing();
     this.sqlSession = dbSqlSessionFactory
       .getSqlSessionFactory()
-      .openSession();
+      .openSession(getExecutorType());
   }
 
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory, Connection connection, String catalog, String schema) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
+    this.metricsRegistry = dbSqlSessionFactory.getMetricsRegistry();
+    this.isBatchProcessing = dbSqlSessionFactory.isJdbcBatchProcessing();
     this.sqlSession = dbSqlSessionFactory
       .getSqlSessionFactory()
-      .openSession(connection);
+      .openSession(getExecutorType(), connection);
     this.connectionMetadataDefaultCatalog = catalog;
     this.connectionMetadataDefaultSchema = schema;
   }
 
+  protected ExecutorType getExecutorType() {
+    if (isBatchProcessing) {
+      return ExecutorType.BATCH;
+    } else {
+      return ExecutorType.SIMPLE;
+    }
+  }
+
   // select ////////////////////////////////////////////
 
   public List<?> selectList(String statement, Object parameter){
     statement = dbSqlSessionFactory.mapStatement(statement);
-    return sqlSession.selectList(statement, parameter);
+    long startTime = startStatement();
+    try {
+      return sqlSession.selectList(statement, parameter);
+    } finally {
+      statementExecuted(statement, startTime);
+    }
+  }
+
+  public List<?> selectList(String statement, Object parameter, int maxRows) {
+    statement = dbSqlSessionFactory.mapStatement(statement);
+    long startTime = startStatement();
+    try {
+      return sqlSession.selectList(statement, parameter, new RowBounds(0, maxRows));
+    } finally {
+      statementExecuted(statement, startTime);
+    }
   }
 
   public <T extends DbEntity> T selectById(Class<T> type, String id) {
@@ -85,12 +138,22 @@ public class DbSqlSession extends AbstractPersistenceSession {
     selectStatement = dbSqlSessionFactory.mapStatement(selectStatement);
     ensureNotNull("no select statement for " + type + " in the ibatis mapping files", "selectStatement", selectStatement);
 
-    return (T) sqlSession.selectOne(selectStatement, id);
+    long startTime = startStatement();
+    try {
+      return (T) sqlSession.selectOne(selectStatement, id);
+    } finally {
+      statementExecuted(selectStatement, startTime);
+    }
   }
 
   public Object selectOne(String statement, Object parameter) {
     statement = dbSqlSessionFactory.mapStatement(statement);
-    return sqlSession.selectOne(statement, parameter);
+    long startTime = startStatement();
+    try {
+      return sqlSession.selectOne(statement, parameter);
+    } finally {
+      statementExecuted(statement, startTime);
+    }
   }
 
   // lock ////////////////////////////////////////////
@@ -101,7 +164,18 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // Id using the DbIdGenerator while performing a deployment.
     if (!"h2".equals(dbSqlSessionFactory.getDatabaseType())) {
       String mappedStatement = dbSqlSessionFactory.mapStatement(statement);
-      sqlSession.update(mappedStatement);
+      long startTime = startStatement();
+      try {
+        sqlSession.update(mappedStatement);
+      } finally {
+        statementExecuted(mappedStatement, startTime);
+      }
+
+      if (isBatchProcessing) {
+        // the lock must be acquired right away and not with the next flush; the
+        // operations executed with it are checked by the next call of flushOperations()
+        executeBatch();
+      }
     }
   }
 
@@ -119,6 +193,10 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute the insert
     executeInsertEntity(insertStatement, dbEntity);
 
+    if (isBatchProcessing) {
+      addToBatch(operation);
+    }
+
     // perform post insert actions on entity
     entityInserted(dbEntity);
   }
@@ -127,7 +205,12 @@ public class DbSqlSession extends AbstractPersistenceSession {
     if(log.isLoggable(Level.FINE)) {
       log.fine("inserting: " + toString(parameter));
     }
-    sqlSession.insert(insertStatement, parameter);
+    long startTime = startStatement();
+    try {
+      sqlSession.insert(insertStatement, parameter);
+    } finally {
+      statementExecuted(insertStatement, startTime);
+    }
 
     // set revision of our copy to 1
     if (parameter instanceof HasDbRevision) {
@@ -157,6 +240,12 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute the delete
     int nrOfRowsDeleted = executeDelete(deleteStatement, dbEntity);
 
+    if (isBatchProcessing) {
+      // the number of deleted rows is known once the batch is flushed
+      addToBatch(operation);
+      return;
+    }
+
     // It only makes sense to check for optimistic locking exceptions for objects that actually have a revision
     if (dbEntity instanceof HasDbRevision && nrOfRowsDeleted == 0) {
       operation.setFailed(true);
@@ -170,7 +259,12 @@ public class DbSqlSession extends AbstractPersistenceSession {
   protected int executeDelete(String deleteStatement, Object parameter) {
     // map the statement
     deleteStatement = dbSqlSessionFactory.mapStatement(deleteStatement);
-    return sqlSession.delete(deleteStatement, parameter);
+    long startTime = startStatement();
+    try {
+      return sqlSession.delete(deleteStatement, parameter);
+    } finally {
+      statementExecuted(deleteStatement, startTime);
+    }
   }
 
   protected void entityDeleted(final DbEntity entity) {
@@ -186,6 +280,10 @@ public class DbSqlSession extends AbstractPersistenceSession {
     }
 
     executeDelete(statement, parameter);
+
+    if (isBatchProcessing) {
+      addToBatch(operation);
+    }
   }
 
   // update ////////////////////////////////////////
@@ -194,7 +292,21 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
     final DbEntity dbEntity = operation.getEntity();
 
-    String updateStatement = dbSqlSessionFactory.getUpdateStatement(dbEntity);
+    String updateStatement = null;
+    Object parameter = dbEntity;
+
+    int changedProperties = operation.getChangedProperties();
+    if (dbSqlSessionFactory.isDbPartialUpdateEnabled() && changedProperties != -1) {
+      // only write the columns of the changed properties
+      updateStatement = dbSqlSessionFactory.getPartialUpdateStatement(dbEntity);
+      if (updateStatement != null) {
+        parameter = new PartialUpdateParameterObject(dbEntity, changedProperties);
+      }
+    }
+
+    if (updateStatement == null) {
+      updateStatement = dbSqlSessionFactory.getUpdateStatement(dbEntity);
+    }
     ensureNotNull("no update statement for " + dbEntity.getClass() + " in the ibatis mapping files", "updateStatement", updateStatement);
 
     if (log.isLoggable(Level.FINE)) {
@@ -202,7 +314,18 @@ public class DbSqlSession extends AbstractPersistenceSession {
     }
 
     // execute update
-    int numOfRowsUpdated = executeUpdate(updateStatement, dbEntity);
+    int numOfRowsUpdated = executeUpdate(updateStatement, parameter);
+
+    if (isBatchProcessing) {
+      // the number of updated rows is known once the batch is flushed
+      addToBatch(operation, parameter);
+    } else {
+      entityUpdated(operation, numOfRowsUpdated);
+    }
+  }
+
+  protected void entityUpdated(DbEntityOperation operation, int numOfRowsUpdated) {
+    DbEntity dbEntity = operation.getEntity();
 
     if (dbEntity instanceof HasDbRevision) {
       if(numOfRowsUpdated != 1) {
@@ -214,6 +337,10 @@ public class DbSqlSession extends AbstractPersistenceSession {
         HasDbRevision versionedObject = (HasDbRevision) dbEntity;
         versionedObject.setRevision(versionedObject.getRevisionNext());
       }
+    } else if (failOnMissingRows && numOfRowsUpdated == 0) {
+      // the updated row does not exist (yet)
+      operation.setFailed(true);
+      return;
     }
 
     // perform post update action
@@ -222,7 +349,12 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
   protected int executeUpdate(String updateStatement, Object parameter) {
     updateStatement = dbSqlSessionFactory.mapStatement(updateStatement);
-    return sqlSession.update(updateStatement, parameter);
+    long startTime = startStatement();
+    try {
+      return sqlSession.update(updateStatement, parameter);
+    } finally {
+      statementExecuted(updateStatement, startTime);
+    }
   }
 
   protected void entityUpdated(final DbEntity entity) {
@@ -238,6 +370,116 @@ public class DbSqlSession extends AbstractPersistenceSession {
     }
 
     executeUpdate(statement, parameter);
+
+    if (isBatchProcessing) {
+      addToBatch(operation);
+    }
+  }
+
+  // metrics ///////////////////////////////////////
+
+  /** the name under which the execution of a JDBC batch is recorded as statement latency */
+  public static final String EXECUTE_BATCH_STATEMENT = "executeBatch";
+
+  protected long startStatement() {
+    if (metricsRegistry == null) {
+      return 0;
+    }
+    return System.nanoTime();
+  }
+
+  protected void statementExecuted(String statement, long startTime) {
+    if (metricsRegistry != null) {
+      metricsRegistry.recordStatement(statement, System.nanoTime() - startTime);
+    }
+  }
+
+  // batch processing //////////////////////////////
+
+  protected void addToBatch(DbOperation operation) {
+    if (operation instanceof DbEntityOperation) {
+      DbEntityOperation entityOperation = (DbEntityOperation) operation;
+      addToBatch(entityOperation, entityOperation.getEntity());
+    } else {
+      batchedOperations.add(operation);
+    }
+  }
+
+  /**
+   * @param parameter the parameter object the statement of the operation was executed with,
+   *   used to relate the update count reported by the batch to the operation
+   */
+  protected void addToBatch(DbEntityOperation operation, Object parameter) {
+    batchedOperations.add(operation);
+    batchedEntityOperations.put(parameter, operation);
+  }
+
+  public List<DbOperation> flushOperations() {
+    if (!isBatchProcessing) {
+      return Collections.emptyList();
+    }
+    return flushBatch();
+  }
+
+  /**
+   * Executes the current JDBC batch and returns the operations executed since the
+   * last call, with the update counts reported by the driver applied.
+   */
+  protected List<DbOperation> flushBatch() {
+    executeBatch();
+
+    List<DbOperation> flushedOperations = new ArrayList<DbOperation>(batchedOperations);
+    batchedOperations.clear();
+    batchedEntityOperations.clear();
+
+    return flushedOperations;
+  }
+
+  /**
+   * Executes the current JDBC batch and applies the per-row update counts
+   * reported by the driver to the batched entity operations.
+   */
+  protected void executeBatch() {
+    long startTime = startStatement();
+    List<BatchResult> batchResults = sqlSession.flushStatements();
+    if (!batchResults.isEmpty()) {
+      statementExecuted(EXECUTE_BATCH_STATEMENT, startTime);
+    }
+
+    for (BatchResult batchResult : batchResults) {
+      List<Object> parameterObjects = batchResult.getParameterObjects();
+      int[] updateCounts = batchResult.getUpdateCounts();
+
+      for (int i = 0; i < updateCounts.length; i++) {
+        // an operation is only applied once, even if the batch is executed again
+        DbEntityOperation operation = batchedEntityOperations.remove(parameterObjects.get(i));
+        if (operation != null) {
+          batchedEntityOperationExecuted(operation, updateCounts[i]);
+        }
+      }
+    }
+  }
+
+  protected void batchedEntityOperationExecuted(DbEntityOperation operation, int updateCount) {
+    DbOperationType operationType = operation.getOperationType();
+
+    if (updateCount == Statement.SUCCESS_NO_INFO) {
+      // drivers which never report the affected rows are detected when the process engine
+      // is built (see ProcessEngineConfigurationImpl#initJdbcBatchProcessing())
+      updateCount = 1;
+    }
+
+    if (operationType == DbOperationType.UPDATE) {
+      entityUpdated(operation, updateCount);
+
+    } else if (operationType == DbOperationType.DELETE) {
+      DbEntity dbEntity = operation.getEntity();
+      if (dbEntity instanceof HasDbRevision && updateCount == 0) {
+        operation.setFailed(true);
+      } else {
+        entityDeleted(dbEntity);
+      }
+    }
   }
 
   // utils /////////////////////////////////////////
@@ -264,6 +506,8 @@ public class DbSqlSession extends AbstractPersistenceSession {
   }
 
   public void commit() {
+    // the JDBC batch is executed and checked for failed operations by the
+    // DbEntityManager with each flush, see #flushOperations()
     sqlSession.commit();
   }
 
@@ -549,4 +793,16 @@ public class DbSqlSession extends AbstractPersistenceSession {
     return dbSqlSessionFactory;
   }
 
+  public boolean isBatchProcessing() {
+    return isBatchProcessing;
+  }
+
+  public boolean isFailOnMissingRows() {
+    return failOnMissingRows;
+  }
+
+  public void setFailOnMissingRows(boolean failOnMissingRows) {
+    this.failOnMissingRows = failOnMissingRows;
+  }
+
 }
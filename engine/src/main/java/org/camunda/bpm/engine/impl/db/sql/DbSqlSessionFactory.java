@@ -22,6 +22,7 @@ import org.camunda.bpm.engine.impl.cfg.IdGenerator;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.interceptor.Session;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
 
 
@@ -82,6 +83,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
     constants.put("constant.for.update", "for update");
+    constants.put("constant.duration_in_millis", "DATEDIFF('MILLISECOND', START_TIME_, #{endTime, jdbcType=TIMESTAMP})");
     dbSpecificConstants.put(H2, constants);
 
 	  //mysql specific
@@ -99,6 +101,8 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseSpecificFalseConstant.put(MYSQL, "0");
     addDatabaseSpecificStatement(MYSQL, "selectNextJobsToExecute", "selectNextJobsToExecute_mysql");
     addDatabaseSpecificStatement(MYSQL, "selectExclusiveJobsToExecute", "selectExclusiveJobsToExecute_mysql");
+    addDatabaseSpecificStatement(MYSQL, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_mysql");
+    addDatabaseSpecificStatement(MYSQL, "selectHistoryEventOutboxEntriesSkipLocked", "selectHistoryEventOutboxEntriesSkipLocked_mysql");
     addDatabaseSpecificStatement(MYSQL, "selectProcessDefinitionsByQueryCriteria", "selectProcessDefinitionsByQueryCriteria_mysql");
     addDatabaseSpecificStatement(MYSQL, "selectProcessDefinitionCountByQueryCriteria", "selectProcessDefinitionCountByQueryCriteria_mysql");
     addDatabaseSpecificStatement(MYSQL, "selectDeploymentsByQueryCriteria", "selectDeploymentsByQueryCriteria_mysql");
@@ -108,6 +112,8 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "CONCAT(NEW_VALUE_, '_|_', PROPERTY_)");
     constants.put("constant.for.update", "for update");
+    // START_TIME_ is a datetime without fractional seconds which may be rounded up
+    constants.put("constant.duration_in_millis", "GREATEST(TIMESTAMPDIFF(MICROSECOND, START_TIME_, #{endTime, jdbcType=TIMESTAMP}) DIV 1000, 0)");
     dbSpecificConstants.put(MYSQL, constants);
 
     //postgres specific
@@ -123,9 +129,15 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseSpecificDummyTable.put(POSTGRES, "");
     databaseSpecificTrueConstant.put(POSTGRES, "true");
     databaseSpecificFalseConstant.put(POSTGRES, "false");
+    addDatabaseSpecificStatement(POSTGRES, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_postgres");
     addDatabaseSpecificStatement(POSTGRES, "insertByteArray", "insertByteArray_postgres");
     addDatabaseSpecificStatement(POSTGRES, "updateByteArray", "updateByteArray_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectByteArray", "selectByteArray_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectByteArraysByHash", "selectByteArraysByHash_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "insertHistoryEventOutbox", "insertHistoryEventOutbox_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectHistoryEventOutbox", "selectHistoryEventOutbox_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectHistoryEventOutboxEntries", "selectHistoryEventOutboxEntries_postgres");
+    addDatabaseSpecificStatement(POSTGRES, "selectHistoryEventOutboxEntriesSkipLocked", "selectHistoryEventOutboxEntriesSkipLocked_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceName", "selectResourceByDeploymentIdAndResourceName_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourceByDeploymentIdAndResourceId", "selectResourceByDeploymentIdAndResourceId_postgres");
     addDatabaseSpecificStatement(POSTGRES, "selectResourcesByDeploymentId", "selectResourcesByDeploymentId_postgres");
@@ -154,6 +166,7 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
     constants.put("constant.for.update", "for update");
+    constants.put("constant.duration_in_millis", "CAST(EXTRACT(EPOCH FROM (CAST(#{endTime, jdbcType=TIMESTAMP} AS TIMESTAMP) - START_TIME_)) * 1000 AS BIGINT)");
     dbSpecificConstants.put(POSTGRES, constants);
 
     // oracle
@@ -170,11 +183,18 @@ public class DbSqlSessionFactory implements SessionFactory {
     databaseSpecificTrueConstant.put(ORACLE, "1");
     databaseSpecificFalseConstant.put(ORACLE, "0");
     addDatabaseSpecificStatement(ORACLE, "selectExclusiveJobsToExecute", "selectExclusiveJobsToExecute_integerBoolean");
+    addDatabaseSpecificStatement(ORACLE, "selectNextJobsToExecuteSkipLocked", "selectNextJobsToExecuteSkipLocked_oracle");
+    addDatabaseSpecificStatement(ORACLE, "selectHistoryEventOutboxEntriesSkipLocked", "selectHistoryEventOutboxEntriesSkipLocked_oracle");
+    addDatabaseSpecificStatement(ORACLE, "insertHistoryEventOutbox", "insertHistoryEventOutbox_oracle");
 
     constants = new HashMap<String, String>();
     constants.put("constant.event", "cast('event' as nvarchar2(255))");
     constants.put("constant.op_message", "NEW_VALUE_ || '_|_' || PROPERTY_");
     constants.put("constant.for.update", "for update");
+    constants.put("constant.duration_in_millis", "EXTRACT(DAY FROM (#{endTime, jdbcType=TIMESTAMP} - START_TIME_)) * 86400000"
+        + " + EXTRACT(HOUR FROM (#{endTime, jdbcType=TIMESTAMP} - START_TIME_)) * 3600000"
+        + " + EXTRACT(MINUTE FROM (#{endTime, jdbcType=TIMESTAMP} - START_TIME_)) * 60000"
+        + " + ROUND(EXTRACT(SECOND FROM (#{endTime, jdbcType=TIMESTAMP} - START_TIME_)) * 1000)");
     dbSpecificConstants.put(ORACLE, constants);
 
     // db2
@@ -201,6 +221,9 @@ public class DbSqlSessionFactory implements SessionFactory {
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "CAST(CONCAT(CONCAT(COALESCE(NEW_VALUE_,''), '_|_'), COALESCE(PROPERTY_,'')) as varchar(255))");
     constants.put("constant.for.update", "for read only with rs use and keep update locks");
+    constants.put("constant.duration_in_millis", "BIGINT(DAYS(CAST(#{endTime, jdbcType=TIMESTAMP} AS TIMESTAMP)) - DAYS(START_TIME_)) * 86400000"
+        + " + (MIDNIGHT_SECONDS(CAST(#{endTime, jdbcType=TIMESTAMP} AS TIMESTAMP)) - MIDNIGHT_SECONDS(START_TIME_)) * 1000"
+        + " + (MICROSECOND(CAST(#{endTime, jdbcType=TIMESTAMP} AS TIMESTAMP)) - MICROSECOND(START_TIME_)) / 1000");
     dbSpecificConstants.put(DB2, constants);
 
     // mssql
@@ -223,10 +246,14 @@ public class DbSqlSessionFactory implements SessionFactory {
     addDatabaseSpecificStatement(MSSQL, "selectHistoricTaskInstanceByNativeQuery", "selectHistoricTaskInstanceByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(MSSQL, "selectTaskByNativeQuery", "selectTaskByNativeQuery_mssql_or_db2");
     addDatabaseSpecificStatement(MSSQL, "lockDeploymentLockProperty", "lockDeploymentLockProperty_mssql");
+    addDatabaseSpecificStatement(MSSQL, "lockHistoryEventOutboxLockProperty", "lockHistoryEventOutboxLockProperty_mssql");
+    addDatabaseSpecificStatement(MSSQL, "selectHistoryEventOutboxEntriesSkipLocked", "selectHistoryEventOutboxEntriesSkipLocked_mssql");
 
     constants = new HashMap<String, String>();
     constants.put("constant.event", "'event'");
     constants.put("constant.op_message", "NEW_VALUE_ + '_|_' + PROPERTY_");
+    constants.put("constant.duration_in_millis", "CAST(DATEDIFF(s, START_TIME_, #{endTime, jdbcType=TIMESTAMP}) AS BIGINT) * 1000"
+        + " + DATEPART(ms, #{endTime, jdbcType=TIMESTAMP}) - DATEPART(ms, START_TIME_)");
     dbSpecificConstants.put(MSSQL, constants);
   }
 
@@ -244,11 +271,15 @@ public class DbSqlSessionFactory implements SessionFactory {
   protected Map<String, String> statementMappings;
   protected Map<Class<?>,String>  insertStatements = new ConcurrentHashMap<Class<?>, String>();
   protected Map<Class<?>,String>  updateStatements = new ConcurrentHashMap<Class<?>, String>();
+  protected Map<Class<?>,String>  partialUpdateStatements = new ConcurrentHashMap<Class<?>, String>();
   protected Map<Class<?>,String>  deleteStatements = new ConcurrentHashMap<Class<?>, String>();
   protected Map<Class<?>,String>  selectStatements = new ConcurrentHashMap<Class<?>, String>();
   protected boolean isDbIdentityUsed = true;
   protected boolean isDbHistoryUsed = true;
   protected boolean cmmnEnabled = true;
+  protected boolean jdbcBatchProcessing = false;
+  protected boolean dbPartialUpdateEnabled = false;
+  protected MetricsRegistry metricsRegistry;
 
   public Class< ? > getSessionType() {
     return DbSqlSession.class;
@@ -268,6 +299,19 @@ public class DbSqlSessionFactory implements SessionFactory {
     return getStatement(object.getClass(), updateStatements, "update");
   }
 
+  /**
+   * @return the statement updating only the changed columns of the given entity
+   * or null if no such statement is mapped for the entity
+   */
+  public String getPartialUpdateStatement(DbEntity object) {
+    String statement = getStatement(object.getClass(), partialUpdateStatements, "partialUpdate");
+    if (sqlSessionFactory.getConfiguration().hasStatement(mapStatement(statement), false)) {
+      return statement;
+    } else {
+      return null;
+    }
+  }
+
   public String getDeleteStatement(Class<?> persistentObjectClass) {
     return getStatement(persistentObjectClass, deleteStatements, "delete");
   }
@@ -298,6 +342,13 @@ public class DbSqlSessionFactory implements SessionFactory {
     specificStatements.put(activitiStatement, ibatisStatement);
   }
 
+  /**
+   * @return true if the given statement is mapped to a statement specific to the configured database
+   */
+  public boolean isDatabaseSpecificStatement(String statement) {
+    return statementMappings != null && statementMappings.containsKey(statement);
+  }
+
   public String mapStatement(String statement) {
     if (statementMappings==null) {
       return statement;
@@ -410,6 +461,30 @@ public class DbSqlSessionFactory implements SessionFactory {
     this.cmmnEnabled = cmmnEnabled;
   }
 
+  public boolean isJdbcBatchProcessing() {
+    return jdbcBatchProcessing;
+  }
+
+  public void setJdbcBatchProcessing(boolean jdbcBatchProcessing) {
+    this.jdbcBatchProcessing = jdbcBatchProcessing;
+  }
+
+  public boolean isDbPartialUpdateEnabled() {
+    return dbPartialUpdateEnabled;
+  }
+
+  public void setDbPartialUpdateEnabled(boolean dbPartialUpdateEnabled) {
+    this.dbPartialUpdateEnabled = dbPartialUpdateEnabled;
+  }
+
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+  public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+
   public void setDatabaseTablePrefix(String databaseTablePrefix) {
     this.databaseTablePrefix = databaseTablePrefix;
   }
@@ -58,6 +58,13 @@ public class ExpressionManager {
   protected ELContext parsingElContext = new ProcessEngineElContext(functionMappers);
   protected Map<Object, Object> beans;
 
+  // the resolvers without state are shared by all el contexts, so that the
+  // properties and methods resolved by the bean resolver are cached per engine
+  protected ELResolver arrayElResolver = new ArrayELResolver();
+  protected ELResolver listElResolver = new ListELResolver();
+  protected ELResolver mapElResolver = new MapELResolver();
+  protected ELResolver beanElResolver = new BeanELResolver();
+
 
   public ExpressionManager() {
     this(null);
@@ -99,7 +106,10 @@ public class ExpressionManager {
 
   protected ProcessEngineElContext createElContext(VariableScope<?> variableScope) {
     ELResolver elResolver = createElResolver(variableScope);
-    return new ProcessEngineElContext(functionMappers, elResolver);
+    ProcessEngineElContext elContext = new ProcessEngineElContext(functionMappers, elResolver);
+    // used to coerce method parameters, otherwise a new expression factory is created per context
+    elContext.putContext(ExpressionFactory.class, expressionFactory);
+    return elContext;
   }
 
   protected ELResolver createElResolver(VariableScope<?> variableScope) {
@@ -114,13 +124,26 @@ public class ExpressionManager {
 
     elResolver.add(new ProcessApplicationElResolverDelegate());
 
-    elResolver.add(new ArrayELResolver());
-    elResolver.add(new ListELResolver());
-    elResolver.add(new MapELResolver());
-    elResolver.add(new BeanELResolver());
+    elResolver.add(arrayElResolver);
+    elResolver.add(listElResolver);
+    elResolver.add(mapElResolver);
+    elResolver.add(beanElResolver);
     return elResolver;
   }
 
+  /**
+   * Removes the classes loaded by the given class loader from the caches of the shared
+   * bean resolver. Must be called when the classes are unloaded (eg. when a process
+   * application is undeployed), since the resolver outlives the class loader.
+   *
+   * @param classLoader the class loader of the classes to remove
+   */
+  public void purgeBeanClasses(ClassLoader classLoader) {
+    if (beanElResolver instanceof BeanELResolver) {
+      ((BeanELResolver) beanElResolver).purgeBeanClasses(classLoader);
+    }
+  }
+
   /**
    * @param elFunctionMapper
    */
@@ -17,7 +17,6 @@ import java.util.List;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
-import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
 import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
@@ -59,14 +58,8 @@ public class DbHistoryEventHandler implements HistoryEventHandler {
       dbEntityManager.insert(historyEvent);
     } else {
       if(dbEntityManager.getCachedEntity(historyEvent.getClass(), historyEvent.getId()) == null) {
-        if (historyEvent instanceof HistoricScopeInstanceEvent) {
-          // if this is a scope, get start time from existing event in DB
-          HistoricScopeInstanceEvent existingEvent = (HistoricScopeInstanceEvent) dbEntityManager.selectById(historyEvent.getClass(), historyEvent.getId());
-          if(existingEvent != null) {
-            HistoricScopeInstanceEvent historicScopeInstanceEvent = (HistoricScopeInstanceEvent) historyEvent;
-            historicScopeInstanceEvent.setStartTime(existingEvent.getStartTime());
-          }
-        }
+        // the existing event is not selected: updates do not change the start time of a
+        // scope and its duration is calculated by the database if the start time is unknown
         if(historyEvent.getId() == null) {
 //          dbSqlSession.insert(historyEvent);
         } else {
@@ -87,11 +80,10 @@ public class DbHistoryEventHandler implements HistoryEventHandler {
       // insert byte array entity (if applicable)
       byte[] byteValue = historyEvent.getByteValue();
       if(byteValue != null) {
-        ByteArrayEntity byteArrayEntity = new ByteArrayEntity(historyEvent.getVariableName(), byteValue);
-        Context
-        .getCommandContext()
-        .getDbEntityManager()
-        .insert(byteArrayEntity);
+        ByteArrayEntity byteArrayEntity = Context
+          .getCommandContext()
+          .getByteArrayManager()
+          .insertImmutableByteArray(historyEvent.getVariableName(), byteValue);
         historyEvent.setByteArrayId(byteArrayEntity.getId());
 
       }
@@ -0,0 +1,323 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.cmd.DrainHistoryEventOutboxCmd;
+import org.camunda.bpm.engine.impl.cmd.GetHistoryEventOutboxStatisticsCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventOutboxEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Drains the history event outbox in a background thread: the events of the oldest
+ * outbox entries are written by the configured {@link HistoryEventHandler} and the
+ * entries are deleted in the same transaction. Many commands' events are therefore
+ * written by a single flush.</p>
+ *
+ * <p>Entries are only deleted once their events are written. If the process engine
+ * stops or crashes before, the entries are drained once it is started again. If several
+ * process engines share the database, each entry is claimed by the process engine
+ * draining it, see {@link DrainHistoryEventOutboxCmd}.</p>
+ */
+public class HistoryEventOutboxWriter implements Runnable {
+
+  private static Logger log = Logger.getLogger(HistoryEventOutboxWriter.class.getName());
+
+  protected final HistoryEventHandler historyEventHandler;
+  protected CommandExecutor commandExecutor;
+
+  protected int maxEntriesPerBatch = 100;
+  protected long waitTimeInMillis = 1000;
+  protected long maxWaitTimeInMillis = 60 * 1000;
+  protected int maxAttempts = 3;
+  /** the minimum time between two reads of the outbox statistics */
+  protected long statisticsIntervalInMillis = 10 * 1000;
+
+  protected volatile boolean isInterrupted = false;
+  protected final Object MONITOR = new Object();
+  protected Thread writerThread;
+
+  /** the current backoff applied while draining fails */
+  protected long failureWait = 0;
+
+  protected AtomicLong writtenEvents = new AtomicLong();
+  protected AtomicLong writtenEntries = new AtomicLong();
+  protected AtomicLong failedBatches = new AtomicLong();
+  protected volatile long lagInMillis = 0;
+  protected volatile long pendingEntries = 0;
+  protected volatile long startTime = 0;
+  protected long statisticsTime = 0;
+
+  public HistoryEventOutboxWriter(HistoryEventHandler historyEventHandler) {
+    this.historyEventHandler = historyEventHandler;
+  }
+
+  public synchronized void start() {
+    if (writerThread == null) {
+      isInterrupted = false;
+      startTime = ClockUtil.getCurrentTime().getTime();
+      writerThread = new Thread(this, "HistoryEventOutboxWriter");
+      writerThread.start();
+    }
+  }
+
+  public synchronized void stop() {
+    if (writerThread == null) {
+      return;
+    }
+
+    synchronized (MONITOR) {
+      isInterrupted = true;
+      MONITOR.notifyAll();
+    }
+
+    try {
+      writerThread.join();
+    } catch (InterruptedException e) {
+      log.log(Level.WARNING, "Interrupted while waiting for the history event outbox writer to terminate", e);
+    }
+    writerThread = null;
+  }
+
+  public void run() {
+    log.info("history event outbox writer started");
+
+    while (!isInterrupted) {
+      long millisToWait = 0;
+
+      try {
+        int drainedEntries = drain();
+        failureWait = 0;
+
+        if (drainedEntries < maxEntriesPerBatch) {
+          // the outbox is empty
+          millisToWait = waitTimeInMillis;
+        }
+
+      } catch (OptimisticLockingException e) {
+        log.fine("Entries of the history event outbox were modified concurrently: " + e.getMessage());
+        millisToWait = calculateFailureWait();
+
+      } catch (Exception e) {
+        log.log(Level.SEVERE, "exception while draining the history event outbox: " + e.getMessage(), e);
+        millisToWait = calculateFailureWait();
+        updateLagAfterFailure();
+
+      }
+
+      if (millisToWait > 0) {
+        synchronized (MONITOR) {
+          if (!isInterrupted) {
+            try {
+              MONITOR.wait(millisToWait);
+            } catch (InterruptedException e) {
+              log.log(Level.FINE, "history event outbox writer wait interrupted", e);
+            }
+          }
+        }
+      }
+    }
+
+    log.info("history event outbox writer stopped");
+  }
+
+  /**
+   * Writes the events of the oldest entries of the outbox in a single transaction.
+   *
+   * @return the number of drained outbox entries
+   */
+  public int drain() {
+    List<HistoryEventOutboxEntity> entries = commandExecutor.execute(new DrainHistoryEventOutboxCmd(maxEntriesPerBatch, maxAttempts, historyEventHandler));
+
+    int events = 0;
+    for (HistoryEventOutboxEntity entry : entries) {
+      events += entry.getEventCount();
+    }
+    writtenEvents.addAndGet(events);
+    writtenEntries.addAndGet(entries.size());
+
+    updateLag(entries);
+
+    long now = ClockUtil.getCurrentTime().getTime();
+    if (statisticsTime == 0 || now - statisticsTime >= statisticsIntervalInMillis) {
+      updateStatistics();
+    }
+
+    return entries.size();
+  }
+
+  /**
+   * Updates the lag from the drained entries: the outbox is drained up to the youngest
+   * entry of a full batch. If the batch is not full, the outbox is drained completely.
+   */
+  protected void updateLag(List<HistoryEventOutboxEntity> drainedEntries) {
+    if (drainedEntries.size() < maxEntriesPerBatch) {
+      lagInMillis = 0;
+    }
+    else {
+      Date createTime = drainedEntries.get(drainedEntries.size() - 1).getCreateTime();
+      lagInMillis = Math.max(0, ClockUtil.getCurrentTime().getTime() - createTime.getTime());
+    }
+  }
+
+  /**
+   * Updates the number of pending entries and the lag from the oldest entry left in the
+   * outbox, which includes the entries claimed by other process engines and the entries
+   * which could not be drained. Since this counts the entries of the outbox, it is done at
+   * most once per {@link #getStatisticsIntervalInMillis() statistics interval}.
+   */
+  protected void updateStatistics() {
+    statisticsTime = ClockUtil.getCurrentTime().getTime();
+    Map<String, Object> statistics = commandExecutor.execute(new GetHistoryEventOutboxStatisticsCmd());
+
+    Number entryCount = statistics != null ? (Number) statistics.get("entryCount") : null;
+    Date oldestCreateTime = statistics != null ? (Date) statistics.get("oldestCreateTime") : null;
+
+    pendingEntries = entryCount != null ? entryCount.longValue() : 0;
+    if (oldestCreateTime == null) {
+      lagInMillis = 0;
+    }
+    else {
+      lagInMillis = Math.max(0, ClockUtil.getCurrentTime().getTime() - oldestCreateTime.getTime());
+    }
+  }
+
+  protected void updateLagAfterFailure() {
+    try {
+      updateStatistics();
+    } catch (Exception e) {
+      log.log(Level.FINE, "could not read the statistics of the history event outbox", e);
+    }
+  }
+
+  protected long calculateFailureWait() {
+    failedBatches.incrementAndGet();
+    failureWait = Math.min(maxWaitTimeInMillis, Math.max(waitTimeInMillis, failureWait * 2));
+    return failureWait;
+  }
+
+  // metrics //////////////////////////////////////////////////////////////////
+
+  /**
+   * @return the number of history events written since the writer was started
+   */
+  public long getWrittenEvents() {
+    return writtenEvents.get();
+  }
+
+  /**
+   * @return the number of outbox entries drained since the writer was started
+   */
+  public long getWrittenEntries() {
+    return writtenEntries.get();
+  }
+
+  /**
+   * @return the number of batches which could not be drained
+   */
+  public long getFailedBatches() {
+    return failedBatches.get();
+  }
+
+  /**
+   * @return the age of the youngest entry of the last batch, 0 if it drained the outbox
+   */
+  public long getLagInMillis() {
+    return lagInMillis;
+  }
+
+  /**
+   * @return the number of entries left in the outbox when the statistics were read last
+   */
+  public long getPendingEntries() {
+    return pendingEntries;
+  }
+
+  /**
+   * @return the number of history events written per second since the writer was started
+   */
+  public double getEventsPerSecond() {
+    long elapsedMillis = ClockUtil.getCurrentTime().getTime() - startTime;
+    if (startTime == 0 || elapsedMillis <= 0) {
+      return 0;
+    }
+    return writtenEvents.get() * 1000.0 / elapsedMillis;
+  }
+
+  public boolean isActive() {
+    return writerThread != null;
+  }
+
+  // getters / setters ////////////////////////////////////////////////////////
+
+  public HistoryEventHandler getHistoryEventHandler() {
+    return historyEventHandler;
+  }
+
+  public CommandExecutor getCommandExecutor() {
+    return commandExecutor;
+  }
+
+  public void setCommandExecutor(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  public int getMaxEntriesPerBatch() {
+    return maxEntriesPerBatch;
+  }
+
+  public void setMaxEntriesPerBatch(int maxEntriesPerBatch) {
+    this.maxEntriesPerBatch = maxEntriesPerBatch;
+  }
+
+  public long getWaitTimeInMillis() {
+    return waitTimeInMillis;
+  }
+
+  public void setWaitTimeInMillis(long waitTimeInMillis) {
+    this.waitTimeInMillis = waitTimeInMillis;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public long getStatisticsIntervalInMillis() {
+    return statisticsIntervalInMillis;
+  }
+
+  public void setStatisticsIntervalInMillis(long statisticsIntervalInMillis) {
+    this.statisticsIntervalInMillis = statisticsIntervalInMillis;
+  }
+
+  public long getMaxWaitTimeInMillis() {
+    return maxWaitTimeInMillis;
+  }
+
+  public void setMaxWaitTimeInMillis(long maxWaitTimeInMillis) {
+    this.maxWaitTimeInMillis = maxWaitTimeInMillis;
+  }
+
+}
@@ -0,0 +1,58 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+
+/**
+ * <p>{@link DbHistoryEventHandler} used by the {@link HistoryEventOutboxWriter} to write the
+ * events of many commands in a single transaction.</p>
+ *
+ * <p>The events of different commands are different instances, even if they describe the same
+ * history entity: an event updating an entity which is already cached replaces the cached
+ * event instead of being ignored.</p>
+ */
+public class OutboxDbHistoryEventHandler extends DbHistoryEventHandler {
+
+  protected void insertOrUpdate(HistoryEvent historyEvent) {
+    String eventType = historyEvent.getEventType();
+
+    if (eventType != null && !isInitialEvent(eventType) && historyEvent.getId() != null) {
+      DbEntityManager dbEntityManager = getDbEntityManager();
+      HistoryEvent cachedEvent = dbEntityManager.getCachedEntity(historyEvent.getClass(), historyEvent.getId());
+
+      if (cachedEvent != null && cachedEvent != historyEvent) {
+        if (historyEvent instanceof HistoricScopeInstanceEvent) {
+          ((HistoricScopeInstanceEvent) historyEvent).setStartTime(((HistoricScopeInstanceEvent) cachedEvent).getStartTime());
+        }
+
+        DbEntityCache dbEntityCache = dbEntityManager.getDbEntityCache();
+        if (dbEntityCache.isTransient(cachedEvent)) {
+          // the entity was created by an earlier command of the same batch
+          dbEntityCache.remove(cachedEvent);
+          dbEntityManager.insert(historyEvent);
+        }
+        else {
+          dbEntityManager.merge(historyEvent);
+        }
+        return;
+      }
+    }
+
+    super.insertOrUpdate(historyEvent);
+  }
+
+}
@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+
+/**
+ * <p>History event handler that appends the history events to the history event outbox
+ * instead of writing them to the history tables. The outbox is written in the transaction
+ * of the command which produced the events.</p>
+ *
+ * <p>The {@link HistoryEventOutboxWriter} drains the outbox asynchronously.</p>
+ */
+public class OutboxHistoryEventHandler implements HistoryEventHandler {
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    Context.getCommandContext()
+      .getHistoryEventOutboxManager()
+      .addEvent(historyEvent);
+  }
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    for (HistoryEvent historyEvent : historyEvents) {
+      handleEvent(historyEvent);
+    }
+  }
+
+}
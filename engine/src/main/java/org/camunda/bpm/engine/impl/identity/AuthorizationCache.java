@@ -0,0 +1,170 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.identity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Engine-wide cache of the {@link PermissionSet permission sets} of users, keyed by
+ * the user id, the group ids and the resource type. A size bounded cache evicting the
+ * least recently used permission sets.</p>
+ *
+ * <p>The cache is tied to the authorization revision stored in the database, which is
+ * incremented by every transaction changing authorizations. Once a command reads a
+ * different revision than the cache, all cached permission sets are discarded. This way
+ * changes made by other process engines on the same database are seen by the next
+ * command.</p>
+ */
+public class AuthorizationCache {
+
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  protected final int capacity;
+
+  /** guarded by this */
+  protected Map<CacheKey, PermissionSet> permissionSets;
+  /** guarded by this */
+  protected long revision = -1;
+
+  protected AtomicLong hitCount = new AtomicLong();
+  protected AtomicLong missCount = new AtomicLong();
+
+  public AuthorizationCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  @SuppressWarnings("serial")
+  public AuthorizationCache(final int capacity) {
+    this.capacity = capacity;
+    this.permissionSets = new LinkedHashMap<CacheKey, PermissionSet>(16, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, PermissionSet> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * @param revision the authorization revision read by the current command
+   * @return the cached permission set, null if it is not cached for the revision
+   */
+  public PermissionSet get(String userId, List<String> groupIds, int resourceType, long revision) {
+    CacheKey key = new CacheKey(userId, groupIds, resourceType);
+    PermissionSet permissionSet = null;
+
+    synchronized (this) {
+      updateRevision(revision);
+      permissionSet = permissionSets.get(key);
+    }
+
+    if (permissionSet != null) {
+      hitCount.incrementAndGet();
+    } else {
+      missCount.incrementAndGet();
+    }
+    return permissionSet;
+  }
+
+  /**
+   * @param revision the authorization revision the permission set was loaded for
+   */
+  public void put(String userId, List<String> groupIds, int resourceType, long revision, PermissionSet permissionSet) {
+    CacheKey key = new CacheKey(userId, groupIds, resourceType);
+
+    synchronized (this) {
+      updateRevision(revision);
+      permissionSets.put(key, permissionSet);
+    }
+  }
+
+  /**
+   * Discards the cached permission sets if the revision changed. The revision may also
+   * decrease, e.g. if the database is recreated.
+   */
+  protected void updateRevision(long revision) {
+    if (revision != this.revision) {
+      permissionSets.clear();
+      this.revision = revision;
+    }
+  }
+
+  public synchronized void clear() {
+    permissionSets.clear();
+  }
+
+  public synchronized int size() {
+    return permissionSets.size();
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  protected static class CacheKey {
+
+    protected final String userId;
+    protected final List<String> groupIds;
+    protected final int resourceType;
+    protected final int hashCode;
+
+    public CacheKey(String userId, List<String> groupIds, int resourceType) {
+      this.userId = userId;
+      this.resourceType = resourceType;
+
+      if (groupIds == null || groupIds.isEmpty()) {
+        this.groupIds = Collections.emptyList();
+      } else {
+        // the order of the groups does not matter
+        List<String> sortedGroupIds = new ArrayList<String>(groupIds);
+        Collections.sort(sortedGroupIds);
+        this.groupIds = sortedGroupIds;
+      }
+
+      int result = userId == null ? 0 : userId.hashCode();
+      result = 31 * result + this.groupIds.hashCode();
+      result = 31 * result + resourceType;
+      this.hashCode = result;
+    }
+
+    public int hashCode() {
+      return hashCode;
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) obj;
+      return resourceType == other.resourceType
+          && (userId == null ? other.userId == null : userId.equals(other.userId))
+          && groupIds.equals(other.groupIds);
+    }
+
+  }
+
+}
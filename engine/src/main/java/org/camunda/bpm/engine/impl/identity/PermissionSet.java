@@ -0,0 +1,170 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.identity;
+
+import static org.camunda.bpm.engine.authorization.Authorization.ANY;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GLOBAL;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_REVOKE;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.camunda.bpm.engine.authorization.Authorization;
+
+/**
+ * <p>The authorizations of a resource type which apply to a user and a set of groups,
+ * indexed by resource id. Evaluates permission checks in memory with the same precedence
+ * as the <code>authCheck</code> statement of <code>Authorization.xml</code>:</p>
+ *
+ * <ol>
+ *  <li>user grants</li>
+ *  <li>user revokes</li>
+ *  <li>group revokes</li>
+ *  <li>group grants</li>
+ *  <li>global grants</li>
+ * </ol>
+ *
+ * <p>Within each level, an authorization for the resource id precedes an authorization
+ * for {@link Authorization#ANY any} resource id. The set is immutable once created.</p>
+ */
+public class PermissionSet {
+
+  protected Map<String, List<Integer>> userGrants = new HashMap<String, List<Integer>>();
+  protected Map<String, List<Integer>> userRevokes = new HashMap<String, List<Integer>>();
+  protected Map<String, List<Integer>> groupGrants = new HashMap<String, List<Integer>>();
+  protected Map<String, List<Integer>> groupRevokes = new HashMap<String, List<Integer>>();
+  protected Map<String, List<Integer>> globalGrants = new HashMap<String, List<Integer>>();
+
+  /**
+   * @param authorizations the authorizations of the resource type for the user, the groups
+   * and all users; authorizations of other users and groups are ignored
+   */
+  public PermissionSet(String userId, List<String> groupIds, List<Authorization> authorizations) {
+    for (Authorization authorization : authorizations) {
+      int type = authorization.getAuthorizationType();
+      String resourceId = authorization.getResourceId();
+      int permissions = authorization.getPermissions();
+
+      if (type == AUTH_TYPE_GLOBAL) {
+        if (ANY.equals(authorization.getUserId())) {
+          // a global revoke only denies what is not granted anyway
+          add(globalGrants, resourceId, permissions);
+        }
+      }
+      else if (userId != null && userId.equals(authorization.getUserId())) {
+        if (type == AUTH_TYPE_GRANT) {
+          add(userGrants, resourceId, permissions);
+        } else if (type == AUTH_TYPE_REVOKE) {
+          add(userRevokes, resourceId, permissions);
+        }
+      }
+      else if (groupIds != null && authorization.getGroupId() != null && groupIds.contains(authorization.getGroupId())) {
+        if (type == AUTH_TYPE_GRANT) {
+          add(groupGrants, resourceId, permissions);
+        } else if (type == AUTH_TYPE_REVOKE) {
+          add(groupRevokes, resourceId, permissions);
+        }
+      }
+    }
+  }
+
+  protected void add(Map<String, List<Integer>> authorizations, String resourceId, int permissions) {
+    List<Integer> resourcePermissions = authorizations.get(resourceId);
+    if (resourcePermissions == null) {
+      resourcePermissions = new ArrayList<Integer>(1);
+      authorizations.put(resourceId, resourcePermissions);
+    }
+    resourcePermissions.add(permissions);
+  }
+
+  /**
+   * @param permission the value of the permission(s) to check
+   * @param resourceId the id of the resource, null to only check the authorizations for any resource
+   */
+  public boolean isAuthorized(int permission, String resourceId) {
+    if (isGranted(userGrants, permission, resourceId)) {
+      return true;
+    }
+    if (isRevoked(userRevokes, permission, resourceId)) {
+      return false;
+    }
+    if (isRevoked(groupRevokes, permission, resourceId)) {
+      return false;
+    }
+    if (isGranted(groupGrants, permission, resourceId)) {
+      return true;
+    }
+    if (isGranted(globalGrants, permission, resourceId)) {
+      return true;
+    }
+    // no matching authorization found: the request is not authorized
+    return false;
+  }
+
+  /**
+   * @return the ids of the resources for which a specific authorization exists; for all
+   * other resources, the permissions are those of {@link #isAuthorized(int, String) isAuthorized(permission, null)}
+   */
+  public Set<String> getResourceIds() {
+    Set<String> resourceIds = new HashSet<String>();
+    resourceIds.addAll(userGrants.keySet());
+    resourceIds.addAll(userRevokes.keySet());
+    resourceIds.addAll(groupGrants.keySet());
+    resourceIds.addAll(groupRevokes.keySet());
+    resourceIds.addAll(globalGrants.keySet());
+    resourceIds.remove(ANY);
+    return resourceIds;
+  }
+
+  protected boolean isGranted(Map<String, List<Integer>> grants, int permission, String resourceId) {
+    if (resourceId != null && !ANY.equals(resourceId) && containsGranting(grants.get(resourceId), permission)) {
+      return true;
+    }
+    return containsGranting(grants.get(ANY), permission);
+  }
+
+  protected boolean isRevoked(Map<String, List<Integer>> revokes, int permission, String resourceId) {
+    if (resourceId != null && !ANY.equals(resourceId) && containsRevoking(revokes.get(resourceId), permission)) {
+      return true;
+    }
+    return containsRevoking(revokes.get(ANY), permission);
+  }
+
+  protected boolean containsGranting(List<Integer> authorizations, int permission) {
+    if (authorizations != null) {
+      for (int permissions : authorizations) {
+        if ((permissions & permission) == permission) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  protected boolean containsRevoking(List<Integer> authorizations, int permission) {
+    if (authorizations != null) {
+      for (int permissions : authorizations) {
+        if ((permissions & permission) != permission) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+}
@@ -31,6 +31,8 @@ import org.camunda.bpm.engine.TaskAlreadyClaimedException;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContext;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionManager;
 import org.camunda.bpm.engine.impl.cmmn.entity.runtime.CaseExecutionEntity;
 import org.camunda.bpm.engine.impl.cmmn.entity.runtime.CaseExecutionManager;
@@ -44,6 +46,7 @@ import org.camunda.bpm.engine.impl.identity.Authentication;
 import org.camunda.bpm.engine.impl.identity.ReadOnlyIdentityProvider;
 import org.camunda.bpm.engine.impl.identity.WritableIdentityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobCommandFactory;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.entity.AttachmentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
@@ -58,6 +61,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.HistoricDetailManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricIncidentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricProcessInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricStatisticsManager;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventOutboxManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricTaskInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IdentityInfoManager;
@@ -65,6 +69,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.IdentityLinkManager;
 import org.camunda.bpm.engine.impl.persistence.entity.IncidentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
+import org.camunda.bpm.engine.impl.persistence.entity.MeterLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.PropertyManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceManager;
@@ -74,6 +79,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.TaskManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
 import org.camunda.bpm.engine.impl.pvm.runtime.AtomicOperation;
+import org.camunda.bpm.engine.management.EngineMetrics;
 
 /**
  * @author Tom Baeyens
@@ -90,6 +96,11 @@ public class CommandContext {
   protected List<Session> sessionList = new ArrayList<Session>();
   protected ProcessEngineConfigurationImpl processEngineConfiguration;
   protected FailedJobCommandFactory failedJobCommandFactory;
+  protected MetricsRegistry metricsRegistry;
+  /** the occurrences counted by this command context, marked once the transaction is committed */
+  protected Map<String, Long> meterOccurrences;
+  /** the time spent in activities executed synchronously by the currently executed activity */
+  protected long nestedActivityTime = 0;
 
   protected List<CommandContextListener> commandContextListeners = new LinkedList<CommandContextListener>();
 
@@ -100,6 +111,7 @@ public class CommandContext {
   public CommandContext(ProcessEngineConfigurationImpl processEngineConfiguration, TransactionContextFactory transactionContextFactory) {
     this.processEngineConfiguration = processEngineConfiguration;
     this.failedJobCommandFactory = processEngineConfiguration.getFailedJobCommandFactory();
+    this.metricsRegistry = processEngineConfiguration.getMetricsRegistry();
     sessionFactories = processEngineConfiguration.getSessionFactories();
     this.transactionContext = transactionContextFactory.openTransactionContext(this);
   }
@@ -124,7 +136,14 @@ public class CommandContext {
         if (log.isLoggable(Level.FINEST)) {
           log.finest("AtomicOperation: " + executionOperation + " on " + this);
         }
-        executionOperation.execute(execution);
+        if (executionOperation == AtomicOperation.ACTIVITY_EXECUTE) {
+          markOccurrenceOnCommit(EngineMetrics.ACTIVITY_INSTANCE_START);
+        }
+        if (metricsRegistry != null && executionOperation == AtomicOperation.ACTIVITY_EXECUTE) {
+          performActivityExecute(executionOperation, execution);
+        } else {
+          executionOperation.execute(execution);
+        }
       } finally {
         Context.removeExecutionContext();
       }
@@ -132,6 +151,57 @@ public class CommandContext {
 
   }
 
+  /**
+   * Executes the activity of the execution and records its latency per activity type.
+   * The time spent in the activities which the activity executes synchronously, e.g.
+   * by leaving it, is not included, so that each activity is only recorded with the
+   * time spent in its own behavior.
+   */
+  protected void performActivityExecute(AtomicOperation executionOperation, ExecutionEntity execution) {
+    String activityType = (String) execution.getActivity().getProperty("type");
+    if (activityType == null) {
+      executionOperation.execute(execution);
+      return;
+    }
+
+    long outerNestedActivityTime = nestedActivityTime;
+    nestedActivityTime = 0;
+
+    long startTime = System.nanoTime();
+    try {
+      executionOperation.execute(execution);
+    } finally {
+      long latency = System.nanoTime() - startTime;
+      metricsRegistry.recordActivity(activityType, latency - nestedActivityTime);
+      nestedActivityTime = outerNestedActivityTime + latency;
+    }
+  }
+
+  /**
+   * Counts an occurrence of the meter with the given name. The occurrences are marked
+   * in the metrics registry once the transaction is committed, so that the work of
+   * rolled back transactions is not counted.
+   */
+  public void markOccurrenceOnCommit(String meterName) {
+    if (metricsRegistry == null) {
+      return;
+    }
+
+    if (meterOccurrences == null) {
+      meterOccurrences = new HashMap<String, Long>();
+      transactionContext.addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+        public void execute(CommandContext commandContext) {
+          for (Map.Entry<String, Long> occurrences : meterOccurrences.entrySet()) {
+            metricsRegistry.markTimes(occurrences.getKey(), occurrences.getValue());
+          }
+        }
+      });
+    }
+
+    Long occurrences = meterOccurrences.get(meterName);
+    meterOccurrences.put(meterName, occurrences == null ? 1L : occurrences + 1);
+  }
+
   public void performOperation(final CmmnAtomicOperation executionOperation, final CaseExecutionEntity execution) {
     ProcessApplicationReference targetProcessApplication = getTargetProcessApplication(execution);
 
@@ -397,6 +467,14 @@ public class CommandContext {
     return getSession(HistoricStatisticsManager.class);
   }
 
+  public HistoryEventOutboxManager getHistoryEventOutboxManager() {
+    return getSession(HistoryEventOutboxManager.class);
+  }
+
+  public MeterLogManager getMeterLogManager() {
+    return getSession(MeterLogManager.class);
+  }
+
   public AuthorizationManager getAuthorizationManager() {
     return getSession(AuthorizationManager.class);
   }
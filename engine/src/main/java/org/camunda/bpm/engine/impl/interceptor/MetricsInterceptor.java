@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.interceptor;
+
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+
+/**
+ * Records the latency of each command in the {@link MetricsRegistry}. As the first
+ * interceptor of the chain, the latency includes the flush and the commit of the
+ * command context.
+ */
+public class MetricsInterceptor extends CommandInterceptor {
+
+  protected MetricsRegistry metricsRegistry;
+
+  public MetricsInterceptor(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  public <T> T execute(Command<T> command) {
+    long startTime = System.nanoTime();
+    try {
+      return next.execute(command);
+
+    } finally {
+      metricsRegistry.recordCommand(command.getClass().getName(), System.nanoTime() - startTime);
+    }
+  }
+
+}
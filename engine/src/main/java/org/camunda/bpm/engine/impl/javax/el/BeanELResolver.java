@@ -126,8 +126,38 @@ public class BeanELResolver extends ELResolver {
 		return method;
 	}
 
+	/**
+	 * Key of a method resolved by name and number of parameters.
+	 */
+	private static final class MethodKey {
+		private final Class<?> type;
+		private final String name;
+		private final int paramCount;
+
+		public MethodKey(Class<?> type, String name, int paramCount) {
+			this.type = type;
+			this.name = name;
+			this.paramCount = paramCount;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof MethodKey)) {
+				return false;
+			}
+			MethodKey other = (MethodKey) obj;
+			return type == other.type && paramCount == other.paramCount && name.equals(other.name);
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * type.hashCode() + name.hashCode()) * 31 + paramCount;
+		}
+	}
+
 	private final boolean readOnly;
 	private final ConcurrentHashMap<Class<?>, BeanProperties> cache;
+	private final ConcurrentHashMap<MethodKey, Method> methodCache;
 	
 	private ExpressionFactory defaultFactory;
 
@@ -144,6 +174,7 @@ public class BeanELResolver extends ELResolver {
 	public BeanELResolver(boolean readOnly) {
 		this.readOnly = readOnly;
 		this.cache = new ConcurrentHashMap<Class<?>, BeanProperties>();
+		this.methodCache = new ConcurrentHashMap<MethodKey, Method>();
 	}
 
 	/**
@@ -495,8 +526,21 @@ public class BeanELResolver extends ELResolver {
 				return null;
 			}
 		}
+		// resolving the method by its name requires a scan of all public methods of the class
+		MethodKey key = new MethodKey(base.getClass(), name, paramCount);
+		Method method = methodCache.get(key);
+		if (method == null) {
+			method = findMethod(base.getClass(), name, paramCount);
+			if (method != null) {
+				methodCache.put(key, method);
+			}
+		}
+		return method;
+	}
+
+	private Method findMethod(Class<?> type, String name, int paramCount) {
 		Method varArgsMethod = null;
-		for (Method method : base.getClass().getMethods()) {
+		for (Method method : type.getMethods()) {
 			if (method.getName().equals(name)) {
 				int formalParamCount = method.getParameterTypes().length;
 				if (method.isVarArgs() && paramCount >= formalParamCount - 1) {
@@ -624,8 +668,10 @@ public class BeanELResolver extends ELResolver {
 	}
 
 	/**
-	 * This method is not part of the API, though it can be used (reflectively) by clients of this
-	 * class to remove entries from the cache when the beans are being unloaded.
+	 * This method is not part of the API, though it can be used by clients of this class to remove
+	 * entries from the property and method caches when the beans are being unloaded. The caches
+	 * keep strong references to the bean classes, so a resolver which outlives the class loader
+	 * of the beans must be purged to allow the class loader to be collected.
 	 * 
 	 * Note: this method is present in the reference implementation, so we're adding it here to ease
 	 * migration.
@@ -633,13 +679,18 @@ public class BeanELResolver extends ELResolver {
 	 * @param classloader
 	 *            The classLoader used to load the beans.
 	 */
-	@SuppressWarnings("unused")
-	private final void purgeBeanClasses(ClassLoader loader) {
+	public final void purgeBeanClasses(ClassLoader loader) {
 		Iterator<Class<?>> classes = cache.keySet().iterator();
 		while (classes.hasNext()) {
 			if (loader == classes.next().getClassLoader()) {
 				classes.remove();
 			}
 		}
+		Iterator<MethodKey> methods = methodCache.keySet().iterator();
+		while (methods.hasNext()) {
+			if (loader == methods.next().type.getClassLoader()) {
+				methods.remove();
+			}
+		}
 	}
 }
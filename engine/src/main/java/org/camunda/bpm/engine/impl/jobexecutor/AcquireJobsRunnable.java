@@ -14,11 +14,13 @@ package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.persistence.entity.TimerEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
@@ -42,6 +44,19 @@ public class AcquireJobsRunnable implements Runnable {
   protected float waitIncreaseFactor = 2;
   protected long maxWait = 60 * 1000;
 
+  /** wait time while the job executor has no free capacity, the database is not queried meanwhile */
+  protected long saturationWait = 100;
+
+  /** the current backoff applied while acquisitions return no jobs */
+  protected long idleWait = 0;
+
+  /** the current backoff applied while jobs cannot be locked because other job executors locked them first */
+  protected long lockFailureWait = 0;
+  protected long baseLockFailureWait = 50;
+  protected long maxLockFailureWait = 5 * 1000;
+
+  protected final Random random = new Random();
+
   public AcquireJobsRunnable(JobExecutor jobExecutor) {
     this.jobExecutor = jobExecutor;
   }
@@ -52,38 +67,29 @@ public class AcquireJobsRunnable implements Runnable {
     }
 
     final CommandExecutor commandExecutor = jobExecutor.getCommandExecutor();
+    final ProcessEngineImpl processEngine = getProcessEngine();
 
     while (!isInterrupted) {
-      int maxJobsPerAcquisition = jobExecutor.getMaxJobsPerAcquisition();
 
       try {
-        AcquiredJobs acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd());
+        int numJobsToAcquire = getNumJobsToAcquire();
+        AcquiredJobs acquiredJobs = null;
 
-        for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
-          jobExecutor.executeJobs(jobIds);
-        }
+        if (numJobsToAcquire > 0) {
+          acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd(numJobsToAcquire));
 
-        // if all jobs were executed
-        millisToWait = jobExecutor.getWaitTimeInMillis();
-        // add number of jobs which we attempted to acquire but could not obtain a lock for -> do not wait if we could not acquire jobs.
-        int jobsAcquired = acquiredJobs.getJobIdBatches().size() + acquiredJobs.getNumberOfJobsFailedToLock();
-        if (jobsAcquired < maxJobsPerAcquisition) {
+          for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
+            jobExecutor.executeJobs(jobIds, acquiredJobs.getPriority(jobIds), processEngine);
+          }
+        }
 
-          isJobAdded = false;
+        millisToWait = calculateWaitTime(numJobsToAcquire, acquiredJobs);
 
-          // check if the next timer should fire before the normal sleep time is over
+        if (millisToWait > jobExecutor.getWaitTimeInMillis()) {
+          // check if the next timer should fire before the backoff is over
           Date duedate = new Date(ClockUtil.getCurrentTime().getTime() + millisToWait);
           List<TimerEntity> nextTimers = commandExecutor.execute(new GetUnlockedTimersByDuedateCmd(duedate, new Page(0, 1)));
-
-          if (!nextTimers.isEmpty()) {
-          long millisTillNextTimer = nextTimers.get(0).getDuedate().getTime() - ClockUtil.getCurrentTime().getTime();
-            if (millisTillNextTimer < millisToWait) {
-              millisToWait = millisTillNextTimer;
-            }
-          }
-
-        } else {
-          millisToWait = 0;
+          millisToWait = getWaitTimeUntilNextTimer(nextTimers, millisToWait);
         }
 
       } catch (Exception e) {
@@ -98,6 +104,10 @@ public class AcquireJobsRunnable implements Runnable {
         }
       }
 
+      if (isJobAdded) {
+        resetBackoff();
+      }
+
       if ((millisToWait > 0) && (!isJobAdded)) {
         try {
           if (log.isLoggable(Level.FINE)) {
@@ -121,6 +131,7 @@ public class AcquireJobsRunnable implements Runnable {
           isWaiting.set(false);
         }
       }
+      isJobAdded = false;
     }
 
     if (log.isLoggable(Level.INFO)) {
@@ -128,6 +139,97 @@ public class AcquireJobsRunnable implements Runnable {
     }
   }
 
+  /**
+   * @return the process engine whose command executor acquires the jobs
+   * (see {@link JobExecutor#getCommandExecutor()}), null if none is registered
+   */
+  protected ProcessEngineImpl getProcessEngine() {
+    List<ProcessEngineImpl> processEngines = jobExecutor.getProcessEngines();
+    if (processEngines.isEmpty()) {
+      return null;
+    }
+    return processEngines.get(0);
+  }
+
+  // adaptive acquisition ////////////////////////////////////////
+
+  /**
+   * @return the number of jobs to acquire: never more than the job executor is
+   * able to take without rejecting them.
+   */
+  protected int getNumJobsToAcquire() {
+    return Math.min(jobExecutor.getMaxJobsPerAcquisition(), jobExecutor.getFreeCapacity());
+  }
+
+  /**
+   * Calculates the time to wait before the next acquisition:
+   * <ul>
+   *   <li>no wait if all requested jobs were acquired</li>
+   *   <li>a short wait without querying the database if the job executor has no free capacity</li>
+   *   <li>an exponentially growing, jittered wait if jobs could not be locked
+   *       because other job executors acquired them concurrently</li>
+   *   <li>a wait proportional to the missing jobs if only some jobs were acquired</li>
+   *   <li>an exponentially growing wait if no jobs were acquired</li>
+   * </ul>
+   *
+   * @param numJobsRequested the number of jobs requested, 0 if no acquisition was performed
+   * @param acquiredJobs the result of the acquisition, null if no acquisition was performed
+   */
+  protected long calculateWaitTime(int numJobsRequested, AcquiredJobs acquiredJobs) {
+    if (numJobsRequested <= 0 || acquiredJobs == null) {
+      return Math.min(saturationWait, jobExecutor.getWaitTimeInMillis());
+    }
+
+    int numJobsFailedToLock = acquiredJobs.getNumberOfJobsFailedToLock();
+    int numJobsAcquired = acquiredJobs.getJobIdBatches().size() + numJobsFailedToLock;
+
+    if (numJobsFailedToLock > 0) {
+      idleWait = 0;
+      lockFailureWait = increaseWait(lockFailureWait, baseLockFailureWait, maxLockFailureWait);
+      // jitter so that competing job executors do not retry in lock step
+      return lockFailureWait / 2 + (long) (random.nextDouble() * lockFailureWait / 2);
+    }
+    lockFailureWait = 0;
+
+    if (numJobsAcquired >= numJobsRequested) {
+      idleWait = 0;
+      return 0;
+    }
+
+    if (numJobsAcquired > 0) {
+      idleWait = 0;
+      return jobExecutor.getWaitTimeInMillis() * (numJobsRequested - numJobsAcquired) / numJobsRequested;
+    }
+
+    idleWait = increaseWait(idleWait, jobExecutor.getWaitTimeInMillis(), maxWait);
+    return idleWait;
+  }
+
+  protected long increaseWait(long currentWait, long initialWait, long maximumWait) {
+    if (currentWait == 0) {
+      return Math.min(initialWait, maximumWait);
+    }
+    return Math.min((long) (currentWait * waitIncreaseFactor), maximumWait);
+  }
+
+  /**
+   * @return the time until the first of the given timers is due if it is shorter than the wait time
+   */
+  protected long getWaitTimeUntilNextTimer(List<TimerEntity> nextTimers, long waitTime) {
+    if (!nextTimers.isEmpty()) {
+      long millisTillNextTimer = nextTimers.get(0).getDuedate().getTime() - ClockUtil.getCurrentTime().getTime();
+      if (millisTillNextTimer < waitTime) {
+        return Math.max(0, millisTillNextTimer);
+      }
+    }
+    return waitTime;
+  }
+
+  protected void resetBackoff() {
+    idleWait = 0;
+    lockFailureWait = 0;
+  }
+
   public void stop() {
     synchronized (MONITOR) {
       isInterrupted = true;
@@ -173,4 +275,28 @@ public class AcquireJobsRunnable implements Runnable {
     this.maxWait = maxWait;
   }
 
+  public long getSaturationWait() {
+    return saturationWait;
+  }
+
+  public void setSaturationWait(long saturationWait) {
+    this.saturationWait = saturationWait;
+  }
+
+  public long getBaseLockFailureWait() {
+    return baseLockFailureWait;
+  }
+
+  public void setBaseLockFailureWait(long baseLockFailureWait) {
+    this.baseLockFailureWait = baseLockFailureWait;
+  }
+
+  public long getMaxLockFailureWait() {
+    return maxLockFailureWait;
+  }
+
+  public void setMaxLockFailureWait(long maxLockFailureWait) {
+    this.maxLockFailureWait = maxLockFailureWait;
+  }
+
 }
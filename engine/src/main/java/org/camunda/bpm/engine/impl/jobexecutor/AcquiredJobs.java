@@ -14,10 +14,14 @@ package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
 
 /**
  * @author Tom Baeyens
@@ -27,6 +31,7 @@ public class AcquiredJobs {
 
   protected List<List<String>> acquiredJobBatches = new ArrayList<List<String>>();
   protected Set<String> acquiredJobs = new HashSet<String>();
+  protected Map<List<String>, Long> batchPriorities = new IdentityHashMap<List<String>, Long>();
 
   protected int numberOfJobsFailedToLock = 0;
 
@@ -39,6 +44,19 @@ public class AcquiredJobs {
     acquiredJobs.addAll(jobIds);
   }
 
+  public void addJobIdBatch(List<String> jobIds, long priority) {
+    addJobIdBatch(jobIds);
+    batchPriorities.put(jobIds, priority);
+  }
+
+  /**
+   * @return the priority of the given batch, the highest priority of the jobs it contains
+   */
+  public long getPriority(List<String> jobIdBatch) {
+    Long priority = batchPriorities.get(jobIdBatch);
+    return priority != null ? priority : JobEntity.DEFAULT_PRIORITY;
+  }
+
   public boolean contains(String jobId) {
     return acquiredJobs.contains(jobId);
   }
@@ -60,6 +78,7 @@ public class AcquiredJobs {
       // remove batch if it is now empty
       if(batch.isEmpty()) {
         batchIterator.remove();
+        batchPriorities.remove(batch);
       }
 
     }
@@ -12,7 +12,6 @@
  */
 package org.camunda.bpm.engine.impl.jobexecutor;
 
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -24,7 +23,7 @@ import java.util.logging.Logger;
  * threads for performing background work.</p>
  * 
  * <p>This implementation uses a {@link ThreadPoolExecutor} backed by a queue to which
- * work is submitted.</p>
+ * work is submitted. Work with a higher job priority is taken from the queue first.</p>
  * 
  * <p><em>NOTE: use this class in environments in which self-management of threads 
  * is permitted. Consider using a different thread-management strategy in 
@@ -42,7 +41,8 @@ public class DefaultJobExecutor extends ThreadPoolJobExecutor {
     
   protected void startExecutingJobs() {
    
-    BlockingQueue<Runnable> threadPoolQueue = new ArrayBlockingQueue<Runnable>(queueSize);
+    // jobs with a higher priority are taken from the queue first
+    BlockingQueue<Runnable> threadPoolQueue = new JobPriorityBlockingQueue(queueSize);
     
     if (threadPoolExecutor==null) {
       threadPoolExecutor = new ThreadPoolExecutor(corePoolSize, maxPoolSize, 0L, TimeUnit.MILLISECONDS, threadPoolQueue);      
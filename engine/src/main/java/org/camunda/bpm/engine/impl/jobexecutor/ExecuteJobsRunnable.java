@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +21,7 @@ import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.cmd.ExecuteJobsCmd;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 
 
 /**
@@ -30,9 +32,14 @@ public class ExecuteJobsRunnable implements Runnable {
   
   private final static Logger LOGG = Logger.getLogger(ExecuteJobsRunnable.class.getName());
 
+  /** orders runnables of the same priority by their creation */
+  private final static AtomicLong SEQUENCE = new AtomicLong();
+
   protected final List<String> jobIds;
   protected JobExecutor jobExecutor;
   protected ProcessEngineImpl processEngine;
+  protected long priority = JobEntity.DEFAULT_PRIORITY;
+  protected final long sequenceNumber = SEQUENCE.getAndIncrement();
   
   public ExecuteJobsRunnable(JobExecutor jobExecutor, List<String> jobIds) {
     this.jobExecutor = jobExecutor;
@@ -44,6 +51,11 @@ public class ExecuteJobsRunnable implements Runnable {
     this.processEngine = processEngine;
   }
 
+  public ExecuteJobsRunnable(List<String> jobIds, long priority, ProcessEngineImpl processEngine) {
+    this(jobIds, processEngine);
+    this.priority = priority;
+  }
+
   public void run() {
     final JobExecutorContext jobExecutorContext = new JobExecutorContext();
     final List<String> currentProcessorJobQueue = jobExecutorContext.getCurrentProcessorJobQueue();
@@ -78,5 +90,13 @@ public class ExecuteJobsRunnable implements Runnable {
   protected void executeJob(String nextJobId, CommandExecutor commandExecutor) {    
     commandExecutor.execute(new ExecuteJobsCmd(nextJobId));
   }
+
+  public long getPriority() {
+    return priority;
+  }
+
+  public long getSequenceNumber() {
+    return sequenceNumber;
+  }
   
 }
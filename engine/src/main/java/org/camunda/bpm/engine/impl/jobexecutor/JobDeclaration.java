@@ -40,6 +40,8 @@ public abstract class JobDeclaration<T extends JobEntity> implements Serializabl
 
   protected boolean exclusive = JobEntity.DEFAULT_EXCLUSIVE;
 
+  protected long jobPriority = JobEntity.DEFAULT_PRIORITY;
+
   protected String activityId;
 
   public JobDeclaration(String jobHandlerType) {
@@ -59,6 +61,7 @@ public abstract class JobDeclaration<T extends JobEntity> implements Serializabl
 
     // set job definition id
     job.setJobDefinitionId(jobDefinitionId);
+    job.setPriority(jobPriority);
 
     if(jobDefinitionId != null) {
 
@@ -72,6 +75,11 @@ public abstract class JobDeclaration<T extends JobEntity> implements Serializabl
         job.setSuspensionState(jobDefinition.getSuspensionState());
         job.setProcessDefinitionKey(jobDefinition.getProcessDefinitionKey());
         job.setProcessDefinitionId(jobDefinition.getProcessDefinitionId());
+
+        // the priority of the job definition overrides the priority declared in the process definition
+        if(jobDefinition.getOverridingJobPriority() != null) {
+          job.setPriority(jobDefinition.getOverridingJobPriority());
+        }
       }
 
     }
@@ -116,6 +124,14 @@ public abstract class JobDeclaration<T extends JobEntity> implements Serializabl
     this.exclusive = exclusive;
   }
 
+  public long getJobPriority() {
+    return jobPriority;
+  }
+
+  public void setJobPriority(long jobPriority) {
+    this.jobPriority = jobPriority;
+  }
+
   public void setJobHandlerType(String jobHandlerType) {
     this.jobHandlerType = jobHandlerType;
   }
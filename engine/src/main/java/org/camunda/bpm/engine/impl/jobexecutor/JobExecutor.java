@@ -116,6 +116,16 @@ public abstract class JobExecutor {
   protected abstract void stopExecutingJobs();
   public abstract void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine);
 
+  /**
+   * Executes the given batch of jobs. Job executors able to order the execution
+   * of batches should execute batches with a higher priority first.
+   *
+   * @param priority the priority of the batch
+   */
+  public void executeJobs(List<String> jobIds, long priority, ProcessEngineImpl processEngine) {
+    executeJobs(jobIds, processEngine);
+  }
+
   /**
    * Deprecated: use {@link #executeJobs(List, ProcessEngineImpl)} instead
    * @param jobIds
@@ -206,6 +216,27 @@ public abstract class JobExecutor {
     return acquireJobsCmd;
   }
 
+  /**
+   * @return a command acquiring at most the given number of jobs or the custom
+   * command set through {@link #setAcquireJobsCmd(Command)}, including subclasses
+   * of {@link AcquireJobsCmd}. Job executors providing a custom command which
+   * respects the number of jobs can override this method.
+   */
+  public Command<AcquiredJobs> getAcquireJobsCmd(int numJobsToAcquire) {
+    if (acquireJobsCmd != null && acquireJobsCmd.getClass() != AcquireJobsCmd.class) {
+      return acquireJobsCmd;
+    }
+    return new AcquireJobsCmd(this, numJobsToAcquire);
+  }
+
+  /**
+   * @return the number of job batches which can currently be handed to this job executor
+   * without being rejected, {@link Integer#MAX_VALUE} if unknown.
+   */
+  public int getFreeCapacity() {
+    return Integer.MAX_VALUE;
+  }
+
   public void setAcquireJobsCmd(Command<AcquiredJobs> acquireJobsCmd) {
     this.acquireJobsCmd = acquireJobsCmd;
   }
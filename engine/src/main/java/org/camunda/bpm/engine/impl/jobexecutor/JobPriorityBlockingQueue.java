@@ -0,0 +1,109 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
+/**
+ * <p>A size bounded work queue for the {@link java.util.concurrent.ThreadPoolExecutor} of a
+ * {@link ThreadPoolJobExecutor}: {@link ExecuteJobsRunnable ExecuteJobsRunnables} with a higher
+ * priority are taken first, runnables of the same priority in the order they were added.</p>
+ *
+ * <p>Like the bounded queues of the JDK, {@link #offer(Runnable)} rejects runnables once the
+ * capacity is reached so that the thread pool starts additional threads or rejects the jobs.
+ * The queue does not block producers: {@link #put(Runnable)} fails if the queue is full.</p>
+ */
+public class JobPriorityBlockingQueue extends PriorityBlockingQueue<Runnable> {
+
+  private static final long serialVersionUID = 1L;
+
+  protected static final Comparator<Runnable> PRIORITY_COMPARATOR = new Comparator<Runnable>() {
+    public int compare(Runnable runnable1, Runnable runnable2) {
+      long priority1 = getPriority(runnable1);
+      long priority2 = getPriority(runnable2);
+      if (priority1 != priority2) {
+        return priority1 > priority2 ? -1 : 1;
+      }
+
+      long sequenceNumber1 = getSequenceNumber(runnable1);
+      long sequenceNumber2 = getSequenceNumber(runnable2);
+      if (sequenceNumber1 != sequenceNumber2) {
+        return sequenceNumber1 < sequenceNumber2 ? -1 : 1;
+      }
+      return 0;
+    }
+  };
+
+  protected final int capacity;
+
+  public JobPriorityBlockingQueue(int capacity) {
+    super(Math.max(1, capacity), PRIORITY_COMPARATOR);
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be greater than 0 but was " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  public boolean offer(Runnable runnable) {
+    // synchronized so that concurrent producers cannot exceed the capacity,
+    // consumers only decrease the size
+    synchronized (this) {
+      if (size() >= capacity) {
+        return false;
+      }
+      return super.offer(runnable);
+    }
+  }
+
+  public boolean offer(Runnable runnable, long timeout, TimeUnit unit) {
+    return offer(runnable);
+  }
+
+  public boolean add(Runnable runnable) {
+    if (offer(runnable)) {
+      return true;
+    }
+    throw new IllegalStateException("Queue full");
+  }
+
+  public void put(Runnable runnable) {
+    add(runnable);
+  }
+
+  public int remainingCapacity() {
+    return Math.max(0, capacity - size());
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  protected static long getPriority(Runnable runnable) {
+    if (runnable instanceof ExecuteJobsRunnable) {
+      return ((ExecuteJobsRunnable) runnable).getPriority();
+    }
+    return JobEntity.DEFAULT_PRIORITY;
+  }
+
+  protected static long getSequenceNumber(Runnable runnable) {
+    if (runnable instanceof ExecuteJobsRunnable) {
+      return ((ExecuteJobsRunnable) runnable).getSequenceNumber();
+    }
+    return Long.MAX_VALUE;
+  }
+
+}
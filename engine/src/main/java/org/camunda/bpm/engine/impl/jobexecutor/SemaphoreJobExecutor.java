@@ -0,0 +1,257 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.datasource.pooled.PooledDataSource;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+
+/**
+ * <p>{@link JobExecutor} starting a new thread for every batch of jobs instead of
+ * queuing the batches for a fixed number of threads. The number of concurrently
+ * executed batches is bounded by a {@link Semaphore}: job acquisition only acquires
+ * as many jobs as there are permits available.</p>
+ *
+ * <p>This suits jobs which mostly wait for I/O (e.g. calls to remote services), which
+ * would otherwise block the threads of a small pool. Threads are created by the
+ * configured {@link ThreadFactory}: on a JVM providing lightweight (virtual) threads,
+ * a factory creating such threads can be set.</p>
+ *
+ * <p>Every executed batch holds a database connection. The number of permits is
+ * therefore limited to the maximum number of active connections of the process engines'
+ * connection pools (if the engine manages the pool itself), minus the
+ * {@link #getReservedConnections() connections reserved} for job acquisition and other
+ * work. The permits are determined when the job executor is started and whenever a
+ * process engine is registered or unregistered. If the size of a connection pool is
+ * unknown, make sure it provides {@link #getMaxConcurrentJobs()} plus the reserved
+ * connections.</p>
+ *
+ * <p><em>NOTE: use this class in environments in which self-management of threads
+ * is permitted.</em></p>
+ */
+public class SemaphoreJobExecutor extends JobExecutor {
+
+  private static Logger log = Logger.getLogger(SemaphoreJobExecutor.class.getName());
+
+  protected int maxConcurrentJobs = 50;
+  protected int reservedConnections = 2;
+  protected ThreadFactory threadFactory;
+
+  protected ResizableSemaphore permits;
+  protected int numPermits;
+
+  protected void startExecutingJobs() {
+    numPermits = calculatePermits();
+    permits = new ResizableSemaphore(numPermits);
+
+    if (threadFactory == null) {
+      threadFactory = new JobExecutionThreadFactory(getName());
+    }
+
+    log.info(getName() + " executes at most " + numPermits + " job batches concurrently");
+
+    startJobAcquisitionThread();
+  }
+
+  protected void stopExecutingJobs() {
+    stopJobAcquisitionThread();
+
+    // wait for the currently executing jobs to finish
+    try {
+      if (permits.tryAcquire(numPermits, 60L, TimeUnit.SECONDS)) {
+        permits.release(numPermits);
+      }
+      else {
+        log.log(Level.WARNING, "Timeout during shutdown of job executor. "
+            + "The current running jobs could not end within 60 seconds after shutdown operation.");
+      }
+    } catch (InterruptedException e) {
+      log.log(Level.WARNING, "Interrupted while shutting down the job executor. ", e);
+    }
+  }
+
+  public synchronized void registerProcessEngine(ProcessEngineImpl processEngine) {
+    super.registerProcessEngine(processEngine);
+    updatePermits();
+  }
+
+  public synchronized void unregisterProcessEngine(ProcessEngineImpl processEngine) {
+    super.unregisterProcessEngine(processEngine);
+    updatePermits();
+  }
+
+  /**
+   * Adjusts the permits of the started job executor to the connection pools of
+   * the registered process engines. If the number of permits shrinks, batches which
+   * are currently executed keep running: fewer batches are started until they
+   * have finished.
+   */
+  protected synchronized void updatePermits() {
+    if (!isActive || permits == null) {
+      return;
+    }
+
+    int newNumPermits = calculatePermits();
+    if (newNumPermits > numPermits) {
+      permits.release(newNumPermits - numPermits);
+    }
+    else if (newNumPermits < numPermits) {
+      permits.reducePermits(numPermits - newNumPermits);
+    }
+
+    if (newNumPermits != numPermits) {
+      log.info(getName() + " executes at most " + newNumPermits + " job batches concurrently");
+      numPermits = newNumPermits;
+    }
+  }
+
+  public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    if (!permits.tryAcquire()) {
+      rejectedJobsHandler.jobsRejected(jobIds, processEngine);
+      return;
+    }
+
+    try {
+      threadFactory.newThread(new PermitReleasingRunnable(new ExecuteJobsRunnable(jobIds, processEngine))).start();
+
+    } catch (RuntimeException e) {
+      permits.release();
+      log.log(Level.WARNING, "Could not start a thread for executing the jobs " + jobIds + ": " + e.getMessage(), e);
+      rejectedJobsHandler.jobsRejected(jobIds, processEngine);
+
+    }
+  }
+
+  public int getFreeCapacity() {
+    if (permits == null) {
+      return 0;
+    }
+    return Math.max(0, permits.availablePermits());
+  }
+
+  /**
+   * @return the number of job batches that may be executed concurrently
+   */
+  protected int calculatePermits() {
+    int permits = maxConcurrentJobs;
+
+    for (ProcessEngineImpl processEngine : processEngines) {
+      DataSource dataSource = processEngine.getProcessEngineConfiguration().getDataSource();
+      if (dataSource instanceof PooledDataSource) {
+        int maxConnections = ((PooledDataSource) dataSource).getPoolMaximumActiveConnections();
+        permits = Math.min(permits, maxConnections - reservedConnections);
+      }
+      else {
+        log.warning("The size of the connection pool of process engine '" + processEngine.getName() + "' is unknown. "
+            + getName() + " executes up to " + maxConcurrentJobs + " job batches concurrently, make sure the pool provides "
+            + (maxConcurrentJobs + reservedConnections) + " connections or lower maxConcurrentJobs.");
+      }
+    }
+
+    return Math.max(1, permits);
+  }
+
+  // getters / setters //////////////////////////////////////////////////////
+
+  public int getMaxConcurrentJobs() {
+    return maxConcurrentJobs;
+  }
+
+  public void setMaxConcurrentJobs(int maxConcurrentJobs) {
+    this.maxConcurrentJobs = maxConcurrentJobs;
+  }
+
+  /**
+   * @return the number of database connections which are not used for executing jobs
+   */
+  public int getReservedConnections() {
+    return reservedConnections;
+  }
+
+  public void setReservedConnections(int reservedConnections) {
+    this.reservedConnections = reservedConnections;
+  }
+
+  public ThreadFactory getThreadFactory() {
+    return threadFactory;
+  }
+
+  public void setThreadFactory(ThreadFactory threadFactory) {
+    this.threadFactory = threadFactory;
+  }
+
+  /**
+   * @return the number of job batches which may be executed concurrently, 0 if not started
+   */
+  public int getNumPermits() {
+    return numPermits;
+  }
+
+  protected class PermitReleasingRunnable implements Runnable {
+
+    protected final Runnable delegate;
+
+    public PermitReleasingRunnable(Runnable delegate) {
+      this.delegate = delegate;
+    }
+
+    public void run() {
+      try {
+        delegate.run();
+      }
+      finally {
+        permits.release();
+      }
+    }
+  }
+
+  /**
+   * Exposes {@link Semaphore#reducePermits(int)}.
+   */
+  protected static class ResizableSemaphore extends Semaphore {
+
+    private static final long serialVersionUID = 1L;
+
+    public ResizableSemaphore(int permits) {
+      super(permits);
+    }
+
+    public void reducePermits(int reduction) {
+      super.reducePermits(reduction);
+    }
+  }
+
+  protected static class JobExecutionThreadFactory implements ThreadFactory {
+
+    protected final String namePrefix;
+    protected final AtomicInteger threadCount = new AtomicInteger();
+
+    public JobExecutionThreadFactory(String jobExecutorName) {
+      this.namePrefix = jobExecutorName + "-job-";
+    }
+
+    public Thread newThread(Runnable runnable) {
+      return new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+    }
+  }
+
+}
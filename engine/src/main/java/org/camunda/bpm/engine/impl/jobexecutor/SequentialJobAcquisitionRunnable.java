@@ -1,12 +1,16 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.persistence.entity.TimerEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
 
 
 /**
@@ -28,10 +32,10 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     int processEngineLoopCounter = 0;
     List<String> idleEngines = new ArrayList<String>();
     boolean jobExecutionFailed = false;
+    boolean lockFailed = false;
 
     while (!isInterrupted) {
       ProcessEngineImpl currentProcessEngine = null;
-      int maxJobsPerAcquisition = jobExecutor.getMaxJobsPerAcquisition();
 
       try {
 
@@ -43,6 +47,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
               processEngineLoopCounter = 0;
               isJobAdded = false;
               idleEngines.clear();
+              lockFailed = false;
             }
             currentProcessEngine = registeredProcessEngines.get(processEngineLoopCounter);
             processEngineLoopCounter++;
@@ -61,15 +66,25 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
           final CommandExecutor commandExecutor = currentProcessEngine.getProcessEngineConfiguration()
               .getCommandExecutorTxRequired();
 
-          AcquiredJobs acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd());
+          int numJobsToAcquire = getNumJobsToAcquire();
+          if (numJobsToAcquire > 0) {
+            AcquiredJobs acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd(numJobsToAcquire));
 
-          for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
-            jobExecutor.executeJobs(jobIds, currentProcessEngine);
-          }
+            for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
+              jobExecutor.executeJobs(jobIds, acquiredJobs.getPriority(jobIds), currentProcessEngine);
+            }
 
-          // add number of jobs which we attempted to acquire but could not obtain a lock for -> do not wait if we could not acquire jobs.
-          int jobsAcquired = acquiredJobs.getJobIdBatches().size() + acquiredJobs.getNumberOfJobsFailedToLock();
-          if (jobsAcquired < maxJobsPerAcquisition) {
+            // add number of jobs which we attempted to acquire but could not obtain a lock for -> do not wait if we could not acquire jobs.
+            int jobsAcquired = acquiredJobs.getJobIdBatches().size() + acquiredJobs.getNumberOfJobsFailedToLock();
+            if (jobsAcquired < numJobsToAcquire) {
+              idleEngines.add(currentProcessEngine.getName());
+            }
+            if (acquiredJobs.getNumberOfJobsFailedToLock() > 0) {
+              lockFailed = true;
+            }
+          }
+          else {
+            // the job executor cannot take more jobs: do not query the database
             idleEngines.add(currentProcessEngine.getName());
           }
 
@@ -91,15 +106,23 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
       }
 
       int numOfEngines = jobExecutor.getProcessEngines().size();
-      if(idleEngines.size() == numOfEngines) {
-        // if we have determined that none of the registered engines currently have jobs -> wait
-        millisToWait = jobExecutor.getWaitTimeInMillis();
-      } else {
-        if(!jobExecutionFailed) {
+      if (!jobExecutionFailed) {
+        if (idleEngines.size() == numOfEngines) {
+          // if we have determined that none of the registered engines currently have jobs -> wait
+          millisToWait = calculateIdleWaitTime(lockFailed);
+          if (millisToWait > jobExecutor.getWaitTimeInMillis()) {
+            millisToWait = getWaitTimeUntilNextTimer(millisToWait);
+          }
+        } else {
           millisToWait = 0;
+          resetBackoff();
         }
       }
 
+      if (isJobAdded) {
+        resetBackoff();
+      }
+
       if (millisToWait > 0 && (!isJobAdded)) {
 
         try {
@@ -123,6 +146,48 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     log.info(jobExecutor.getName() + " stopped job acquisition");
   }
 
+  /**
+   * Calculates the wait time once none of the registered engines returned all requested jobs.
+   */
+  protected long calculateIdleWaitTime(boolean lockFailed) {
+    if (jobExecutor.getFreeCapacity() <= 0) {
+      return Math.min(saturationWait, jobExecutor.getWaitTimeInMillis());
+    }
+
+    if (lockFailed) {
+      idleWait = 0;
+      lockFailureWait = increaseWait(lockFailureWait, baseLockFailureWait, maxLockFailureWait);
+      return lockFailureWait / 2 + (long) (random.nextDouble() * lockFailureWait / 2);
+    }
+
+    lockFailureWait = 0;
+    idleWait = increaseWait(idleWait, jobExecutor.getWaitTimeInMillis(), maxWait);
+    return idleWait;
+  }
+
+  /**
+   * @return the time until the next timer of any registered engine is due if it is shorter than the wait time
+   */
+  protected long getWaitTimeUntilNextTimer(long waitTime) {
+    Date duedate = new Date(ClockUtil.getCurrentTime().getTime() + waitTime);
+    List<ProcessEngineImpl> registeredProcessEngines = jobExecutor.getProcessEngines();
+    List<ProcessEngineImpl> processEngines;
+    synchronized (registeredProcessEngines) {
+      processEngines = new ArrayList<ProcessEngineImpl>(registeredProcessEngines);
+    }
+
+    for (ProcessEngineImpl processEngine : processEngines) {
+      try {
+        CommandExecutor commandExecutor = processEngine.getProcessEngineConfiguration().getCommandExecutorTxRequired();
+        List<TimerEntity> nextTimers = commandExecutor.execute(new GetUnlockedTimersByDuedateCmd(duedate, new Page(0, 1)));
+        waitTime = getWaitTimeUntilNextTimer(nextTimers, waitTime);
+      } catch (Exception e) {
+        log.log(Level.SEVERE, "exception while querying the next timer of process engine " + processEngine.getName() + ": " + e.getMessage(), e);
+      }
+    }
+    return waitTime;
+  }
+
   public boolean isJobAdded() {
     return isJobAdded;
   }
@@ -1,9 +1,9 @@
 /* Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
  * You may obtain a copy of the License at
- * 
+ *
  *      http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing, software
  * distributed under the License is distributed on an "AS IS" BASIS,
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
@@ -12,46 +12,343 @@
  */
 package org.camunda.bpm.engine.impl.jobexecutor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
 
 import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
 
 /**
+ * <p>{@link JobExecutor} handing the acquired jobs to a {@link ThreadPoolExecutor}.</p>
+ *
+ * <p>Job acquisition and execution are pipelined: batches which the thread pool cannot
+ * take right now are kept in a bounded prefetch queue. As soon as a thread finishes its
+ * work, it executes the next prefetched batch itself, without waiting for the next
+ * acquisition. Batches of higher priority are executed first. If the prefetch queue is full,
+ * the batches of lowest priority are passed to the {@link RejectedJobsHandler}.
+ * Prefetched batches whose lock expired before they were handed to the thread pool
+ * are not executed: other job executors may have acquired them already.</p>
+ *
  * @author Daniel Meyer
  *
  */
 public class ThreadPoolJobExecutor extends JobExecutor {
 
+  private static Logger log = Logger.getLogger(ThreadPoolJobExecutor.class.getName());
+
   protected ThreadPoolExecutor threadPoolExecutor;
 
+  /**
+   * the maximum number of prefetched batches, defaults to the maximum pool size
+   * of the thread pool if negative; 0 disables prefetching
+   */
+  protected int prefetchQueueSize = -1;
+
+  /** batches of higher priority first, batches of the same priority in the order they were acquired */
+  protected static final Comparator<PrefetchedJobBatch> PRIORITY_COMPARATOR = new Comparator<PrefetchedJobBatch>() {
+    public int compare(PrefetchedJobBatch batch1, PrefetchedJobBatch batch2) {
+      if (batch1.priority != batch2.priority) {
+        return batch1.priority > batch2.priority ? -1 : 1;
+      }
+      if (batch1.sequenceNumber != batch2.sequenceNumber) {
+        return batch1.sequenceNumber < batch2.sequenceNumber ? -1 : 1;
+      }
+      return 0;
+    }
+  };
+
+  /** guarded by itself */
+  protected PriorityQueue<PrefetchedJobBatch> prefetchQueue = new PriorityQueue<PrefetchedJobBatch>(11, PRIORITY_COMPARATOR);
+
+  protected AtomicLong batchSequence = new AtomicLong();
+
+  protected AtomicLong executedBatches = new AtomicLong();
+  protected AtomicLong prefetchedBatchesExecuted = new AtomicLong();
+  protected AtomicLong rejectedJobs = new AtomicLong();
+  protected AtomicLong expiredJobLocks = new AtomicLong();
+
   protected void startExecutingJobs() {
     startJobAcquisitionThread();
   }
 
   protected void stopExecutingJobs() {
     stopJobAcquisitionThread();
+    rejectPrefetchedJobs();
   }
 
   public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    executeJobs(jobIds, JobEntity.DEFAULT_PRIORITY, processEngine);
+  }
+
+  public void executeJobs(List<String> jobIds, long priority, ProcessEngineImpl processEngine) {
+    PrefetchedJobBatch batch = new PrefetchedJobBatch(jobIds, priority, processEngine,
+        ClockUtil.getCurrentTime().getTime(), batchSequence.getAndIncrement());
+
+    synchronized (prefetchQueue) {
+      prefetchQueue.add(batch);
+    }
+
+    // the batch is handed to the thread pool right away unless batches of
+    // higher priority are waiting or the thread pool is saturated
+    executePrefetchedJobs();
+    rejectExceedingPrefetchedJobs();
+  }
+
+  /**
+   * Hands prefetched batches to the thread pool, highest priority first, until it
+   * rejects a batch. The thread pool is called without holding the lock of the
+   * prefetch queue.
+   */
+  public void executePrefetchedJobs() {
+    PrefetchedJobBatch batch;
+    while ((batch = pollPrefetchedBatch()) != null) {
+
+      if (isLockExpired(batch)) {
+        expiredJobLocks.addAndGet(batch.jobIds.size());
+        log.fine("Lock of prefetched jobs " + batch.jobIds + " expired before execution, skipping them");
+      }
+      else if (execute(batch)) {
+        executedBatches.incrementAndGet();
+        if (batch.prefetched) {
+          prefetchedBatchesExecuted.incrementAndGet();
+        }
+      }
+      else {
+        // the thread pool is saturated: the batch is executed by the
+        // next thread which finishes its work or handed to the thread
+        // pool by the next acquisition
+        synchronized (prefetchQueue) {
+          batch.prefetched = true;
+          prefetchQueue.add(batch);
+        }
+        return;
+      }
+    }
+  }
+
+  /**
+   * Executes the prefetched batches in the current thread, highest priority first.
+   * Called by the threads of the thread pool once they finished their work: handing
+   * the batches to the thread pool instead would fail while its queue is full, since
+   * the current thread still counts as active.
+   */
+  public void executePrefetchedJobsInCurrentThread() {
+    PrefetchedJobBatch batch;
+    while ((batch = pollPrefetchedBatch()) != null) {
+
+      if (isLockExpired(batch)) {
+        expiredJobLocks.addAndGet(batch.jobIds.size());
+        log.fine("Lock of prefetched jobs " + batch.jobIds + " expired before execution, skipping them");
+      }
+      else {
+        executedBatches.incrementAndGet();
+        prefetchedBatchesExecuted.incrementAndGet();
+        executeInCurrentThread(batch);
+      }
+    }
+  }
+
+  protected void executeInCurrentThread(PrefetchedJobBatch batch) {
+    new ExecuteJobsRunnable(batch.jobIds, batch.priority, batch.processEngine).run();
+  }
+
+  protected PrefetchedJobBatch pollPrefetchedBatch() {
+    synchronized (prefetchQueue) {
+      return prefetchQueue.poll();
+    }
+  }
+
+  /**
+   * Passes the batches of lowest priority to the {@link RejectedJobsHandler}
+   * while the prefetch queue exceeds its capacity.
+   */
+  protected void rejectExceedingPrefetchedJobs() {
+    List<PrefetchedJobBatch> rejectedBatches = new ArrayList<PrefetchedJobBatch>();
+    synchronized (prefetchQueue) {
+      while (prefetchQueue.size() > getPrefetchQueueCapacity()) {
+        PrefetchedJobBatch lowestPriorityBatch = Collections.max(prefetchQueue, PRIORITY_COMPARATOR);
+        prefetchQueue.remove(lowestPriorityBatch);
+        rejectedBatches.add(lowestPriorityBatch);
+      }
+    }
+
+    for (PrefetchedJobBatch batch : rejectedBatches) {
+      rejectJobs(batch.jobIds, batch.processEngine);
+    }
+  }
+
+  /**
+   * @return false if the thread pool rejected the batch
+   */
+  protected boolean execute(PrefetchedJobBatch batch) {
     try {
-      threadPoolExecutor.execute(new ExecuteJobsRunnable(jobIds, processEngine));
-      
+      threadPoolExecutor.execute(new PipelinedExecuteJobsRunnable(batch.jobIds, batch.priority, batch.processEngine));
+      return true;
+
     } catch (RejectedExecutionException e) {
-      rejectedJobsHandler.jobsRejected(jobIds, processEngine);
-      
+      return false;
+
     }
   }
-  
+
+  protected boolean isLockExpired(PrefetchedJobBatch batch) {
+    return ClockUtil.getCurrentTime().getTime() >= batch.acquisitionTime + lockTimeInMillis;
+  }
+
+  protected void rejectJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    rejectedJobs.addAndGet(jobIds.size());
+    rejectedJobsHandler.jobsRejected(jobIds, processEngine);
+  }
+
+  /**
+   * Passes the prefetched batches to the {@link RejectedJobsHandler} once job
+   * acquisition stopped.
+   */
+  protected void rejectPrefetchedJobs() {
+    List<PrefetchedJobBatch> batches;
+    synchronized (prefetchQueue) {
+      batches = new ArrayList<PrefetchedJobBatch>(prefetchQueue);
+      prefetchQueue.clear();
+    }
+
+    for (PrefetchedJobBatch batch : batches) {
+      rejectJobs(batch.jobIds, batch.processEngine);
+    }
+  }
+
+  public int getFreeCapacity() {
+    if (threadPoolExecutor == null) {
+      return 0;
+    }
+    int idleThreads = threadPoolExecutor.getMaximumPoolSize() - threadPoolExecutor.getActiveCount();
+    int threadPoolCapacity = Math.max(0, idleThreads) + threadPoolExecutor.getQueue().remainingCapacity();
+
+    // while the thread pool is saturated, jobs are acquired into the prefetch queue
+    return Math.max(0, threadPoolCapacity + getPrefetchQueueCapacity() - getPrefetchQueueDepth());
+  }
+
+  // metrics //////////////////////////////////////////////////////////////////
+
+  public int getPrefetchQueueCapacity() {
+    if (prefetchQueueSize >= 0) {
+      return prefetchQueueSize;
+    }
+    else if (threadPoolExecutor != null) {
+      return threadPoolExecutor.getMaximumPoolSize();
+    }
+    else {
+      return 0;
+    }
+  }
+
+  public int getPrefetchQueueDepth() {
+    synchronized (prefetchQueue) {
+      return prefetchQueue.size();
+    }
+  }
+
+  public int getExecutionQueueDepth() {
+    if (threadPoolExecutor == null) {
+      return 0;
+    }
+    return threadPoolExecutor.getQueue().size();
+  }
+
+  /**
+   * @return the number of batches handed to the thread pool
+   */
+  public long getExecutedBatches() {
+    return executedBatches.get();
+  }
+
+  /**
+   * @return the share of batches handed to the thread pool from the prefetch queue, i.e.
+   * without waiting for job acquisition
+   */
+  public double getPrefetchHitRate() {
+    long executed = executedBatches.get();
+    if (executed == 0) {
+      return 0;
+    }
+    return (double) prefetchedBatchesExecuted.get() / executed;
+  }
+
+  /**
+   * @return the number of jobs passed to the {@link RejectedJobsHandler}
+   */
+  public long getRejectedJobs() {
+    return rejectedJobs.get();
+  }
+
+  /**
+   * @return the number of prefetched jobs which were not executed because their lock expired
+   */
+  public long getExpiredJobLocks() {
+    return expiredJobLocks.get();
+  }
+
   // getters / setters
 
   public ThreadPoolExecutor getThreadPoolExecutor() {
     return threadPoolExecutor;
   }
-  
+
   public void setThreadPoolExecutor(ThreadPoolExecutor threadPoolExecutor) {
     this.threadPoolExecutor = threadPoolExecutor;
   }
 
+  public int getPrefetchQueueSize() {
+    return prefetchQueueSize;
+  }
+
+  public void setPrefetchQueueSize(int prefetchQueueSize) {
+    this.prefetchQueueSize = prefetchQueueSize;
+  }
+
+  protected static class PrefetchedJobBatch {
+
+    protected final List<String> jobIds;
+    protected final long priority;
+    protected final ProcessEngineImpl processEngine;
+    protected final long acquisitionTime;
+    protected final long sequenceNumber;
+    /** true once the batch waited for a free thread, guarded by the prefetch queue */
+    protected boolean prefetched = false;
+
+    public PrefetchedJobBatch(List<String> jobIds, long priority, ProcessEngineImpl processEngine, long acquisitionTime, long sequenceNumber) {
+      this.jobIds = jobIds;
+      this.priority = priority;
+      this.processEngine = processEngine;
+      this.acquisitionTime = acquisitionTime;
+      this.sequenceNumber = sequenceNumber;
+    }
+  }
+
+  /**
+   * Executes the prefetched batches in the same thread once its jobs are executed.
+   */
+  protected class PipelinedExecuteJobsRunnable extends ExecuteJobsRunnable {
+
+    public PipelinedExecuteJobsRunnable(List<String> jobIds, long priority, ProcessEngineImpl processEngine) {
+      super(jobIds, priority, processEngine);
+    }
+
+    public void run() {
+      try {
+        super.run();
+      }
+      finally {
+        executePrefetchedJobsInCurrentThread();
+      }
+    }
+  }
+
 }
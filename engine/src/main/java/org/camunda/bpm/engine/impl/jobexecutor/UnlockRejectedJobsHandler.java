@@ -0,0 +1,49 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.UnlockJobsCmd;
+
+/**
+ * <p>Releases the locks of rejected jobs right away: instead of waiting for the
+ * lock to expire, the jobs can be acquired by other job executors (or by this one,
+ * once it has capacity again).</p>
+ *
+ * <p>Unlike the {@link CallerRunsRejectedJobsHandler}, this handler never executes
+ * jobs in the job acquisition thread. It is not used by default, configure it with
+ * {@link ProcessEngineConfigurationImpl#setCustomRejectedJobsHandler(RejectedJobsHandler)}.</p>
+ */
+public class UnlockRejectedJobsHandler implements RejectedJobsHandler {
+
+  private static Logger log = Logger.getLogger(UnlockRejectedJobsHandler.class.getName());
+
+  public void jobsRejected(List<String> jobIds, ProcessEngineImpl processEngine) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = processEngine.getProcessEngineConfiguration();
+    String lockOwner = processEngineConfiguration.getJobExecutor().getLockOwner();
+
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new UnlockJobsCmd(jobIds, lockOwner));
+
+    } catch (Exception e) {
+      // the locks expire after the lock time
+      log.log(Level.WARNING, "Could not release the locks of rejected jobs " + jobIds + ": " + e.getMessage(), e);
+    }
+  }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Based on JUEL 2.2.1 code, 2006-2009 Odysseus Software GmbH
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */ 
+package org.camunda.bpm.engine.impl.juel;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Bounded thread-safe cache which does not lock on lookups.
+ * After the cache size reached a certain limit, an arbitrary entry is removed
+ * when adding a new entry.
+ */
+public final class ConcurrentCache implements TreeCache {
+	private final ConcurrentMap<String,Tree> map;
+	private final int size;
+
+	/**
+	 * Constructor.
+	 * @param size maximum cache size
+	 */
+	public ConcurrentCache(int size) {
+		this.size = size;
+		this.map = new ConcurrentHashMap<String,Tree>(Math.min(size, 1024));
+	}
+
+	public Tree get(String expression) {
+		return map.get(expression);
+	}
+
+	public void put(String expression, Tree tree) {
+		if (map.size() >= size && !map.containsKey(expression)) {
+			Iterator<String> expressions = map.keySet().iterator();
+			if (expressions.hasNext()) {
+				expressions.next();
+				expressions.remove();
+			}
+		}
+		map.put(expression, tree);
+	}
+
+	public int size() {
+		return map.size();
+	}
+}
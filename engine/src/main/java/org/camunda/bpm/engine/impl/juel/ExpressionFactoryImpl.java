@@ -302,7 +302,7 @@ public class ExpressionFactoryImpl extends org.camunda.bpm.engine.impl.javax.el.
 
 	/**
 	 * Create the factory's tree store. This implementation creates a new tree store using the
-	 * default builder and cache implementations. The builder and cache are configured using the
+	 * default builder and a {@link ConcurrentCache}, which does not lock on lookups. The builder and cache are configured using the
 	 * specified properties. The maximum cache size will be as specified unless overridden by
 	 * property <code>javax.el.cacheSize</code>.
 	 */
@@ -334,7 +334,7 @@ public class ExpressionFactoryImpl extends org.camunda.bpm.engine.impl.javax.el.
 				throw new ELException("Cannot parse EL property " + PROP_CACHE_SIZE, e);
 			}
 		}
-		Cache cache = cacheSize > 0 ? new Cache(cacheSize) : null;
+		TreeCache cache = cacheSize > 0 ? new ConcurrentCache(cacheSize) : null;
 
 		return new TreeStore(builder, cache);
 	}
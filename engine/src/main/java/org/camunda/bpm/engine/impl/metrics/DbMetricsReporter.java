@@ -0,0 +1,189 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.impl.cmd.ReportDbMetricsCmd;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Writes the values of the {@link MetricsRegistry#getMeters() meters} to the database in a background
+ * thread. Every interval, the values aggregated since the last report are inserted as one
+ * row per meter and the meters are cleared. Meters which did not count anything are not
+ * reported.</p>
+ *
+ * <p>If the values cannot be written, they are added back to the meters and reported
+ * with the next interval. When the reporter is stopped, the remaining values are reported.</p>
+ */
+public class DbMetricsReporter implements Runnable {
+
+  private static Logger log = Logger.getLogger(DbMetricsReporter.class.getName());
+
+  protected final MetricsRegistry metricsRegistry;
+  protected CommandExecutor commandExecutor;
+  protected String reporterId;
+
+  protected long reportingIntervalInSeconds = 15 * 60;
+
+  protected volatile boolean isInterrupted = false;
+  protected final Object MONITOR = new Object();
+  protected Thread reporterThread;
+
+  public DbMetricsReporter(MetricsRegistry metricsRegistry) {
+    this.metricsRegistry = metricsRegistry;
+  }
+
+  public synchronized void start() {
+    if (reporterThread == null) {
+      isInterrupted = false;
+      reporterThread = new Thread(this, "DbMetricsReporter");
+      reporterThread.setDaemon(true);
+      reporterThread.start();
+    }
+  }
+
+  public synchronized void stop() {
+    if (reporterThread == null) {
+      return;
+    }
+
+    synchronized (MONITOR) {
+      isInterrupted = true;
+      MONITOR.notifyAll();
+    }
+
+    try {
+      reporterThread.join();
+    } catch (InterruptedException e) {
+      log.log(Level.WARNING, "Interrupted while waiting for the metrics reporter to terminate", e);
+    }
+    reporterThread = null;
+
+    // report the values collected since the last interval
+    try {
+      reportNow();
+    } catch (Exception e) {
+      log.log(Level.WARNING, "Could not report metrics on shutdown: " + e.getMessage(), e);
+    }
+  }
+
+  public void run() {
+    log.info("metrics reporter started");
+
+    while (!isInterrupted) {
+      synchronized (MONITOR) {
+        if (!isInterrupted) {
+          try {
+            MONITOR.wait(reportingIntervalInSeconds * 1000);
+          } catch (InterruptedException e) {
+            log.log(Level.FINE, "metrics reporter wait interrupted", e);
+          }
+        }
+      }
+
+      if (!isInterrupted) {
+        try {
+          reportNow();
+        } catch (Exception e) {
+          log.log(Level.SEVERE, "exception while reporting metrics: " + e.getMessage(), e);
+        }
+      }
+    }
+
+    log.info("metrics reporter stopped");
+  }
+
+  /**
+   * Writes the values collected since the last report to the database.
+   */
+  public synchronized void reportNow() {
+    Map<String, Long> values = new HashMap<String, Long>();
+    for (Meter meter : metricsRegistry.getMeters()) {
+      long value = meter.getAndClear();
+      if (value != 0) {
+        values.put(meter.getName(), value);
+      }
+    }
+
+    if (values.isEmpty()) {
+      return;
+    }
+
+    try {
+      commandExecutor.execute(new ReportDbMetricsCmd(reporterId, ClockUtil.getCurrentTime(), values));
+
+    } catch (RuntimeException e) {
+      // do not lose the values, report them with the next interval
+      for (Entry<String, Long> value : values.entrySet()) {
+        metricsRegistry.markTimes(value.getKey(), value.getValue());
+      }
+      throw e;
+    }
+  }
+
+  public boolean isActive() {
+    return reporterThread != null;
+  }
+
+  /**
+   * @return an id of the form <code>host$processEngineName</code>
+   */
+  public static String createReporterId(String processEngineName) {
+    String host;
+    try {
+      host = InetAddress.getLocalHost().getHostName();
+    } catch (UnknownHostException e) {
+      host = "unknown-host";
+    }
+    return host + "$" + processEngineName;
+  }
+
+  // getters / setters ////////////////////////////////////////////////////////
+
+  public MetricsRegistry getMetricsRegistry() {
+    return metricsRegistry;
+  }
+
+  public CommandExecutor getCommandExecutor() {
+    return commandExecutor;
+  }
+
+  public void setCommandExecutor(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  public String getReporterId() {
+    return reporterId;
+  }
+
+  public void setReporterId(String reporterId) {
+    this.reporterId = reporterId;
+  }
+
+  public long getReportingIntervalInSeconds() {
+    return reportingIntervalInSeconds;
+  }
+
+  public void setReportingIntervalInSeconds(long reportingIntervalInSeconds) {
+    this.reportingIntervalInSeconds = reportingIntervalInSeconds;
+  }
+
+}
@@ -0,0 +1,64 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.management.EngineMetrics;
+import org.camunda.bpm.engine.management.LatencyMetrics;
+
+public class EngineMetricsImpl implements EngineMetrics, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected Date startTime;
+  protected List<LatencyMetrics> commandLatencies = new ArrayList<LatencyMetrics>();
+  protected List<LatencyMetrics> statementLatencies = new ArrayList<LatencyMetrics>();
+  protected List<LatencyMetrics> jobLatencies = new ArrayList<LatencyMetrics>();
+  protected List<LatencyMetrics> activityLatencies = new ArrayList<LatencyMetrics>();
+  protected Map<String, Long> counters = new HashMap<String, Long>();
+
+  public Date getStartTime() {
+    return startTime;
+  }
+
+  public void setStartTime(Date startTime) {
+    this.startTime = startTime;
+  }
+
+  public List<LatencyMetrics> getCommandLatencies() {
+    return commandLatencies;
+  }
+
+  public List<LatencyMetrics> getStatementLatencies() {
+    return statementLatencies;
+  }
+
+  public List<LatencyMetrics> getJobLatencies() {
+    return jobLatencies;
+  }
+
+  public List<LatencyMetrics> getActivityLatencies() {
+    return activityLatencies;
+  }
+
+  public Map<String, Long> getCounters() {
+    return counters;
+  }
+
+}
@@ -0,0 +1,73 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Records latencies in buckets of exponentially growing size: bucket <code>i</code>
+ * counts the latencies from <code>2^(i-1)</code> to <code>2^i - 1</code> microseconds.</p>
+ *
+ * <p>Recording a latency is thread-safe and does not allocate any objects.</p>
+ */
+public class LatencyHistogram {
+
+  /** the last bucket counts all latencies of more than 2^38 microseconds */
+  public static final int BUCKET_COUNT = 40;
+
+  protected final String name;
+
+  protected final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  protected final AtomicLong count = new AtomicLong();
+  protected final AtomicLong totalTime = new AtomicLong();
+  protected final AtomicLong maxTime = new AtomicLong();
+
+  public LatencyHistogram(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @param latency the latency in nanoseconds
+   */
+  public void record(long latency) {
+    long micros = Math.max(0, latency / 1000);
+
+    buckets.incrementAndGet(getBucket(micros));
+    count.incrementAndGet();
+    totalTime.addAndGet(micros);
+
+    long max = maxTime.get();
+    while (micros > max && !maxTime.compareAndSet(max, micros)) {
+      max = maxTime.get();
+    }
+  }
+
+  protected int getBucket(long micros) {
+    int bucket = 64 - Long.numberOfLeadingZeros(micros);
+    return Math.min(bucket, BUCKET_COUNT - 1);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public LatencyMetricsImpl getSnapshot() {
+    long[] bucketCounts = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      bucketCounts[i] = buckets.get(i);
+    }
+    return new LatencyMetricsImpl(name, count.get(), totalTime.get(), maxTime.get(), bucketCounts);
+  }
+
+}
@@ -0,0 +1,87 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.management.LatencyMetrics;
+
+public class LatencyMetricsImpl implements LatencyMetrics, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String name;
+  protected long count;
+  protected long totalTime;
+  protected long maxTime;
+  protected long[] buckets;
+
+  public LatencyMetricsImpl(String name, long count, long totalTime, long maxTime, long[] buckets) {
+    this.name = name;
+    this.count = count;
+    this.totalTime = totalTime;
+    this.maxTime = maxTime;
+    this.buckets = buckets;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public long getTotalTime() {
+    return totalTime;
+  }
+
+  public long getMeanTime() {
+    if (count == 0) {
+      return 0;
+    }
+    return totalTime / count;
+  }
+
+  public long getMaxTime() {
+    return maxTime;
+  }
+
+  public long getPercentile(double fraction) {
+    long bucketCountSum = 0;
+    for (long bucketCount : buckets) {
+      bucketCountSum += bucketCount;
+    }
+    // the buckets and the count are not updated atomically
+    long threshold = (long) Math.ceil(Math.min(1, Math.max(0, fraction)) * bucketCountSum);
+
+    long counted = 0;
+    for (int i = 0; i < buckets.length; i++) {
+      counted += buckets[i];
+      if (counted > 0 && counted >= threshold) {
+        // the upper bound of the bucket
+        long upperBound = (1L << i) - 1;
+        return Math.min(upperBound, maxTime);
+      }
+    }
+    return 0;
+  }
+
+  public String toString() {
+    return "LatencyMetricsImpl [name=" + name
+        + ", count=" + count
+        + ", totalTime=" + totalTime
+        + ", maxTime=" + maxTime + "]";
+  }
+
+}
@@ -0,0 +1,86 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>Counts the occurrences of an event. The count is striped over several cells, so that
+ * threads marking occurrences concurrently rarely contend for the same cell. The cells are
+ * padded to occupy separate cache lines.</p>
+ */
+public class Meter {
+
+  /** the number of longs between two cells */
+  protected static final int PADDING = 8;
+
+  protected static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+  protected final String name;
+  protected final AtomicLongArray cells = new AtomicLongArray(STRIPES * PADDING);
+
+  public Meter(String name) {
+    this.name = name;
+  }
+
+  public void markOccurrence() {
+    markTimes(1);
+  }
+
+  public void markTimes(long times) {
+    cells.addAndGet(cell(), times);
+  }
+
+  /**
+   * @return the sum of all occurrences marked since the meter was last cleared
+   */
+  public long get() {
+    long sum = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      sum += cells.get(i * PADDING);
+    }
+    return sum;
+  }
+
+  /**
+   * Returns the occurrences marked since the meter was last cleared and clears it.
+   * No concurrently marked occurrence is lost.
+   */
+  public long getAndClear() {
+    long sum = 0;
+    for (int i = 0; i < STRIPES; i++) {
+      sum += cells.getAndSet(i * PADDING, 0);
+    }
+    return sum;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  protected int cell() {
+    return (int) (Thread.currentThread().getId() & (STRIPES - 1)) * PADDING;
+  }
+
+  /**
+   * @return the smallest power of two which is not smaller than the number of processors
+   */
+  protected static int stripes(int processors) {
+    int stripes = 1;
+    while (stripes < processors && stripes < 64) {
+      stripes <<= 1;
+    }
+    return stripes;
+  }
+
+}
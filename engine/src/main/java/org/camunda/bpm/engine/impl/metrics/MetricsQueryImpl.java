@@ -0,0 +1,84 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.io.Serializable;
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.management.MetricsQuery;
+
+public class MetricsQueryImpl implements MetricsQuery, Command<Long>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected String name;
+  protected String reporter;
+  protected Date startDate;
+  protected Date endDate;
+
+  protected transient CommandExecutor commandExecutor;
+
+  public MetricsQueryImpl(CommandExecutor commandExecutor) {
+    this.commandExecutor = commandExecutor;
+  }
+
+  public MetricsQueryImpl name(String name) {
+    this.name = name;
+    return this;
+  }
+
+  public MetricsQueryImpl reporter(String reporter) {
+    this.reporter = reporter;
+    return this;
+  }
+
+  public MetricsQueryImpl startDate(Date startDate) {
+    this.startDate = startDate;
+    return this;
+  }
+
+  public MetricsQueryImpl endDate(Date endDate) {
+    this.endDate = endDate;
+    return this;
+  }
+
+  public long sum() {
+    return commandExecutor.execute(this);
+  }
+
+  public Long execute(CommandContext commandContext) {
+    return commandContext.getMeterLogManager().executeSelectSum(this);
+  }
+
+  // getters //////////////////////////////////////////
+
+  public String getName() {
+    return name;
+  }
+
+  public String getReporter() {
+    return reporter;
+  }
+
+  public Date getStartDate() {
+    return startDate;
+  }
+
+  public Date getEndDate() {
+    return endDate;
+  }
+
+}
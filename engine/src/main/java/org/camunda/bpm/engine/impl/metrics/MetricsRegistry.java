@@ -0,0 +1,198 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.EngineMetrics;
+import org.camunda.bpm.engine.management.LatencyMetrics;
+
+/**
+ * <p>Collects the metrics of a process engine: the latencies of commands, SQL statements,
+ * jobs and activities, the counters of the entity manager and the {@link Meter meters}
+ * which are periodically written to the database by the {@link DbMetricsReporter}.</p>
+ *
+ * <p>Once a histogram exists for a name, recording a latency does not allocate any objects.
+ * Latencies are passed in nanoseconds as measured by {@link System#nanoTime()}.</p>
+ */
+public class MetricsRegistry {
+
+  protected ConcurrentMap<String, LatencyHistogram> commandLatencies = new ConcurrentHashMap<String, LatencyHistogram>();
+  protected ConcurrentMap<String, LatencyHistogram> statementLatencies = new ConcurrentHashMap<String, LatencyHistogram>();
+  protected ConcurrentMap<String, LatencyHistogram> jobLatencies = new ConcurrentHashMap<String, LatencyHistogram>();
+  protected ConcurrentMap<String, LatencyHistogram> activityLatencies = new ConcurrentHashMap<String, LatencyHistogram>();
+
+  protected final AtomicLong flushes = new AtomicLong();
+  protected final AtomicLong entityCacheHits = new AtomicLong();
+  protected final AtomicLong secondLevelCacheHits = new AtomicLong();
+  protected final AtomicLong entityCacheMisses = new AtomicLong();
+  protected final AtomicLong optimisticLockingFailures = new AtomicLong();
+
+  protected ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<String, Meter>();
+
+  protected volatile Date startTime = ClockUtil.getCurrentTime();
+
+  public MetricsRegistry() {
+    createMeter(EngineMetrics.ACTIVITY_INSTANCE_START);
+    createMeter(EngineMetrics.JOB_ACQUIRED);
+    createMeter(EngineMetrics.JOB_SUCCESSFUL);
+    createMeter(EngineMetrics.JOB_FAILED);
+    createMeter(EngineMetrics.ROOT_PROCESS_INSTANCE_START);
+  }
+
+  // latencies ///////////////////////////////////////////
+
+  public void recordCommand(String commandClassName, long latency) {
+    getHistogram(commandLatencies, commandClassName).record(latency);
+  }
+
+  public void recordStatement(String statement, long latency) {
+    getHistogram(statementLatencies, statement).record(latency);
+  }
+
+  public void recordJob(String jobHandlerType, long latency) {
+    getHistogram(jobLatencies, jobHandlerType).record(latency);
+  }
+
+  public void recordActivity(String activityType, long latency) {
+    getHistogram(activityLatencies, activityType).record(latency);
+  }
+
+  protected LatencyHistogram getHistogram(ConcurrentMap<String, LatencyHistogram> histograms, String name) {
+    LatencyHistogram histogram = histograms.get(name);
+    if (histogram == null) {
+      LatencyHistogram newHistogram = new LatencyHistogram(name);
+      histogram = histograms.putIfAbsent(name, newHistogram);
+      if (histogram == null) {
+        histogram = newHistogram;
+      }
+    }
+    return histogram;
+  }
+
+  // counters ////////////////////////////////////////////
+
+  public void markFlush() {
+    flushes.incrementAndGet();
+  }
+
+  public void markEntityCacheHit() {
+    entityCacheHits.incrementAndGet();
+  }
+
+  public void markSecondLevelCacheHit() {
+    secondLevelCacheHits.incrementAndGet();
+  }
+
+  public void markEntityCacheMiss() {
+    entityCacheMisses.incrementAndGet();
+  }
+
+  public void markOptimisticLockingFailure() {
+    optimisticLockingFailures.incrementAndGet();
+  }
+
+  // meters //////////////////////////////////////////////
+
+  /**
+   * @return the meter with the given name, created if it does not exist yet
+   */
+  public Meter createMeter(String name) {
+    Meter meter = meters.get(name);
+    if (meter == null) {
+      Meter newMeter = new Meter(name);
+      meter = meters.putIfAbsent(name, newMeter);
+      if (meter == null) {
+        meter = newMeter;
+      }
+    }
+    return meter;
+  }
+
+  /**
+   * @return the meter with the given name, null if it does not exist
+   */
+  public Meter getMeterByName(String name) {
+    return meters.get(name);
+  }
+
+  public Collection<Meter> getMeters() {
+    return meters.values();
+  }
+
+  /**
+   * Marks an occurrence of the meter with the given name, if it exists.
+   */
+  public void markOccurrence(String name) {
+    markTimes(name, 1);
+  }
+
+  public void markTimes(String name, long times) {
+    Meter meter = meters.get(name);
+    if (meter != null) {
+      meter.markTimes(times);
+    }
+  }
+
+  // snapshot ////////////////////////////////////////////
+
+  public EngineMetricsImpl getSnapshot() {
+    EngineMetricsImpl metrics = new EngineMetricsImpl();
+    metrics.setStartTime(startTime);
+
+    addSnapshots(commandLatencies, metrics.getCommandLatencies());
+    addSnapshots(statementLatencies, metrics.getStatementLatencies());
+    addSnapshots(jobLatencies, metrics.getJobLatencies());
+    addSnapshots(activityLatencies, metrics.getActivityLatencies());
+
+    metrics.getCounters().put(EngineMetrics.FLUSHES, flushes.get());
+    metrics.getCounters().put(EngineMetrics.ENTITY_CACHE_HITS, entityCacheHits.get());
+    metrics.getCounters().put(EngineMetrics.SECOND_LEVEL_CACHE_HITS, secondLevelCacheHits.get());
+    metrics.getCounters().put(EngineMetrics.ENTITY_CACHE_MISSES, entityCacheMisses.get());
+    metrics.getCounters().put(EngineMetrics.OPTIMISTIC_LOCKING_FAILURES, optimisticLockingFailures.get());
+
+    return metrics;
+  }
+
+  protected void addSnapshots(ConcurrentMap<String, LatencyHistogram> histograms, List<LatencyMetrics> snapshots) {
+    for (LatencyHistogram histogram : histograms.values()) {
+      snapshots.add(histogram.getSnapshot());
+    }
+  }
+
+  /**
+   * Discards all collected metrics. Latencies which are recorded concurrently may be lost.
+   * The meters are not affected, their values are cleared when they are reported.
+   */
+  public void reset() {
+    startTime = ClockUtil.getCurrentTime();
+
+    commandLatencies.clear();
+    statementLatencies.clear();
+    jobLatencies.clear();
+    activityLatencies.clear();
+
+    flushes.set(0);
+    entityCacheHits.set(0);
+    secondLevelCacheHits.set(0);
+    entityCacheMisses.set(0);
+    optimisticLockingFailures.set(0);
+  }
+
+}
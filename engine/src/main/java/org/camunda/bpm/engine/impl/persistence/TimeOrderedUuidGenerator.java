@@ -0,0 +1,84 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+
+/**
+ * <p>{@link IdGenerator} generating UUIDs whose string representations are ordered by the
+ * time of their generation (version 7 layout): the 48 most significant bits are the unix
+ * time in milliseconds, followed by a 12 bit sequence number and 62 random bits.</p>
+ *
+ * <p>The string representation of the ids of the {@link StrongUuidGenerator} starts with the
+ * least significant bits of the time. Unlike these, consecutive ids of this generator are
+ * inserted next to each other into the indexes of the primary keys instead of being
+ * scattered over the whole index.</p>
+ *
+ * <p>The ids generated by a single generator increase strictly monotonically, even if more than
+ * 4096 ids are generated within a millisecond or the system clock is set back: the generator
+ * then continues with the timestamp of its last id. The random bits make the ids of different
+ * process engines unique without coordination. They are chosen when the generator is created.</p>
+ */
+public class TimeOrderedUuidGenerator implements IdGenerator {
+
+  protected static final int SEQUENCE_BITS = 12;
+  protected static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+  protected static final long VERSION = 0x7L << SEQUENCE_BITS;
+  protected static final long VARIANT = 0x2L << 62;
+
+  protected static final SecureRandom SEED_RANDOM = new SecureRandom();
+
+  /** the unix time in milliseconds and the sequence number of the last id */
+  protected final AtomicLong lastTimestamp = new AtomicLong();
+
+  /** the random bits identifying this generator */
+  protected final long generatorBits;
+
+  public TimeOrderedUuidGenerator() {
+    generatorBits = SEED_RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL;
+  }
+
+  public String getNextId() {
+    long timestamp = nextTimestamp();
+
+    long mostSignificantBits = ((timestamp >>> SEQUENCE_BITS) << 16) | VERSION | (timestamp & SEQUENCE_MASK);
+    long leastSignificantBits = VARIANT | generatorBits;
+
+    return new UUID(mostSignificantBits, leastSignificantBits).toString();
+  }
+
+  /**
+   * @return the current time in milliseconds shifted by the sequence bits, greater than the
+   * timestamp of the previous id
+   */
+  protected long nextTimestamp() {
+    long now = currentTimeMillis() << SEQUENCE_BITS;
+
+    while (true) {
+      long last = lastTimestamp.get();
+      long next = now > last ? now : last + 1;
+      if (lastTimestamp.compareAndSet(last, next)) {
+        return next;
+      }
+    }
+  }
+
+  protected long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+}
@@ -14,9 +14,10 @@
 package org.camunda.bpm.engine.impl.persistence.deploy;
 
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -27,6 +28,11 @@ import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionEntity;
 import org.camunda.bpm.engine.impl.cmmn.entity.repository.CaseDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.Cache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheMap;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.MapCache;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
 import org.camunda.bpm.engine.repository.CaseDefinition;
@@ -47,12 +53,41 @@ public class DeploymentCache {
 
   private Logger LOGGER = Logger.getLogger(DeploymentCache.class.getName());
 
-  protected Map<String, ProcessDefinitionEntity> processDefinitionCache = new HashMap<String, ProcessDefinitionEntity>();
-  protected Map<String, CaseDefinitionEntity> caseDefinitionCache = new HashMap<String, CaseDefinitionEntity>();
-  protected Map<String, BpmnModelInstance> bpmnModelInstanceCache = new HashMap<String, BpmnModelInstance>();
-  protected Map<String, CmmnModelInstance> cmmnModelInstanceCache = new HashMap<String, CmmnModelInstance>();
+  public static final int DEFAULT_CACHE_CAPACITY = 1000;
+  public static final int DEFAULT_MODEL_INSTANCE_CACHE_CAPACITY = 100;
+  public static final int LOADING_LOCK_STRIPES = 64;
+
+  protected Cache<String, ProcessDefinitionEntity> processDefinitionCache;
+  protected Cache<String, CaseDefinitionEntity> caseDefinitionCache;
+  protected Cache<String, BpmnModelInstance> bpmnModelInstanceCache;
+  protected Cache<String, CmmnModelInstance> cmmnModelInstanceCache;
   protected List<Deployer> deployers;
 
+  /** ensure that only one thread parses a missing deployment or model instance. A fixed number of
+   * locks is shared by all ids, so no lock has to be removed when a deployment is removed or a
+   * definition is evicted. The model instance locks are always acquired before the deployment locks. */
+  protected final ReentrantLock[] deploymentLoadingLocks = createLoadingLocks();
+  protected final ReentrantLock[] modelInstanceLoadingLocks = createLoadingLocks();
+
+  protected AtomicLong parseCount = new AtomicLong();
+  protected AtomicLong parseTime = new AtomicLong();
+
+  public DeploymentCache() {
+    this(new DefaultCacheFactory(), DEFAULT_CACHE_CAPACITY, DEFAULT_MODEL_INSTANCE_CACHE_CAPACITY);
+  }
+
+  /**
+   * @param cacheFactory creates the caches for definitions and model instances
+   * @param cacheCapacity the capacity of the process and case definition caches
+   * @param modelInstanceCacheCapacity the capacity of the BPMN and CMMN model instance caches
+   */
+  public DeploymentCache(CacheFactory cacheFactory, int cacheCapacity, int modelInstanceCacheCapacity) {
+    processDefinitionCache = cacheFactory.createCache(cacheCapacity);
+    caseDefinitionCache = cacheFactory.createCache(cacheCapacity);
+    bpmnModelInstanceCache = cacheFactory.createCache(modelInstanceCacheCapacity);
+    cmmnModelInstanceCache = cacheFactory.createCache(modelInstanceCacheCapacity);
+  }
+
   public void deploy(DeploymentEntity deployment) {
     for (Deployer deployer: deployers) {
       deployer.deploy(deployment);
@@ -110,13 +145,17 @@ public class DeploymentCache {
     String deploymentId = processDefinition.getDeploymentId();
     ProcessDefinitionEntity cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
     if (cachedProcessDefinition==null) {
-      DeploymentEntity deployment = Context
-        .getCommandContext()
-        .getDeploymentManager()
-        .findDeploymentById(deploymentId);
-      deployment.setNew(false);
-      deploy(deployment);
-      cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
+      ReentrantLock lock = lockLoading(deploymentLoadingLocks, deploymentId);
+      try {
+        // another thread may have redeployed the deployment while we were waiting
+        cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
+        if (cachedProcessDefinition == null) {
+          redeploy(deploymentId);
+          cachedProcessDefinition = processDefinitionCache.get(processDefinitionId);
+        }
+      } finally {
+        lock.unlock();
+      }
 
       ensureNotNull("deployment '" + deploymentId + "' didn't put process definition '" + processDefinitionId + "' in the cache", "cachedProcessDefinition", cachedProcessDefinition);
     } else {
@@ -129,23 +168,32 @@ public class DeploymentCache {
   public BpmnModelInstance findBpmnModelInstanceForProcessDefinition(String processDefinitionId) {
     BpmnModelInstance bpmnModelInstance = bpmnModelInstanceCache.get(processDefinitionId);
     if(bpmnModelInstance == null) {
-
-      ProcessDefinitionEntity processDefinition = findDeployedProcessDefinitionById(processDefinitionId);
-      String deploymentId = processDefinition.getDeploymentId();
-      String resourceName = processDefinition.getResourceName();
-
-      InputStream bpmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
-        .execute(Context.getCommandContext());
-
+      ReentrantLock lock = lockLoading(modelInstanceLoadingLocks, processDefinitionId);
       try {
-        bpmnModelInstance = Bpmn.readModelFromStream(bpmnResourceInputStream);
-      }catch(Exception e) {
-        throw new ProcessEngineException("Could not load Bpmn Model for process definition "+processDefinitionId, e);
+        bpmnModelInstance = bpmnModelInstanceCache.get(processDefinitionId);
+        if (bpmnModelInstance == null) {
+
+          ProcessDefinitionEntity processDefinition = findDeployedProcessDefinitionById(processDefinitionId);
+          String deploymentId = processDefinition.getDeploymentId();
+          String resourceName = processDefinition.getResourceName();
+
+          InputStream bpmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
+            .execute(Context.getCommandContext());
+
+          long startTime = System.currentTimeMillis();
+          try {
+            bpmnModelInstance = Bpmn.readModelFromStream(bpmnResourceInputStream);
+          }catch(Exception e) {
+            throw new ProcessEngineException("Could not load Bpmn Model for process definition "+processDefinitionId, e);
+          }
+          parsed(startTime);
+
+          // put model instance into cache.
+          bpmnModelInstanceCache.put(processDefinitionId, bpmnModelInstance);
+        }
+      } finally {
+        lock.unlock();
       }
-
-      // put model instance into cache.
-      bpmnModelInstanceCache.put(processDefinitionId, bpmnModelInstance);
-
     }
     return bpmnModelInstance;
   }
@@ -252,15 +300,16 @@ public class DeploymentCache {
     CaseDefinitionEntity cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
 
     if (cachedCaseDefinition==null) {
-      DeploymentEntity deployment = Context
-        .getCommandContext()
-        .getDeploymentManager()
-        .findDeploymentById(deploymentId);
-
-      deployment.setNew(false);
-      deploy(deployment);
-
-      cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
+      ReentrantLock lock = lockLoading(deploymentLoadingLocks, deploymentId);
+      try {
+        cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
+        if (cachedCaseDefinition == null) {
+          redeploy(deploymentId);
+          cachedCaseDefinition = caseDefinitionCache.get(caseDefinitionId);
+        }
+      } finally {
+        lock.unlock();
+      }
 
       ensureNotNull("deployment '" + deploymentId + "' didn't put case definition '" + caseDefinitionId + "' in the cache", "cachedCaseDefinition", cachedCaseDefinition);
 
@@ -271,23 +320,32 @@ public class DeploymentCache {
   public CmmnModelInstance findCmmnModelInstanceForCaseDefinition(String caseDefinitionId) {
     CmmnModelInstance cmmnModelInstance = cmmnModelInstanceCache.get(caseDefinitionId);
     if(cmmnModelInstance == null) {
-
-      CaseDefinitionEntity caseDefinition = findDeployedCaseDefinitionById(caseDefinitionId);
-      String deploymentId = caseDefinition.getDeploymentId();
-      String resourceName = caseDefinition.getResourceName();
-
-      InputStream cmmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
-        .execute(Context.getCommandContext());
-
+      ReentrantLock lock = lockLoading(modelInstanceLoadingLocks, caseDefinitionId);
       try {
-        cmmnModelInstance = Cmmn.readModelFromStream(cmmnResourceInputStream);
-      }catch(Exception e) {
-        throw new ProcessEngineException("Could not load Cmmn Model for case definition " + caseDefinitionId, e);
+        cmmnModelInstance = cmmnModelInstanceCache.get(caseDefinitionId);
+        if (cmmnModelInstance == null) {
+
+          CaseDefinitionEntity caseDefinition = findDeployedCaseDefinitionById(caseDefinitionId);
+          String deploymentId = caseDefinition.getDeploymentId();
+          String resourceName = caseDefinition.getResourceName();
+
+          InputStream cmmnResourceInputStream = new GetDeploymentResourceCmd(deploymentId, resourceName)
+            .execute(Context.getCommandContext());
+
+          long startTime = System.currentTimeMillis();
+          try {
+            cmmnModelInstance = Cmmn.readModelFromStream(cmmnResourceInputStream);
+          }catch(Exception e) {
+            throw new ProcessEngineException("Could not load Cmmn Model for case definition " + caseDefinitionId, e);
+          }
+          parsed(startTime);
+
+          // put model instance into cache.
+          cmmnModelInstanceCache.put(caseDefinitionId, cmmnModelInstance);
+        }
+      } finally {
+        lock.unlock();
       }
-
-      // put model instance into cache.
-      cmmnModelInstanceCache.put(caseDefinitionId, cmmnModelInstance);
-
     }
     return cmmnModelInstance;
   }
@@ -304,32 +362,146 @@ public class DeploymentCache {
     caseDefinitionCache.clear();
   }
 
+  public void discardBpmnModelInstanceCache() {
+    bpmnModelInstanceCache.clear();
+  }
+
+  public void discardCmmnModelInstanceCache() {
+    cmmnModelInstanceCache.clear();
+  }
+
+  // loading //////////////////////////////////////////////////////////////////
+
+  /**
+   * Parses the deployment again and puts its definitions into the cache.
+   */
+  protected void redeploy(String deploymentId) {
+    DeploymentEntity deployment = Context
+      .getCommandContext()
+      .getDeploymentManager()
+      .findDeploymentById(deploymentId);
+
+    long startTime = System.currentTimeMillis();
+    deployment.setNew(false);
+    deploy(deployment);
+    parsed(startTime);
+  }
+
+  protected void parsed(long startTime) {
+    parseCount.incrementAndGet();
+    parseTime.addAndGet(System.currentTimeMillis() - startTime);
+  }
+
+  protected static ReentrantLock[] createLoadingLocks() {
+    ReentrantLock[] locks = new ReentrantLock[LOADING_LOCK_STRIPES];
+    for (int i = 0; i < locks.length; i++) {
+      locks[i] = new ReentrantLock();
+    }
+    return locks;
+  }
+
+  protected ReentrantLock lockLoading(ReentrantLock[] locks, String key) {
+    ReentrantLock lock = locks[(key.hashCode() & Integer.MAX_VALUE) % locks.length];
+    lock.lock();
+    return lock;
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
+  /**
+   * @deprecated use {@link #getCachedBpmnModelInstances()}
+   */
+  @Deprecated
   public Map<String, BpmnModelInstance> getBpmnModelInstanceCache() {
-    return bpmnModelInstanceCache;
+    return new CacheMap<String, BpmnModelInstance>(bpmnModelInstanceCache);
   }
 
+  /**
+   * @deprecated use {@link #getCachedCmmnModelInstances()}
+   */
+  @Deprecated
   public Map<String, CmmnModelInstance> getCmmnModelInstanceCache() {
-    return cmmnModelInstanceCache;
+    return new CacheMap<String, CmmnModelInstance>(cmmnModelInstanceCache);
   }
 
+  /**
+   * @deprecated use {@link #getCachedProcessDefinitions()}
+   */
+  @Deprecated
   public Map<String, ProcessDefinitionEntity> getProcessDefinitionCache() {
-    return processDefinitionCache;
+    return new CacheMap<String, ProcessDefinitionEntity>(processDefinitionCache);
   }
 
+  /**
+   * @deprecated use {@link #setCachedProcessDefinitions(Cache)}, the given map is never bounded
+   */
+  @Deprecated
   public void setProcessDefinitionCache(Map<String, ProcessDefinitionEntity> processDefinitionCache) {
-    this.processDefinitionCache = processDefinitionCache;
+    this.processDefinitionCache = new MapCache<String, ProcessDefinitionEntity>(processDefinitionCache);
   }
 
+  /**
+   * @deprecated use {@link #getCachedCaseDefinitions()}
+   */
+  @Deprecated
   public Map<String, CaseDefinitionEntity> getCaseDefinitionCache() {
-    return caseDefinitionCache;
+    return new CacheMap<String, CaseDefinitionEntity>(caseDefinitionCache);
   }
 
+  /**
+   * @deprecated use {@link #setCachedCaseDefinitions(Cache)}, the given map is never bounded
+   */
+  @Deprecated
   public void setCaseDefinitionCache(Map<String, CaseDefinitionEntity> caseDefinitionCache) {
+    this.caseDefinitionCache = new MapCache<String, CaseDefinitionEntity>(caseDefinitionCache);
+  }
+
+  public Cache<String, BpmnModelInstance> getCachedBpmnModelInstances() {
+    return bpmnModelInstanceCache;
+  }
+
+  public void setCachedBpmnModelInstances(Cache<String, BpmnModelInstance> bpmnModelInstanceCache) {
+    this.bpmnModelInstanceCache = bpmnModelInstanceCache;
+  }
+
+  public Cache<String, CmmnModelInstance> getCachedCmmnModelInstances() {
+    return cmmnModelInstanceCache;
+  }
+
+  public void setCachedCmmnModelInstances(Cache<String, CmmnModelInstance> cmmnModelInstanceCache) {
+    this.cmmnModelInstanceCache = cmmnModelInstanceCache;
+  }
+
+  public Cache<String, ProcessDefinitionEntity> getCachedProcessDefinitions() {
+    return processDefinitionCache;
+  }
+
+  public void setCachedProcessDefinitions(Cache<String, ProcessDefinitionEntity> processDefinitionCache) {
+    this.processDefinitionCache = processDefinitionCache;
+  }
+
+  public Cache<String, CaseDefinitionEntity> getCachedCaseDefinitions() {
+    return caseDefinitionCache;
+  }
+
+  public void setCachedCaseDefinitions(Cache<String, CaseDefinitionEntity> caseDefinitionCache) {
     this.caseDefinitionCache = caseDefinitionCache;
   }
 
+  /**
+   * @return the number of deployments and model instances parsed because they were missing in the cache
+   */
+  public long getParseCount() {
+    return parseCount.get();
+  }
+
+  /**
+   * @return the time in milliseconds spent parsing deployments and model instances missing in the cache
+   */
+  public long getParseTime() {
+    return parseTime.get();
+  }
+
   public List<Deployer> getDeployers() {
     return deployers;
   }
@@ -0,0 +1,58 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.Set;
+
+/**
+ * A thread safe cache used by the {@link org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache}.
+ * Implementations may evict entries at any time, e.g. when they reach their capacity.
+ */
+public interface Cache<K, V> {
+
+  /**
+   * @return the cached value or null if no value is cached for the key
+   */
+  V get(K key);
+
+  void put(K key, V value);
+
+  void remove(K key);
+
+  void clear();
+
+  boolean isEmpty();
+
+  int size();
+
+  /**
+   * @return a snapshot of the keys currently cached
+   */
+  Set<K> keySet();
+
+  /**
+   * @return the number of lookups which found a value
+   */
+  long getHitCount();
+
+  /**
+   * @return the number of lookups which did not find a value
+   */
+  long getMissCount();
+
+  /**
+   * @return the number of values removed because the cache reached its capacity
+   */
+  long getEvictionCount();
+
+}
@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.AbstractMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link java.util.Map} view of a {@link Cache}. Changes of the map are written
+ * through to the cache; the entry set is a snapshot of the entries currently cached.
+ */
+public class CacheMap<K, V> extends AbstractMap<K, V> {
+
+  protected final Cache<K, V> cache;
+
+  public CacheMap(Cache<K, V> cache) {
+    this.cache = cache;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V get(Object key) {
+    return cache.get((K) key);
+  }
+
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  public V put(K key, V value) {
+    V previousValue = cache.get(key);
+    cache.put(key, value);
+    return previousValue;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V remove(Object key) {
+    V previousValue = cache.get((K) key);
+    cache.remove((K) key);
+    return previousValue;
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+  public boolean isEmpty() {
+    return cache.isEmpty();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public Set<Entry<K, V>> entrySet() {
+    Set<Entry<K, V>> entries = new HashSet<Entry<K, V>>();
+    for (K key : cache.keySet()) {
+      V value = cache.get(key);
+      // the entry may have been removed in the meantime
+      if (value != null) {
+        entries.add(new SimpleImmutableEntry<K, V>(key, value));
+      }
+    }
+    return entries;
+  }
+
+}
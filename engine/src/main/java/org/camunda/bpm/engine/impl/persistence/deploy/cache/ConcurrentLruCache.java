@@ -0,0 +1,129 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A size bounded {@link Cache} evicting the least recently used entries.</p>
+ *
+ * <p>Lookups do not lock: an entry only records the time of its last access.
+ * Adding an entry beyond the capacity searches for the least recently used entry,
+ * which is cheap compared to the parsing done before a definition is added.</p>
+ */
+public class ConcurrentLruCache<K, V> implements Cache<K, V> {
+
+  protected final int capacity;
+  protected final ConcurrentMap<K, CacheEntry<V>> entries = new ConcurrentHashMap<K, CacheEntry<V>>();
+
+  /** logical clock ordering the accesses */
+  protected final AtomicLong accessCounter = new AtomicLong();
+
+  protected final AtomicLong hitCount = new AtomicLong();
+  protected final AtomicLong missCount = new AtomicLong();
+  protected final AtomicLong evictionCount = new AtomicLong();
+
+  public ConcurrentLruCache(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be greater than 0 but was " + capacity);
+    }
+    this.capacity = capacity;
+  }
+
+  public V get(K key) {
+    CacheEntry<V> entry = entries.get(key);
+    if (entry == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+    else {
+      entry.lastAccess = accessCounter.incrementAndGet();
+      hitCount.incrementAndGet();
+      return entry.value;
+    }
+  }
+
+  public void put(K key, V value) {
+    entries.put(key, new CacheEntry<V>(value, accessCounter.incrementAndGet()));
+    if (entries.size() > capacity) {
+      evictLeastRecentlyUsed();
+    }
+  }
+
+  protected synchronized void evictLeastRecentlyUsed() {
+    while (entries.size() > capacity) {
+      Map.Entry<K, CacheEntry<V>> leastRecentlyUsed = null;
+      for (Map.Entry<K, CacheEntry<V>> entry : entries.entrySet()) {
+        if (leastRecentlyUsed == null || entry.getValue().lastAccess < leastRecentlyUsed.getValue().lastAccess) {
+          leastRecentlyUsed = entry;
+        }
+      }
+      if (leastRecentlyUsed != null && entries.remove(leastRecentlyUsed.getKey(), leastRecentlyUsed.getValue())) {
+        evictionCount.incrementAndGet();
+      }
+    }
+  }
+
+  public void remove(K key) {
+    entries.remove(key);
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public Set<K> keySet() {
+    return new HashSet<K>(entries.keySet());
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  protected static class CacheEntry<V> {
+
+    protected final V value;
+    protected volatile long lastAccess;
+
+    public CacheEntry(V value, long lastAccess) {
+      this.value = value;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+}
@@ -0,0 +1,101 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An unbounded {@link Cache} backed by a {@link Map}, which never evicts entries.
+ * Access to the map is synchronized on the map.
+ */
+public class MapCache<K, V> implements Cache<K, V> {
+
+  protected final Map<K, V> map;
+
+  protected final AtomicLong hitCount = new AtomicLong();
+  protected final AtomicLong missCount = new AtomicLong();
+
+  public MapCache(Map<K, V> map) {
+    this.map = map;
+  }
+
+  public V get(K key) {
+    V value;
+    synchronized (map) {
+      value = map.get(key);
+    }
+    if (value == null) {
+      missCount.incrementAndGet();
+    }
+    else {
+      hitCount.incrementAndGet();
+    }
+    return value;
+  }
+
+  public void put(K key, V value) {
+    synchronized (map) {
+      map.put(key, value);
+    }
+  }
+
+  public void remove(K key) {
+    synchronized (map) {
+      map.remove(key);
+    }
+  }
+
+  public void clear() {
+    synchronized (map) {
+      map.clear();
+    }
+  }
+
+  public boolean isEmpty() {
+    synchronized (map) {
+      return map.isEmpty();
+    }
+  }
+
+  public int size() {
+    synchronized (map) {
+      return map.size();
+    }
+  }
+
+  public Set<K> keySet() {
+    synchronized (map) {
+      return new HashSet<K>(map.keySet());
+    }
+  }
+
+  public Map<K, V> getMap() {
+    return map;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return 0;
+  }
+
+}
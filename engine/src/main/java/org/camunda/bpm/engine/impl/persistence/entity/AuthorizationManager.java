@@ -17,9 +17,11 @@ import static org.camunda.bpm.engine.authorization.Permissions.DELETE;
 import static org.camunda.bpm.engine.authorization.Permissions.UPDATE;
 import static org.camunda.bpm.engine.authorization.Resources.AUTHORIZATION;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.AuthorizationException;
 import org.camunda.bpm.engine.authorization.Authorization;
@@ -33,6 +35,8 @@ import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.AuthorizationCheck;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.identity.Authentication;
+import org.camunda.bpm.engine.impl.identity.AuthorizationCache;
+import org.camunda.bpm.engine.impl.identity.PermissionSet;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
 /**
@@ -42,6 +46,22 @@ import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 @SuppressWarnings({"unchecked", "rawtypes"})
 public class AuthorizationManager extends AbstractManager {
 
+  /** the maximum number of resource ids with specific authorizations for which query authorizations are prefetched */
+  protected static final int MAX_PREFETCHED_RESOURCE_IDS = 10000;
+
+  /** the maximum number of resource ids bound to a query: SQL Server supports at most
+   * 2100 parameters per statement, which also include the other parameters of the query */
+  protected static final int MAX_BOUND_RESOURCE_IDS = 1500;
+
+  /** the maximum number of expressions in an IN clause supported by all databases */
+  protected static final int RESOURCE_ID_CHUNK_SIZE = 1000;
+
+  /** the authorization revision read by the current command, see {@link AuthorizationCache} */
+  protected Long authorizationRevision;
+
+  /** true if the current command changed authorizations */
+  protected boolean authorizationsChanged = false;
+
   public Authorization createNewAuthorization(int type) {
     checkAuthorization(CREATE, AUTHORIZATION, null);
     return new AuthorizationEntity(type);
@@ -50,6 +70,7 @@ public class AuthorizationManager extends AbstractManager {
   public void insert(DbEntity authorization) {
     checkAuthorization(CREATE, AUTHORIZATION, null);
     getDbEntityManager().insert(authorization);
+    incrementAuthorizationRevision();
   }
 
   public List<Authorization> selectAuthorizationByQueryCriteria(AuthorizationQueryImpl authorizationQuery) {
@@ -65,12 +86,14 @@ public class AuthorizationManager extends AbstractManager {
   public void update(AuthorizationEntity authorization) {
     checkAuthorization(UPDATE, AUTHORIZATION, authorization.getId());
     getDbEntityManager().merge(authorization);
+    incrementAuthorizationRevision();
   }
 
   public void delete(DbEntity authorization) {
     checkAuthorization(DELETE, AUTHORIZATION, authorization.getId());
     deleteAuthorizationsByResourceId(AUTHORIZATION, authorization.getId());
     super.delete(authorization);
+    incrementAuthorizationRevision();
   }
 
   // authorization checks ///////////////////////////////////////////
@@ -86,8 +109,52 @@ public class AuthorizationManager extends AbstractManager {
       query.setAuthResourceType(resource.resourceType());
       query.setAuthResourceIdQueryParam("RES.ID_");
       query.setAuthPerms(Permissions.READ.getValue());
+
+      if (processEngineConfiguration.isQueryAuthorizationPrefetchEnabled()) {
+        resolveAuthorizedResourceIds(query, currentAuthentication, resource);
+      }
+    }
+
+  }
+
+  /**
+   * Evaluates the authorizations of the user once, so that the query is restricted by
+   * the ids of the resources the user is (not) authorized for instead of evaluating the
+   * authorizations for each row. Falls back to the per row check if the user has specific
+   * authorizations for too many resources.
+   */
+  protected void resolveAuthorizedResourceIds(AbstractQuery query, Authentication authentication, Resource resource) {
+    PermissionSet permissionSet = getPermissionSet(authentication.getUserId(), authentication.getGroupIds(), resource);
+    int permission = query.getAuthPerms();
+
+    Set<String> resourceIds = permissionSet.getResourceIds();
+    if (resourceIds.size() > MAX_PREFETCHED_RESOURCE_IDS) {
+      return;
+    }
+
+    // the permissions for all resources without specific authorizations
+    boolean isDefaultGranted = permissionSet.isAuthorized(permission, null);
+
+    List<String> exceptions = new ArrayList<String>();
+    for (String resourceId : resourceIds) {
+      if (permissionSet.isAuthorized(permission, resourceId) != isDefaultGranted) {
+        exceptions.add(resourceId);
+      }
     }
 
+    if (exceptions.size() > MAX_BOUND_RESOURCE_IDS) {
+      // too many parameters, the authorizations are checked per row
+      return;
+    }
+
+    List<List<String>> chunks = new ArrayList<List<String>>();
+    for (int i = 0; i < exceptions.size(); i += RESOURCE_ID_CHUNK_SIZE) {
+      chunks.add(new ArrayList<String>(exceptions.subList(i, Math.min(exceptions.size(), i + RESOURCE_ID_CHUNK_SIZE))));
+    }
+
+    query.setAuthResourceIdsResolved(true);
+    query.setAuthDefaultGranted(isDefaultGranted);
+    query.setAuthResourceIdChunks(chunks);
   }
 
   public void checkAuthorization(Permission permission, Resource resource, String resourceId) {
@@ -107,6 +174,11 @@ public class AuthorizationManager extends AbstractManager {
 
   public boolean isAuthorized(String userId, List<String> groupIds, Permission permission, Resource resource, String resourceId) {
 
+    PermissionSet permissionSet = getCachedPermissionSet(userId, groupIds, resource);
+    if (permissionSet != null) {
+      return permissionSet.isAuthorized(permission.getValue(), resourceId);
+    }
+
     AuthorizationCheck authCheck = new AuthorizationCheck();
     authCheck.setAuthUserId(userId);
     authCheck.setAuthGroupIds(groupIds);
@@ -143,8 +215,73 @@ public class AuthorizationManager extends AbstractManager {
       deleteParams.put("resourceType", resource.resourceType());
       deleteParams.put("resourceId", resourceId);
       getDbEntityManager().delete(AuthorizationEntity.class, "deleteAuthorizationsForResourceId", deleteParams);
+      incrementAuthorizationRevision();
+    }
+
+  }
+
+  // authorization cache ////////////////////////////////////////////
+
+  /**
+   * @return the permission set of the user for the resource type, taken from the
+   * authorization cache if possible
+   */
+  protected PermissionSet getPermissionSet(String userId, List<String> groupIds, Resource resource) {
+    PermissionSet permissionSet = getCachedPermissionSet(userId, groupIds, resource);
+    if (permissionSet == null) {
+      permissionSet = new PermissionSet(userId, groupIds, selectAuthorizationsForPermissionSet(userId, groupIds, resource.resourceType()));
+    }
+    return permissionSet;
+  }
+
+  /**
+   * @return the permission set of the user for the resource type, null if the
+   * authorization cache cannot be used by the current command
+   */
+  protected PermissionSet getCachedPermissionSet(String userId, List<String> groupIds, Resource resource) {
+    final ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    AuthorizationCache authorizationCache = processEngineConfiguration.getAuthorizationCache();
+
+    if (!processEngineConfiguration.isAuthorizationCacheEnabled() || authorizationCache == null || authorizationsChanged) {
+      // changes of the current command are not flushed yet
+      return null;
+    }
+
+    if (authorizationRevision == null) {
+      Integer revision = (Integer) getDbEntityManager().selectOne("selectAuthorizationRevision", null);
+      if (revision == null) {
+        // the database schema has no authorization revision
+        return null;
+      }
+      authorizationRevision = revision.longValue();
+    }
+
+    int resourceType = resource.resourceType();
+    PermissionSet permissionSet = authorizationCache.get(userId, groupIds, resourceType, authorizationRevision);
+    if (permissionSet == null) {
+      permissionSet = new PermissionSet(userId, groupIds, selectAuthorizationsForPermissionSet(userId, groupIds, resourceType));
+      authorizationCache.put(userId, groupIds, resourceType, authorizationRevision, permissionSet);
     }
+    return permissionSet;
+  }
 
+  protected List<Authorization> selectAuthorizationsForPermissionSet(String userId, List<String> groupIds, int resourceType) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("userId", userId);
+    parameters.put("groupIds", groupIds);
+    parameters.put("resourceType", resourceType);
+    return getDbEntityManager().selectList("selectAuthorizationsForPermissionSet", parameters);
+  }
+
+  /**
+   * Increments the authorization revision once per command, so that all process engines
+   * discard their cached permission sets once the command is committed.
+   */
+  protected void incrementAuthorizationRevision() {
+    if (!authorizationsChanged) {
+      authorizationsChanged = true;
+      getDbEntityManager().update(PropertyEntity.class, "incrementAuthorizationRevision", null);
+    }
   }
 
 }
@@ -31,6 +31,11 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
   protected String name;
   protected byte[] bytes;
   protected String deploymentId;
+  /** hash of the bytes of a shared byte array, null if the byte array is not shared */
+  protected String hash;
+  protected int referenceCount;
+  /** the change of the reference count which is not flushed yet */
+  protected int referenceCountDelta;
 
   public ByteArrayEntity() {
   }
@@ -49,9 +54,21 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
   }
 
   public Object getPersistentState() {
+    if (hash != null) {
+      // the bytes of shared byte arrays are never updated, only their reference count
+      return referenceCountDelta;
+    }
     return (bytes != null ? bytes : PERSISTENTSTATE_NULL);
   }
 
+  /**
+   * @return true if this byte array is stored once for all its references
+   * and must be released instead of deleted
+   */
+  public boolean isShared() {
+    return hash != null;
+  }
+
   public int getRevisionNext() {
     return revision+1;
   }
@@ -90,6 +107,35 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
     return revision;
   }
 
+  public String getHash() {
+    return hash;
+  }
+
+  public void setHash(String hash) {
+    this.hash = hash;
+  }
+
+  public int getReferenceCount() {
+    return referenceCount;
+  }
+
+  public void setReferenceCount(int referenceCount) {
+    this.referenceCount = referenceCount;
+  }
+
+  /**
+   * Changes the reference count of a shared byte array. The change is added to the
+   * reference count stored in the database, so that concurrent changes do not conflict.
+   */
+  public void addReferences(int delta) {
+    this.referenceCount += delta;
+    this.referenceCountDelta += delta;
+  }
+
+  public int getReferenceCountDelta() {
+    return referenceCountDelta;
+  }
+
   public void setRevision(int revision) {
     this.revision = revision;
   }
@@ -101,6 +147,8 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
            + ", revision=" + revision
            + ", name=" + name
            + ", deploymentId=" + deploymentId
+           + ", hash=" + hash
+           + ", referenceCount=" + referenceCount
            + "]";
   }
 
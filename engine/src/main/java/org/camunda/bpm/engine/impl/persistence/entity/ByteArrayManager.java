@@ -13,6 +13,14 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
 /**
@@ -25,9 +33,95 @@ public class ByteArrayManager extends AbstractManager {
    * Important: this operation will NOT do any optimistic locking, to avoid loading the
    * bytes in memory. So use this method only in conjunction with an entity that has
    * optimistic locking!.
+   *
+   * A shared byte array is released instead: if byte array deduplication is enabled,
+   * its reference count is decremented in place and it is deleted once it is no
+   * longer referenced, without loading it.
    */
   public void deleteByteArrayById(String byteArrayEntityId) {
-    getDbEntityManager().delete(ByteArrayEntity.class, "deleteByteArrayNoRevisionCheck", byteArrayEntityId);
+    ByteArrayEntity byteArray = getDbEntityManager().getCachedEntity(ByteArrayEntity.class, byteArrayEntityId);
+    if (byteArray != null && byteArray.isShared()) {
+      releaseSharedByteArray(byteArray);
+    } else {
+      if (Context.getProcessEngineConfiguration().isByteArrayDeduplicationEnabled()) {
+        // bulk operations are executed in the order of their statements: the reference count
+        // is decremented before the unreferenced byte array is deleted
+        getDbEntityManager().update(ByteArrayEntity.class, "decrementSharedByteArrayReferenceCount", byteArrayEntityId);
+      }
+      getDbEntityManager().delete(ByteArrayEntity.class, "deleteByteArrayNoRevisionCheck", byteArrayEntityId);
+    }
+  }
+
+  /**
+   * Inserts a byte array whose bytes are never updated. If byte array deduplication
+   * is enabled, an existing shared byte array with the same bytes is referenced instead.
+   * The byte array must be deleted using {@link #deleteByteArrayById(String)} after
+   * it has been loaded.
+   */
+  public ByteArrayEntity insertImmutableByteArray(String name, byte[] bytes) {
+    if (!Context.getProcessEngineConfiguration().isByteArrayDeduplicationEnabled()) {
+      ByteArrayEntity byteArray = new ByteArrayEntity(name, bytes);
+      getDbEntityManager().insert(byteArray);
+      return byteArray;
+    }
+
+    String hash = hash(bytes);
+    ByteArrayEntity byteArray = findSharedByteArray(hash, bytes);
+    if (byteArray != null) {
+      // fails with an optimistic locking exception if the byte array was deleted concurrently
+      byteArray.addReferences(1);
+
+    } else {
+      byteArray = new ByteArrayEntity(name, bytes);
+      byteArray.setHash(hash);
+      byteArray.setReferenceCount(1);
+      getDbEntityManager().insert(byteArray);
+    }
+
+    return byteArray;
+  }
+
+  /**
+   * Removes a reference to the given shared byte array. The byte array is deleted
+   * once no transaction references it anymore.
+   */
+  public void releaseSharedByteArray(ByteArrayEntity byteArray) {
+    byteArray.addReferences(-1);
+    if (byteArray.getReferenceCount() <= 0) {
+      // the reference count is decremented before, concurrent references keep the byte array
+      getDbEntityManager().delete(ByteArrayEntity.class, "deleteUnreferencedSharedByteArray", byteArray.getId());
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected ByteArrayEntity findSharedByteArray(String hash, byte[] bytes) {
+    // byte arrays inserted by the current command are not found by the query
+    for (ByteArrayEntity byteArray : getDbEntityManager().getCachedEntitiesByType(ByteArrayEntity.class)) {
+      if (hash.equals(byteArray.getHash()) && byteArray.getReferenceCount() > 0
+          && Arrays.equals(bytes, byteArray.getBytes())) {
+        return byteArray;
+      }
+    }
+
+    List<ByteArrayEntity> byteArrays = getDbEntityManager().selectList("selectByteArraysByHash", hash);
+    for (ByteArrayEntity byteArray : byteArrays) {
+      // guard against hash collisions
+      if (byteArray.getReferenceCount() > 0 && Arrays.equals(bytes, byteArray.getBytes())) {
+        return byteArray;
+      }
+    }
+
+    return null;
+  }
+
+  protected String hash(byte[] bytes) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return new String(Base64.encodeBase64(digest.digest(bytes)));
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup SHA-256 algorithm", e);
+    }
   }
 
 }
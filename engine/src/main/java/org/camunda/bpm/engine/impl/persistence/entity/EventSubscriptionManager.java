@@ -78,6 +78,30 @@ public class EventSubscriptionManager extends AbstractManager {
     return new ArrayList<SignalEventSubscriptionEntity>(selectList);
   }
   
+  /**
+   * Selects the ids of the subscriptions to a signal, which bound a signal delivered in
+   * chunks to the subscriptions existing when the delivery starts.
+   *
+   * @return the ids ordered by the creation of the subscriptions
+   */
+  @SuppressWarnings("unchecked")
+  public List<String> findSignalEventSubscriptionIdsByEventName(String eventName) {
+    return getDbEntityManager().selectList("selectSignalEventSubscriptionIdsByEventName", eventName);
+  }
+
+  /**
+   * Selects the subscriptions of a signal delivered in chunks. In contrast to
+   * {@link #findSignalEventSubscriptionsByEventName(String)}, only the given subscriptions
+   * are selected, those which no longer exist are left out.
+   */
+  @SuppressWarnings("unchecked")
+  public List<SignalEventSubscriptionEntity> findSignalEventSubscriptionsByEventNameAndIds(String eventName, List<String> subscriptionIds) {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("eventName", eventName);
+    params.put("subscriptionIds", subscriptionIds);
+    return getDbEntityManager().selectList("selectSignalEventSubscriptionsByEventNameAndIds", params);
+  }
+
   @SuppressWarnings("unchecked")
   public List<SignalEventSubscriptionEntity> findSignalEventSubscriptionsByExecution(String executionId) {
     final String query = "selectSignalEventSubscriptionsByExecution";    
@@ -124,6 +148,11 @@ public class EventSubscriptionManager extends AbstractManager {
     final String query = "selectEventSubscriptionsByExecution";    
     return getDbEntityManager().selectList(query, executionId);
   }
+
+  public List<EventSubscriptionEntity> findEventSubscriptionsByProcessInstanceId(String processInstanceId) {
+    final String query = "selectEventSubscriptionsByProcessInstanceId";
+    return getDbEntityManager().selectList(query, processInstanceId);
+  }
   
   public List<EventSubscriptionEntity> findEventSubscriptions(String executionId, String type, String activityId) {
     final String query = "selectEventSubscriptionsByExecutionTypeAndActivity";    
@@ -13,7 +13,10 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import static org.camunda.bpm.engine.impl.util.PersistentStateUtil.changedProperty;
+
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +41,7 @@ import org.camunda.bpm.engine.impl.core.mapping.IoMapping;
 import org.camunda.bpm.engine.impl.core.operation.CoreAtomicOperation;
 import org.camunda.bpm.engine.impl.core.variable.CorePersistentVariableStore;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
@@ -85,7 +89,8 @@ public class ExecutionEntity extends PvmExecutionImpl implements
       ProcessInstance,
       DbEntity,
       HasDbRevision,
-      HasDbReferences {
+      HasDbReferences,
+      HasDbChangeTracking {
 
   private static final long serialVersionUID = 1L;
 
@@ -99,6 +104,22 @@ public class ExecutionEntity extends PvmExecutionImpl implements
   public static final int VARIABLES_STATE_BIT = 5;
   public static final int SUB_PROCESS_INSTANCE_STATE_BIT = 6;
 
+  // indices of the persistent state snapshot ////////////////////////////////
+  public static final int PROCESS_DEFINITION_ID_PROPERTY = 0;
+  public static final int BUSINESS_KEY_PROPERTY = 1;
+  public static final int ACTIVITY_ID_PROPERTY = 2;
+  public static final int ACTIVITY_INSTANCE_ID_PROPERTY = 3;
+  public static final int IS_ACTIVE_PROPERTY = 4;
+  public static final int IS_CONCURRENT_PROPERTY = 5;
+  public static final int IS_SCOPE_PROPERTY = 6;
+  public static final int IS_EVENT_SCOPE_PROPERTY = 7;
+  public static final int PARENT_ID_PROPERTY = 8;
+  public static final int SUPER_EXECUTION_ID_PROPERTY = 9;
+  public static final int SUPER_CASE_EXECUTION_ID_PROPERTY = 10;
+  public static final int CASE_INSTANCE_ID_PROPERTY = 11;
+  public static final int SUSPENSION_STATE_PROPERTY = 12;
+  public static final int CACHED_ENTITY_STATE_PROPERTY = 13;
+
   // current position /////////////////////////////////////////////////////////
 
   /** the process instance.  this is the root of the execution tree.
@@ -983,6 +1004,13 @@ public class ExecutionEntity extends PvmExecutionImpl implements
       .findVariableInstancesByExecutionId(id);
   }
 
+  protected List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames) {
+    return Context
+      .getCommandContext()
+      .getVariableInstanceManager()
+      .findVariableInstancesByExecutionIdAndNames(id, variableNames);
+  }
+
   protected boolean isAutoFireHistoryEvents() {
     // as long as the process instance is starting (ie. before activity instance of
     // the selected initial (start event) is created), the variable scope should not
@@ -1049,6 +1077,118 @@ public class ExecutionEntity extends PvmExecutionImpl implements
         execution.processInstance = execution;
       }
     }
+
+    if(isProcessInstancePrefetchEnabled()) {
+      prefetchProcessInstanceEntities(executions);
+    }
+  }
+
+  /**
+   * Fetch the variable instances, tasks, jobs and event subscriptions of all executions
+   * inside the same process instance with a single query per table and assign them to
+   * the executions which have not initialized them yet. Tables are only queried if at
+   * least one execution may reference an entity stored in them.
+   */
+  protected void prefetchProcessInstanceEntities(List<ExecutionEntity> executions) {
+    Map<String, List<VariableInstanceEntity>> variablesByExecution = new HashMap<String, List<VariableInstanceEntity>>();
+    Map<String, ExecutionEntity> executionsWithoutTasks = new HashMap<String, ExecutionEntity>();
+    Map<String, ExecutionEntity> executionsWithoutJobs = new HashMap<String, ExecutionEntity>();
+    Map<String, ExecutionEntity> executionsWithoutEventSubscriptions = new HashMap<String, ExecutionEntity>();
+
+    for (ExecutionEntity execution : executions) {
+      if (execution.variableStore.getVariableInstancesWithoutInitialization() == null) {
+        variablesByExecution.put(execution.getId(), new ArrayList<VariableInstanceEntity>());
+      }
+      if (execution.tasks == null) {
+        execution.tasks = new ArrayList<TaskEntity>();
+        executionsWithoutTasks.put(execution.getId(), execution);
+      }
+      if (execution.jobs == null) {
+        execution.jobs = new ArrayList<JobEntity>();
+        executionsWithoutJobs.put(execution.getId(), execution);
+      }
+      if (execution.eventSubscriptions == null) {
+        execution.eventSubscriptions = new ArrayList<EventSubscriptionEntity>();
+        executionsWithoutEventSubscriptions.put(execution.getId(), execution);
+      }
+    }
+
+    CommandContext commandContext = Context.getCommandContext();
+
+    if (!variablesByExecution.isEmpty()) {
+      List<VariableInstanceEntity> variableInstances = commandContext
+        .getVariableInstanceManager()
+        .findVariableInstancesByProcessInstanceId(processInstanceId);
+      for (VariableInstanceEntity variableInstance : variableInstances) {
+        List<VariableInstanceEntity> variables = variablesByExecution.get(variableInstance.getExecutionId());
+        if (variables != null) {
+          variables.add(variableInstance);
+        }
+      }
+      for (ExecutionEntity execution : executions) {
+        List<VariableInstanceEntity> variables = variablesByExecution.get(execution.getId());
+        if (variables != null) {
+          execution.variableStore.initializeVariableInstances(variables);
+        }
+      }
+    }
+
+    if (!executionsWithoutTasks.isEmpty()) {
+      List<TaskEntity> tasks = commandContext
+        .getTaskManager()
+        .findTasksByProcessInstanceId(processInstanceId);
+      for (TaskEntity task : tasks) {
+        ExecutionEntity execution = executionsWithoutTasks.get(task.getExecutionId());
+        if (execution != null) {
+          task.setExecution(execution);
+          execution.tasks.add(task);
+        }
+      }
+    }
+
+    if (!executionsWithoutJobs.isEmpty()) {
+      List<JobEntity> jobs = commandContext
+        .getJobManager()
+        .findJobsByProcessInstanceId(processInstanceId);
+      for (JobEntity job : jobs) {
+        ExecutionEntity execution = executionsWithoutJobs.get(job.getExecutionId());
+        if (execution != null) {
+          execution.jobs.add(job);
+        }
+      }
+    }
+
+    if (!executionsWithoutEventSubscriptions.isEmpty()) {
+      List<EventSubscriptionEntity> eventSubscriptions = commandContext
+        .getEventSubscriptionManager()
+        .findEventSubscriptionsByProcessInstanceId(processInstanceId);
+      for (EventSubscriptionEntity eventSubscription : eventSubscriptions) {
+        ExecutionEntity execution = executionsWithoutEventSubscriptions.get(eventSubscription.getExecutionId());
+        if (execution != null) {
+          eventSubscription.setExecution(execution);
+          execution.eventSubscriptions.add(eventSubscription);
+        }
+      }
+    }
+  }
+
+  /**
+   * Initializes the execution tree together with the entities referenced by its
+   * executions if process instance prefetching is enabled and the tree has not
+   * been initialized yet.
+   */
+  protected void ensureProcessInstancePrefetched() {
+    if (executions == null && processInstanceId != null && isProcessInstancePrefetchEnabled()) {
+      ensureExecutionTreeInitialized();
+    }
+  }
+
+  /**
+   * @return true if process instance prefetching is enabled
+   */
+  protected boolean isProcessInstancePrefetchEnabled() {
+    return Context.getProcessEngineConfiguration()
+      .isProcessInstancePrefetchEnabled();
   }
 
   // persistent state /////////////////////////////////////////////////////////
@@ -1072,6 +1212,44 @@ public class ExecutionEntity extends PvmExecutionImpl implements
     return persistentState;
   }
 
+  public Object[] getPersistentStateSnapshot() {
+    return new Object[] {
+      processDefinitionId,
+      businessKey,
+      activityId,
+      activityInstanceId,
+      isActive,
+      isConcurrent,
+      isScope,
+      isEventScope,
+      parentId,
+      superExecutionId,
+      superCaseExecutionId,
+      caseInstanceId,
+      suspensionState,
+      getCachedEntityState()
+    };
+  }
+
+  public int getChangedProperties(Object[] snapshot) {
+    int changedProperties = 0;
+    changedProperties |= changedProperty(PROCESS_DEFINITION_ID_PROPERTY, snapshot, processDefinitionId);
+    changedProperties |= changedProperty(BUSINESS_KEY_PROPERTY, snapshot, businessKey);
+    changedProperties |= changedProperty(ACTIVITY_ID_PROPERTY, snapshot, activityId);
+    changedProperties |= changedProperty(ACTIVITY_INSTANCE_ID_PROPERTY, snapshot, activityInstanceId);
+    changedProperties |= changedProperty(IS_ACTIVE_PROPERTY, snapshot, isActive);
+    changedProperties |= changedProperty(IS_CONCURRENT_PROPERTY, snapshot, isConcurrent);
+    changedProperties |= changedProperty(IS_SCOPE_PROPERTY, snapshot, isScope);
+    changedProperties |= changedProperty(IS_EVENT_SCOPE_PROPERTY, snapshot, isEventScope);
+    changedProperties |= changedProperty(PARENT_ID_PROPERTY, snapshot, parentId);
+    changedProperties |= changedProperty(SUPER_EXECUTION_ID_PROPERTY, snapshot, superExecutionId);
+    changedProperties |= changedProperty(SUPER_CASE_EXECUTION_ID_PROPERTY, snapshot, superCaseExecutionId);
+    changedProperties |= changedProperty(CASE_INSTANCE_ID_PROPERTY, snapshot, caseInstanceId);
+    changedProperties |= changedProperty(SUSPENSION_STATE_PROPERTY, snapshot, suspensionState);
+    changedProperties |= changedProperty(CACHED_ENTITY_STATE_PROPERTY, snapshot, getCachedEntityState());
+    return changedProperties;
+  }
+
   public void insert() {
     Context
       .getCommandContext()
@@ -1145,6 +1323,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements
   }
 
   protected void ensureEventSubscriptionsInitialized() {
+    if (eventSubscriptions == null) {
+      ensureProcessInstancePrefetched();
+    }
     if (eventSubscriptions == null) {
 
       eventSubscriptions = Context.getCommandContext()
@@ -1168,6 +1349,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements
 
   @SuppressWarnings({ "unchecked", "rawtypes" })
   protected void ensureJobsInitialized() {
+    if(jobs == null) {
+      ensureProcessInstancePrefetched();
+    }
     if(jobs == null) {
       jobs = (List)Context.getCommandContext()
         .getJobManager()
@@ -1240,6 +1424,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements
 
   @SuppressWarnings({ "unchecked", "rawtypes" })
   protected void ensureTasksInitialized() {
+    if(tasks == null) {
+      ensureProcessInstancePrefetched();
+    }
     if(tasks == null) {
       tasks = (List)Context.getCommandContext()
         .getTaskManager()
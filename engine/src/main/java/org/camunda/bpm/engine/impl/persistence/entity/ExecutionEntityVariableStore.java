@@ -14,6 +14,7 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import org.camunda.bpm.engine.impl.variable.AbstractPersistentVariableStore;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -33,10 +34,22 @@ public class ExecutionEntityVariableStore extends AbstractPersistentVariableStor
     this.executionEntity = executionEntity;
   }
 
+  public void ensureVariableInstancesInitialized() {
+    if (variableInstances == null) {
+      // may initialize the variable instances of all executions of the process instance
+      executionEntity.ensureProcessInstancePrefetched();
+    }
+    super.ensureVariableInstancesInitialized();
+  }
+
   protected List<VariableInstanceEntity> loadVariableInstances() {
     return executionEntity.loadVariableInstances();
   }
 
+  protected List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames) {
+    return executionEntity.loadVariableInstances(variableNames);
+  }
+
   protected void initializeVariableInstanceBackPointer(VariableInstanceEntity variableInstance) {
     executionEntity.initializeVariableInstanceBackPointer(variableInstance);
   }
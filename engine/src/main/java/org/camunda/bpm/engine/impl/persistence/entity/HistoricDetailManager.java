@@ -13,7 +13,10 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.history.HistoricDetail;
 import org.camunda.bpm.engine.impl.HistoricDetailQueryImpl;
@@ -27,9 +30,15 @@ import org.camunda.bpm.engine.impl.persistence.AbstractHistoricManager;
  */
 public class HistoricDetailManager extends AbstractHistoricManager {
 
+  /** the process instances whose details are deleted by the current command */
+  protected List<String> deletedProcessInstanceIds = new ArrayList<String>();
+
   public void deleteHistoricDetailsByProcessInstanceId(String historicProcessInstanceId) {
     if (isHistoryEnabled()) {
+      deletedProcessInstanceIds.add(historicProcessInstanceId);
       getDbEntityManager().delete(ByteArrayEntity.class, "deleteHistoricDetailsByProcessInstanceId_byteArray", historicProcessInstanceId);
+      getDbEntityManager().update(ByteArrayEntity.class, "decrementSharedByteArraysOfHistoricDetailsByProcessInstanceId", historicProcessInstanceId);
+      getDbEntityManager().delete(ByteArrayEntity.class, "deleteUnreferencedSharedByteArraysOfHistoricDetailsByProcessInstanceId", historicProcessInstanceId);
       getDbEntityManager().delete(HistoricDetailEventEntity.class, "deleteHistoricDetailsByProcessInstanceId", historicProcessInstanceId);
     }
   }
@@ -46,6 +55,13 @@ public class HistoricDetailManager extends AbstractHistoricManager {
   public void deleteHistoricDetailsByTaskId(String taskId) {
     if (isHistoryEnabled()) {
       getDbEntityManager().delete(ByteArrayEntity.class, "deleteHistoricDetailsByTaskId_byteArray", taskId);
+
+      // the shared byte arrays of details which are deleted with their process instance are already released
+      Map<String, Object> parameters = new HashMap<String, Object>();
+      parameters.put("taskId", taskId);
+      parameters.put("excludedProcessInstanceIds", deletedProcessInstanceIds.isEmpty() ? null : new ArrayList<String>(deletedProcessInstanceIds));
+      getDbEntityManager().update(ByteArrayEntity.class, "decrementSharedByteArraysOfHistoricDetailsByTaskId", parameters);
+      getDbEntityManager().delete(ByteArrayEntity.class, "deleteUnreferencedSharedByteArraysOfHistoricDetailsByTaskId", parameters);
       getDbEntityManager().delete(HistoricDetailEventEntity.class, "deleteHistoricDetailsByTaskId", taskId);
     }
   }
@@ -63,10 +63,6 @@ public class HistoricDetailVariableInstanceUpdateEntity extends HistoricVariable
     dbEntityManger.delete(this);
 
     if (byteArrayId != null) {
-      // the next apparently useless line is probably to ensure consistency in the DbSqlSession
-      // cache, but should be checked and docced here (or removed if it turns out to be unnecessary)
-      // @see also HistoricVariableInstanceEntity
-      getByteArrayValue();
       Context
         .getCommandContext()
         .getByteArrayManager()
@@ -112,18 +108,16 @@ public class HistoricDetailVariableInstanceUpdateEntity extends HistoricVariable
   public void setByteArrayValue(byte[] bytes) {
     ByteArrayEntity byteArrayValue = null;
     if (this.byteArrayId!=null) {
-      getByteArrayValue();
       Context
         .getCommandContext()
         .getByteArrayManager()
        .deleteByteArrayById(this.byteArrayId);
     }
     if (bytes!=null) {
-      byteArrayValue = new ByteArrayEntity(bytes);
-      Context
+      byteArrayValue = Context
         .getCommandContext()
-        .getDbEntityManager()
-        .insert(byteArrayValue);
+        .getByteArrayManager()
+        .insertImmutableByteArray(getName(), bytes);
     }
     this.byteArrayValue = byteArrayValue;
     if (byteArrayValue != null) {
@@ -135,9 +129,6 @@ public class HistoricDetailVariableInstanceUpdateEntity extends HistoricVariable
 
   protected void deleteByteArrayValue() {
     if (byteArrayId != null) {
-      // the next apparently useless line is probably to ensure consistency in the DbSqlSession
-      // cache, but should be checked and docced here (or removed if it turns out to be unnecessary)
-      getByteArrayValue();
       Context
         .getCommandContext()
         .getByteArrayManager()
@@ -163,11 +163,10 @@ public class HistoricVariableInstanceEntity implements ValueFields, HistoricVari
     ByteArrayEntity byteArrayValue = null;
     deleteByteArrayValue();
     if (bytes!=null) {
-      byteArrayValue = new ByteArrayEntity(name, bytes);
-      Context
+      byteArrayValue = Context
         .getCommandContext()
-        .getDbEntityManager()
-        .insert(byteArrayValue);
+        .getByteArrayManager()
+        .insertImmutableByteArray(name, bytes);
     }
     this.byteArrayValue = byteArrayValue;
     if (byteArrayValue != null) {
@@ -179,9 +178,6 @@ public class HistoricVariableInstanceEntity implements ValueFields, HistoricVari
 
   protected void deleteByteArrayValue() {
     if (byteArrayId != null) {
-      // the next apparently useless line is probably to ensure consistency in the DbSqlSession
-      // cache, but should be checked and docced here (or removed if it turns out to be unnecessary)
-      getByteArrayValue();
       Context
         .getCommandContext()
         .getByteArrayManager()
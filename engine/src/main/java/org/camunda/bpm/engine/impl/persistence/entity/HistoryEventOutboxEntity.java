@@ -0,0 +1,217 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+
+/**
+ * <p>An entry of the history event outbox: the history events produced by a single
+ * command, serialized into a single row which is inserted together with the
+ * runtime state of the command.</p>
+ *
+ * <p>The events are serialized when the entry is flushed, so that events added or
+ * updated later in the same command are contained in their final state.</p>
+ */
+public class HistoryEventOutboxEntity implements Serializable, DbEntity, HasDbRevision {
+
+  private static final long serialVersionUID = 1L;
+  private static final int MAX_EXCEPTION_MESSAGE_LENGTH = 2000;
+
+  public static final int STATE_PENDING = 0;
+  public static final int STATE_FAILED = 1;
+
+  protected String id;
+  protected int revision;
+  protected long sequenceNumber;
+  protected Date createTime;
+  protected int eventCount;
+  protected byte[] bytes;
+  protected int state = STATE_PENDING;
+  protected int attempts;
+  protected String exceptionMessage;
+
+  protected transient List<HistoryEvent> events;
+
+  public void addEvent(HistoryEvent historyEvent) {
+    if (events == null) {
+      events = new ArrayList<HistoryEvent>();
+    }
+    events.add(historyEvent);
+    eventCount = events.size();
+    bytes = null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public List<HistoryEvent> getEvents() {
+    if (events == null && bytes != null) {
+      ObjectInputStream ois = null;
+      try {
+        ois = new ObjectInputStream(new ByteArrayInputStream(bytes));
+        events = (List<HistoryEvent>) ois.readObject();
+      } catch (Exception e) {
+        throw new ProcessEngineException("Couldn't deserialize history events of outbox entry '" + id + "'", e);
+      } finally {
+        IoUtil.closeSilently(ois);
+      }
+    }
+    return events;
+  }
+
+  public byte[] getBytes() {
+    if (bytes == null && events != null) {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      ObjectOutputStream oos = null;
+      try {
+        oos = new ObjectOutputStream(baos);
+        oos.writeObject(events);
+      } catch (Exception e) {
+        throw new ProcessEngineException("Couldn't serialize history events of outbox entry '" + id + "'", e);
+      } finally {
+        IoUtil.closeSilently(oos);
+      }
+      bytes = baos.toByteArray();
+    }
+    return bytes;
+  }
+
+  /**
+   * Records a failed attempt to read the events of the entry. Once the maximum number of
+   * attempts is reached, the entry is marked as failed and no longer drained.
+   */
+  public void failedAttempt(String exceptionMessage, int maxAttempts) {
+    attempts++;
+    setExceptionMessage(exceptionMessage);
+    if (attempts >= maxAttempts) {
+      state = STATE_FAILED;
+    }
+  }
+
+  public Object getPersistentState() {
+    Map<String, Object> persistentState = new HashMap<String, Object>();
+    persistentState.put("state", state);
+    persistentState.put("attempts", attempts);
+    persistentState.put("exceptionMessage", exceptionMessage);
+    return persistentState;
+  }
+
+  public int getRevisionNext() {
+    return revision + 1;
+  }
+
+  // getters and setters //////////////////////////////////////////////////////
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public int getRevision() {
+    return revision;
+  }
+
+  public void setRevision(int revision) {
+    this.revision = revision;
+  }
+
+  public long getSequenceNumber() {
+    return sequenceNumber;
+  }
+
+  public void setSequenceNumber(long sequenceNumber) {
+    this.sequenceNumber = sequenceNumber;
+  }
+
+  public Date getCreateTime() {
+    return createTime;
+  }
+
+  public void setCreateTime(Date createTime) {
+    this.createTime = createTime;
+  }
+
+  public int getEventCount() {
+    return eventCount;
+  }
+
+  public void setEventCount(int eventCount) {
+    this.eventCount = eventCount;
+  }
+
+  public void setBytes(byte[] bytes) {
+    this.bytes = bytes;
+    this.events = null;
+  }
+
+  public int getState() {
+    return state;
+  }
+
+  public void setState(int state) {
+    this.state = state;
+  }
+
+  public boolean isFailed() {
+    return state == STATE_FAILED;
+  }
+
+  public int getAttempts() {
+    return attempts;
+  }
+
+  public void setAttempts(int attempts) {
+    this.attempts = attempts;
+  }
+
+  public String getExceptionMessage() {
+    return exceptionMessage;
+  }
+
+  public void setExceptionMessage(String exceptionMessage) {
+    if(exceptionMessage != null && exceptionMessage.length() > MAX_EXCEPTION_MESSAGE_LENGTH) {
+      this.exceptionMessage = exceptionMessage.substring(0, MAX_EXCEPTION_MESSAGE_LENGTH);
+    } else {
+      this.exceptionMessage = exceptionMessage;
+    }
+  }
+
+  public String toString() {
+    return this.getClass().getSimpleName()
+           + "[id=" + id
+           + ", revision=" + revision
+           + ", sequenceNumber=" + sequenceNumber
+           + ", createTime=" + createTime
+           + ", eventCount=" + eventCount
+           + ", state=" + state
+           + ", attempts=" + attempts
+           + "]";
+  }
+
+}
@@ -0,0 +1,94 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Manages the entries of the history event outbox.</p>
+ *
+ * <p>All history events produced by a command are appended to a single outbox entry
+ * which is inserted when the first event is produced.</p>
+ */
+public class HistoryEventOutboxManager extends AbstractManager {
+
+  protected static final String SELECT_ENTRIES_SKIP_LOCKED = "selectHistoryEventOutboxEntriesSkipLocked";
+
+  /** the entry of the current command */
+  protected HistoryEventOutboxEntity currentEntry;
+
+  public void addEvent(HistoryEvent historyEvent) {
+    if (currentEntry == null || !getDbEntityManager().getDbEntityCache().isTransient(currentEntry)) {
+      // the previous entry may have been flushed already
+      currentEntry = new HistoryEventOutboxEntity();
+      currentEntry.setCreateTime(ClockUtil.getCurrentTime());
+      getDbEntityManager().insert(currentEntry);
+    }
+    currentEntry.addEvent(historyEvent);
+  }
+
+  public void deleteEntry(HistoryEventOutboxEntity entry) {
+    getDbEntityManager().delete(entry);
+  }
+
+  /**
+   * Claims the oldest entries of the outbox for the current transaction: no other
+   * transaction can drain them until the current one ends.
+   *
+   * @return the oldest entries which are not claimed by another transaction
+   */
+  @SuppressWarnings("unchecked")
+  public List<HistoryEventOutboxEntity> claimOldestEntries(int maxResults) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+
+    if (processEngineConfiguration.isHistoryEventOutboxDrainWithSkipLocked()
+        && processEngineConfiguration.getDbSqlSessionFactory().isDatabaseSpecificStatement(SELECT_ENTRIES_SKIP_LOCKED)) {
+      // the selected entries stay locked until the transaction ends, concurrent drains skip them
+      ListQueryParameterObject parameter = new ListQueryParameterObject(null, 0, maxResults);
+      return getDbEntityManager().selectListWithRowLimit(SELECT_ENTRIES_SKIP_LOCKED, parameter, maxResults);
+    }
+
+    // serialize the drains of all process engines, the entries are selected once the
+    // entries of a concurrent drain are deleted
+    getDbEntityManager().lock("lockHistoryEventOutboxLockProperty");
+    return findOldestEntries(maxResults);
+  }
+
+  /**
+   * @return the oldest pending entries of the outbox, in the order of their sequence numbers
+   */
+  @SuppressWarnings("unchecked")
+  public List<HistoryEventOutboxEntity> findOldestEntries(int maxResults) {
+    ListQueryParameterObject parameter = new ListQueryParameterObject(null, 0, maxResults);
+    parameter.setOrderBy("RES.SEQUENCE_ asc");
+    return getDbEntityManager().selectList("selectHistoryEventOutboxEntries", parameter);
+  }
+
+  /**
+   * @return the number of pending entries of the outbox ("entryCount") and the create time
+   * of the oldest pending entry ("oldestCreateTime")
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, Object> getStatistics() {
+    return (Map<String, Object>) getDbEntityManager().selectOne("selectHistoryEventOutboxStatistics", null);
+  }
+
+}
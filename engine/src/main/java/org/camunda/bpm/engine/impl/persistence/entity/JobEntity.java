@@ -16,6 +16,7 @@ import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.incident.FailedJobIncidentHandler;
@@ -34,6 +35,7 @@ import java.util.Map;
 import java.util.logging.Logger;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+import static org.camunda.bpm.engine.impl.util.PersistentStateUtil.changedProperty;
 
 /**
  * Stub of the common parts of a Job. You will normally work with a subclass of
@@ -44,14 +46,26 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
  * @author Dave Syer
  * @author Frederik Heremans
  */
-public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRevision {
+public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRevision, HasDbChangeTracking {
 
   private final static Logger LOG = Logger.getLogger(JobEntity.class.getName());
 
   public static final boolean DEFAULT_EXCLUSIVE = true;
   public static final int DEFAULT_RETRIES = 3;
+  public static final long DEFAULT_PRIORITY = 0;
   private static final int MAX_EXCEPTION_MESSAGE_LENGTH = 2000;
 
+  // indices of the persistent state snapshot ////////////////////////////////
+  public static final int EXECUTION_ID_PROPERTY = 0;
+  public static final int LOCK_OWNER_PROPERTY = 1;
+  public static final int LOCK_EXPIRATION_TIME_PROPERTY = 2;
+  public static final int RETRIES_PROPERTY = 3;
+  public static final int DUEDATE_PROPERTY = 4;
+  public static final int EXCEPTION_MESSAGE_PROPERTY = 5;
+  public static final int SUSPENSION_STATE_PROPERTY = 6;
+  public static final int EXCEPTION_BYTE_ARRAY_ID_PROPERTY = 7;
+  public static final int PRIORITY_PROPERTY = 8;
+
   private static final long serialVersionUID = 1L;
 
   protected String id;
@@ -87,6 +101,8 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
 
   protected String jobDefinitionId;
 
+  protected long priority = DEFAULT_PRIORITY;
+
 
   public void execute(CommandContext commandContext) {
     ExecutionEntity execution = null;
@@ -154,12 +170,41 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     persistentState.put("duedate", duedate);
     persistentState.put("exceptionMessage", exceptionMessage);
     persistentState.put("suspensionState", suspensionState);
+    persistentState.put("priority", priority);
     if(exceptionByteArrayId != null) {
       persistentState.put("exceptionByteArrayId", exceptionByteArrayId);
     }
     return persistentState;
   }
 
+  public Object[] getPersistentStateSnapshot() {
+    return new Object[] {
+      executionId,
+      lockOwner,
+      lockExpirationTime,
+      retries,
+      duedate,
+      exceptionMessage,
+      suspensionState,
+      exceptionByteArrayId,
+      priority
+    };
+  }
+
+  public int getChangedProperties(Object[] snapshot) {
+    int changedProperties = 0;
+    changedProperties |= changedProperty(EXECUTION_ID_PROPERTY, snapshot, executionId);
+    changedProperties |= changedProperty(LOCK_OWNER_PROPERTY, snapshot, lockOwner);
+    changedProperties |= changedProperty(LOCK_EXPIRATION_TIME_PROPERTY, snapshot, lockExpirationTime);
+    changedProperties |= changedProperty(RETRIES_PROPERTY, snapshot, retries);
+    changedProperties |= changedProperty(DUEDATE_PROPERTY, snapshot, duedate);
+    changedProperties |= changedProperty(EXCEPTION_MESSAGE_PROPERTY, snapshot, exceptionMessage);
+    changedProperties |= changedProperty(SUSPENSION_STATE_PROPERTY, snapshot, suspensionState);
+    changedProperties |= changedProperty(EXCEPTION_BYTE_ARRAY_ID_PROPERTY, snapshot, exceptionByteArrayId);
+    changedProperties |= changedProperty(PRIORITY_PROPERTY, snapshot, priority);
+    return changedProperties;
+  }
+
   public int getRevisionNext() {
     return revision+1;
   }
@@ -383,6 +428,14 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     this.jobDefinitionId = jobDefinitionId;
   }
 
+  public long getPriority() {
+    return priority;
+  }
+
+  public void setPriority(long priority) {
+    this.priority = priority;
+  }
+
   public void setExceptionMessage(String exceptionMessage) {
     if(exceptionMessage != null && exceptionMessage.length() > MAX_EXCEPTION_MESSAGE_LENGTH) {
       this.exceptionMessage = exceptionMessage.substring(0, MAX_EXCEPTION_MESSAGE_LENGTH);
@@ -461,6 +514,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
            + ", isExclusive=" + isExclusive
            + ", isExclusive=" + isExclusive
            + ", jobDefinitionId=" + jobDefinitionId
+           + ", priority=" + priority
            + ", jobHandlerType=" + jobHandlerType
            + ", jobHandlerConfiguration=" + jobHandlerConfiguration
            + ", exceptionByteArray=" + exceptionByteArray
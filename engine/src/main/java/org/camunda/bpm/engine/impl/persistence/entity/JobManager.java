@@ -16,9 +16,11 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 import java.util.*;
 import org.camunda.bpm.engine.impl.JobQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionListener;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.ListQueryParameterObject;
 import org.camunda.bpm.engine.impl.jobexecutor.*;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
@@ -33,6 +35,9 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
  */
 public class JobManager extends AbstractManager {
 
+  protected static final String SELECT_NEXT_JOBS_TO_EXECUTE_SKIP_LOCKED = "selectNextJobsToExecuteSkipLocked";
+  protected static final String ORDER_BY_PRIORITY = "RES.PRIORITY_ desc, RES.DUEDATE_ asc";
+
   public void send(MessageEntity message) {
     message.insert();
     if (Context.getProcessEngineConfiguration().isHintJobExecutor()) {
@@ -96,17 +101,44 @@ public class JobManager extends AbstractManager {
 
   @SuppressWarnings("unchecked")
   public List<JobEntity> findNextJobsToExecute(Page page) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+
     Map<String,Object> params = new HashMap<String, Object>();
     Date now = ClockUtil.getCurrentTime();
     params.put("now", now);
-    params.put("deploymentAware", Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware());
-    if (Context.getProcessEngineConfiguration().isJobExecutorDeploymentAware()) {
-      Set<String> registeredDeployments = Context.getProcessEngineConfiguration().getRegisteredDeployments();
+    params.put("deploymentAware", processEngineConfiguration.isJobExecutorDeploymentAware());
+    if (processEngineConfiguration.isJobExecutorDeploymentAware()) {
+      Set<String> registeredDeployments = processEngineConfiguration.getRegisteredDeployments();
       if (!registeredDeployments.isEmpty()) {
         params.put("deploymentIds", registeredDeployments);
       }
     }
-    return getDbEntityManager().selectList("selectNextJobsToExecute", params, page);
+
+    ListQueryParameterObject parameter = new ListQueryParameterObject(params, page.getFirstResult(), page.getMaxResults());
+    boolean acquireByPriority = processEngineConfiguration.isJobExecutorAcquireByPriority();
+    params.put("orderByPriority", acquireByPriority);
+    if (acquireByPriority) {
+      parameter.setOrderBy(ORDER_BY_PRIORITY);
+    }
+
+    if (processEngineConfiguration.isJobExecutorAcquireWithSkipLocked()
+        && processEngineConfiguration.getDbSqlSessionFactory().isDatabaseSpecificStatement(SELECT_NEXT_JOBS_TO_EXECUTE_SKIP_LOCKED)) {
+      // the selected rows stay locked until the acquisition commits, concurrent acquisitions skip them.
+      // The fetched rows are limited since not every database can page a 'for update' select; on
+      // oracle, which locks the rows as they are fetched, the statement uses a fetch size of 1
+      return getDbEntityManager().selectListWithRowLimit(SELECT_NEXT_JOBS_TO_EXECUTE_SKIP_LOCKED, parameter, page.getMaxResults());
+    }
+    return getDbEntityManager().selectList("selectNextJobsToExecute", parameter);
+  }
+
+  /**
+   * Sets the priority of all jobs of the given job definition.
+   */
+  public void updateJobPriorityByDefinitionId(String jobDefinitionId, long priority) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("jobDefinitionId", jobDefinitionId);
+    parameters.put("priority", priority);
+    getDbEntityManager().update(JobEntity.class, "updateJobPriorityByDefinitionId", parameters);
   }
 
   @SuppressWarnings("unchecked")
@@ -114,6 +146,11 @@ public class JobManager extends AbstractManager {
     return getDbEntityManager().selectList("selectJobsByExecutionId", executionId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<JobEntity> findJobsByProcessInstanceId(String processInstanceId) {
+    return getDbEntityManager().selectList("selectJobsByProcessInstanceId", processInstanceId);
+  }
+
   @SuppressWarnings("unchecked")
   public List<JobEntity> findExclusiveJobsToExecute(String processInstanceId) {
     Map<String,Object> params = new HashMap<String, Object>();
@@ -0,0 +1,38 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.impl.metrics.MetricsQueryImpl;
+import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+
+public class MeterLogManager extends AbstractManager {
+
+  public void insert(MeterLogEntity meterLogEntity) {
+    getDbEntityManager().insert(meterLogEntity);
+  }
+
+  public long executeSelectSum(MetricsQueryImpl query) {
+    Long result = (Long) getDbEntityManager().selectOne("selectMeterLogSum", query);
+    return result != null ? result : 0;
+  }
+
+  /**
+   * Deletes the values reported at or before the given timestamp, all values if it is null.
+   */
+  public void deleteAll(Date timestamp) {
+    getDbEntityManager().delete(MeterLogEntity.class, "deleteMeterLogEntriesByTimestamp", timestamp);
+  }
+
+}
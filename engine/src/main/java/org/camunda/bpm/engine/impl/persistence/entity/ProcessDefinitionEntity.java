@@ -33,10 +33,12 @@ import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
 import org.camunda.bpm.engine.impl.history.event.HistoryEventTypes;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.producer.HistoryEventProducer;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.pvm.process.ProcessDefinitionImpl;
 import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
 import org.camunda.bpm.engine.impl.task.TaskDefinition;
+import org.camunda.bpm.engine.management.EngineMetrics;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.task.IdentityLinkType;
 
@@ -144,6 +146,12 @@ public class ProcessDefinitionEntity extends ProcessDefinitionImpl implements Pr
 
     }
 
+    // sub process instances are created by createSubProcessInstance()
+    CommandContext commandContext = Context.getCommandContext();
+    if (commandContext != null) {
+      commandContext.markOccurrenceOnCommit(EngineMetrics.ROOT_PROCESS_INSTANCE_START);
+    }
+
     return processInstance;
   }
 
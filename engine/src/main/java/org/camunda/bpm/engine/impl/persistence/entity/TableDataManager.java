@@ -78,6 +78,7 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(SignalEventSubscriptionEntity.class, "ACT_RU_EVENT_SUBSCRIPTION");
 
     persistentObjectToTableNameMap.put(FilterEntity.class, "ACT_RU_FILTER");
+    persistentObjectToTableNameMap.put(MeterLogEntity.class, "ACT_RU_METER_LOG");
 
     // repository
     persistentObjectToTableNameMap.put(DeploymentEntity.class, "ACT_RE_DEPLOYMENT");
@@ -96,6 +97,8 @@ public class TableDataManager extends AbstractManager {
     persistentObjectToTableNameMap.put(HistoricVariableInstanceEntity.class, "ACT_HI_DETAIL");
     persistentObjectToTableNameMap.put(HistoricDetailEventEntity.class, "ACT_HI_DETAIL");
 
+    persistentObjectToTableNameMap.put(HistoryEventOutboxEntity.class, "ACT_HI_OUTBOX");
+
 
     // Identity module
     persistentObjectToTableNameMap.put(GroupEntity.class, "ACT_ID_GROUP");
@@ -12,6 +12,8 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import static org.camunda.bpm.engine.impl.util.PersistentStateUtil.changedProperty;
+
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -41,6 +43,7 @@ import org.camunda.bpm.engine.impl.core.instance.CoreExecution;
 import org.camunda.bpm.engine.impl.core.variable.CorePersistentVariableScope;
 import org.camunda.bpm.engine.impl.core.variable.CorePersistentVariableStore;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -63,13 +66,31 @@ import org.camunda.bpm.model.xml.type.ModelElementType;
  * @author Joram Barrez
  * @author Falko Menge
  */
-public class TaskEntity extends CorePersistentVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, CommandContextListener {
+public class TaskEntity extends CorePersistentVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, HasDbChangeTracking, CommandContextListener {
 
   public static final String DELETE_REASON_COMPLETED = "completed";
   public static final String DELETE_REASON_DELETED = "deleted";
 
   private static final long serialVersionUID = 1L;
 
+  // indices of the persistent state snapshot ////////////////////////////////
+  public static final int ASSIGNEE_PROPERTY = 0;
+  public static final int OWNER_PROPERTY = 1;
+  public static final int NAME_PROPERTY = 2;
+  public static final int PRIORITY_PROPERTY = 3;
+  public static final int EXECUTION_ID_PROPERTY = 4;
+  public static final int PROCESS_DEFINITION_ID_PROPERTY = 5;
+  public static final int CASE_EXECUTION_ID_PROPERTY = 6;
+  public static final int CASE_INSTANCE_ID_PROPERTY = 7;
+  public static final int CASE_DEFINITION_ID_PROPERTY = 8;
+  public static final int CREATE_TIME_PROPERTY = 9;
+  public static final int DESCRIPTION_PROPERTY = 10;
+  public static final int DUE_DATE_PROPERTY = 11;
+  public static final int FOLLOW_UP_DATE_PROPERTY = 12;
+  public static final int PARENT_TASK_ID_PROPERTY = 13;
+  public static final int DELEGATION_STATE_PROPERTY = 14;
+  public static final int SUSPENSION_STATE_PROPERTY = 15;
+
   protected String id;
   protected int revision;
 
@@ -314,6 +335,48 @@ public class TaskEntity extends CorePersistentVariableScope implements Task, Del
     return persistentState;
   }
 
+  public Object[] getPersistentStateSnapshot() {
+    return new Object[] {
+      assignee,
+      owner,
+      name,
+      priority,
+      executionId,
+      processDefinitionId,
+      caseExecutionId,
+      caseInstanceId,
+      caseDefinitionId,
+      createTime,
+      description,
+      dueDate,
+      followUpDate,
+      parentTaskId,
+      delegationState,
+      suspensionState
+    };
+  }
+
+  public int getChangedProperties(Object[] snapshot) {
+    int changedProperties = 0;
+    changedProperties |= changedProperty(ASSIGNEE_PROPERTY, snapshot, assignee);
+    changedProperties |= changedProperty(OWNER_PROPERTY, snapshot, owner);
+    changedProperties |= changedProperty(NAME_PROPERTY, snapshot, name);
+    changedProperties |= changedProperty(PRIORITY_PROPERTY, snapshot, priority);
+    changedProperties |= changedProperty(EXECUTION_ID_PROPERTY, snapshot, executionId);
+    changedProperties |= changedProperty(PROCESS_DEFINITION_ID_PROPERTY, snapshot, processDefinitionId);
+    changedProperties |= changedProperty(CASE_EXECUTION_ID_PROPERTY, snapshot, caseExecutionId);
+    changedProperties |= changedProperty(CASE_INSTANCE_ID_PROPERTY, snapshot, caseInstanceId);
+    changedProperties |= changedProperty(CASE_DEFINITION_ID_PROPERTY, snapshot, caseDefinitionId);
+    changedProperties |= changedProperty(CREATE_TIME_PROPERTY, snapshot, createTime);
+    changedProperties |= changedProperty(DESCRIPTION_PROPERTY, snapshot, description);
+    changedProperties |= changedProperty(DUE_DATE_PROPERTY, snapshot, dueDate);
+    changedProperties |= changedProperty(FOLLOW_UP_DATE_PROPERTY, snapshot, followUpDate);
+    changedProperties |= changedProperty(PARENT_TASK_ID_PROPERTY, snapshot, parentTaskId);
+    changedProperties |= changedProperty(DELEGATION_STATE_PROPERTY, snapshot, delegationState);
+    changedProperties |= changedProperty(SUSPENSION_STATE_PROPERTY, snapshot, suspensionState);
+    return changedProperties;
+  }
+
   public int getRevisionNext() {
     return revision+1;
   }
@@ -399,6 +462,13 @@ public class TaskEntity extends CorePersistentVariableScope implements Task, Del
       .findVariableInstancesByTaskId(id);
   }
 
+  protected List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames) {
+    return Context
+      .getCommandContext()
+      .getVariableInstanceManager()
+      .findVariableInstancesByTaskIdAndNames(id, variableNames);
+  }
+
   // execution ////////////////////////////////////////////////////////////////
 
   public ExecutionEntity getExecution() {
@@ -51,6 +51,7 @@ public class TimerEntity extends JobEntity {
     processInstanceId = te.processInstanceId;
     jobDefinitionId = te.jobDefinitionId;
     suspensionState = te.suspensionState;
+    priority = te.priority;
   }
 
   @Override
@@ -13,12 +13,15 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.io.Serializable;
+import static org.camunda.bpm.engine.impl.util.PersistentStateUtil.changedProperty;
+
 import java.util.HashMap;
 import java.util.Map;
 
 import org.camunda.bpm.engine.delegate.SerializedVariableValue;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.variable.ValueFields;
 import org.camunda.bpm.engine.impl.variable.VariableType;
@@ -27,10 +30,20 @@ import org.camunda.bpm.engine.runtime.VariableInstance;
 /**
  * @author Tom Baeyens
  */
-public class VariableInstanceEntity implements VariableInstance, ValueFields, DbEntity, HasDbRevision, Serializable {
+public class VariableInstanceEntity implements VariableInstance, ValueFields, DbEntity, HasDbRevision, HasDbChangeTracking, Serializable {
 
   private static final long serialVersionUID = 1L;
 
+  // indices of the persistent state snapshot ////////////////////////////////
+  public static final int TYPE_PROPERTY = 0;
+  public static final int LONG_VALUE_PROPERTY = 1;
+  public static final int DOUBLE_VALUE_PROPERTY = 2;
+  public static final int TEXT_VALUE_PROPERTY = 3;
+  public static final int TEXT_VALUE2_PROPERTY = 4;
+  public static final int BYTE_ARRAY_VALUE_ID_PROPERTY = 5;
+  public static final int FORCED_UPDATE_PROPERTY = 6;
+  public static final int DATA_FORMAT_ID_PROPERTY = 7;
+
   protected String id;
   protected int revision;
 
@@ -146,6 +159,32 @@ public class VariableInstanceEntity implements VariableInstance, ValueFields, Db
     return persistentState;
   }
 
+  public Object[] getPersistentStateSnapshot() {
+    return new Object[] {
+      type,
+      longValue,
+      doubleValue,
+      textValue,
+      textValue2,
+      byteArrayValueId,
+      forcedUpdate,
+      dataFormatId
+    };
+  }
+
+  public int getChangedProperties(Object[] snapshot) {
+    int changedProperties = 0;
+    changedProperties |= changedProperty(TYPE_PROPERTY, snapshot, type);
+    changedProperties |= changedProperty(LONG_VALUE_PROPERTY, snapshot, longValue);
+    changedProperties |= changedProperty(DOUBLE_VALUE_PROPERTY, snapshot, doubleValue);
+    changedProperties |= changedProperty(TEXT_VALUE_PROPERTY, snapshot, textValue);
+    changedProperties |= changedProperty(TEXT_VALUE2_PROPERTY, snapshot, textValue2);
+    changedProperties |= changedProperty(BYTE_ARRAY_VALUE_ID_PROPERTY, snapshot, byteArrayValueId);
+    changedProperties |= changedProperty(FORCED_UPDATE_PROPERTY, snapshot, forcedUpdate);
+    changedProperties |= changedProperty(DATA_FORMAT_ID_PROPERTY, snapshot, dataFormatId);
+    return changedProperties;
+  }
+
   public int getRevisionNext() {
     return revision+1;
   }
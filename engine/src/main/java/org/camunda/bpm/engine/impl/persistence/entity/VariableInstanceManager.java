@@ -13,6 +13,8 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -38,11 +40,36 @@ public class VariableInstanceManager extends AbstractManager {
     return getDbEntityManager().selectList("selectVariablesByExecutionId", executionId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<VariableInstanceEntity> findVariableInstancesByProcessInstanceId(String processInstanceId) {
+    return getDbEntityManager().selectList("selectVariablesByProcessInstanceId", processInstanceId);
+  }
+
   @SuppressWarnings("unchecked")
   public List<VariableInstanceEntity> findVariableInstancesByCaseExecutionId(String caseExecutionId) {
     return getDbEntityManager().selectList("selectVariablesByCaseExecutionId", caseExecutionId);
   }
 
+  public List<VariableInstanceEntity> findVariableInstancesByTaskIdAndNames(String taskId, Collection<String> variableNames) {
+    return findVariableInstancesByScopeAndNames("taskId", taskId, variableNames);
+  }
+
+  public List<VariableInstanceEntity> findVariableInstancesByExecutionIdAndNames(String executionId, Collection<String> variableNames) {
+    return findVariableInstancesByScopeAndNames("executionId", executionId, variableNames);
+  }
+
+  public List<VariableInstanceEntity> findVariableInstancesByCaseExecutionIdAndNames(String caseExecutionId, Collection<String> variableNames) {
+    return findVariableInstancesByScopeAndNames("caseExecutionId", caseExecutionId, variableNames);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected List<VariableInstanceEntity> findVariableInstancesByScopeAndNames(String scopeProperty, String scopeId, Collection<String> variableNames) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put(scopeProperty, scopeId);
+    parameters.put("variableNames", variableNames);
+    return getDbEntityManager().selectList("selectVariablesByScopeAndNames", parameters);
+  }
+
   public void deleteVariableInstanceByTask(TaskEntity task) {
     Map<String, PersistentVariableInstance> variableInstances = task.getVariableInstancesLocal();
     if (variableInstances!=null) {
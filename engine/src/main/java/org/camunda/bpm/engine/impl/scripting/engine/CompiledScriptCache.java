@@ -0,0 +1,153 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.scripting.engine;
+
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.script.CompiledScript;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.digest._apacheCommonsCodec.Base64;
+
+/**
+ * <p>Size bounded cache of {@link CompiledScript compiled scripts}, keyed by the script
+ * language and a SHA-256 hash of the source of the script, so that the cache does not
+ * keep the sources. Once the capacity is reached, the least recently used script is
+ * evicted when adding a new one.</p>
+ *
+ * <p>Only scripts compiled by thread-safe script engines may be cached, as the cached
+ * scripts are evaluated concurrently.</p>
+ */
+public class CompiledScriptCache {
+
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  protected static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  protected final int capacity;
+
+  /** guarded by itself */
+  protected Map<CacheKey, CompiledScript> compiledScripts;
+
+  protected AtomicLong hitCount = new AtomicLong();
+  protected AtomicLong missCount = new AtomicLong();
+
+  public CompiledScriptCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  @SuppressWarnings("serial")
+  public CompiledScriptCache(final int capacity) {
+    this.capacity = capacity;
+    this.compiledScripts = new LinkedHashMap<CacheKey, CompiledScript>(16, 0.75f, true) {
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, CompiledScript> eldest) {
+        return size() > capacity;
+      }
+    };
+  }
+
+  /**
+   * @return the cached script, null if no script is cached for the language and source
+   */
+  public CompiledScript get(String language, String src) {
+    CacheKey key = new CacheKey(language, src);
+    CompiledScript compiledScript;
+
+    synchronized (compiledScripts) {
+      compiledScript = compiledScripts.get(key);
+    }
+
+    if (compiledScript != null) {
+      hitCount.incrementAndGet();
+    } else {
+      missCount.incrementAndGet();
+    }
+    return compiledScript;
+  }
+
+  public void put(String language, String src, CompiledScript compiledScript) {
+    CacheKey key = new CacheKey(language, src);
+
+    synchronized (compiledScripts) {
+      compiledScripts.put(key, compiledScript);
+    }
+  }
+
+  public void clear() {
+    synchronized (compiledScripts) {
+      compiledScripts.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (compiledScripts) {
+      return compiledScripts.size();
+    }
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  protected static String hash(String src) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return new String(Base64.encodeBase64(digest.digest(src.getBytes(UTF_8))));
+
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup SHA-256 algorithm", e);
+    }
+  }
+
+  protected static class CacheKey {
+
+    protected final String language;
+    protected final String srcHash;
+
+    public CacheKey(String language, String src) {
+      this.language = language;
+      this.srcHash = hash(src);
+    }
+
+    public int hashCode() {
+      return 31 * language.hashCode() + srcHash.hashCode();
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof CacheKey)) {
+        return false;
+      }
+      CacheKey other = (CacheKey) obj;
+      return language.equals(other.language)
+          && srcHash.equals(other.srcHash);
+    }
+
+  }
+
+}
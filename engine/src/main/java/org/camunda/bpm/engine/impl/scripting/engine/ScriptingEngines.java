@@ -17,6 +17,9 @@ import org.camunda.bpm.engine.delegate.VariableScope;
 
 import javax.script.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,7 +32,17 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
  * This class supports resolving a script engine for a given 'language name' (eg. 'groovy').
  * If the configuration option {@link #enableScriptEngineCaching} is set to true,
  * the class will attempt to cache 'cachable' script engines. We assume a {@link ScriptEngine} is
- * 'cachable' if it declares to be threadsafe (see {@link #isCachable(ScriptEngine)})</p>
+ * 'cachable' if it declares to be threadsafe (see {@link #isCachable(ScriptEngine)}).</p>
+ *
+ * <p><strong>Pooling script engines:</strong> if the configuration option {@link #enableScriptEnginePooling}
+ * is set to true (default is false), script engines which are not threadsafe are pooled: once released via
+ * {@link #releaseScriptEngine(String, ScriptEngine)}, an engine is reused by the next execution. Such engines
+ * may keep global state between executions (eg. globals defined by a script). The engine scope bindings are
+ * reset before an engine is pooled, state kept by the engine itself is not.</p>
+ *
+ * <p><strong>Compiled scripts:</strong> if script engine caching is enabled, the scripts compiled by
+ * cachable script engines are kept in the {@link CompiledScriptCache}, so that scripts which are
+ * determined at runtime are not compiled for every execution.</p>
  *
  * <p><strong>Custom Bindings:</strong> this class supports custom {@link Bindings}
  * implementations through the {@link #scriptBindingsFactory}. See {@link ScriptBindingsFactory}.</p>
@@ -48,10 +61,21 @@ public class ScriptingEngines {
   private final ScriptEngineManager scriptEngineManager;
   protected ScriptBindingsFactory scriptBindingsFactory;
 
-  protected Map<String, ScriptEngine> cachedEngines = new HashMap<String, ScriptEngine>();
+  public static final int DEFAULT_MAX_POOLED_SCRIPT_ENGINES = 10;
+
+  protected ConcurrentMap<String, ScriptEngine> cachedEngines = new ConcurrentHashMap<String, ScriptEngine>();
+
+  /** the released script engines which are not threadsafe, per language */
+  protected ConcurrentMap<String, Queue<ScriptEngine>> pooledEngines = new ConcurrentHashMap<String, Queue<ScriptEngine>>();
+
+  protected int maxPooledScriptEngines = DEFAULT_MAX_POOLED_SCRIPT_ENGINES;
+
+  protected CompiledScriptCache compiledScriptCache = new CompiledScriptCache();
 
   protected boolean enableScriptEngineCaching = true;
 
+  protected boolean enableScriptEnginePooling = false;
+
   public ScriptingEngines(ScriptBindingsFactory scriptBindingsFactory) {
     this(new ScriptEngineManager());
     this.scriptBindingsFactory = scriptBindingsFactory;
@@ -69,6 +93,14 @@ public class ScriptingEngines {
     return enableScriptEngineCaching;
   }
 
+  public void setEnableScriptEnginePooling(boolean enableScriptEnginePooling) {
+    this.enableScriptEnginePooling = enableScriptEnginePooling;
+  }
+
+  public boolean isEnableScriptEnginePooling() {
+    return enableScriptEnginePooling;
+  }
+
   public ScriptingEngines addScriptEngineFactory(ScriptEngineFactory scriptEngineFactory) {
     scriptEngineManager.registerEngineName(scriptEngineFactory.getEngineName(), scriptEngineFactory);
     return this;
@@ -96,6 +128,17 @@ public class ScriptingEngines {
    *         if the script cannot be compiled (sytax error ...).
    */
   public CompiledScript compile(String src, String language) {
+    if (language != null) {
+      language = language.toLowerCase();
+    }
+
+    if (enableScriptEngineCaching && language != null && src != null) {
+      CompiledScript compiledScript = compiledScriptCache.get(language, src);
+      if (compiledScript != null) {
+        return compiledScript;
+      }
+    }
+
     ScriptEngine scriptEngine = getScriptEngineForLanguage(language);
 
     if(scriptEngine instanceof Compilable && !scriptEngine.getFactory().getLanguageName().equalsIgnoreCase("ecmascript")) {
@@ -106,6 +149,11 @@ public class ScriptingEngines {
 
         LOG.fine("Compiled script using " + language + " script engine");
 
+        // scripts compiled by engines which are not threadsafe must not be shared
+        if (enableScriptEngineCaching && isCachable(scriptEngine)) {
+          compiledScriptCache.put(language, src, compiledScript);
+        }
+
         return compiledScript;
 
       } catch (ScriptException e) {
@@ -160,7 +208,8 @@ public class ScriptingEngines {
   }
 
   /**
-   * Returns a cached script engine or creates a new script engine if no such engine is currently cached.
+   * Returns a cached script engine, a pooled script engine or creates a new script engine if
+   * no such engine is currently cached or pooled.
    *
    * @param language the language (such as 'groovy' for the script engine)
    * @return the cached engine or null if no script engine can be created for the given language
@@ -170,6 +219,14 @@ public class ScriptingEngines {
     ScriptEngine scriptEngine = cachedEngines.get(language);
 
     if(scriptEngine == null) {
+      Queue<ScriptEngine> pool = pooledEngines.get(language);
+      if (pool != null) {
+        scriptEngine = pool.poll();
+        if (scriptEngine != null) {
+          return scriptEngine;
+        }
+      }
+
       scriptEngine = scriptEngineManager.getEngineByName(language);
 
       if(scriptEngine != null) {
@@ -179,7 +236,10 @@ public class ScriptingEngines {
         }
 
         if(isCachable(scriptEngine)) {
-          cachedEngines.put(language, scriptEngine);
+          ScriptEngine cachedEngine = cachedEngines.putIfAbsent(language, scriptEngine);
+          if (cachedEngine != null) {
+            scriptEngine = cachedEngine;
+          }
         }
 
       }
@@ -188,6 +248,39 @@ public class ScriptingEngines {
     return scriptEngine;
   }
 
+  /**
+   * Signals that a script engine obtained by {@link #getScriptEngineForLanguage(String)} is no longer
+   * used. If {@link #enableScriptEnginePooling} is set, script engines which are not threadsafe are pooled
+   * for reuse by subsequent executions. The engine scope bindings of a pooled engine are replaced by new,
+   * empty bindings.
+   *
+   * @param language the language the script engine was obtained for
+   * @param scriptEngine the script engine
+   */
+  public void releaseScriptEngine(String language, ScriptEngine scriptEngine) {
+    if (!enableScriptEngineCaching || !enableScriptEnginePooling || language == null || isCachable(scriptEngine)) {
+      return;
+    }
+
+    language = language.toLowerCase();
+
+    Queue<ScriptEngine> pool = pooledEngines.get(language);
+    if (pool == null) {
+      Queue<ScriptEngine> newPool = new ConcurrentLinkedQueue<ScriptEngine>();
+      pool = pooledEngines.putIfAbsent(language, newPool);
+      if (pool == null) {
+        pool = newPool;
+      }
+    }
+
+    // the size is only approximate under concurrent releases
+    if (pool.size() < maxPooledScriptEngines) {
+      // do not hand over values bound by this execution to the next one
+      scriptEngine.setBindings(scriptEngine.createBindings(), ScriptContext.ENGINE_SCOPE);
+      pool.offer(scriptEngine);
+    }
+  }
+
   /**
    * Allows checking whether the script engine can be cached.
    *
@@ -218,6 +311,22 @@ public class ScriptingEngines {
     return scriptBindingsFactory.createBindings(variableScope, scriptEngine.createBindings());
   }
 
+  public CompiledScriptCache getCompiledScriptCache() {
+    return compiledScriptCache;
+  }
+
+  public void setCompiledScriptCache(CompiledScriptCache compiledScriptCache) {
+    this.compiledScriptCache = compiledScriptCache;
+  }
+
+  public int getMaxPooledScriptEngines() {
+    return maxPooledScriptEngines;
+  }
+
+  public void setMaxPooledScriptEngines(int maxPooledScriptEngines) {
+    this.maxPooledScriptEngines = maxPooledScriptEngines;
+  }
+
   public ScriptBindingsFactory getScriptBindingsFactory() {
     return scriptBindingsFactory;
   }
@@ -71,17 +71,22 @@ public class ScriptingEnvironment {
     // get script engine
     ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage(scriptLanguage);
 
-    // get bindings
-    Bindings bindings = scriptingEngines.createBindings(scriptEngine, scope);
+    try {
+      // get bindings
+      Bindings bindings = scriptingEngines.createBindings(scriptEngine, scope);
+
+      // first, evaluate the env scripts (if any)
+      List<ExecutableScript> envScripts = getEnvScripts(scriptLanguage);
+      for (ExecutableScript envScript : envScripts) {
+        envScript.execute(scriptEngine, scope, bindings);
+      }
 
-    // first, evaluate the env scripts (if any)
-    List<ExecutableScript> envScripts = getEnvScripts(scriptLanguage);
-    for (ExecutableScript envScript : envScripts) {
-      envScript.execute(scriptEngine, scope, bindings);
-    }
+      // next evaluate the actual script
+      return script.execute(scriptEngine, scope, bindings);
 
-    // next evaluate the actual script
-    return script.execute(scriptEngine, scope, bindings);
+    } finally {
+      scriptingEngines.releaseScriptEngine(scriptLanguage, scriptEngine);
+    }
   }
 
   /**
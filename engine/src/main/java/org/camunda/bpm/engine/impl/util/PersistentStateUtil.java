@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.util;
+
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
+
+/**
+ * Helper methods for implementing {@link HasDbChangeTracking}.
+ * The comparison methods for primitive values do not box the current value.
+ */
+public class PersistentStateUtil {
+
+  /**
+   * @return the bit of the property with the given index if the value has changed, 0 otherwise
+   */
+  public static int changedProperty(int index, Object[] snapshot, Object value) {
+    Object snapshotValue = snapshot[index];
+    if (snapshotValue == null ? value == null : snapshotValue.equals(value)) {
+      return 0;
+    }
+    return 1 << index;
+  }
+
+  /**
+   * @return the bit of the property with the given index if the value has changed, 0 otherwise
+   */
+  public static int changedProperty(int index, Object[] snapshot, int value) {
+    Object snapshotValue = snapshot[index];
+    if (snapshotValue instanceof Integer && ((Integer) snapshotValue).intValue() == value) {
+      return 0;
+    }
+    return 1 << index;
+  }
+
+  /**
+   * @return the bit of the property with the given index if the value has changed, 0 otherwise
+   */
+  public static int changedProperty(int index, Object[] snapshot, long value) {
+    Object snapshotValue = snapshot[index];
+    if (snapshotValue instanceof Long && ((Long) snapshotValue).longValue() == value) {
+      return 0;
+    }
+    return 1 << index;
+  }
+
+  /**
+   * @return the bit of the property with the given index if the value has changed, 0 otherwise
+   */
+  public static int changedProperty(int index, Object[] snapshot, boolean value) {
+    Object snapshotValue = snapshot[index];
+    if (snapshotValue instanceof Boolean && ((Boolean) snapshotValue).booleanValue() == value) {
+      return 0;
+    }
+    return 1 << index;
+  }
+
+  /**
+   * @return true if the property with the given index is contained in the bit mask of changed properties
+   */
+  public static boolean isChanged(int changedProperties, int index) {
+    return (changedProperties & (1 << index)) != 0;
+  }
+
+}
@@ -17,9 +17,12 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.io.Serializable;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import org.camunda.bpm.engine.BadUserRequestException;
@@ -47,21 +50,118 @@ public abstract class AbstractPersistentVariableStore extends AbstractVariableSt
 
   protected Map<String, VariableInstanceEntity> variableInstances = null;
 
+  /**
+   * The variable instances loaded by name as long as not all variable instances
+   * are initialized. A <code>null</code> value marks a variable which does not exist.
+   */
+  protected Map<String, VariableInstanceEntity> variableInstancesByName = null;
+
   protected abstract List<VariableInstanceEntity> loadVariableInstances();
+  protected abstract List<VariableInstanceEntity> loadVariableInstances(Collection<String> variableNames);
   protected abstract void initializeVariableInstanceBackPointer(VariableInstanceEntity variableInstance);
 
   public void ensureVariableInstancesInitialized() {
     if (variableInstances==null) {
-      variableInstances = new HashMap<String, VariableInstanceEntity>();
       CommandContext commandContext = Context.getCommandContext();
       ensureNotNull("lazy loading outside command context", "commandContext", commandContext);
-      List<VariableInstanceEntity> variableInstancesList = loadVariableInstances();
-      for (VariableInstanceEntity variableInstance : variableInstancesList) {
-        variableInstances.put(variableInstance.getName(), variableInstance);
+      initializeVariableInstances(loadVariableInstances());
+    }
+  }
+
+  /**
+   * Initializes the variable instances of this store with the variable instances loaded
+   * from the database. Variables loaded by name before keep their current state, i.e.
+   * variables created or removed in the meantime are respected.
+   */
+  public void initializeVariableInstances(List<VariableInstanceEntity> loadedVariableInstances) {
+    variableInstances = new HashMap<String, VariableInstanceEntity>();
+    for (VariableInstanceEntity variableInstance : loadedVariableInstances) {
+      variableInstances.put(variableInstance.getName(), variableInstance);
+    }
+
+    if (variableInstancesByName != null) {
+      for (Entry<String, VariableInstanceEntity> variableInstance : variableInstancesByName.entrySet()) {
+        if (variableInstance.getValue() != null) {
+          variableInstances.put(variableInstance.getKey(), variableInstance.getValue());
+        } else {
+          variableInstances.remove(variableInstance.getKey());
+        }
+      }
+      variableInstancesByName = null;
+    }
+  }
+
+  /**
+   * Ensures that the variable instances with the given names are loaded, using a single
+   * query for all names which have not been loaded before. Loads all variable instances
+   * if loading variables by name is disabled.
+   */
+  protected void ensureVariableInstancesInitialized(Collection<String> variableNames) {
+    if (variableInstances != null) {
+      return;
+    }
+    CommandContext commandContext = Context.getCommandContext();
+    ensureNotNull("lazy loading outside command context", "commandContext", commandContext);
+
+    if (!isVariableLoadingByNameEnabled()) {
+      ensureVariableInstancesInitialized();
+      return;
+    }
+
+    if (variableInstancesByName == null) {
+      variableInstancesByName = new HashMap<String, VariableInstanceEntity>();
+    }
+
+    Set<String> namesToLoad = new HashSet<String>();
+    for (String variableName : variableNames) {
+      if (!variableInstancesByName.containsKey(variableName)) {
+        namesToLoad.add(variableName);
+      }
+    }
+
+    if (!namesToLoad.isEmpty()) {
+      for (String variableName : namesToLoad) {
+        variableInstancesByName.put(variableName, null);
+      }
+      for (VariableInstanceEntity variableInstance : loadVariableInstances(namesToLoad)) {
+        variableInstancesByName.put(variableInstance.getName(), variableInstance);
       }
     }
   }
 
+  /**
+   * @return the variable instance with the given name, loading only this variable
+   * if loading variables by name is enabled
+   */
+  protected VariableInstanceEntity getVariableInstanceEntity(String variableName) {
+    ensureVariableInstancesInitialized(Collections.singleton(variableName));
+    if (variableInstances != null) {
+      return variableInstances.get(variableName);
+    } else {
+      return variableInstancesByName.get(variableName);
+    }
+  }
+
+  protected void putVariableInstance(String variableName, VariableInstanceEntity variableInstance) {
+    if (variableInstances != null) {
+      variableInstances.put(variableName, variableInstance);
+    } else {
+      if (variableInstancesByName == null) {
+        variableInstancesByName = new HashMap<String, VariableInstanceEntity>();
+      }
+      variableInstancesByName.put(variableName, variableInstance);
+    }
+  }
+
+  /**
+   * @return true if single variables are loaded by name instead of loading all
+   * variables of the scope
+   */
+  protected boolean isVariableLoadingByNameEnabled() {
+    return Context.getProcessEngineConfiguration()
+      .isVariableLoadingByNameEnabled();
+  }
+
   @SuppressWarnings({ "unchecked", "rawtypes" })
   public Map<String, PersistentVariableInstance> getVariableInstances() {
     ensureVariableInstancesInitialized();
@@ -78,9 +178,20 @@ public abstract class AbstractPersistentVariableStore extends AbstractVariableSt
     return (Collection) variableInstances.values();
   }
 
+  public Map<String, PersistentVariableInstance> getVariableInstances(Collection<String> variableNames) {
+    ensureVariableInstancesInitialized(variableNames);
+    Map<String, PersistentVariableInstance> result = new HashMap<String, PersistentVariableInstance>();
+    for (String variableName : variableNames) {
+      VariableInstanceEntity variableInstance = getVariableInstanceEntity(variableName);
+      if (variableInstance != null) {
+        result.put(variableName, variableInstance);
+      }
+    }
+    return result;
+  }
+
   public PersistentVariableInstance getVariableInstance(String variableName) {
-    ensureVariableInstancesInitialized();
-    return variableInstances.get(variableName);
+    return getVariableInstanceEntity(variableName);
   }
 
   public Set<String> getVariableNames() {
@@ -94,14 +205,18 @@ public abstract class AbstractPersistentVariableStore extends AbstractVariableSt
   }
 
   public boolean containsVariableInstance(String variableName) {
-    ensureVariableInstancesInitialized();
-    return variableInstances.containsKey(variableName);
+    return getVariableInstanceEntity(variableName) != null;
   }
 
   public PersistentVariableInstance removeVariableInstance(String variableName, CoreVariableScope<PersistentVariableInstance> sourceActivityExecution) {
-    ensureVariableInstancesInitialized();
-    VariableInstanceEntity variable = variableInstances.remove(variableName);
+    VariableInstanceEntity variable = getVariableInstanceEntity(variableName);
     if(variable != null) {
+      if (variableInstances != null) {
+        variableInstances.remove(variableName);
+      } else {
+        // remember that the variable does not exist anymore
+        variableInstancesByName.put(variableName, null);
+      }
       variable.delete();
       variable.setValue(null);
 
@@ -176,7 +291,7 @@ public abstract class AbstractPersistentVariableStore extends AbstractVariableSt
       // create variable instance
       VariableInstanceEntity variableInstance = VariableInstanceEntity.createAndInsert(variableName, type, value);
       initializeVariableInstanceBackPointer(variableInstance);
-      variableInstances.put(variableName, variableInstance);
+      putVariableInstance(variableName, variableInstance);
 
       // fire CREATE event
       if(isAutoFireHistoryEvents()) {
@@ -199,7 +314,7 @@ public abstract class AbstractPersistentVariableStore extends AbstractVariableSt
     VariableInstanceEntity variableInstance = VariableInstanceEntity.createFromSerializedValue(variableName, type, value, configuration);
     VariableInstanceEntity.insert(variableInstance);
     initializeVariableInstanceBackPointer(variableInstance);
-    variableInstances.put(variableName, variableInstance);
+    putVariableInstance(variableName, variableInstance);
 
     // fire CREATE event
     if(isAutoFireHistoryEvents()) {
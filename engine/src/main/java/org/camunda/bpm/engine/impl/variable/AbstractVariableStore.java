@@ -12,6 +12,10 @@
  */
 package org.camunda.bpm.engine.impl.variable;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 import org.camunda.bpm.engine.delegate.CoreVariableInstance;
 import org.camunda.bpm.engine.impl.core.variable.CoreVariableScope;
 import org.camunda.bpm.engine.impl.core.variable.CoreVariableStore;
@@ -28,6 +32,17 @@ public abstract class AbstractVariableStore<T extends CoreVariableInstance> impl
     }
   }
 
+  public Map<String, T> getVariableInstances(Collection<String> variableNames) {
+    Map<String, T> variableInstances = new HashMap<String, T>();
+    for (String variableName : variableNames) {
+      T variableInstance = getVariableInstance(variableName);
+      if (variableInstance != null) {
+        variableInstances.put(variableName, variableInstance);
+      }
+    }
+    return variableInstances;
+  }
+
   protected abstract T createVariableInstance(String variableName, Object value, CoreVariableScope<T> sourceActivityExecution);
 
   protected abstract void setVariableInstanceValue(T variableInstance, Object value, CoreVariableScope<T> sourceActivityExecution);
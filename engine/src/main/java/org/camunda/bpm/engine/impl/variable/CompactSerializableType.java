@@ -0,0 +1,230 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectStreamField;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.delegate.ProcessEngineVariableType;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.impl.util.ReflectUtil;
+
+/**
+ * <p>Variable type storing serializable objects in a compact binary format: the objects
+ * are written using Java object serialization, but class descriptors are replaced by the
+ * class name, the serialVersionUID and a fingerprint of the serializable fields. This removes
+ * the field metadata which usually makes up most of the serialized bytes of small and medium
+ * sized objects. Values exceeding the {@link #getCompressionThreshold() compression threshold}
+ * are additionally deflated.</p>
+ *
+ * <p>As the field metadata is not stored, a value is read using the serializable fields of the
+ * class as it is currently loaded. A value can therefore only be read if the class has the same
+ * serialVersionUID and the same serializable fields (names and types) as when the value was
+ * written. Otherwise reading fails with an {@link InvalidClassException}. Unlike standard Java
+ * serialization, changes which are compatible there (such as adding a field) are not supported.</p>
+ *
+ * <p>Values in standard Java serialization format (as written by {@link SerializableType})
+ * can be read as well, so the serialized value of a <code>serializable</code> variable
+ * can be set as value of a variable of this type. Existing <code>serializable</code> variables
+ * are not converted: they keep their type and format, also when their value is updated.</p>
+ */
+public class CompactSerializableType extends SerializableType {
+
+  public static final String SERIALIZATION_FORMAT = "compact java serializable";
+
+  /** first byte of values written uncompressed */
+  protected static final byte FORMAT_COMPACT = 0x01;
+  /** first byte of values written deflated */
+  protected static final byte FORMAT_COMPACT_DEFLATED = 0x02;
+  /** first byte of the stream header written by {@link ObjectOutputStream} */
+  protected static final byte FORMAT_JAVA_SERIALIZATION = (byte) 0xAC;
+
+  protected int compressionThreshold = 1024;
+
+  public CompactSerializableType() {
+  }
+
+  public CompactSerializableType(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  public String getTypeName() {
+    return ProcessEngineVariableType.COMPACT_SERIALIZABLE.getName();
+  }
+
+  protected byte[] serializeValue(Object value, ValueFields valueFields) {
+    if (value == null) {
+      return null;
+    }
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    baos.write(FORMAT_COMPACT);
+    ObjectOutputStream oos = null;
+    try {
+      oos = new CompactObjectOutputStream(baos);
+      oos.writeObject(value);
+    } catch (Exception e) {
+      throw new ProcessEngineException("Couldn't serialize value '"+value+"' in variable '"+valueFields.getName()+"'", e);
+    } finally {
+      IoUtil.closeSilently(oos);
+    }
+    byte[] bytes = baos.toByteArray();
+
+    if (compressionThreshold >= 0 && bytes.length > compressionThreshold) {
+      byte[] deflatedBytes = deflate(bytes);
+      if (deflatedBytes.length < bytes.length) {
+        return deflatedBytes;
+      }
+    }
+    return bytes;
+  }
+
+  protected byte[] deflate(byte[] bytes) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream(bytes.length / 2);
+    baos.write(FORMAT_COMPACT_DEFLATED);
+    Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    DeflaterOutputStream out = new DeflaterOutputStream(baos, deflater);
+    try {
+      // skip the format byte of the uncompressed value
+      out.write(bytes, 1, bytes.length - 1);
+      out.finish();
+    } catch (IOException e) {
+      throw new ProcessEngineException("Couldn't compress serialized value", e);
+    } finally {
+      deflater.end();
+    }
+    return baos.toByteArray();
+  }
+
+  protected Object deserializeValue(byte[] bytes, ValueFields valueFields) throws Exception {
+    if (bytes.length == 0) {
+      throw new ProcessEngineException("Serialized value of variable '"+valueFields.getName()+"' is empty");
+    }
+
+    byte format = bytes[0];
+    if (format == FORMAT_JAVA_SERIALIZATION) {
+      return super.deserializeValue(bytes, valueFields);
+    }
+
+    InputStream in = new ByteArrayInputStream(bytes, 1, bytes.length - 1);
+    if (format == FORMAT_COMPACT_DEFLATED) {
+      in = new InflaterInputStream(in);
+
+    } else if (format != FORMAT_COMPACT) {
+      throw new ProcessEngineException("Unknown serialization format '"+format+"' of variable '"+valueFields.getName()+"'");
+    }
+
+    ObjectInputStream ois = null;
+    try {
+      ois = new CompactObjectInputStream(in);
+      return ois.readObject();
+    } finally {
+      IoUtil.closeSilently(ois);
+    }
+  }
+
+  /**
+   * @return the size in bytes above which serialized values are deflated, -1 if values are never deflated
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  public void setCompressionThreshold(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  /**
+   * Computes a fingerprint of the serializable fields of a class: their names and type
+   * signatures in the order in which they are serialized.
+   */
+  protected static long getFieldsFingerprint(ObjectStreamClass desc) {
+    long fingerprint = 17;
+    for (ObjectStreamField field : desc.getFields()) {
+      fingerprint = hash(fingerprint, field.getName());
+      fingerprint = hash(fingerprint, field.isPrimitive() ? String.valueOf(field.getTypeCode()) : field.getTypeString());
+    }
+    return fingerprint;
+  }
+
+  protected static long hash(long hash, String value) {
+    for (int i = 0; i < value.length(); i++) {
+      hash = 31 * hash + value.charAt(i);
+    }
+    // separates consecutive values
+    return 31 * hash + ';';
+  }
+
+  protected static class CompactObjectOutputStream extends ObjectOutputStream {
+
+    public CompactObjectOutputStream(OutputStream out) throws IOException {
+      super(out);
+    }
+
+    protected void writeStreamHeader() throws IOException {
+      // the format is determined by the first byte of the value
+    }
+
+    protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+      writeUTF(desc.getName());
+      writeLong(desc.getSerialVersionUID());
+      writeLong(getFieldsFingerprint(desc));
+    }
+  }
+
+  protected static class CompactObjectInputStream extends ObjectInputStream {
+
+    public CompactObjectInputStream(InputStream in) throws IOException {
+      super(in);
+    }
+
+    protected void readStreamHeader() throws IOException {
+      // no stream header is written
+    }
+
+    protected ObjectStreamClass readClassDescriptor() throws IOException, ClassNotFoundException {
+      String className = readUTF();
+      long serialVersionUID = readLong();
+      long fieldsFingerprint = readLong();
+
+      ObjectStreamClass desc = ObjectStreamClass.lookupAny(ReflectUtil.loadClass(className));
+      if (desc.getSerialVersionUID() != serialVersionUID) {
+        throw new InvalidClassException(className, "serialVersionUID of stored value " + serialVersionUID
+            + " does not match serialVersionUID of class " + desc.getSerialVersionUID());
+      }
+      // the fields are read using the local class descriptor, which must describe the stored fields
+      if (getFieldsFingerprint(desc) != fieldsFingerprint) {
+        throw new InvalidClassException(className, "serializable fields of the class have changed since the value was "
+            + "stored; values of the compact serialization format can only be read by a class with the same fields");
+      }
+      return desc;
+    }
+
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      return ReflectUtil.loadClass(desc.getName());
+    }
+  }
+
+}
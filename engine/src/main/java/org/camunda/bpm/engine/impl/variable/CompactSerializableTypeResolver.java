@@ -0,0 +1,31 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.variable;
+
+public class CompactSerializableTypeResolver implements SerializationVariableTypeResolver {
+
+  protected int compressionThreshold;
+
+  public CompactSerializableTypeResolver(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+  }
+
+  public VariableType getTypeForSerializationFormat(String serializationFormat) {
+    if (serializationFormat.equals(CompactSerializableType.SERIALIZATION_FORMAT)) {
+      return new CompactSerializableType(compressionThreshold);
+    }
+
+    return null;
+  }
+
+}
@@ -35,7 +35,7 @@ public class DeserializedObject {
   public void flush() {
     // this first check verifies if the variable value was not overwritten with another object
     if (deserializedObject==variableInstanceEntity.getCachedValue()) {
-      byte[] bytes = SerializableType.serialize(deserializedObject, variableInstanceEntity);
+      byte[] bytes = serialize();
       if (!Arrays.equals(originalBytes, bytes)) {
         variableInstanceEntity
           .getByteArrayValue()
@@ -43,4 +43,14 @@ public class DeserializedObject {
       }
     }
   }
+
+  protected byte[] serialize() {
+    VariableType type = variableInstanceEntity.getType();
+    if (type instanceof SerializableType) {
+      // serialize in the format of the variable's type
+      return ((SerializableType) type).serializeValue(deserializedObject, variableInstanceEntity);
+    } else {
+      return SerializableType.serialize(deserializedObject, variableInstanceEntity);
+    }
+  }
 }
@@ -48,11 +48,9 @@ public class SerializableType extends ByteArrayType {
 
     byte[] bytes = (byte[]) super.getValue(valueFields);
     if(bytes != null) {
-      ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
       Object deserializedObject;
       try {
-        ObjectInputStream ois = new ClassloaderAwareObjectInputStream(bais);
-        deserializedObject = ois.readObject();
+        deserializedObject = deserializeValue(bytes, valueFields);
         valueFields.setCachedValue(deserializedObject);
 
         if (valueFields instanceof VariableInstanceEntity) {
@@ -68,8 +66,6 @@ public class SerializableType extends ByteArrayType {
 
       } catch (Exception e) {
         throw new ProcessEngineException("Couldn't deserialize object in variable '"+valueFields.getName()+"'", e);
-      } finally {
-        IoUtil.closeSilently(bais);
       }
       return deserializedObject;
     } else {
@@ -79,7 +75,7 @@ public class SerializableType extends ByteArrayType {
   }
 
   public void setValue(Object value, ValueFields valueFields) {
-    byte[] byteArray = serialize(value, valueFields);
+    byte[] byteArray = serializeValue(value, valueFields);
     valueFields.setCachedValue(value);
 
     if(valueFields.getByteArrayValue() == null) {
@@ -94,6 +90,24 @@ public class SerializableType extends ByteArrayType {
     super.setValue(byteArray, valueFields);
   }
 
+  /**
+   * Serializes the value of a variable of this type. Used to store the value
+   * and to detect changes of deserialized values.
+   */
+  protected byte[] serializeValue(Object value, ValueFields valueFields) {
+    return serialize(value, valueFields);
+  }
+
+  protected Object deserializeValue(byte[] bytes, ValueFields valueFields) throws Exception {
+    ByteArrayInputStream bais = new ByteArrayInputStream(bytes);
+    try {
+      ObjectInputStream ois = new ClassloaderAwareObjectInputStream(bais);
+      return ois.readObject();
+    } finally {
+      IoUtil.closeSilently(bais);
+    }
+  }
+
   public static byte[] serialize(Object value, ValueFields valueFields) {
     if(value == null) {
       return null;
@@ -0,0 +1,92 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ManagementService;
+
+/**
+ * A snapshot of the metrics collected by the process engine since it was started
+ * or the metrics were {@link ManagementService#resetEngineMetrics() reset}.
+ * Metrics are only collected if the engine configuration property
+ * <code>metricsEnabled</code> is set.
+ *
+ * @see ManagementService#getEngineMetrics()
+ */
+public interface EngineMetrics {
+
+  /** the number of flushes of the entity manager */
+  public static final String FLUSHES = "flushes";
+  /** the number of entities selected by id which were found in the entity cache */
+  public static final String ENTITY_CACHE_HITS = "entityCacheHits";
+  /** the number of entities selected by id which were found in the second level cache */
+  public static final String SECOND_LEVEL_CACHE_HITS = "secondLevelCacheHits";
+  /** the number of entities selected by id which were loaded from the database */
+  public static final String ENTITY_CACHE_MISSES = "entityCacheMisses";
+  /** the number of database operations which failed due to a concurrent modification */
+  public static final String OPTIMISTIC_LOCKING_FAILURES = "optimisticLockingFailures";
+
+  // the names of the meters which are reported to the database, see MetricsQuery#name(String)
+
+  /** the number of activity instances started */
+  public static final String ACTIVITY_INSTANCE_START = "activity-instance-start";
+  /** the number of jobs acquired by the job executor */
+  public static final String JOB_ACQUIRED = "job-acquired";
+  /** the number of jobs executed successfully by the job executor */
+  public static final String JOB_SUCCESSFUL = "job-successful";
+  /** the number of jobs which failed when executed by the job executor */
+  public static final String JOB_FAILED = "job-failed";
+  /** the number of process instances started which are not started by another process instance */
+  public static final String ROOT_PROCESS_INSTANCE_START = "root-process-instance-start";
+
+  /**
+   * The time at which the collection of the metrics started.
+   */
+  Date getStartTime();
+
+  /**
+   * The latencies of the executed commands per command class, including
+   * the flush of the command context.
+   */
+  List<LatencyMetrics> getCommandLatencies();
+
+  /**
+   * The latencies of the executed SQL statements per statement id. If JDBC batch processing
+   * is enabled, the latencies of insert, update and delete statements only contain the
+   * time required to add them to the batch. The execution of the batches is recorded
+   * as the statement <code>executeBatch</code>.
+   */
+  List<LatencyMetrics> getStatementLatencies();
+
+  /**
+   * The latencies of the executed jobs per job handler type.
+   */
+  List<LatencyMetrics> getJobLatencies();
+
+  /**
+   * The latencies of the executed activities per activity type (e.g. <code>serviceTask</code>).
+   * The latency of an activity is the time spent in its own behavior, it does not include the
+   * activities which are synchronously executed after it.
+   */
+  List<LatencyMetrics> getActivityLatencies();
+
+  /**
+   * The counters of the engine, see the constants of this interface from {@link #FLUSHES}
+   * to {@link #OPTIMISTIC_LOCKING_FAILURES} for the available names.
+   */
+  Map<String, Long> getCounters();
+
+}
@@ -74,4 +74,13 @@ public interface JobDefinition {
    */
   boolean isSuspended();
 
+  /**
+   * The priority of the jobs created from this job definition if it has been set through
+   * {@link org.camunda.bpm.engine.ManagementService#setOverridingJobPriorityForJobDefinition(String, long)}.
+   * Overrides the priority declared in the BPMN 2.0 Xml.
+   *
+   * @return the overriding job priority or null if the declared priority is used.
+   */
+  Long getOverridingJobPriority();
+
 }
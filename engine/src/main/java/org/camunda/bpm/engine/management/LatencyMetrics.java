@@ -0,0 +1,54 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+/**
+ * The latencies recorded for a single command class, statement, job handler type
+ * or activity type. All times are in microseconds.
+ *
+ * @see EngineMetrics
+ */
+public interface LatencyMetrics {
+
+  /**
+   * The name of the command class, statement, job handler type or activity type.
+   */
+  String getName();
+
+  /**
+   * The number of recorded executions.
+   */
+  long getCount();
+
+  /**
+   * The sum of the latencies of all recorded executions.
+   */
+  long getTotalTime();
+
+  /**
+   * The mean latency of the recorded executions.
+   */
+  long getMeanTime();
+
+  /**
+   * The highest latency of the recorded executions.
+   */
+  long getMaxTime();
+
+  /**
+   * An estimation of the latency below which the given fraction (between 0 and 1)
+   * of the recorded executions lies. The estimation is at most twice the exact value.
+   */
+  long getPercentile(double fraction);
+
+}
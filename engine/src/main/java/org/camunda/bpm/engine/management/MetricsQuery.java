@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.management;
+
+import java.util.Date;
+
+/**
+ * Sums up the values of the metrics reported to the database by the process engines.
+ */
+public interface MetricsQuery {
+
+  /**
+   * Only sums up the values of the given meter, e.g. {@link EngineMetrics#ROOT_PROCESS_INSTANCE_START}.
+   */
+  MetricsQuery name(String name);
+
+  /** Only sums up the values reported by the given reporter. */
+  MetricsQuery reporter(String reporter);
+
+  /** Only sums up the values reported at or after the given date. */
+  MetricsQuery startDate(Date startTime);
+
+  /** Only sums up the values reported before the given date. */
+  MetricsQuery endDate(Date endTime);
+
+  /**
+   * @return the sum of the values of all reported intervals matching the query
+   */
+  long sum();
+
+}
@@ -84,6 +84,11 @@ public interface Job {
    */
   String getJobDefinitionId();
 
+  /**
+   * The priority of this job. Jobs with a higher priority are acquired and executed first.
+   */
+  long getPriority();
+
   /**
    * Indicates whether this job is suspended. If a job is suspended,
    * the job will be not acquired by the job executor.
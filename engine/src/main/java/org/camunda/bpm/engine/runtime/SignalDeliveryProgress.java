@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.runtime;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.RuntimeService;
+
+/**
+ * <p>The progress of a signal delivered in chunks, see
+ * {@link RuntimeService#signalEventReceivedInChunks(String, java.util.Map, int)}.</p>
+ *
+ * <p>The progress can be used to resume the delivery after a failure, see
+ * {@link RuntimeService#resumeSignalEventDelivery(SignalDeliveryProgress, java.util.Map, int)}.</p>
+ */
+public interface SignalDeliveryProgress {
+
+  /**
+   * @return the name of the delivered signal
+   */
+  String getSignalName();
+
+  /**
+   * @return the time the delivery started
+   */
+  Date getStartTime();
+
+  /**
+   * @return the ids of the subscriptions existing when the delivery started, in the
+   * order of their creation, null if the delivery did not start yet. Only these
+   * subscriptions receive the signal.
+   */
+  List<String> getSubscriptionIds();
+
+  /**
+   * @return the id of the last subscription which received the signal or was
+   * skipped, null if the signal was not delivered to any subscription yet
+   */
+  String getLastSubscriptionId();
+
+  /**
+   * @return the number of subscriptions which received the signal
+   */
+  long getDeliveredCount();
+
+  /**
+   * @return the number of chunks delivered, each in its own transaction
+   */
+  int getChunkCount();
+
+  /**
+   * @return the ids of the subscriptions which were skipped because the signal could
+   * not be delivered to them, in order. The signal can be delivered to the execution
+   * of such a subscription again with {@link RuntimeService#signalEventReceived(String, String)}.
+   */
+  List<String> getFailedSubscriptionIds();
+
+  /**
+   * @return true if the signal was delivered to all subscriptions which did not fail
+   */
+  boolean isCompleted();
+
+}
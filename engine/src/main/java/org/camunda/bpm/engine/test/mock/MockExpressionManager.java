@@ -16,12 +16,8 @@ package org.camunda.bpm.engine.test.mock;
 import org.camunda.bpm.engine.delegate.VariableScope;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.el.VariableScopeElResolver;
-import org.camunda.bpm.engine.impl.javax.el.ArrayELResolver;
-import org.camunda.bpm.engine.impl.javax.el.BeanELResolver;
 import org.camunda.bpm.engine.impl.javax.el.CompositeELResolver;
 import org.camunda.bpm.engine.impl.javax.el.ELResolver;
-import org.camunda.bpm.engine.impl.javax.el.ListELResolver;
-import org.camunda.bpm.engine.impl.javax.el.MapELResolver;
 
 public class MockExpressionManager extends ExpressionManager {
 
@@ -30,10 +26,10 @@ public class MockExpressionManager extends ExpressionManager {
     CompositeELResolver compositeElResolver = new CompositeELResolver();
     compositeElResolver.add(new VariableScopeElResolver(variableScope));
     compositeElResolver.add(new MockElResolver());
-    compositeElResolver.add(new ArrayELResolver());
-    compositeElResolver.add(new ListELResolver());
-    compositeElResolver.add(new MapELResolver());
-    compositeElResolver.add(new BeanELResolver());
+    compositeElResolver.add(arrayElResolver);
+    compositeElResolver.add(listElResolver);
+    compositeElResolver.add(mapElResolver);
+    compositeElResolver.add(beanElResolver);
     return compositeElResolver;
   }
 
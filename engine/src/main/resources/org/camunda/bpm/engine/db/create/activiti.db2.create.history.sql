@@ -166,6 +166,19 @@ create table ACT_HI_INCIDENT (
   primary key (ID_)
 );
 
+create table ACT_HI_OUTBOX (
+    ID_ varchar(64) not null,
+    REV_ integer,
+    SEQUENCE_ bigint not null generated always as identity,
+    CREATE_TIME_ timestamp not null,
+    EVENT_COUNT_ integer,
+    BYTES_ BLOB,
+    STATE_ integer,
+    ATTEMPTS_ integer,
+    EXCEPTION_MSG_ varchar(4000),
+    primary key (ID_)
+);
+
 create index ACT_IDX_HI_PRO_INST_END on ACT_HI_PROCINST(END_TIME_);
 create index ACT_IDX_HI_PRO_I_BUSKEY on ACT_HI_PROCINST(BUSINESS_KEY_);
 create index ACT_IDX_HI_ACT_INST_START on ACT_HI_ACTINST(START_TIME_);
@@ -179,3 +192,4 @@ create index ACT_IDX_HI_DETAIL_TASK_ID on ACT_HI_DETAIL(TASK_ID_);
 create index ACT_IDX_HI_PROCVAR_PROC_INST on ACT_HI_VARINST(PROC_INST_ID_);
 create index ACT_IDX_HI_PROCVAR_NAME_TYPE on ACT_HI_VARINST(NAME_, VAR_TYPE_);
 create index ACT_IDX_HI_ACT_INST_PROCINST on ACT_HI_ACTINST(PROC_INST_ID_, ACT_ID_);
+create index ACT_IDX_HI_OUTBOX_SEQ on ACT_HI_OUTBOX(SEQUENCE_);
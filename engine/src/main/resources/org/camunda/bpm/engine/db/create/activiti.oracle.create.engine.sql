@@ -17,6 +17,15 @@ values ('next.dbid', '1', 1);
 insert into ACT_GE_PROPERTY
 values ('deployment.lock', '0', 1);
 
+insert into ACT_GE_PROPERTY
+values ('authorization.revision', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('second-level-cache.revision', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('history-outbox.lock', '0', 1);
+
 create table ACT_GE_BYTEARRAY (
     ID_ NVARCHAR2(64),
     REV_ INTEGER,
@@ -24,6 +33,8 @@ create table ACT_GE_BYTEARRAY (
     DEPLOYMENT_ID_ NVARCHAR2(64),
     BYTES_ BLOB,
     GENERATED_ NUMBER(1,0) CHECK (GENERATED_ IN (1,0)),
+    HASH_ NVARCHAR2(64),
+    REF_COUNT_ INTEGER,
     primary key (ID_)
 );
 
@@ -76,6 +87,7 @@ create table ACT_RU_JOB (
     DEPLOYMENT_ID_ NVARCHAR2(64),
     SUSPENSION_STATE_ INTEGER,
     JOB_DEF_ID_ NVARCHAR2(64),
+    PRIORITY_ NUMBER(19,0) DEFAULT 0 NOT NULL,
     primary key (ID_)
 );
 
@@ -88,6 +100,7 @@ create table ACT_RU_JOBDEF (
     JOB_TYPE_ NVARCHAR2(255) NOT NULL,
     JOB_CONFIGURATION_ NVARCHAR2(255),
     SUSPENSION_STATE_ INTEGER,
+    JOB_PRIORITY_ NUMBER(19,0),
     primary key (ID_)
 );
 
@@ -213,6 +226,15 @@ create table ACT_RU_FILTER (
   primary key (ID_)
 );
 
+create table ACT_RU_METER_LOG (
+  ID_ NVARCHAR2(64) not null,
+  NAME_ NVARCHAR2(64) not null,
+  REPORTER_ NVARCHAR2(255),
+  VALUE_ NUMBER(19,0),
+  TIMESTAMP_ TIMESTAMP(6),
+  primary key (ID_)
+);
+
 create index ACT_IDX_EXEC_BUSKEY on ACT_RU_EXECUTION(BUSINESS_KEY_);
 create index ACT_IDX_TASK_CREATE on ACT_RU_TASK(CREATE_TIME_);
 create index ACT_IDX_IDENT_LNK_USER on ACT_RU_IDENTITYLINK(USER_ID_);
@@ -363,3 +385,8 @@ create index ACT_IDX_INC_EXID on ACT_RU_INCIDENT(EXECUTION_ID_);
 create index ACT_IDX_INC_PROCDEFID on ACT_RU_INCIDENT(PROC_DEF_ID_);
 create index ACT_IDX_INC_PROCINSTID on ACT_RU_INCIDENT(PROC_INST_ID_);
 create index ACT_IDX_INC_ROOTCAUSEINCID on ACT_RU_INCIDENT(ROOT_CAUSE_INCIDENT_ID_);
+create index ACT_IDX_JOB_PRIORITY on ACT_RU_JOB(PRIORITY_ desc, DUEDATE_);
+create index ACT_IDX_JOB_PROCINST on ACT_RU_JOB(PROCESS_INSTANCE_ID_);
+create index ACT_IDX_EVENT_SUBSCR_PROCINST on ACT_RU_EVENT_SUBSCR(PROC_INST_ID_);
+create index ACT_IDX_BYTEAR_HASH on ACT_GE_BYTEARRAY(HASH_);
+create index ACT_IDX_METER_LOG on ACT_RU_METER_LOG(NAME_,TIMESTAMP_);
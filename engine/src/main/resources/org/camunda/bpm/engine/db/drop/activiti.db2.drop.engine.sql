@@ -90,6 +90,11 @@ drop index ACT_IDX_VARIABLE_PROCINST;
 drop index ACT_IDX_TASK_EXEC;
 drop index ACT_IDX_TASK_PROCINST;
 drop index ACT_IDX_TASK_PROC_DEF_ID;
+drop index ACT_IDX_JOB_PRIORITY;
+drop index ACT_IDX_JOB_PROCINST;
+drop index ACT_IDX_EVENT_SUBSCR_PROCINST;
+drop index ACT_IDX_BYTEAR_HASH;
+drop index ACT_IDX_METER_LOG;
 
 drop table ACT_GE_PROPERTY;
 drop table ACT_GE_BYTEARRAY;
@@ -105,3 +110,4 @@ drop table ACT_RU_EVENT_SUBSCR;
 drop table ACT_RU_INCIDENT;
 drop table ACT_RU_AUTHORIZATION;
 drop table ACT_RU_FILTER;
+drop table ACT_RU_METER_LOG;
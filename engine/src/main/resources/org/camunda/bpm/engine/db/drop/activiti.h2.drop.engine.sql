@@ -86,6 +86,11 @@ drop index ACT_IDX_INC_EXID;
 drop index ACT_IDX_INC_PROCDEFID;
 drop index ACT_IDX_INC_PROCINSTID;
 drop index ACT_IDX_INC_ROOTCAUSEINCID;
+drop index ACT_IDX_JOB_PRIORITY;
+drop index ACT_IDX_JOB_PROCINST;
+drop index ACT_IDX_EVENT_SUBSCR_PROCINST;
+drop index ACT_IDX_BYTEAR_HASH;
+drop index ACT_IDX_METER_LOG;
 
 drop table ACT_GE_PROPERTY if exists;
 drop table ACT_GE_BYTEARRAY if exists;
@@ -101,3 +106,4 @@ drop table ACT_RU_EVENT_SUBSCR if exists;
 drop table ACT_RU_INCIDENT if exists;
 drop table ACT_RU_AUTHORIZATION if exists;
 drop table ACT_RU_FILTER if exists;
+drop table ACT_RU_METER_LOG if exists;
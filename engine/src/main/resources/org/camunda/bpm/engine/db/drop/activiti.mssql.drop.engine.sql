@@ -28,6 +28,11 @@ drop index ACT_RU_VARIABLE.ACT_IDX_VARIABLE_PROCINST;
 drop index ACT_RU_TASK.ACT_IDX_TASK_EXEC;
 drop index ACT_RU_TASK.ACT_IDX_TASK_PROCINST;
 drop index ACT_RU_TASK.ACT_IDX_TASK_PROC_DEF_ID;
+drop index ACT_RU_JOB.ACT_IDX_JOB_PRIORITY;
+drop index ACT_RU_JOB.ACT_IDX_JOB_PROCINST;
+drop index ACT_RU_EVENT_SUBSCR.ACT_IDX_EVENT_SUBSCR_PROCINST;
+drop index ACT_GE_BYTEARRAY.ACT_IDX_BYTEAR_HASH;
+drop index ACT_RU_METER_LOG.ACT_IDX_METER_LOG;
 
 alter table ACT_GE_BYTEARRAY 
     drop constraint ACT_FK_BYTEARR_DEPL;
@@ -102,3 +107,4 @@ if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = '
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_INCIDENT') drop table ACT_RU_INCIDENT;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_AUTHORIZATION') drop table ACT_RU_AUTHORIZATION;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_FILTER') drop table ACT_RU_FILTER;
+if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_METER_LOG') drop table ACT_RU_METER_LOG;
@@ -1,3 +1,4 @@
+drop index ACT_HI_OUTBOX.ACT_IDX_HI_OUTBOX_SEQ;
 drop index ACT_HI_PROCINST.ACT_IDX_HI_PRO_INST_END;
 drop index ACT_HI_PROCINST.ACT_IDX_HI_PRO_I_BUSKEY;
 drop index ACT_HI_ACTINST.ACT_IDX_HI_ACT_INST_START;
@@ -21,3 +22,4 @@ if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = '
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_HI_ATTACHMENT') drop table ACT_HI_ATTACHMENT;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_HI_OP_LOG') drop table ACT_HI_OP_LOG;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_HI_INCIDENT') drop table ACT_HI_INCIDENT;
+if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_HI_OUTBOX') drop table ACT_HI_OUTBOX;
@@ -74,6 +74,11 @@ drop index ACT_IDX_INC_EXID on ACT_RU_INCIDENT;
 drop index ACT_IDX_INC_PROCDEFID on ACT_RU_INCIDENT;
 drop index ACT_IDX_INC_PROCINSTID on ACT_RU_INCIDENT;
 drop index ACT_IDX_INC_ROOTCAUSEINCID on ACT_RU_INCIDENT;
+drop index ACT_IDX_JOB_PRIORITY on ACT_RU_JOB;
+drop index ACT_IDX_JOB_PROCINST on ACT_RU_JOB;
+drop index ACT_IDX_EVENT_SUBSCR_PROCINST on ACT_RU_EVENT_SUBSCR;
+drop index ACT_IDX_BYTEAR_HASH on ACT_GE_BYTEARRAY;
+drop index ACT_IDX_METER_LOG on ACT_RU_METER_LOG;
 
 drop table if exists ACT_GE_PROPERTY;
 drop table if exists ACT_RU_VARIABLE;
@@ -89,3 +94,4 @@ drop table if exists ACT_RU_EVENT_SUBSCR;
 drop table if exists ACT_RU_INCIDENT;
 drop table if exists ACT_RU_AUTHORIZATION;
 drop table if exists ACT_RU_FILTER;
+drop table if exists ACT_RU_METER_LOG;
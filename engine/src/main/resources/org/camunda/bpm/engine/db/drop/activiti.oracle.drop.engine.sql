@@ -94,6 +94,11 @@ drop index ACT_IDX_INC_EXID;
 drop index ACT_IDX_INC_PROCDEFID;
 drop index ACT_IDX_INC_PROCINSTID;
 drop index ACT_IDX_INC_ROOTCAUSEINCID;
+drop index ACT_IDX_JOB_PRIORITY;
+drop index ACT_IDX_JOB_PROCINST;
+drop index ACT_IDX_EVENT_SUBSCR_PROCINST;
+drop index ACT_IDX_BYTEAR_HASH;
+drop index ACT_IDX_METER_LOG;
 
 drop table  ACT_GE_PROPERTY;
 drop table  ACT_GE_BYTEARRAY;
@@ -109,3 +114,4 @@ drop table  ACT_RU_EVENT_SUBSCR;
 drop table  ACT_RU_INCIDENT;
 drop table  ACT_RU_AUTHORIZATION;
 drop table  ACT_RU_FILTER;
+drop table  ACT_RU_METER_LOG;
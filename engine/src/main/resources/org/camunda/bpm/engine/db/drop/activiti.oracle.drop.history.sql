@@ -1,3 +1,4 @@
+drop index ACT_IDX_HI_OUTBOX_SEQ;
 drop index ACT_IDX_HI_PRO_INST_END;
 drop index ACT_IDX_HI_PRO_I_BUSKEY;
 drop index ACT_IDX_HI_ACT_INST_START;
@@ -21,3 +22,5 @@ drop table ACT_HI_COMMENT;
 drop table ACT_HI_ATTACHMENT;
 drop table ACT_HI_OP_LOG;
 drop table ACT_HI_INCIDENT;
+drop table ACT_HI_OUTBOX;
+drop sequence ACT_HI_OUTBOX_SEQ;
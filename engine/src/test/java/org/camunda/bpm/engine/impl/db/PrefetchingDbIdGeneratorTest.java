@@ -0,0 +1,137 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PrefetchingDbIdGeneratorTest {
+
+  protected IdBlockCommandExecutor commandExecutor;
+  protected PrefetchingDbIdGenerator idGenerator;
+
+  @Before
+  public void setup() {
+    commandExecutor = new IdBlockCommandExecutor();
+    idGenerator = new PrefetchingDbIdGenerator();
+    idGenerator.setIdBlockSize(100);
+    idGenerator.setSegmentSize(10);
+    idGenerator.setCommandExecutor(commandExecutor);
+  }
+
+  @Test
+  public void testIdsAreUnique() throws Exception {
+    final Set<String> ids = Collections.synchronizedSet(new HashSet<String>());
+    List<Thread> threads = new ArrayList<Thread>();
+
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread() {
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            ids.add(idGenerator.getNextId());
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(8000, ids.size());
+  }
+
+  @Test
+  public void testSegmentsAreTakenFromTheCurrentBlock() {
+    assertEquals("0", idGenerator.getNextId());
+    assertEquals("1", idGenerator.getNextId());
+    assertEquals(1, idGenerator.getFetchedBlocks());
+  }
+
+  @Test
+  public void testNextBlockIsPrefetched() throws Exception {
+    // pass the prefetch threshold of the first block
+    for (int i = 0; i < 60; i++) {
+      idGenerator.getNextId();
+    }
+
+    // wait for the prefetch
+    long timeout = System.currentTimeMillis() + 5000;
+    while (commandExecutor.getFetchedBlocks() < 2 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(10);
+    }
+    assertEquals(2, commandExecutor.getFetchedBlocks());
+
+    // the ids of the next block are handed out without fetching another block
+    for (int i = 0; i < 100; i++) {
+      idGenerator.getNextId();
+    }
+    assertEquals(1, idGenerator.getStalls());
+  }
+
+  @Test
+  public void testBlockSizeAdaptsToAllocationRate() {
+    idGenerator.setTargetBlockLifetimeInMillis(60 * 1000);
+    idGenerator.setMaxIdBlockSize(400);
+    idGenerator.setPrefetchThreshold(1);
+
+    for (int i = 0; i < 1000; i++) {
+      idGenerator.getNextId();
+    }
+
+    // the blocks are used up immediately: the size is doubled up to the maximum
+    assertEquals(400, idGenerator.getCurrentIdBlockSize());
+    assertTrue(commandExecutor.getRequestedBlockSizes().contains(200));
+  }
+
+  protected static class IdBlockCommandExecutor implements CommandExecutor {
+
+    protected AtomicLong nextId = new AtomicLong();
+    protected AtomicLong fetchedBlocks = new AtomicLong();
+    protected List<Integer> requestedBlockSizes = Collections.synchronizedList(new ArrayList<Integer>());
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Command<T> command) {
+      int idBlockSize = ((GetNextIdBlockCmd) command).getIdBlockSize();
+      requestedBlockSizes.add(idBlockSize);
+      fetchedBlocks.incrementAndGet();
+
+      long first = nextId.getAndAdd(idBlockSize);
+      return (T) new IdBlock(first, first + idBlockSize - 1);
+    }
+
+    public long getFetchedBlocks() {
+      return fetchedBlocks.get();
+    }
+
+    public List<Integer> getRequestedBlockSizes() {
+      return requestedBlockSizes;
+    }
+  }
+
+}
@@ -0,0 +1,99 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.util.PersistentStateUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachedDbEntityTest {
+
+  protected DbEntityCache entityCache;
+
+  protected TaskEntity task;
+
+  @Before
+  public void setup() {
+    entityCache = new DbEntityCache();
+
+    task = new TaskEntity();
+    task.setId("101");
+    task.setNameWithoutCascade("name");
+  }
+
+  @Test
+  public void testUnchangedEntityIsNotDirty() {
+    entityCache.putPersistent(task);
+
+    CachedDbEntity cachedEntity = entityCache.getCachedEntity(task);
+    assertFalse(cachedEntity.isDirty());
+    assertEquals(0, cachedEntity.getChangedProperties());
+  }
+
+  @Test
+  public void testChangedPropertiesAreTracked() {
+    entityCache.putPersistent(task);
+
+    task.setAssigneeWithoutCascade("kermit");
+    task.setDescriptionWithoutCascade("description");
+
+    CachedDbEntity cachedEntity = entityCache.getCachedEntity(task);
+    assertTrue(cachedEntity.isDirty());
+
+    int changedProperties = cachedEntity.getChangedProperties();
+    assertTrue(PersistentStateUtil.isChanged(changedProperties, TaskEntity.ASSIGNEE_PROPERTY));
+    assertTrue(PersistentStateUtil.isChanged(changedProperties, TaskEntity.DESCRIPTION_PROPERTY));
+    assertFalse(PersistentStateUtil.isChanged(changedProperties, TaskEntity.NAME_PROPERTY));
+  }
+
+  @Test
+  public void testRevertedChangeIsNotDirty() {
+    entityCache.putPersistent(task);
+
+    task.setNameWithoutCascade("otherName");
+    task.setNameWithoutCascade("name");
+
+    CachedDbEntity cachedEntity = entityCache.getCachedEntity(task);
+    assertFalse(cachedEntity.isDirty());
+  }
+
+  @Test
+  public void testCopyIsUpdated() {
+    entityCache.putPersistent(task);
+
+    task.setNameWithoutCascade("otherName");
+
+    CachedDbEntity cachedEntity = entityCache.getCachedEntity(task);
+    assertTrue(cachedEntity.isDirty());
+
+    cachedEntity.makeCopy();
+    assertFalse(cachedEntity.isDirty());
+  }
+
+  @Test
+  public void testForceSetDirty() {
+    entityCache.putPersistent(task);
+
+    CachedDbEntity cachedEntity = entityCache.getCachedEntity(task);
+    cachedEntity.forceSetDirty();
+
+    assertTrue(cachedEntity.isDirty());
+    assertEquals(-1, cachedEntity.getChangedProperties());
+  }
+
+}
@@ -0,0 +1,146 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.entitymanager.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DefaultDbEntitySecondLevelCacheTest {
+
+  protected DefaultDbEntitySecondLevelCache cache;
+
+  @Before
+  public void setup() {
+    cache = new DefaultDbEntitySecondLevelCache(Collections.<Class<?>>singleton(JobDefinitionEntity.class), 2, 0);
+  }
+
+  @Test
+  public void testGetReturnsCopy() {
+    JobDefinitionEntity jobDefinition = createJobDefinition("1", 1);
+    cache.put(jobDefinition, 0);
+
+    JobDefinitionEntity cached = cache.get(JobDefinitionEntity.class, "1", 0);
+    assertNotNull(cached);
+    assertNotSame(jobDefinition, cached);
+    assertEquals("anActivity", cached.getActivityId());
+
+    // modifications of the returned instance are not visible to others
+    cached.setActivityId("anotherActivity");
+    assertEquals("anActivity", cache.get(JobDefinitionEntity.class, "1", 0).getActivityId());
+
+    assertEquals(2, cache.getHitCount());
+    assertEquals(0, cache.getMissCount());
+  }
+
+  @Test
+  public void testOnlyConfiguredTypesAreCacheable() {
+    assertTrue(cache.isCacheable(JobDefinitionEntity.class));
+    assertFalse(cache.isCacheable(TaskEntity.class));
+  }
+
+  @Test
+  public void testOlderRevisionDoesNotReplaceNewerRevision() {
+    cache.put(createJobDefinition("1", 2), 0);
+    cache.put(createJobDefinition("1", 1), 0);
+
+    assertEquals(2, cache.get(JobDefinitionEntity.class, "1", 0).getRevision());
+
+    cache.put(createJobDefinition("1", 3), 0);
+    assertEquals(3, cache.get(JobDefinitionEntity.class, "1", 0).getRevision());
+  }
+
+  @Test
+  public void testInvalidate() {
+    JobDefinitionEntity jobDefinition = createJobDefinition("1", 1);
+    cache.put(jobDefinition, 0);
+    cache.put(createJobDefinition("2", 1), 0);
+
+    cache.invalidate(jobDefinition);
+    assertNull(cache.get(JobDefinitionEntity.class, "1", 0));
+    assertNotNull(cache.get(JobDefinitionEntity.class, "2", 0));
+    assertEquals(1, cache.getMissCount());
+
+    cache.invalidateAll(JobDefinitionEntity.class);
+    assertEquals(0, cache.size());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEntityIsEvicted() {
+    cache.put(createJobDefinition("1", 1), 0);
+    cache.put(createJobDefinition("2", 1), 0);
+
+    // access 1 so that 2 is the least recently used entity
+    cache.get(JobDefinitionEntity.class, "1", 0);
+    cache.put(createJobDefinition("3", 1), 0);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertNotNull(cache.get(JobDefinitionEntity.class, "1", 0));
+    assertNull(cache.get(JobDefinitionEntity.class, "2", 0));
+    assertNotNull(cache.get(JobDefinitionEntity.class, "3", 0));
+  }
+
+  @Test
+  public void testChangedCacheRevisionDiscardsEntries() {
+    cache.put(createJobDefinition("1", 1), 0);
+    assertNotNull(cache.get(JobDefinitionEntity.class, "1", 0));
+
+    // another transaction changed cacheable entities
+    assertNull(cache.get(JobDefinitionEntity.class, "1", 1));
+    assertEquals(0, cache.size());
+
+    // a command which read the previous revision also discards the entries
+    cache.put(createJobDefinition("1", 2), 1);
+    cache.put(createJobDefinition("2", 1), 0);
+    assertNull(cache.get(JobDefinitionEntity.class, "1", 0));
+    assertNotNull(cache.get(JobDefinitionEntity.class, "2", 0));
+  }
+
+  @Test
+  public void testCheckedRevisionIsHandedOutWithinInterval() {
+    assertNull(cache.getCheckedRevision());
+
+    cache.put(createJobDefinition("1", 1), 0);
+    cache.revisionChecked(0);
+    assertEquals(Long.valueOf(0), cache.getCheckedRevision());
+    assertNotNull(cache.get(JobDefinitionEntity.class, "1", 0));
+
+    // a different revision read from the database discards the entries
+    cache.revisionChecked(1);
+    assertEquals(Long.valueOf(1), cache.getCheckedRevision());
+    assertEquals(0, cache.size());
+
+    cache.setRevisionCheckInterval(0);
+    assertNull(cache.getCheckedRevision());
+  }
+
+  protected JobDefinitionEntity createJobDefinition(String id, int revision) {
+    JobDefinitionEntity jobDefinition = new JobDefinitionEntity();
+    jobDefinition.setId(id);
+    jobDefinition.setRevision(revision);
+    jobDefinition.setActivityId("anActivity");
+    return jobDefinition;
+  }
+
+}
@@ -0,0 +1,153 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AcquireJobsRunnableTest {
+
+  protected TestJobExecutor jobExecutor;
+  protected AcquireJobsRunnable runnable;
+
+  @Before
+  public void setup() {
+    jobExecutor = new TestJobExecutor();
+    jobExecutor.setMaxJobsPerAcquisition(4);
+    jobExecutor.setWaitTimeInMillis(1000);
+    runnable = new AcquireJobsRunnable(jobExecutor);
+  }
+
+  @Test
+  public void testNumJobsToAcquireIsLimitedByFreeCapacity() {
+    jobExecutor.freeCapacity = 10;
+    assertEquals(4, runnable.getNumJobsToAcquire());
+
+    jobExecutor.freeCapacity = 2;
+    assertEquals(2, runnable.getNumJobsToAcquire());
+
+    jobExecutor.freeCapacity = 0;
+    assertEquals(0, runnable.getNumJobsToAcquire());
+  }
+
+  @Test
+  public void testNoWaitIfAllJobsAcquired() {
+    assertEquals(0, runnable.calculateWaitTime(4, acquiredJobs(4, 0)));
+  }
+
+  @Test
+  public void testShortWaitIfSaturated() {
+    assertEquals(runnable.getSaturationWait(), runnable.calculateWaitTime(0, null));
+  }
+
+  @Test
+  public void testWaitProportionalToMissingJobs() {
+    assertEquals(250, runnable.calculateWaitTime(4, acquiredJobs(3, 0)));
+    assertEquals(750, runnable.calculateWaitTime(4, acquiredJobs(1, 0)));
+  }
+
+  @Test
+  public void testIdleWaitIncreasesUpToMaxWait() {
+    runnable.setMaxWait(3000);
+
+    assertEquals(1000, runnable.calculateWaitTime(4, acquiredJobs(0, 0)));
+    assertEquals(2000, runnable.calculateWaitTime(4, acquiredJobs(0, 0)));
+    assertEquals(3000, runnable.calculateWaitTime(4, acquiredJobs(0, 0)));
+    assertEquals(3000, runnable.calculateWaitTime(4, acquiredJobs(0, 0)));
+
+    // acquiring jobs resets the backoff
+    assertEquals(0, runnable.calculateWaitTime(4, acquiredJobs(4, 0)));
+    assertEquals(1000, runnable.calculateWaitTime(4, acquiredJobs(0, 0)));
+  }
+
+  @Test
+  public void testJitteredWaitOnLockFailures() {
+    runnable.setBaseLockFailureWait(100);
+    runnable.setMaxLockFailureWait(400);
+
+    assertWaitBetween(50, 100, runnable.calculateWaitTime(4, acquiredJobs(2, 2)));
+    assertWaitBetween(100, 200, runnable.calculateWaitTime(4, acquiredJobs(2, 2)));
+    assertWaitBetween(200, 400, runnable.calculateWaitTime(4, acquiredJobs(2, 2)));
+    assertWaitBetween(200, 400, runnable.calculateWaitTime(4, acquiredJobs(2, 2)));
+
+    // no more contention resets the backoff
+    assertEquals(0, runnable.calculateWaitTime(4, acquiredJobs(4, 0)));
+    assertWaitBetween(50, 100, runnable.calculateWaitTime(4, acquiredJobs(2, 2)));
+  }
+
+  @Test
+  public void testDefaultAcquireJobsCmdIsReplacedBySizedCmd() {
+    AcquireJobsCmd acquireJobsCmd = new AcquireJobsCmd(jobExecutor);
+    jobExecutor.setAcquireJobsCmd(acquireJobsCmd);
+
+    Command<AcquiredJobs> sizedCmd = jobExecutor.getAcquireJobsCmd(2);
+    assertNotSame(acquireJobsCmd, sizedCmd);
+    assertTrue(sizedCmd instanceof AcquireJobsCmd);
+  }
+
+  @Test
+  public void testCustomAcquireJobsCmdIsKept() {
+    AcquireJobsCmd customCmd = new AcquireJobsCmd(jobExecutor) {
+    };
+    jobExecutor.setAcquireJobsCmd(customCmd);
+
+    assertSame(customCmd, jobExecutor.getAcquireJobsCmd(2));
+  }
+
+  protected void assertWaitBetween(long min, long max, long actual) {
+    assertTrue("expected wait between " + min + " and " + max + " but was " + actual, actual >= min && actual <= max);
+  }
+
+  protected AcquiredJobs acquiredJobs(int numAcquired, int numFailedToLock) {
+    AcquiredJobs acquiredJobs = new AcquiredJobs();
+    for (int i = 0; i < numAcquired + numFailedToLock; i++) {
+      List<String> batch = new ArrayList<String>();
+      batch.add("job" + i);
+      acquiredJobs.addJobIdBatch(batch);
+    }
+    for (int i = 0; i < numFailedToLock; i++) {
+      acquiredJobs.removeJobId("job" + i);
+    }
+    return acquiredJobs;
+  }
+
+  public static class TestJobExecutor extends JobExecutor {
+
+    protected int freeCapacity = Integer.MAX_VALUE;
+
+    public int getFreeCapacity() {
+      return freeCapacity;
+    }
+
+    protected void startExecutingJobs() {
+    }
+
+    protected void stopExecutingJobs() {
+    }
+
+    public void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine) {
+    }
+  }
+
+}
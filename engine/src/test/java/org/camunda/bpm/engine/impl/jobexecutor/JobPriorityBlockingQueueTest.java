@@ -0,0 +1,92 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.junit.Test;
+
+public class JobPriorityBlockingQueueTest {
+
+  @Test
+  public void testHigherPriorityIsTakenFirst() {
+    JobPriorityBlockingQueue queue = new JobPriorityBlockingQueue(10);
+
+    ExecuteJobsRunnable lowPriority = runnable(1);
+    ExecuteJobsRunnable highPriority = runnable(10);
+    ExecuteJobsRunnable defaultPriority = runnable(0);
+
+    queue.offer(lowPriority);
+    queue.offer(defaultPriority);
+    queue.offer(highPriority);
+
+    assertSame(highPriority, queue.poll());
+    assertSame(lowPriority, queue.poll());
+    assertSame(defaultPriority, queue.poll());
+  }
+
+  @Test
+  public void testSamePriorityIsTakenInInsertionOrder() {
+    JobPriorityBlockingQueue queue = new JobPriorityBlockingQueue(10);
+
+    ExecuteJobsRunnable first = runnable(5);
+    ExecuteJobsRunnable second = runnable(5);
+    ExecuteJobsRunnable third = runnable(5);
+
+    queue.offer(third);
+    queue.offer(first);
+    queue.offer(second);
+
+    // runnables are ordered by creation, not by insertion into the queue
+    assertSame(first, queue.poll());
+    assertSame(second, queue.poll());
+    assertSame(third, queue.poll());
+  }
+
+  @Test
+  public void testOfferIsRejectedIfFull() {
+    JobPriorityBlockingQueue queue = new JobPriorityBlockingQueue(2);
+
+    assertTrue(queue.offer(runnable(0)));
+    assertEquals(1, queue.remainingCapacity());
+    assertTrue(queue.offer(runnable(0)));
+    assertEquals(0, queue.remainingCapacity());
+
+    assertFalse(queue.offer(runnable(100)));
+    assertEquals(2, queue.size());
+
+    try {
+      queue.add(runnable(0));
+    }
+    catch (IllegalStateException e) {
+      // expected
+      return;
+    }
+    throw new AssertionError("exception expected");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityMustBePositive() {
+    new JobPriorityBlockingQueue(0);
+  }
+
+  protected ExecuteJobsRunnable runnable(long priority) {
+    return new ExecuteJobsRunnable(Collections.<String>emptyList(), priority, null);
+  }
+
+}
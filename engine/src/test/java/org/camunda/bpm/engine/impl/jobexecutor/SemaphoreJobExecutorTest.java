@@ -0,0 +1,122 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SemaphoreJobExecutorTest {
+
+  protected SemaphoreJobExecutor jobExecutor;
+  protected RecordingThreadFactory threadFactory;
+  protected List<String> rejectedJobIds;
+
+  @Before
+  public void setup() {
+    threadFactory = new RecordingThreadFactory();
+    rejectedJobIds = new ArrayList<String>();
+
+    jobExecutor = new SemaphoreJobExecutor();
+    jobExecutor.setThreadFactory(threadFactory);
+    jobExecutor.setRejectedJobsHandler(new RejectedJobsHandler() {
+      public void jobsRejected(List<String> jobIds, ProcessEngineImpl processEngine) {
+        rejectedJobIds.addAll(jobIds);
+      }
+    });
+    jobExecutor.permits = new SemaphoreJobExecutor.ResizableSemaphore(2);
+    jobExecutor.numPermits = 2;
+  }
+
+  @Test
+  public void testFreeCapacityIsAvailablePermits() {
+    assertEquals(2, jobExecutor.getFreeCapacity());
+
+    jobExecutor.executeJobs(Arrays.asList("1"), null);
+    assertEquals(1, jobExecutor.getFreeCapacity());
+    assertEquals(1, threadFactory.runnables.size());
+  }
+
+  @Test
+  public void testJobsAreRejectedWithoutPermit() {
+    jobExecutor.executeJobs(Arrays.asList("1"), null);
+    jobExecutor.executeJobs(Arrays.asList("2"), null);
+    jobExecutor.executeJobs(Arrays.asList("3"), null);
+
+    assertEquals(2, threadFactory.runnables.size());
+    assertEquals(Arrays.asList("3"), rejectedJobIds);
+    assertEquals(0, jobExecutor.getFreeCapacity());
+  }
+
+  @Test
+  public void testPermitIsReleasedAfterExecution() {
+    jobExecutor.permits.acquireUninterruptibly();
+    jobExecutor.new PermitReleasingRunnable(new Runnable() {
+      public void run() {
+      }
+    }).run();
+
+    assertEquals(2, jobExecutor.getFreeCapacity());
+  }
+
+  @Test
+  public void testPermitsAreLimitedByMaxConcurrentJobs() {
+    jobExecutor.setMaxConcurrentJobs(7);
+    assertEquals(7, jobExecutor.calculatePermits());
+
+    jobExecutor.setMaxConcurrentJobs(0);
+    assertEquals(1, jobExecutor.calculatePermits());
+  }
+
+  @Test
+  public void testPermitsAreUpdatedWhileStarted() {
+    jobExecutor.isActive = true;
+    jobExecutor.executeJobs(Arrays.asList("1"), null);
+
+    // the executed batch keeps its permit
+    jobExecutor.setMaxConcurrentJobs(1);
+    jobExecutor.updatePermits();
+    assertEquals(1, jobExecutor.getNumPermits());
+    assertEquals(0, jobExecutor.getFreeCapacity());
+
+    jobExecutor.setMaxConcurrentJobs(3);
+    jobExecutor.updatePermits();
+    assertEquals(3, jobExecutor.getNumPermits());
+    assertEquals(2, jobExecutor.getFreeCapacity());
+  }
+
+  /**
+   * Creates threads which are never started by the test.
+   */
+  protected static class RecordingThreadFactory implements ThreadFactory {
+
+    protected List<Runnable> runnables = new ArrayList<Runnable>();
+
+    public Thread newThread(Runnable runnable) {
+      runnables.add(runnable);
+      return new Thread() {
+        public synchronized void start() {
+          // do not execute the jobs
+        }
+      };
+    }
+  }
+
+}
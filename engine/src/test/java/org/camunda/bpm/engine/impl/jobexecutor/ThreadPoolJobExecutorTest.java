@@ -0,0 +1,219 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.ThreadPoolJobExecutor.PrefetchedJobBatch;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThreadPoolJobExecutorTest {
+
+  protected ThreadPoolJobExecutor jobExecutor;
+  protected RecordingThreadPoolExecutor threadPoolExecutor;
+  protected RecordingRejectedJobsHandler rejectedJobsHandler;
+
+  @Before
+  public void setup() {
+    threadPoolExecutor = new RecordingThreadPoolExecutor();
+    rejectedJobsHandler = new RecordingRejectedJobsHandler();
+
+    jobExecutor = new RecordingThreadPoolJobExecutor();
+    jobExecutor.setThreadPoolExecutor(threadPoolExecutor);
+    jobExecutor.setRejectedJobsHandler(rejectedJobsHandler);
+    jobExecutor.setPrefetchQueueSize(2);
+    jobExecutor.setLockTimeInMillis(1000);
+
+    ClockUtil.setCurrentTime(new Date(0));
+  }
+
+  @After
+  public void resetClock() {
+    ClockUtil.reset();
+  }
+
+  @Test
+  public void testBatchesArePrefetchedWhileThreadPoolIsSaturated() {
+    jobExecutor.executeJobs(Arrays.asList("1"), null);
+    assertEquals(1, threadPoolExecutor.executed.size());
+
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("2"), null);
+    jobExecutor.executeJobs(Arrays.asList("3"), null);
+    assertEquals(2, jobExecutor.getPrefetchQueueDepth());
+    assertEquals(0, rejectedJobsHandler.rejectedJobIds.size());
+
+    // a free thread takes the prefetched batches in order
+    threadPoolExecutor.saturated = false;
+    jobExecutor.executePrefetchedJobs();
+    assertEquals(0, jobExecutor.getPrefetchQueueDepth());
+    assertEquals(3, threadPoolExecutor.executed.size());
+    assertEquals(Arrays.asList("2"), threadPoolExecutor.executed.get(1).jobIds);
+    assertEquals(Arrays.asList("3"), threadPoolExecutor.executed.get(2).jobIds);
+
+    assertEquals(3, jobExecutor.getExecutedBatches());
+    assertEquals(2.0 / 3, jobExecutor.getPrefetchHitRate(), 0.001);
+  }
+
+  @Test
+  public void testFinishedThreadExecutesPrefetchedBatches() {
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("1"), 0, null);
+    jobExecutor.executeJobs(Arrays.asList("2"), 10, null);
+
+    // the thread pool is still saturated: the thread which finished its work takes the batches itself
+    jobExecutor.executePrefetchedJobsInCurrentThread();
+    assertEquals(0, jobExecutor.getPrefetchQueueDepth());
+    assertEquals(0, threadPoolExecutor.executed.size());
+
+    List<PrefetchedJobBatch> executedInCurrentThread = ((RecordingThreadPoolJobExecutor) jobExecutor).executedInCurrentThread;
+    assertEquals(2, executedInCurrentThread.size());
+    assertEquals(Arrays.asList("2"), executedInCurrentThread.get(0).jobIds);
+    assertEquals(Arrays.asList("1"), executedInCurrentThread.get(1).jobIds);
+    assertEquals(1.0, jobExecutor.getPrefetchHitRate(), 0.001);
+  }
+
+  @Test
+  public void testJobsAreRejectedIfPrefetchQueueIsFull() {
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("1"), null);
+    jobExecutor.executeJobs(Arrays.asList("2"), null);
+    jobExecutor.executeJobs(Arrays.asList("3", "4"), null);
+
+    assertEquals(2, jobExecutor.getPrefetchQueueDepth());
+    assertEquals(Arrays.asList("3", "4"), rejectedJobsHandler.rejectedJobIds);
+    assertEquals(2, jobExecutor.getRejectedJobs());
+  }
+
+  @Test
+  public void testPrefetchedBatchesAreExecutedByPriority() {
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("1"), 0, null);
+    jobExecutor.executeJobs(Arrays.asList("2"), 10, null);
+
+    threadPoolExecutor.saturated = false;
+    jobExecutor.executePrefetchedJobs();
+    assertEquals(2, threadPoolExecutor.executed.size());
+    assertEquals(Arrays.asList("2"), threadPoolExecutor.executed.get(0).jobIds);
+    assertEquals(Arrays.asList("1"), threadPoolExecutor.executed.get(1).jobIds);
+  }
+
+  @Test
+  public void testJobsOfLowestPriorityAreRejectedIfPrefetchQueueIsFull() {
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("1"), 5, null);
+    jobExecutor.executeJobs(Arrays.asList("2"), 0, null);
+    jobExecutor.executeJobs(Arrays.asList("3"), 10, null);
+
+    assertEquals(2, jobExecutor.getPrefetchQueueDepth());
+    assertEquals(Arrays.asList("2"), rejectedJobsHandler.rejectedJobIds);
+  }
+
+  @Test
+  public void testPrefetchedJobsWithExpiredLockAreSkipped() {
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("1", "2"), null);
+
+    ClockUtil.setCurrentTime(new Date(1000));
+    jobExecutor.executeJobs(Arrays.asList("3"), null);
+
+    threadPoolExecutor.saturated = false;
+    jobExecutor.executePrefetchedJobs();
+
+    assertEquals(1, threadPoolExecutor.executed.size());
+    assertEquals(Arrays.asList("3"), threadPoolExecutor.executed.get(0).jobIds);
+    assertEquals(2, jobExecutor.getExpiredJobLocks());
+  }
+
+  @Test
+  public void testFreeCapacityIncludesPrefetchQueue() {
+    // one idle thread, one free slot in the work queue and two in the prefetch queue
+    assertEquals(4, jobExecutor.getFreeCapacity());
+
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("1"), null);
+    assertEquals(2, jobExecutor.getFreeCapacity());
+  }
+
+  @Test
+  public void testPrefetchedJobsAreRejectedOnShutdown() {
+    threadPoolExecutor.saturated = true;
+    jobExecutor.executeJobs(Arrays.asList("1"), null);
+
+    jobExecutor.rejectPrefetchedJobs();
+    assertEquals(0, jobExecutor.getPrefetchQueueDepth());
+    assertEquals(Arrays.asList("1"), rejectedJobsHandler.rejectedJobIds);
+  }
+
+  /**
+   * Records the submitted runnables instead of executing them.
+   */
+  protected static class RecordingThreadPoolExecutor extends ThreadPoolExecutor {
+
+    protected List<ExecuteJobsRunnable> executed = new ArrayList<ExecuteJobsRunnable>();
+    protected boolean saturated = false;
+
+    public RecordingThreadPoolExecutor() {
+      super(1, 1, 0L, TimeUnit.MILLISECONDS, new JobPriorityBlockingQueue(1));
+    }
+
+    public void execute(Runnable command) {
+      if (saturated) {
+        throw new RejectedExecutionException();
+      }
+      executed.add((ExecuteJobsRunnable) command);
+    }
+
+    public int getMaximumPoolSize() {
+      return saturated ? 0 : 1;
+    }
+
+    public int getActiveCount() {
+      return 0;
+    }
+  }
+
+  /**
+   * Records the batches executed in the current thread instead of executing them.
+   */
+  protected static class RecordingThreadPoolJobExecutor extends ThreadPoolJobExecutor {
+
+    protected List<PrefetchedJobBatch> executedInCurrentThread = new ArrayList<PrefetchedJobBatch>();
+
+    protected void executeInCurrentThread(PrefetchedJobBatch batch) {
+      executedInCurrentThread.add(batch);
+    }
+  }
+
+  protected static class RecordingRejectedJobsHandler implements RejectedJobsHandler {
+
+    protected List<String> rejectedJobIds = new ArrayList<String>();
+
+    public void jobsRejected(List<String> jobIds, ProcessEngineImpl processEngine) {
+      rejectedJobIds.addAll(jobIds);
+    }
+  }
+
+}
@@ -0,0 +1,106 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.Test;
+
+public class TimeOrderedUuidGeneratorTest {
+
+  @Test
+  public void testIdsAreVersion7Uuids() {
+    UUID uuid = UUID.fromString(new TimeOrderedUuidGenerator().getNextId());
+
+    assertEquals(7, uuid.version());
+    assertEquals(2, uuid.variant());
+  }
+
+  @Test
+  public void testIdsIncreaseMonotonically() {
+    TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator();
+
+    String previousId = generator.getNextId();
+    // more ids than fit into the sequence of a single millisecond
+    for (int i = 0; i < 10000; i++) {
+      String id = generator.getNextId();
+      assertTrue(id + " is not greater than " + previousId, id.compareTo(previousId) > 0);
+      previousId = id;
+    }
+  }
+
+  @Test
+  public void testIdsIncreaseIfClockIsSetBack() {
+    TestTimeOrderedUuidGenerator generator = new TestTimeOrderedUuidGenerator();
+
+    generator.currentTime = 10000;
+    String id1 = generator.getNextId();
+
+    generator.currentTime = 5000;
+    String id2 = generator.getNextId();
+
+    assertTrue(id2.compareTo(id1) > 0);
+  }
+
+  @Test
+  public void testIdsOfConcurrentThreadsAreUnique() throws Exception {
+    final TimeOrderedUuidGenerator generator = new TimeOrderedUuidGenerator();
+    final Set<String> ids = Collections.synchronizedSet(new HashSet<String>());
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 8; i++) {
+      threads.add(new Thread() {
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            ids.add(generator.getNextId());
+          }
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(8000, ids.size());
+  }
+
+  @Test
+  public void testGeneratorsAreDistinguished() {
+    TestTimeOrderedUuidGenerator generator1 = new TestTimeOrderedUuidGenerator();
+    TestTimeOrderedUuidGenerator generator2 = new TestTimeOrderedUuidGenerator();
+
+    assertFalse(generator1.getNextId().equals(generator2.getNextId()));
+  }
+
+  protected static class TestTimeOrderedUuidGenerator extends TimeOrderedUuidGenerator {
+
+    protected long currentTime = 1000;
+
+    protected long currentTimeMillis() {
+      return currentTime;
+    }
+  }
+
+}
@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConcurrentLruCacheTest {
+
+  protected ConcurrentLruCache<String, String> cache;
+
+  @Before
+  public void setup() {
+    cache = new ConcurrentLruCache<String, String>(2);
+  }
+
+  @Test
+  public void testHitsAndMisses() {
+    cache.put("a", "1");
+
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+
+    assertEquals(1, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+  }
+
+  @Test
+  public void testLeastRecentlyUsedEntryIsEvicted() {
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    // access a so that b is the least recently used entry
+    cache.get("a");
+    cache.put("c", "3");
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictionCount());
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals("3", cache.get("c"));
+  }
+
+  @Test
+  public void testRemoveAndClear() {
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    cache.remove("a");
+    assertNull(cache.get("a"));
+    assertEquals(1, cache.size());
+
+    cache.clear();
+    assertTrue(cache.isEmpty());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCapacityMustBePositive() {
+    new ConcurrentLruCache<String, String>(0);
+  }
+
+}
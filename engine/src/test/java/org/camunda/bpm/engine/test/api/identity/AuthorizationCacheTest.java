@@ -0,0 +1,138 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.identity;
+
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_REVOKE;
+import static org.camunda.bpm.engine.authorization.Permissions.ALL;
+import static org.camunda.bpm.engine.authorization.Permissions.READ;
+
+import java.util.Arrays;
+
+import org.camunda.bpm.engine.authorization.Authorization;
+import org.camunda.bpm.engine.impl.identity.AuthorizationCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+
+public class AuthorizationCacheTest extends PluggableProcessEngineTestCase {
+
+  protected TestResource resource = new TestResource("resource1", 100);
+  protected AuthorizationCache authorizationCache;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.setAuthorizationCacheEnabled(true);
+    authorizationCache = processEngineConfiguration.getAuthorizationCache();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setAuthorizationCacheEnabled(false);
+    for (Authorization authorization : authorizationService.createAuthorizationQuery().list()) {
+      authorizationService.deleteAuthorization(authorization.getId());
+    }
+    super.tearDown();
+  }
+
+  public void testPermissionSetIsCached() {
+    createGrantAuthorization("jonny", null, "someId");
+
+    assertTrue(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+    long hitCount = authorizationCache.getHitCount();
+
+    assertTrue(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+    assertFalse(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someOtherId"));
+    assertEquals(hitCount + 2, authorizationCache.getHitCount());
+  }
+
+  public void testGroupOrderDoesNotMatter() {
+    createGrantAuthorization(null, "sales", "someId");
+
+    assertTrue(authorizationService.isUserAuthorized("jonny", Arrays.asList("sales", "marketing"), READ, resource, "someId"));
+    long hitCount = authorizationCache.getHitCount();
+
+    assertTrue(authorizationService.isUserAuthorized("jonny", Arrays.asList("marketing", "sales"), READ, resource, "someId"));
+    assertEquals(hitCount + 1, authorizationCache.getHitCount());
+  }
+
+  public void testSaveAuthorizationInvalidatesCache() {
+    Authorization authorization = createGrantAuthorization("jonny", null, "someId");
+    assertTrue(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+
+    authorization.removePermission(READ);
+    authorizationService.saveAuthorization(authorization);
+    assertFalse(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+
+    Authorization revoke = authorizationService.createNewAuthorization(AUTH_TYPE_REVOKE);
+    revoke.setUserId("jonny");
+    revoke.setResource(resource);
+    revoke.setResourceId("someOtherId");
+    revoke.removePermission(READ);
+    authorizationService.saveAuthorization(revoke);
+    assertFalse(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someOtherId"));
+  }
+
+  public void testDeleteAuthorizationInvalidatesCache() {
+    Authorization authorization = createGrantAuthorization("jonny", null, "someId");
+    assertTrue(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+
+    authorizationService.deleteAuthorization(authorization.getId());
+    assertFalse(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+  }
+
+  public void testRevisionInvalidatesCache() {
+    assertFalse(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+
+    // another process engine inserts an authorization: bypass the authorization manager
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        AuthorizationEntity authorization = new AuthorizationEntity(AUTH_TYPE_GRANT);
+        authorization.setUserId("jonny");
+        authorization.setResource(resource);
+        authorization.setResourceId("someId");
+        authorization.addPermission(ALL);
+        commandContext.getDbEntityManager().insert(authorization);
+        return null;
+      }
+    });
+
+    // the cached permission set is still used
+    assertFalse(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+
+    // the other process engine increments the revision
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getDbEntityManager().update(PropertyEntity.class, "incrementAuthorizationRevision", null);
+        return null;
+      }
+    });
+
+    assertTrue(authorizationService.isUserAuthorized("jonny", null, READ, resource, "someId"));
+  }
+
+  protected Authorization createGrantAuthorization(String userId, String groupId, String resourceId) {
+    Authorization authorization = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    authorization.setUserId(userId);
+    authorization.setGroupId(groupId);
+    authorization.setResource(resource);
+    authorization.setResourceId(resourceId);
+    authorization.addPermission(READ);
+    authorizationService.saveAuthorization(authorization);
+    return authorization;
+  }
+
+}
@@ -0,0 +1,106 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.identity;
+
+import static org.camunda.bpm.engine.authorization.Authorization.ANY;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GLOBAL;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_REVOKE;
+import static org.camunda.bpm.engine.authorization.Permissions.READ;
+import static org.camunda.bpm.engine.authorization.Resources.USER;
+
+import org.camunda.bpm.engine.authorization.Authorization;
+import org.camunda.bpm.engine.identity.User;
+
+/**
+ * <p>Runs the query authorization checks of the {@link IdentityServiceAuthorizationsTest}
+ * with prefetched query authorizations.</p>
+ */
+public class IdentityServiceAuthorizationsPrefetchTest extends IdentityServiceAuthorizationsTest {
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.setQueryAuthorizationPrefetchEnabled(true);
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setQueryAuthorizationPrefetchEnabled(false);
+    super.tearDown();
+  }
+
+  public void testUserQueryAuthorizationsSpecificResources() {
+
+    String authUserId = "jonny2";
+    identityService.setAuthenticatedUserId(authUserId);
+
+    for (String userId : new String[] { "jonny1", "jonny3", "jonny4" }) {
+      User user = identityService.newUser(userId);
+      identityService.saveUser(user);
+    }
+
+    // no-one has any permissions on users
+    Authorization basePerms = authorizationService.createNewAuthorization(AUTH_TYPE_GLOBAL);
+    basePerms.setResource(USER);
+    basePerms.setResourceId(ANY);
+    authorizationService.saveAuthorization(basePerms);
+
+    // jonny2 may read jonny1 and jonny3
+    grantRead(authUserId, "jonny1");
+    grantRead(authUserId, "jonny3");
+
+    processEngineConfiguration.setAuthorizationEnabled(true);
+
+    assertEquals(2, identityService.createUserQuery().count());
+    assertEquals(2, identityService.createUserQuery().list().size());
+    assertEquals(1, identityService.createUserQuery().userId("jonny3").count());
+    assertEquals(0, identityService.createUserQuery().userId("jonny4").count());
+
+    // jonny2 may read all users but jonny3
+    processEngineConfiguration.setAuthorizationEnabled(false);
+    basePerms = authorizationService.createAuthorizationQuery().resourceType(USER).userIdIn("*").singleResult();
+    basePerms.addPermission(READ);
+    authorizationService.saveAuthorization(basePerms);
+
+    Authorization revoke = authorizationService.createNewAuthorization(AUTH_TYPE_REVOKE);
+    revoke.setUserId(authUserId);
+    revoke.setResource(USER);
+    revoke.setResourceId("jonny3");
+    revoke.removePermission(READ);
+    authorizationService.saveAuthorization(revoke);
+    processEngineConfiguration.setAuthorizationEnabled(true);
+
+    // the user grant for jonny3 takes precedence over the revoke
+    assertEquals(3, identityService.createUserQuery().count());
+
+    processEngineConfiguration.setAuthorizationEnabled(false);
+    Authorization grant = authorizationService.createAuthorizationQuery().resourceType(USER).userIdIn(authUserId).resourceId("jonny3").authorizationType(AUTH_TYPE_GRANT).singleResult();
+    authorizationService.deleteAuthorization(grant.getId());
+    processEngineConfiguration.setAuthorizationEnabled(true);
+
+    assertEquals(2, identityService.createUserQuery().count());
+    assertEquals(0, identityService.createUserQuery().userId("jonny3").count());
+    assertEquals(1, identityService.createUserQuery().userId("jonny4").count());
+  }
+
+  protected void grantRead(String userId, String resourceId) {
+    Authorization grant = authorizationService.createNewAuthorization(AUTH_TYPE_GRANT);
+    grant.setUserId(userId);
+    grant.setResource(USER);
+    grant.setResourceId(resourceId);
+    grant.addPermission(READ);
+    authorizationService.saveAuthorization(grant);
+  }
+
+}
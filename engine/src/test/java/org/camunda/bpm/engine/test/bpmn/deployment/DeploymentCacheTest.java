@@ -0,0 +1,74 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.deployment;
+
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.repository.ProcessDefinition;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+
+public class DeploymentCacheTest extends PluggableProcessEngineTestCase {
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testDiscardedProcessDefinitionIsParsedAgain() {
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    long parseCount = deploymentCache.getParseCount();
+
+    deploymentCache.discardProcessDefinitionCache();
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    assertEquals(parseCount + 1, deploymentCache.getParseCount());
+    assertFalse(deploymentCache.getCachedProcessDefinitions().isEmpty());
+
+    // the definition is found in the cache now
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    assertEquals(parseCount + 1, deploymentCache.getParseCount());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testModelInstanceIsDiscardedIndependently() {
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery().singleResult();
+
+    BpmnModelInstance modelInstance = repositoryService.getBpmnModelInstance(processDefinition.getId());
+    assertNotNull(modelInstance);
+
+    deploymentCache.discardBpmnModelInstanceCache();
+    assertNotNull(deploymentCache.getCachedProcessDefinitions().get(processDefinition.getId()));
+
+    BpmnModelInstance reparsedModelInstance = repositoryService.getBpmnModelInstance(processDefinition.getId());
+    assertNotNull(reparsedModelInstance);
+    assertNotSame(modelInstance, reparsedModelInstance);
+  }
+
+  @SuppressWarnings("deprecation")
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml")
+  public void testProcessDefinitionCacheMapView() {
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    ProcessDefinition processDefinition = repositoryService.createProcessDefinitionQuery().singleResult();
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    Map<String, ProcessDefinitionEntity> processDefinitionCache = deploymentCache.getProcessDefinitionCache();
+    assertTrue(processDefinitionCache.containsKey(processDefinition.getId()));
+    assertTrue(processDefinitionCache.keySet().contains(processDefinition.getId()));
+
+    // removing an entry through the map removes it from the cache
+    processDefinitionCache.remove(processDefinition.getId());
+    assertNull(deploymentCache.getCachedProcessDefinitions().get(processDefinition.getId()));
+  }
+
+}
@@ -13,15 +13,22 @@
 
 package org.camunda.bpm.engine.test.bpmn.event.signal;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 
 import org.camunda.bpm.engine.impl.EventSubscriptionQueryImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.SignalEventSubscriptionEntity;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.EventSubscription;
 import org.camunda.bpm.engine.runtime.ExecutionQuery;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.runtime.SignalDeliveryProgress;
 import org.camunda.bpm.engine.task.Task;
 import org.camunda.bpm.engine.task.TaskQuery;
 import org.camunda.bpm.engine.test.Deployment;
@@ -326,4 +333,112 @@ public class SignalEventTest extends PluggableProcessEngineTestCase {
     assertEquals(1, executionQuery.count());
   }
 
+  @Deployment(resources={"org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTests.catchAlertSignal.bpmn20.xml"})
+  public void testSignalDeliveredInChunks() {
+    for (int i = 0; i < 5; i++) {
+      runtimeService.startProcessInstanceByKey("catchSignal");
+    }
+    assertEquals(5, createEventSubscriptionQuery().count());
+
+    SignalDeliveryProgress progress = runtimeService.signalEventReceivedInChunks("alert", null, 2);
+
+    assertTrue(progress.isCompleted());
+    assertEquals(5, progress.getDeliveredCount());
+    assertEquals(3, progress.getChunkCount());
+    // the delivery is bounded by the subscriptions existing at its start
+    assertEquals(5, progress.getSubscriptionIds().size());
+    assertEquals(progress.getSubscriptionIds().get(4), progress.getLastSubscriptionId());
+
+    assertEquals(0, createEventSubscriptionQuery().count());
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Deployment(resources={"org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTests.catchAlertSignal.bpmn20.xml"})
+  public void testSignalDeliveredInChunksWithoutSubscriptions() {
+    SignalDeliveryProgress progress = runtimeService.signalEventReceivedInChunks("alert", null, 2);
+
+    assertTrue(progress.isCompleted());
+    assertEquals(0, progress.getDeliveredCount());
+    assertNull(progress.getLastSubscriptionId());
+    assertTrue(progress.getSubscriptionIds().isEmpty());
+  }
+
+  @Deployment
+  public void testSignalDeliveredInChunksInCreationOrder() {
+    runtimeService.startProcessInstanceByKey("catchSignalTwice");
+    runtimeService.startProcessInstanceByKey("catchSignalTwice");
+
+    // ids which are ordered differently as numbers and as text
+    replaceEventSubscriptionIds("999", "1000");
+
+    SignalDeliveryProgress progress = runtimeService.signalEventReceivedInChunks("alert", null, 1);
+
+    // the subscriptions created by the delivery do not receive the signal
+    assertTrue(progress.isCompleted());
+    assertEquals(Arrays.asList("999", "1000"), progress.getSubscriptionIds());
+    assertEquals(2, progress.getDeliveredCount());
+    assertEquals(2, progress.getChunkCount());
+    assertEquals("1000", progress.getLastSubscriptionId());
+
+    List<EventSubscription> subscriptions = createEventSubscriptionQuery().list();
+    assertEquals(2, subscriptions.size());
+    for (EventSubscription subscription : subscriptions) {
+      assertEquals("secondSignalEvent", subscription.getActivityId());
+    }
+  }
+
+  /**
+   * Replaces the signal subscriptions by subscriptions with the given ids, which are
+   * created in the given order.
+   */
+  protected void replaceEventSubscriptionIds(final String... ids) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        List<SignalEventSubscriptionEntity> subscriptions = commandContext.getEventSubscriptionManager()
+            .findSignalEventSubscriptionsByEventName("alert");
+        assertEquals(ids.length, subscriptions.size());
+
+        long created = ClockUtil.getCurrentTime().getTime();
+        for (int i = 0; i < ids.length; i++) {
+          SignalEventSubscriptionEntity subscription = subscriptions.get(i);
+          subscription.delete();
+
+          SignalEventSubscriptionEntity replacement = new SignalEventSubscriptionEntity(subscription.getExecution());
+          replacement.setId(ids[i]);
+          replacement.setEventName(subscription.getEventName());
+          replacement.setConfiguration(subscription.getConfiguration());
+          replacement.setCreated(new Date(created + i * 1000));
+          replacement.insert();
+        }
+        return null;
+      }
+    });
+  }
+
+  @Deployment
+  public void testFailingSubscriptionIsSkipped() {
+    for (int i = 0; i < 3; i++) {
+      runtimeService.startProcessInstanceByKey("catchSignal");
+    }
+    ProcessInstance failingInstance = runtimeService.startProcessInstanceByKey("catchSignal",
+        Collections.<String, Object>singletonMap("fail", true));
+
+    SignalDeliveryProgress progress = runtimeService.signalEventReceivedInChunks("alert", null, 2);
+
+    // the failing subscription does not block the delivery to the other subscriptions
+    assertTrue(progress.isCompleted());
+    assertEquals(3, progress.getDeliveredCount());
+
+    EventSubscription failedSubscription = createEventSubscriptionQuery().singleResult();
+    assertEquals(failingInstance.getId(), failedSubscription.getProcessInstanceId());
+    assertEquals(Collections.singletonList(failedSubscription.getId()), progress.getFailedSubscriptionIds());
+
+    // the signal can be delivered to the failed subscription again
+    runtimeService.setVariable(failingInstance.getId(), "fail", false);
+    runtimeService.signalEventReceived("alert", failedSubscription.getExecutionId());
+
+    assertEquals(0, createEventSubscriptionQuery().count());
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
 }
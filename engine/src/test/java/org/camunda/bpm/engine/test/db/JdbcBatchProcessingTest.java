@@ -0,0 +1,88 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.task.Task;
+
+public class JdbcBatchProcessingTest extends PluggableProcessEngineTestCase {
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.getDbSqlSessionFactory().setJdbcBatchProcessing(true);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.getDbSqlSessionFactory().setJdbcBatchProcessing(false);
+    super.tearDown();
+  }
+
+  public void testInsertUpdateDelete() {
+    List<String> taskIds = new ArrayList<String>();
+    for (int i = 0; i < 10; i++) {
+      Task task = taskService.newTask();
+      task.setName("task" + i);
+      taskService.saveTask(task);
+      taskIds.add(task.getId());
+    }
+    assertEquals(10, taskService.createTaskQuery().count());
+
+    for (String taskId : taskIds) {
+      taskService.setAssignee(taskId, "kermit");
+    }
+    assertEquals(10, taskService.createTaskQuery().taskAssignee("kermit").count());
+
+    taskService.deleteTasks(taskIds, true);
+    assertEquals(0, taskService.createTaskQuery().count());
+  }
+
+  public void testRevisionUpdatedOnSave() {
+    Task task = taskService.newTask();
+    taskService.saveTask(task);
+    assertEquals(1, ((TaskEntity) task).getRevision());
+
+    task.setDescription("first modification");
+    taskService.saveTask(task);
+    assertEquals(2, ((TaskEntity) task).getRevision());
+
+    taskService.deleteTask(task.getId(), true);
+  }
+
+  public void testOptimisticLockingThrownOnMultipleUpdates() {
+    Task task = taskService.newTask();
+    taskService.saveTask(task);
+    String taskId = task.getId();
+
+    Task task1 = taskService.createTaskQuery().taskId(taskId).singleResult();
+    Task task2 = taskService.createTaskQuery().taskId(taskId).singleResult();
+
+    task1.setDescription("first modification");
+    taskService.saveTask(task1);
+
+    task2.setDescription("second modification");
+    try {
+      taskService.saveTask(task2);
+      fail("should get an exception here as the task was modified by someone else.");
+    } catch (OptimisticLockingException expected) {
+      // the failed row is detected from the batch update counts
+    }
+
+    taskService.deleteTask(taskId, true);
+  }
+
+}
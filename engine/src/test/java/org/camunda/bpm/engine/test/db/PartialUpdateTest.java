@@ -0,0 +1,347 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.delegate.ProcessEngineVariableType;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.SuspensionState;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.BitMaskUtil;
+import org.camunda.bpm.engine.runtime.CaseInstance;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.DelegationState;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+/**
+ * Each mapping of a partial update is tested by changing every tracked property
+ * of the entity in one command and reading it back in another one.
+ */
+public class PartialUpdateTest extends PluggableProcessEngineTestCase {
+
+  protected static final String TEST_PROCESS = "org/camunda/bpm/engine/test/db/PartialUpdateTest.testProcess.bpmn20.xml";
+  protected static final String ASYNC_PROCESS = "org/camunda/bpm/engine/test/db/PartialUpdateTest.asyncProcess.bpmn20.xml";
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+  protected static final String ONE_TASK_CASE = "org/camunda/bpm/engine/test/api/cmmn/oneTaskCase.cmmn";
+
+  /** without milliseconds, which are not stored by all databases */
+  protected static final Date DATE = new Date(1400000000000L);
+
+  protected static final int SUSPENDED = SuspensionState.SUSPENDED.getStateCode();
+  protected static final int ACTIVE = SuspensionState.ACTIVE.getStateCode();
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.getDbSqlSessionFactory().setDbPartialUpdateEnabled(true);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.getDbSqlSessionFactory().setDbPartialUpdateEnabled(false);
+    super.tearDown();
+  }
+
+  public void testUnchangedColumnsArePreserved() {
+    Task task = taskService.newTask();
+    task.setName("aName");
+    task.setDescription("aDescription");
+    task.setPriority(42);
+    taskService.saveTask(task);
+
+    // only the assignee is written
+    taskService.setAssignee(task.getId(), "kermit");
+
+    task = taskService.createTaskQuery().taskId(task.getId()).singleResult();
+    assertEquals("kermit", task.getAssignee());
+    assertEquals("aName", task.getName());
+    assertEquals("aDescription", task.getDescription());
+    assertEquals(42, task.getPriority());
+
+    taskService.deleteTask(task.getId(), true);
+  }
+
+  public void testOptimisticLockingOnPartialUpdate() {
+    Task task = taskService.newTask();
+    taskService.saveTask(task);
+    String taskId = task.getId();
+
+    Task task1 = taskService.createTaskQuery().taskId(taskId).singleResult();
+    Task task2 = taskService.createTaskQuery().taskId(taskId).singleResult();
+
+    task1.setDescription("first modification");
+    taskService.saveTask(task1);
+
+    // the second modification changes a different column but must still fail
+    task2.setName("second modification");
+    try {
+      taskService.saveTask(task2);
+      fail("should get an exception here as the task was modified by someone else.");
+    } catch (OptimisticLockingException expected) {
+      // expected
+    }
+
+    taskService.deleteTask(taskId, true);
+  }
+
+  @Deployment(resources = TEST_PROCESS)
+  public void testVariableAndExecutionUpdate() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "aValue");
+
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "anotherValue");
+    assertEquals("anotherValue", runtimeService.getVariable(processInstance.getId(), "aVariable"));
+
+    runtimeService.suspendProcessInstanceById(processInstance.getId());
+    assertTrue(runtimeService.createProcessInstanceQuery().singleResult().isSuspended());
+
+    runtimeService.activateProcessInstanceById(processInstance.getId());
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+
+    assertProcessEnded(processInstance.getId());
+  }
+
+  @Deployment(resources = {TEST_PROCESS, ONE_TASK_CASE})
+  public void testTaskUpdate() {
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+    final CaseInstance caseInstance = caseService.createCaseInstanceByKey("oneTaskCase");
+
+    Task parentTask = taskService.newTask();
+    taskService.saveTask(parentTask);
+    final String parentTaskId = parentTask.getId();
+
+    Task task = taskService.newTask();
+    taskService.saveTask(task);
+    final String taskId = task.getId();
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        TaskEntity task = commandContext.getTaskManager().findTaskById(taskId);
+        task.setAssigneeWithoutCascade("kermit");
+        task.setOwnerWithoutCascade("gonzo");
+        task.setNameWithoutCascade("aName");
+        task.setPriorityWithoutCascade(42);
+        task.setExecutionId(processInstance.getId());
+        task.setProcessDefinitionId(processInstance.getProcessDefinitionId());
+        task.setCaseExecutionId(caseInstance.getId());
+        task.setCaseInstanceIdWithoutCascade(caseInstance.getId());
+        task.setCaseDefinitionId(caseInstance.getCaseDefinitionId());
+        task.setCreateTime(DATE);
+        task.setDescriptionWithoutCascade("aDescription");
+        task.setDueDateWithoutCascade(DATE);
+        task.setFollowUpDateWithoutCascade(DATE);
+        task.setParentTaskIdWithoutCascade(parentTaskId);
+        task.setDelegationStateWithoutCascade(DelegationState.PENDING);
+        task.setSuspensionState(SUSPENDED);
+        return null;
+      }
+    });
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        TaskEntity task = commandContext.getTaskManager().findTaskById(taskId);
+        assertEquals("kermit", task.getAssignee());
+        assertEquals("gonzo", task.getOwner());
+        assertEquals("aName", task.getName());
+        assertEquals(42, task.getPriority());
+        assertEquals(processInstance.getId(), task.getExecutionId());
+        assertEquals(processInstance.getProcessDefinitionId(), task.getProcessDefinitionId());
+        assertEquals(caseInstance.getId(), task.getCaseExecutionId());
+        assertEquals(caseInstance.getId(), task.getCaseInstanceId());
+        assertEquals(caseInstance.getCaseDefinitionId(), task.getCaseDefinitionId());
+        assertEquals(DATE, task.getCreateTime());
+        assertEquals("aDescription", task.getDescription());
+        assertEquals(DATE, task.getDueDate());
+        assertEquals(DATE, task.getFollowUpDate());
+        assertEquals(parentTaskId, task.getParentTaskId());
+        assertEquals(DelegationState.PENDING, task.getDelegationState());
+        assertEquals(SUSPENDED, task.getSuspensionState());
+
+        // detach the task again so that it can be deleted
+        task.setExecutionId(null);
+        task.setProcessDefinitionId(null);
+        task.setCaseExecutionId(null);
+        task.setCaseInstanceIdWithoutCascade(null);
+        task.setCaseDefinitionId(null);
+        task.setParentTaskIdWithoutCascade(null);
+        task.setSuspensionState(ACTIVE);
+        return null;
+      }
+    });
+
+    taskService.deleteTask(taskId, true);
+    taskService.deleteTask(parentTaskId, true);
+  }
+
+  @Deployment(resources = {TEST_PROCESS, ONE_TASK_PROCESS})
+  public void testExecutionUpdate() {
+    final String processInstanceId = runtimeService.startProcessInstanceByKey("testProcess").getId();
+    final ProcessInstance otherProcessInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    final Object[] originalState = new Object[1];
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+        assertFalse(BitMaskUtil.isBitOn(execution.getCachedEntityState(), ExecutionEntity.VARIABLES_STATE_BIT));
+        originalState[0] = execution.getPersistentStateSnapshot();
+
+        // sets the variables bit of the cached entity state
+        execution.setVariableLocal("aVariable", "aValue");
+
+        execution.setProcessDefinitionId(otherProcessInstance.getProcessDefinitionId());
+        execution.setActivityId("anActivity");
+        execution.setActivityInstanceId("anActivityInstance");
+        execution.setActive(!execution.isActive());
+        execution.setConcurrent(!execution.isConcurrent());
+        execution.setScope(!execution.isScope());
+        execution.setEventScope(!execution.isEventScope());
+        execution.setParentId(otherProcessInstance.getId());
+        execution.setSuperExecutionId(otherProcessInstance.getId());
+        execution.setSuspensionState(SUSPENDED);
+        return null;
+      }
+    });
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        Object[] original = (Object[]) originalState[0];
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+        assertEquals(otherProcessInstance.getProcessDefinitionId(), execution.getProcessDefinitionId());
+        assertEquals("anActivity", execution.getActivityId());
+        assertEquals("anActivityInstance", execution.getActivityInstanceId());
+        assertEquals(!(Boolean) original[ExecutionEntity.IS_ACTIVE_PROPERTY], execution.isActive());
+        assertEquals(!(Boolean) original[ExecutionEntity.IS_CONCURRENT_PROPERTY], execution.isConcurrent());
+        assertEquals(!(Boolean) original[ExecutionEntity.IS_SCOPE_PROPERTY], execution.isScope());
+        assertEquals(!(Boolean) original[ExecutionEntity.IS_EVENT_SCOPE_PROPERTY], execution.isEventScope());
+        assertEquals(otherProcessInstance.getId(), execution.getParentId());
+        assertEquals(otherProcessInstance.getId(), execution.getSuperExecutionId());
+        assertEquals(SUSPENDED, execution.getSuspensionState());
+        assertTrue(BitMaskUtil.isBitOn(execution.getCachedEntityStateRaw(), ExecutionEntity.VARIABLES_STATE_BIT));
+
+        // restore the execution so that the process instance can be deleted
+        execution.setProcessDefinitionId((String) original[ExecutionEntity.PROCESS_DEFINITION_ID_PROPERTY]);
+        execution.setActivityId((String) original[ExecutionEntity.ACTIVITY_ID_PROPERTY]);
+        execution.setActivityInstanceId((String) original[ExecutionEntity.ACTIVITY_INSTANCE_ID_PROPERTY]);
+        execution.setActive((Boolean) original[ExecutionEntity.IS_ACTIVE_PROPERTY]);
+        execution.setConcurrent((Boolean) original[ExecutionEntity.IS_CONCURRENT_PROPERTY]);
+        execution.setScope((Boolean) original[ExecutionEntity.IS_SCOPE_PROPERTY]);
+        execution.setEventScope((Boolean) original[ExecutionEntity.IS_EVENT_SCOPE_PROPERTY]);
+        execution.setParentId(null);
+        execution.setSuperExecutionId(null);
+        execution.setSuspensionState(ACTIVE);
+        return null;
+      }
+    });
+
+    assertEquals("aValue", runtimeService.getVariable(processInstanceId, "aVariable"));
+  }
+
+  @Deployment(resources = {ASYNC_PROCESS, TEST_PROCESS})
+  public void testJobUpdate() {
+    runtimeService.startProcessInstanceByKey("asyncProcess");
+    final ProcessInstance otherProcessInstance = runtimeService.startProcessInstanceByKey("testProcess");
+    Job job = managementService.createJobQuery().singleResult();
+    final String jobId = job.getId();
+    final String executionId = job.getExecutionId();
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        JobEntity job = commandContext.getJobManager().findJobById(jobId);
+        job.setExecutionId(otherProcessInstance.getId());
+        job.setLockOwner("aLockOwner");
+        job.setLockExpirationTime(DATE);
+        job.setRetriesFromPersistence(5);
+        job.setDuedate(DATE);
+        job.setExceptionMessage("anExceptionMessage");
+        job.setSuspensionState(SUSPENDED);
+        job.setExceptionStacktrace("aStacktrace");
+        job.setPriority(42);
+        return null;
+      }
+    });
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        JobEntity job = commandContext.getJobManager().findJobById(jobId);
+        assertEquals(otherProcessInstance.getId(), job.getExecutionId());
+        assertEquals("aLockOwner", job.getLockOwner());
+        assertEquals(DATE, job.getLockExpirationTime());
+        assertEquals(5, job.getRetries());
+        assertEquals(DATE, job.getDuedate());
+        assertEquals("anExceptionMessage", job.getExceptionMessage());
+        assertEquals(SUSPENDED, job.getSuspensionState());
+        assertNotNull(job.getExceptionByteArrayId());
+        assertEquals("aStacktrace", job.getExceptionStacktrace());
+        assertEquals(42, job.getPriority());
+
+        // restore the job so that the process instances can be deleted
+        job.setExecutionId(executionId);
+        job.setLockOwner(null);
+        job.setLockExpirationTime(null);
+        job.setSuspensionState(ACTIVE);
+        return null;
+      }
+    });
+  }
+
+  @Deployment(resources = TEST_PROCESS)
+  public void testVariableInstanceUpdate() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "aValue");
+    final String variableId = runtimeService.createVariableInstanceQuery().singleResult().getId();
+    final byte[] bytes = "someBytes".getBytes();
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        VariableInstanceEntity variable = commandContext.getDbEntityManager().selectById(VariableInstanceEntity.class, variableId);
+        variable.setType(processEngineConfiguration.getVariableTypes().getVariableType(ProcessEngineVariableType.BYTES.getName()));
+        variable.setLongValue(42L);
+        variable.setDoubleValue(4.5);
+        variable.setTextValue("aText");
+        variable.setTextValue2("aText2");
+        variable.setByteArrayValue(bytes);
+        variable.setDataFormatId("aDataFormat");
+        return null;
+      }
+    });
+
+    execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        VariableInstanceEntity variable = commandContext.getDbEntityManager().selectById(VariableInstanceEntity.class, variableId);
+        assertEquals(ProcessEngineVariableType.BYTES.getName(), variable.getTypeName());
+        assertEquals(Long.valueOf(42L), variable.getLongValue());
+        assertEquals(Double.valueOf(4.5), variable.getDoubleValue());
+        assertEquals("aText", variable.getTextValue());
+        assertEquals("aText2", variable.getTextValue2());
+        assertNotNull(variable.getByteArrayValueId());
+        assertTrue(Arrays.equals(bytes, variable.getByteArrayValue().getBytes()));
+        assertEquals("aDataFormat", variable.getDataFormatId());
+        return null;
+      }
+    });
+  }
+
+  protected void execute(Command<Void> command) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(command);
+  }
+
+}
@@ -0,0 +1,81 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.el;
+
+import org.camunda.bpm.engine.delegate.Expression;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.juel.ConcurrentCache;
+import org.camunda.bpm.engine.impl.juel.Tree;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.test.el.util.TestVariableScope;
+
+/**
+ * <p>Ensures that the caches of parsed expressions and resolved methods
+ * do not change the result of an evaluation.</p>
+ */
+public class ExpressionCachingTest extends PluggableProcessEngineTestCase {
+
+  @SuppressWarnings("unchecked")
+  protected <T> T executeExpression(String expression, final String variableName, final Object value) {
+
+    final TestVariableScope varScope = new TestVariableScope();
+
+    final Expression compiledExpression = processEngineConfiguration.getExpressionManager()
+      .createExpression(expression);
+
+    return (T) processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new Command<Object>() {
+        public Object execute(CommandContext commandContext) {
+          varScope.setVariable(variableName, value);
+          return compiledExpression.getValue(varScope);
+        }
+      });
+  }
+
+  public void testMethodsResolvedByParameterCount() {
+    assertEquals("bcdef", executeExpression("${ s.substring(1) }", "s", "abcdef"));
+    assertEquals("bc", executeExpression("${ s.substring(1, 3) }", "s", "abcdef"));
+    assertEquals("bcdef", executeExpression("${ s.substring(1) }", "s", "abcdef"));
+  }
+
+  public void testMethodsResolvedByClass() {
+    assertEquals("abc", executeExpression("${ v.toString() }", "v", "abc"));
+    assertEquals("5", executeExpression("${ v.toString() }", "v", 5));
+    assertEquals(Integer.valueOf(3), executeExpression("${ v.length() }", "v", "abc"));
+    assertEquals(Integer.valueOf(5), executeExpression("${ v.intValue() }", "v", 5));
+  }
+
+  public void testMethodParametersCoerced() {
+    assertEquals("cdef", executeExpression("${ s.substring('2') }", "s", "abcdef"));
+  }
+
+  public void testConcurrentCacheIsBounded() {
+    ConcurrentCache cache = new ConcurrentCache(2);
+    Tree tree = new Tree(null, null, null, false);
+
+    cache.put("a", tree);
+    cache.put("b", tree);
+    assertSame(tree, cache.get("a"));
+    assertEquals(2, cache.size());
+
+    // replacing an entry does not evict another one
+    cache.put("b", tree);
+    assertEquals(2, cache.size());
+
+    cache.put("c", tree);
+    assertEquals(2, cache.size());
+    assertSame(tree, cache.get("c"));
+  }
+
+}
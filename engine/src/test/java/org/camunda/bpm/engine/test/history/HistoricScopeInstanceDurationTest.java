@@ -0,0 +1,76 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.history.HistoricTaskInstance;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+/**
+ * The historic instances ended in another command than the one which started them are
+ * updated without being selected, so that their duration is calculated by the database.
+ */
+public class HistoricScopeInstanceDurationTest extends PluggableProcessEngineTestCase {
+
+  @Deployment(resources = {"org/camunda/bpm/engine/test/history/oneTaskProcess.bpmn20.xml"})
+  public void testDurationCalculatedByDatabase() {
+    Calendar calendar = new GregorianCalendar(2010, Calendar.SEPTEMBER, 30, 22, 0, 0);
+    Date startTime = calendar.getTime();
+    ClockUtil.setCurrentTime(startTime);
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    Task task = taskService.createTaskQuery().singleResult();
+
+    // spans several days and midnight, which the database specific calculations handle separately
+    calendar.add(Calendar.DAY_OF_MONTH, 2);
+    calendar.add(Calendar.HOUR_OF_DAY, 3);
+    calendar.add(Calendar.SECOND, 25);
+    Date endTime = calendar.getTime();
+    long duration = endTime.getTime() - startTime.getTime();
+    ClockUtil.setCurrentTime(endTime);
+
+    taskService.complete(task.getId());
+
+    HistoricActivityInstance activityInstance = historyService.createHistoricActivityInstanceQuery()
+        .activityId("theTask")
+        .singleResult();
+    assertEquals(startTime, activityInstance.getStartTime());
+    assertEquals(endTime, activityInstance.getEndTime());
+    assertEquals(Long.valueOf(duration), ((HistoricScopeInstanceEvent) activityInstance).getDurationRaw());
+
+    HistoricTaskInstance taskInstance = historyService.createHistoricTaskInstanceQuery()
+        .taskId(task.getId())
+        .singleResult();
+    assertEquals(startTime, taskInstance.getStartTime());
+    assertEquals(endTime, taskInstance.getEndTime());
+    assertEquals(Long.valueOf(duration), ((HistoricScopeInstanceEvent) taskInstance).getDurationRaw());
+
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertEquals(startTime, historicProcessInstance.getStartTime());
+    assertEquals(endTime, historicProcessInstance.getEndTime());
+    assertEquals(Long.valueOf(duration), ((HistoricScopeInstanceEvent) historicProcessInstance).getDurationRaw());
+  }
+
+}
@@ -2,12 +2,15 @@ package org.camunda.bpm.engine.test.jobexecutor;
 
 import org.apache.ibatis.session.SqlSession;
 import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
+import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TimerEntity;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 
@@ -127,4 +130,39 @@ public class JobAcquisitionTest extends PluggableProcessEngineTestCase {
 
   }
 
+  public void testJobAcquisitionWithSkipLocked() {
+    final MessageEntity message = new MessageEntity();
+    message.setRetries(3);
+    message.setJobHandlerType(TimerStartEventJobHandler.TYPE);
+    message.setJobHandlerConfiguration("myCustomMessageEntity");
+
+    final CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    processEngineConfiguration.setJobExecutorAcquireWithSkipLocked(true);
+
+    try {
+      commandExecutor.execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          commandContext.getJobManager().insert(message);
+          return null;
+        }
+      });
+
+      // the job is acquired with skip locked or, if the database does not support it, with optimistic locking
+      AcquiredJobs acquiredJobs = commandExecutor.execute(new AcquireJobsCmd(processEngineConfiguration.getJobExecutor()));
+      assertEquals(1, acquiredJobs.size());
+      assertTrue(acquiredJobs.contains(message.getId()));
+      assertEquals(0, acquiredJobs.getNumberOfJobsFailedToLock());
+
+    } finally {
+      processEngineConfiguration.setJobExecutorAcquireWithSkipLocked(false);
+
+      commandExecutor.execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          commandContext.getJobManager().findJobById(message.getId()).delete();
+          return null;
+        }
+      });
+    }
+  }
+
 }
@@ -0,0 +1,97 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.Page;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.management.JobDefinition;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class JobPriorityTest extends PluggableProcessEngineTestCase {
+
+  @Deployment
+  public void testJobPriority() {
+    runtimeService.startProcessInstanceByKey("jobPriorityProcess");
+
+    assertEquals(5, getJob("lowPriorityTask").getPriority());
+    assertEquals(10, getJob("highPriorityTask").getPriority());
+    assertEquals(JobEntity.DEFAULT_PRIORITY, getJob("defaultPriorityTask").getPriority());
+  }
+
+  @Deployment(resources={"org/camunda/bpm/engine/test/jobexecutor/JobPriorityTest.testJobPriority.bpmn20.xml"})
+  public void testOverridingJobPriority() {
+    JobDefinition jobDefinition = getJobDefinition("lowPriorityTask");
+    assertNull(jobDefinition.getOverridingJobPriority());
+
+    managementService.setOverridingJobPriorityForJobDefinition(jobDefinition.getId(), 20);
+    assertEquals(Long.valueOf(20), getJobDefinition("lowPriorityTask").getOverridingJobPriority());
+
+    // new jobs get the overriding priority
+    runtimeService.startProcessInstanceByKey("jobPriorityProcess");
+    assertEquals(20, getJob("lowPriorityTask").getPriority());
+
+    managementService.clearOverridingJobPriorityForJobDefinition(jobDefinition.getId());
+    assertNull(getJobDefinition("lowPriorityTask").getOverridingJobPriority());
+  }
+
+  @Deployment(resources={"org/camunda/bpm/engine/test/jobexecutor/JobPriorityTest.testJobPriority.bpmn20.xml"})
+  public void testOverridingJobPriorityCascade() {
+    runtimeService.startProcessInstanceByKey("jobPriorityProcess");
+    JobDefinition jobDefinition = getJobDefinition("lowPriorityTask");
+
+    // existing jobs keep their priority without cascade
+    managementService.setOverridingJobPriorityForJobDefinition(jobDefinition.getId(), 20);
+    assertEquals(5, getJob("lowPriorityTask").getPriority());
+
+    managementService.setOverridingJobPriorityForJobDefinition(jobDefinition.getId(), 30, true);
+    assertEquals(30, getJob("lowPriorityTask").getPriority());
+    assertEquals(10, getJob("highPriorityTask").getPriority());
+  }
+
+  @Deployment(resources={"org/camunda/bpm/engine/test/jobexecutor/JobPriorityTest.testJobPriority.bpmn20.xml"})
+  public void testAcquisitionByPriority() {
+    runtimeService.startProcessInstanceByKey("jobPriorityProcess");
+
+    processEngineConfiguration.setJobExecutorAcquireByPriority(true);
+    try {
+      List<JobEntity> jobs = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<JobEntity>>() {
+        public List<JobEntity> execute(CommandContext commandContext) {
+          return commandContext.getJobManager().findNextJobsToExecute(new Page(0, 3));
+        }
+      });
+
+      assertEquals(3, jobs.size());
+      assertEquals(10, jobs.get(0).getPriority());
+      assertEquals(5, jobs.get(1).getPriority());
+      assertEquals(JobEntity.DEFAULT_PRIORITY, jobs.get(2).getPriority());
+
+    } finally {
+      processEngineConfiguration.setJobExecutorAcquireByPriority(false);
+    }
+  }
+
+  protected JobDefinition getJobDefinition(String activityId) {
+    return managementService.createJobDefinitionQuery().activityIdIn(activityId).singleResult();
+  }
+
+  protected Job getJob(String activityId) {
+    return managementService.createJobQuery().jobDefinitionId(getJobDefinition(activityId).getId()).singleResult();
+  }
+
+}
@@ -0,0 +1,113 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.entity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.EventSubscription;
+import org.camunda.bpm.engine.runtime.Execution;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class ProcessInstancePrefetchTest extends ResourceProcessEngineTestCase {
+
+  protected static final String PARALLEL_PROCESS = "org/camunda/bpm/engine/test/standalone/entity/ProcessInstancePrefetchTest.parallelProcess.bpmn20.xml";
+
+  public ProcessInstancePrefetchTest() {
+    super("org/camunda/bpm/engine/test/standalone/entity/processinstanceprefetch.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  @Deployment(resources = PARALLEL_PROCESS)
+  public void testPrefetchEntitiesOfProcessInstance() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("var", "value");
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+
+    final Execution task1Execution = runtimeService.createExecutionQuery().activityId("task1").singleResult();
+    runtimeService.setVariableLocal(task1Execution.getId(), "localVar", "localValue");
+
+    final String localVariableId = runtimeService.createVariableInstanceQuery()
+        .variableName("localVar").singleResult().getId();
+    final List<Task> tasks = taskService.createTaskQuery().list();
+    final Job job = managementService.createJobQuery().singleResult();
+    final EventSubscription eventSubscription = runtimeService.createEventSubscriptionQuery().singleResult();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstance.getId());
+
+        // accessing a variable of the process instance fetches the entities of all its executions
+        assertEquals("value", execution.getVariable("var"));
+
+        DbEntityCache dbEntityCache = commandContext.getDbEntityManager().getDbEntityCache();
+        assertNotNull(dbEntityCache.get(VariableInstanceEntity.class, localVariableId));
+        for (Task task : tasks) {
+          assertNotNull(dbEntityCache.get(TaskEntity.class, task.getId()));
+        }
+        assertNotNull(dbEntityCache.get(JobEntity.class, job.getId()));
+
+        EventSubscriptionEntity eventSubscriptionEntity = dbEntityCache.get(EventSubscriptionEntity.class, eventSubscription.getId());
+        assertNotNull(eventSubscriptionEntity);
+
+        // and wires them to their executions
+        ExecutionEntity subscribedExecution = dbEntityCache.get(ExecutionEntity.class, eventSubscription.getExecutionId());
+        assertSame(subscribedExecution, eventSubscriptionEntity.getExecution());
+        assertEquals(1, subscribedExecution.getEventSubscriptions().size());
+
+        ExecutionEntity task1ExecutionEntity = dbEntityCache.get(ExecutionEntity.class, task1Execution.getId());
+        assertEquals("localValue", task1ExecutionEntity.getVariableLocal("localVar"));
+
+        return null;
+      }
+    });
+  }
+
+  @Deployment(resources = PARALLEL_PROCESS)
+  public void testCompleteProcessInstance() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("var", "value");
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+
+    for (Task task : taskService.createTaskQuery().list()) {
+      assertEquals("value", taskService.getVariable(task.getId(), "var"));
+      taskService.complete(task.getId());
+    }
+
+    runtimeService.correlateMessage("message");
+
+    Job job = managementService.createJobQuery().singleResult();
+    managementService.executeJob(job.getId());
+
+    assertProcessEnded(processInstance.getId());
+  }
+
+}
@@ -0,0 +1,147 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class VariableLoadingByNameTest extends ResourceProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/standalone/entity/VariableLoadingByNameTest.oneTaskProcess.bpmn20.xml";
+
+  protected String processInstanceId;
+
+  public VariableLoadingByNameTest() {
+    super("org/camunda/bpm/engine/test/standalone/entity/variableloadingbyname.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  protected void startProcessInstance() {
+    List<String> serializableValue = new ArrayList<String>();
+    serializableValue.add("element");
+
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("a", "valueA");
+    variables.put("b", "valueB");
+    variables.put("c", serializableValue);
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+    processInstanceId = processInstance.getId();
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testLoadSingleVariable() {
+    startProcessInstance();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        assertEquals("valueA", execution.getVariable("a"));
+        assertEquals(1, getCachedVariableInstances(commandContext).size());
+
+        assertNull(execution.getVariable("unknown"));
+        assertEquals(1, getCachedVariableInstances(commandContext).size());
+
+        // all variables are loaded if they are requested as a whole
+        assertEquals(3, execution.getVariables().size());
+        assertEquals(3, getCachedVariableInstances(commandContext).size());
+
+        return null;
+      }
+    });
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testGetVariablesByName() {
+    startProcessInstance();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        Map<String, Object> variables = execution.getVariables(Arrays.asList("a", "b", "unknown"));
+        assertEquals(2, variables.size());
+        assertEquals("valueA", variables.get("a"));
+        assertEquals("valueB", variables.get("b"));
+
+        // the serialized variable is neither loaded nor deserialized
+        assertEquals(2, getCachedVariableInstances(commandContext).size());
+
+        return null;
+      }
+    });
+
+    Map<String, Object> variables = runtimeService.getVariables(processInstanceId, Arrays.asList("a", "c"));
+    assertEquals(2, variables.size());
+    assertEquals(Arrays.asList("element"), variables.get("c"));
+
+    Task task = taskService.createTaskQuery().singleResult();
+    variables = taskService.getVariables(task.getId(), Arrays.asList("b"));
+    assertEquals(1, variables.size());
+    assertEquals("valueB", variables.get("b"));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testModifyVariablesBeforeLoadingAll() {
+    startProcessInstance();
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        execution.removeVariable("a");
+        execution.setVariable("b", "newValueB");
+        execution.setVariable("d", "valueD");
+
+        Map<String, Object> variables = execution.getVariablesLocal();
+        assertEquals(3, variables.size());
+        assertFalse(variables.containsKey("a"));
+        assertEquals("newValueB", variables.get("b"));
+        assertEquals("valueD", variables.get("d"));
+
+        return null;
+      }
+    });
+
+    Map<String, Object> variables = runtimeService.getVariables(processInstanceId);
+    assertEquals(3, variables.size());
+    assertEquals("newValueB", variables.get("b"));
+    assertEquals(Arrays.asList("element"), variables.get("c"));
+    assertEquals("valueD", variables.get("d"));
+  }
+
+  protected List<VariableInstanceEntity> getCachedVariableInstances(CommandContext commandContext) {
+    return commandContext.getDbEntityManager()
+        .getDbEntityCache()
+        .getEntitiesByType(VariableInstanceEntity.class);
+  }
+
+}
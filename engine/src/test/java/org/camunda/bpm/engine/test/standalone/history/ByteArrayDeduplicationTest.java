@@ -0,0 +1,171 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.history;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.history.HistoricDetail;
+import org.camunda.bpm.engine.history.HistoricVariableUpdate;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoricVariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class ByteArrayDeduplicationTest extends ResourceProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+
+  public ByteArrayDeduplicationTest() {
+    super("org/camunda/bpm/engine/test/standalone/history/bytearraydeduplication.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testHistoricByteArraysAreShared() {
+    long deploymentByteArrays = getByteArrayCount();
+
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("bytes", "a value".getBytes());
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+
+    // the runtime byte array and the one shared by the historic variable instance and the update
+    assertEquals(deploymentByteArrays + 2, getByteArrayCount());
+
+    runtimeService.setVariable(processInstance.getId(), "bytes", "a value".getBytes());
+    assertEquals(deploymentByteArrays + 2, getByteArrayCount());
+
+    runtimeService.setVariable(processInstance.getId(), "bytes", "another value".getBytes());
+    assertEquals(deploymentByteArrays + 3, getByteArrayCount());
+
+    List<HistoricDetail> details = historyService.createHistoricDetailQuery().variableUpdates().orderByVariableRevision().asc().list();
+    assertEquals(3, details.size());
+    assertEquals("a value", new String((byte[]) ((HistoricVariableUpdate) details.get(0)).getValue()));
+    assertEquals("a value", new String((byte[]) ((HistoricVariableUpdate) details.get(1)).getValue()));
+    assertEquals("another value", new String((byte[]) ((HistoricVariableUpdate) details.get(2)).getValue()));
+
+    Object historicValue = historyService.createHistoricVariableInstanceQuery().singleResult().getValue();
+    assertEquals("another value", new String((byte[]) historicValue));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testDeleteHistoricProcessInstance() {
+    long deploymentByteArrays = getByteArrayCount();
+
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("bytes", "a value".getBytes());
+    ProcessInstance processInstance1 = runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+    ProcessInstance processInstance2 = runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+
+    // the byte arrays of both process instances are shared
+    assertEquals(deploymentByteArrays + 3, getByteArrayCount());
+
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+    assertEquals(deploymentByteArrays + 1, getByteArrayCount());
+
+    historyService.deleteHistoricProcessInstance(processInstance1.getId());
+    assertEquals(deploymentByteArrays + 1, getByteArrayCount());
+
+    Object historicValue = historyService.createHistoricVariableInstanceQuery().singleResult().getValue();
+    assertEquals("a value", new String((byte[]) historicValue));
+
+    historyService.deleteHistoricProcessInstance(processInstance2.getId());
+    assertEquals(deploymentByteArrays, getByteArrayCount());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testReferenceCountIsChangedInPlace() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("bytes", "a value".getBytes());
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+
+    HistoricVariableInstanceEntity historicVariable = (HistoricVariableInstanceEntity) historyService
+        .createHistoricVariableInstanceQuery().singleResult();
+    final String byteArrayId = historicVariable.getByteArrayValueId();
+
+    ByteArrayEntity byteArray = getByteArray(byteArrayId);
+    assertEquals(2, byteArray.getReferenceCount());
+    int revision = byteArray.getRevision();
+
+    runtimeService.setVariable(processInstance.getId(), "bytes", "a value".getBytes());
+
+    // the revision of a shared byte array is not changed by new references
+    byteArray = getByteArray(byteArrayId);
+    assertEquals(3, byteArray.getReferenceCount());
+    assertEquals(revision, byteArray.getRevision());
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testSharedByteArrayIsReleasedWithoutLoading() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("bytes", "a value".getBytes());
+    runtimeService.startProcessInstanceByKey("oneTaskProcess", variables);
+
+    HistoricVariableInstanceEntity historicVariable = (HistoricVariableInstanceEntity) historyService
+        .createHistoricVariableInstanceQuery().singleResult();
+    final String byteArrayId = historicVariable.getByteArrayValueId();
+    assertEquals(2, getByteArray(byteArrayId).getReferenceCount());
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getByteArrayManager().deleteByteArrayById(byteArrayId);
+        assertNull(commandContext.getDbEntityManager().getCachedEntity(ByteArrayEntity.class, byteArrayId));
+        return null;
+      }
+    });
+
+    // the reference count is decremented in place, the byte array is still referenced
+    assertEquals(1, getByteArray(byteArrayId).getReferenceCount());
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getByteArrayManager().deleteByteArrayById(byteArrayId);
+        return null;
+      }
+    });
+
+    // the byte array is deleted once it is no longer referenced
+    assertNull(getByteArray(byteArrayId));
+
+    // the variables no longer reference the deleted byte array
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+    historyService.deleteHistoricProcessInstance(historicVariable.getProcessInstanceId());
+  }
+
+  protected ByteArrayEntity getByteArray(final String byteArrayId) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<ByteArrayEntity>() {
+      public ByteArrayEntity execute(CommandContext commandContext) {
+        return commandContext.getDbEntityManager().selectById(ByteArrayEntity.class, byteArrayId);
+      }
+    });
+  }
+
+  protected long getByteArrayCount() {
+    return managementService.getTableCount().get("ACT_GE_BYTEARRAY");
+  }
+
+}
@@ -0,0 +1,221 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.history;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventOutboxWriter;
+import org.camunda.bpm.engine.impl.history.handler.OutboxHistoryEventHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.HistoryEventOutboxEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class HistoryEventOutboxTest extends ResourceProcessEngineTestCase {
+
+  public HistoryEventOutboxTest() {
+    super("org/camunda/bpm/engine/test/standalone/history/historyeventoutbox.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  public void testConfiguration() {
+    assertTrue(processEngineConfiguration.getHistoryEventHandler() instanceof OutboxHistoryEventHandler);
+
+    HistoryEventOutboxWriter writer = processEngineConfiguration.getHistoryEventOutboxWriter();
+    assertNotNull(writer);
+    assertFalse(writer.isActive());
+  }
+
+  @Deployment
+  public void testDrainOutbox() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+
+    // the history is written asynchronously
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+    assertEquals(1, getOutboxEntryCount());
+
+    HistoryEventOutboxWriter writer = processEngineConfiguration.getHistoryEventOutboxWriter();
+    assertEquals(1, writer.drain());
+
+    assertEquals(0, getOutboxEntryCount());
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertEquals(processInstance.getId(), historicProcessInstance.getId());
+    assertNull(historicProcessInstance.getEndTime());
+    assertEquals(1, historyService.createHistoricTaskInstanceQuery().count());
+
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+    assertEquals(1, writer.drain());
+
+    historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertNotNull(historicProcessInstance.getStartTime());
+    assertNotNull(historicProcessInstance.getEndTime());
+
+    assertEquals(2, writer.getWrittenEntries());
+    assertEquals(0, writer.drain());
+  }
+
+  @Deployment
+  public void testDrainOutboxOfSeveralCommands() {
+    // the entries are drained in the order of their sequence numbers, regardless of the
+    // create times (e.g. of process engines with clock skew)
+    ClockUtil.setCurrentTime(new Date(2000));
+    runtimeService.startProcessInstanceByKey("process");
+
+    ClockUtil.setCurrentTime(new Date(1000));
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+    ClockUtil.reset();
+
+    List<HistoryEventOutboxEntity> entries = getOutboxEntries();
+    assertEquals(2, entries.size());
+    assertEquals(2000, entries.get(0).getCreateTime().getTime());
+    assertTrue(entries.get(0).getSequenceNumber() < entries.get(1).getSequenceNumber());
+
+    // the events of both commands are written in the same transaction
+    HistoryEventOutboxWriter writer = processEngineConfiguration.getHistoryEventOutboxWriter();
+    assertEquals(2, writer.drain());
+    assertEquals(0, getOutboxEntryCount());
+
+    HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery().singleResult();
+    assertNotNull(historicProcessInstance.getStartTime());
+    assertNotNull(historicProcessInstance.getEndTime());
+
+    HistoricActivityInstance taskInstance = historyService.createHistoricActivityInstanceQuery().activityId("task").singleResult();
+    assertNotNull(taskInstance.getStartTime());
+    assertNotNull(taskInstance.getEndTime());
+
+    assertNotNull(historyService.createHistoricTaskInstanceQuery().singleResult().getEndTime());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/standalone/history/HistoryEventOutboxTest.testDrainOutboxOfSeveralCommands.bpmn20.xml")
+  public void testLagOfRemainingEntries() {
+    ClockUtil.setCurrentTime(new Date(1000));
+    runtimeService.startProcessInstanceByKey("process");
+
+    ClockUtil.setCurrentTime(new Date(2000));
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+
+    HistoryEventOutboxWriter writer = processEngineConfiguration.getHistoryEventOutboxWriter();
+    int maxEntriesPerBatch = writer.getMaxEntriesPerBatch();
+    writer.setMaxEntriesPerBatch(1);
+
+    try {
+      ClockUtil.setCurrentTime(new Date(5000));
+
+      // the lag is the age of the youngest entry of a full batch
+      assertEquals(1, writer.drain());
+      assertEquals(4000, writer.getLagInMillis());
+      assertEquals(1, writer.getPendingEntries());
+
+      // the outbox is counted once per statistics interval
+      assertEquals(1, writer.drain());
+      assertEquals(3000, writer.getLagInMillis());
+      assertEquals(1, writer.getPendingEntries());
+
+      ClockUtil.setCurrentTime(new Date(5000 + writer.getStatisticsIntervalInMillis()));
+      assertEquals(0, writer.drain());
+      assertEquals(0, writer.getLagInMillis());
+      assertEquals(0, writer.getPendingEntries());
+
+    } finally {
+      writer.setMaxEntriesPerBatch(maxEntriesPerBatch);
+      ClockUtil.reset();
+    }
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/standalone/history/HistoryEventOutboxTest.testDrainOutbox.bpmn20.xml")
+  public void testEntryWhichCannotBeReadIsMarkedAsFailed() {
+    final String poisonEntryId = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<String>() {
+      public String execute(CommandContext commandContext) {
+        HistoryEventOutboxEntity entry = new HistoryEventOutboxEntity();
+        entry.setCreateTime(ClockUtil.getCurrentTime());
+        entry.setBytes("no serialized events".getBytes());
+        commandContext.getDbEntityManager().insert(entry);
+        return entry.getId();
+      }
+    });
+    runtimeService.startProcessInstanceByKey("process");
+
+    HistoryEventOutboxWriter writer = processEngineConfiguration.getHistoryEventOutboxWriter();
+    int maxAttempts = writer.getMaxAttempts();
+
+    try {
+      // the other entries are drained regardless
+      assertEquals(1, writer.drain());
+      assertEquals(1, historyService.createHistoricProcessInstanceQuery().count());
+
+      HistoryEventOutboxEntity poisonEntry = getOutboxEntry(poisonEntryId);
+      assertEquals(1, poisonEntry.getAttempts());
+      assertFalse(poisonEntry.isFailed());
+      assertNotNull(poisonEntry.getExceptionMessage());
+
+      for (int i = 1; i < maxAttempts; i++) {
+        assertEquals(0, writer.drain());
+      }
+
+      poisonEntry = getOutboxEntry(poisonEntryId);
+      assertEquals(maxAttempts, poisonEntry.getAttempts());
+      assertTrue(poisonEntry.isFailed());
+
+      // failed entries are no longer drained
+      assertEquals(0, writer.drain());
+      assertEquals(maxAttempts, getOutboxEntry(poisonEntryId).getAttempts());
+      assertEquals(0, getOutboxEntries().size());
+
+    } finally {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+          dbEntityManager.delete(dbEntityManager.selectById(HistoryEventOutboxEntity.class, poisonEntryId));
+          return null;
+        }
+      });
+    }
+  }
+
+  protected List<HistoryEventOutboxEntity> getOutboxEntries() {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<HistoryEventOutboxEntity>>() {
+      public List<HistoryEventOutboxEntity> execute(CommandContext commandContext) {
+        return commandContext.getHistoryEventOutboxManager().findOldestEntries(Integer.MAX_VALUE);
+      }
+    });
+  }
+
+  protected HistoryEventOutboxEntity getOutboxEntry(final String id) {
+    return processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<HistoryEventOutboxEntity>() {
+      public HistoryEventOutboxEntity execute(CommandContext commandContext) {
+        return commandContext.getDbEntityManager().selectById(HistoryEventOutboxEntity.class, id);
+      }
+    });
+  }
+
+  protected long getOutboxEntryCount() {
+    return managementService.getTableCount().get("ACT_HI_OUTBOX");
+  }
+
+}
@@ -0,0 +1,136 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.metrics;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.metrics.DbMetricsReporter;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.management.EngineMetrics;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class DbMetricsReporterTest extends ResourceProcessEngineTestCase {
+
+  protected static final String ONE_ASYNC_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneAsyncTask.bpmn";
+
+  protected DbMetricsReporter dbMetricsReporter;
+
+  public DbMetricsReporterTest() {
+    super("org/camunda/bpm/engine/test/standalone/metrics/metrics.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    dbMetricsReporter = processEngineConfiguration.getDbMetricsReporter();
+
+    // discard the values counted by previous tests
+    for (Meter meter : processEngineConfiguration.getMetricsRegistry().getMeters()) {
+      meter.getAndClear();
+    }
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    ClockUtil.reset();
+    managementService.deleteMetrics(null);
+    super.tearDown();
+  }
+
+  @Deployment(resources = ONE_ASYNC_TASK_PROCESS)
+  public void testReportMetrics() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    waitForJobExecutorToProcessAllJobs(10000);
+
+    dbMetricsReporter.reportNow();
+
+    assertEquals(2, managementService.createMetricsQuery().name(EngineMetrics.ROOT_PROCESS_INSTANCE_START).sum());
+    // start event, task and end event of both process instances
+    assertEquals(6, managementService.createMetricsQuery().name(EngineMetrics.ACTIVITY_INSTANCE_START).sum());
+    assertEquals(2, managementService.createMetricsQuery().name(EngineMetrics.JOB_ACQUIRED).sum());
+    assertEquals(2, managementService.createMetricsQuery().name(EngineMetrics.JOB_SUCCESSFUL).sum());
+    assertEquals(0, managementService.createMetricsQuery().name(EngineMetrics.JOB_FAILED).sum());
+
+    // the meters are cleared by the report
+    dbMetricsReporter.reportNow();
+    assertEquals(2, managementService.createMetricsQuery().name(EngineMetrics.ROOT_PROCESS_INSTANCE_START).sum());
+  }
+
+  @Deployment(resources = ONE_ASYNC_TASK_PROCESS)
+  public void testSumIntervals() {
+    Date firstInterval = new Date(ClockUtil.getCurrentTime().getTime() - 60 * 60 * 1000);
+    ClockUtil.setCurrentTime(firstInterval);
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    dbMetricsReporter.reportNow();
+
+    Date secondInterval = new Date(firstInterval.getTime() + 15 * 60 * 1000);
+    ClockUtil.setCurrentTime(secondInterval);
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    dbMetricsReporter.reportNow();
+
+    assertEquals(3, managementService.createMetricsQuery().name(EngineMetrics.ROOT_PROCESS_INSTANCE_START).sum());
+    assertEquals(1, managementService.createMetricsQuery()
+        .name(EngineMetrics.ROOT_PROCESS_INSTANCE_START)
+        .endDate(secondInterval)
+        .sum());
+    assertEquals(2, managementService.createMetricsQuery()
+        .name(EngineMetrics.ROOT_PROCESS_INSTANCE_START)
+        .startDate(secondInterval)
+        .sum());
+    assertEquals(3, managementService.createMetricsQuery()
+        .name(EngineMetrics.ROOT_PROCESS_INSTANCE_START)
+        .reporter(dbMetricsReporter.getReporterId())
+        .sum());
+    assertEquals(0, managementService.createMetricsQuery()
+        .name(EngineMetrics.ROOT_PROCESS_INSTANCE_START)
+        .reporter("unknown")
+        .sum());
+
+    // delete the first interval
+    managementService.deleteMetrics(firstInterval);
+    assertEquals(2, managementService.createMetricsQuery().name(EngineMetrics.ROOT_PROCESS_INSTANCE_START).sum());
+  }
+
+  @Deployment
+  public void testRolledBackWorkNotCounted() {
+    try {
+      runtimeService.startProcessInstanceByKey("failingProcess");
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      // expected
+    }
+
+    dbMetricsReporter.reportNow();
+
+    assertEquals(0, managementService.createMetricsQuery().name(EngineMetrics.ROOT_PROCESS_INSTANCE_START).sum());
+    assertEquals(0, managementService.createMetricsQuery().name(EngineMetrics.ACTIVITY_INSTANCE_START).sum());
+  }
+
+  public void testNoValuesReported() {
+    dbMetricsReporter.reportNow();
+
+    assertEquals(0, managementService.createMetricsQuery().sum());
+  }
+
+}
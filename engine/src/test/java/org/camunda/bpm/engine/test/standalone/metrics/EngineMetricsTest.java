@@ -0,0 +1,133 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.metrics;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.cmd.StartProcessInstanceCmd;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.management.EngineMetrics;
+import org.camunda.bpm.engine.management.LatencyMetrics;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class EngineMetricsTest extends ResourceProcessEngineTestCase {
+
+  protected static final String ONE_ASYNC_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneAsyncTask.bpmn";
+
+  public EngineMetricsTest() {
+    super("org/camunda/bpm/engine/test/standalone/metrics/metrics.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    managementService.resetEngineMetrics();
+  }
+
+  @Deployment(resources = ONE_ASYNC_TASK_PROCESS)
+  public void testCommandAndStatementLatencies() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    EngineMetrics metrics = managementService.getEngineMetrics();
+
+    LatencyMetrics startProcessInstance = getLatency(metrics.getCommandLatencies(), StartProcessInstanceCmd.class.getName());
+    assertNotNull(startProcessInstance);
+    assertEquals(1, startProcessInstance.getCount());
+    assertTrue(startProcessInstance.getMaxTime() >= startProcessInstance.getMeanTime());
+    assertTrue(startProcessInstance.getPercentile(0.5) <= startProcessInstance.getMaxTime());
+
+    LatencyMetrics insertExecution = getLatency(metrics.getStatementLatencies(), "insertExecution");
+    assertNotNull(insertExecution);
+    assertEquals(1, insertExecution.getCount());
+
+    assertTrue(metrics.getCounters().get(EngineMetrics.FLUSHES) > 0);
+  }
+
+  @Deployment(resources = ONE_ASYNC_TASK_PROCESS)
+  public void testJobAndActivityLatencies() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    Job job = managementService.createJobQuery().singleResult();
+    managementService.executeJob(job.getId());
+
+    EngineMetrics metrics = managementService.getEngineMetrics();
+
+    LatencyMetrics asyncContinuation = getLatency(metrics.getJobLatencies(), AsyncContinuationJobHandler.TYPE);
+    assertNotNull(asyncContinuation);
+    assertEquals(1, asyncContinuation.getCount());
+
+    assertEquals(1, getLatency(metrics.getActivityLatencies(), "startEvent").getCount());
+    assertEquals(1, getLatency(metrics.getActivityLatencies(), "task").getCount());
+    assertEquals(1, getLatency(metrics.getActivityLatencies(), "endEvent").getCount());
+
+    // the job is selected by id when it is executed
+    assertTrue(metrics.getCounters().get(EngineMetrics.ENTITY_CACHE_MISSES) > 0);
+  }
+
+  @Deployment
+  public void testActivityLatencyExcludesFollowingActivities() {
+    runtimeService.startProcessInstanceByKey("sleepingProcess");
+
+    EngineMetrics metrics = managementService.getEngineMetrics();
+
+    // the service task is executed synchronously when the start event is left
+    long sleepMicros = SleepingDelegate.SLEEP_MILLIS * 1000;
+    assertTrue(getLatency(metrics.getActivityLatencies(), "startEvent").getMaxTime() < sleepMicros);
+    assertTrue(getLatency(metrics.getActivityLatencies(), "serviceTask").getMaxTime() >= sleepMicros);
+  }
+
+  @Deployment(resources = ONE_ASYNC_TASK_PROCESS)
+  public void testBatchExecutionLatency() {
+    DbSqlSessionFactory dbSqlSessionFactory = processEngineConfiguration.getDbSqlSessionFactory();
+    dbSqlSessionFactory.setJdbcBatchProcessing(true);
+    try {
+      runtimeService.startProcessInstanceByKey("oneTaskProcess");
+    } finally {
+      dbSqlSessionFactory.setJdbcBatchProcessing(false);
+    }
+
+    EngineMetrics metrics = managementService.getEngineMetrics();
+    assertNotNull(getLatency(metrics.getStatementLatencies(), DbSqlSession.EXECUTE_BATCH_STATEMENT));
+  }
+
+  @Deployment(resources = ONE_ASYNC_TASK_PROCESS)
+  public void testResetMetrics() {
+    runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    managementService.resetEngineMetrics();
+
+    EngineMetrics metrics = managementService.getEngineMetrics();
+    assertNull(getLatency(metrics.getCommandLatencies(), StartProcessInstanceCmd.class.getName()));
+    assertTrue(metrics.getStatementLatencies().isEmpty());
+    assertEquals(0, (long) metrics.getCounters().get(EngineMetrics.FLUSHES));
+  }
+
+  protected LatencyMetrics getLatency(List<LatencyMetrics> latencies, String name) {
+    for (LatencyMetrics latency : latencies) {
+      if (name.equals(latency.getName())) {
+        return latency;
+      }
+    }
+    return null;
+  }
+
+}
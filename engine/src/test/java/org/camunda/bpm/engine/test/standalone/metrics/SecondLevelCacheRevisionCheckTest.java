@@ -0,0 +1,107 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.metrics;
+package org.camunda.bpm.engine.test.standalone.metrics;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DefaultDbEntitySecondLevelCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.management.EngineMetrics;
+import org.camunda.bpm.engine.management.LatencyMetrics;
+import org.camunda.bpm.engine.test.Deployment;
+
+/**
+ * Compares commands which read an entity from the second level cache with and without
+ * a revision check interval: without it, every command selects the second level cache
+ * revision before it can use the cache.
+ */
+public class SecondLevelCacheRevisionCheckTest extends ResourceProcessEngineTestCase {
+
+  private static Logger log = Logger.getLogger(SecondLevelCacheRevisionCheckTest.class.getName());
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/api/oneTaskProcess.bpmn20.xml";
+  protected static final String REVISION_SELECT = "selectSecondLevelCacheRevision";
+
+  protected static final int COMMANDS = 1000;
+
+  public SecondLevelCacheRevisionCheckTest() {
+    super("org/camunda/bpm/engine/test/standalone/metrics/secondLevelCache.camunda.cfg.xml");
+  }
+
+  @Override
+  protected void closeDownProcessEngine() {
+    processEngine.close();
+    super.closeDownProcessEngine();
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testRevisionIsSelectedOncePerCheckInterval() {
+    String processDefinitionId = repositoryService.createProcessDefinitionQuery().singleResult().getId();
+    DefaultDbEntitySecondLevelCache cache = (DefaultDbEntitySecondLevelCache) processEngineConfiguration.getDbEntitySecondLevelCache();
+
+    // warm up the cache
+    selectProcessDefinition(processDefinitionId, COMMANDS);
+
+    cache.setRevisionCheckInterval(0);
+    managementService.resetEngineMetrics();
+    long withoutCheckInterval = selectProcessDefinition(processDefinitionId, COMMANDS);
+
+    EngineMetrics metrics = managementService.getEngineMetrics();
+    assertEquals(COMMANDS, getLatency(metrics.getStatementLatencies(), REVISION_SELECT).getCount());
+    assertEquals(COMMANDS, (long) metrics.getCounters().get(EngineMetrics.SECOND_LEVEL_CACHE_HITS));
+
+    cache.setRevisionCheckInterval(60000);
+    managementService.resetEngineMetrics();
+    long withCheckInterval = selectProcessDefinition(processDefinitionId, COMMANDS);
+
+    metrics = managementService.getEngineMetrics();
+    LatencyMetrics revisionSelects = getLatency(metrics.getStatementLatencies(), REVISION_SELECT);
+    assertTrue(revisionSelects == null || revisionSelects.getCount() <= 1);
+    assertEquals(COMMANDS, (long) metrics.getCounters().get(EngineMetrics.SECOND_LEVEL_CACHE_HITS));
+
+    log.info(COMMANDS + " commands reading a cached process definition took " + withoutCheckInterval
+        + " ms when every command selects the revision and " + withCheckInterval + " ms with a revision check interval");
+  }
+
+  /**
+   * @return the time in milliseconds taken by the commands
+   */
+  protected long selectProcessDefinition(final String processDefinitionId, int commands) {
+    Command<ProcessDefinitionEntity> command = new Command<ProcessDefinitionEntity>() {
+      public ProcessDefinitionEntity execute(CommandContext commandContext) {
+        return commandContext.getDbEntityManager().selectById(ProcessDefinitionEntity.class, processDefinitionId);
+      }
+    };
+
+    long startTime = System.currentTimeMillis();
+    for (int i = 0; i < commands; i++) {
+      assertNotNull(processEngineConfiguration.getCommandExecutorTxRequired().execute(command));
+    }
+    return System.currentTimeMillis() - startTime;
+  }
+
+  protected LatencyMetrics getLatency(List<LatencyMetrics> latencies, String name) {
+    for (LatencyMetrics latency : latencies) {
+      if (name.equals(latency.getName())) {
+        return latency;
+      }
+    }
+    return null;
+  }
+
+}
@@ -0,0 +1,130 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.standalone.scripting;
+
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+
+import org.camunda.bpm.engine.impl.scripting.engine.CompiledScriptCache;
+import org.camunda.bpm.engine.impl.scripting.engine.JuelScriptEngineFactory;
+import org.camunda.bpm.engine.impl.scripting.engine.ScriptingEngines;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+
+public class ScriptingEnginesTest extends PluggableProcessEngineTestCase {
+
+  protected static final String SCRIPT_LANGUAGE = "groovy";
+  protected static final String EXAMPLE_SCRIPT = "execution.setVariable('aName', 'aValue')";
+
+  public void testCompiledScriptsCached() {
+    ScriptingEngines scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    CompiledScriptCache cache = scriptingEngines.getCompiledScriptCache();
+
+    CompiledScript compiledScript = scriptingEngines.compile(EXAMPLE_SCRIPT, SCRIPT_LANGUAGE);
+    assertNotNull(compiledScript);
+    assertEquals(1, cache.size());
+    assertEquals(0, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+
+    // the language is not case sensitive
+    assertSame(compiledScript, scriptingEngines.compile(EXAMPLE_SCRIPT, "Groovy"));
+    assertEquals(1, cache.getHitCount());
+
+    CompiledScript otherScript = scriptingEngines.compile(EXAMPLE_SCRIPT + ";", SCRIPT_LANGUAGE);
+    assertNotSame(compiledScript, otherScript);
+    assertEquals(2, cache.size());
+  }
+
+  public void testCompiledScriptCacheIsBounded() {
+    ScriptingEngines scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    scriptingEngines.setCompiledScriptCache(new CompiledScriptCache(1));
+
+    scriptingEngines.compile(EXAMPLE_SCRIPT, SCRIPT_LANGUAGE);
+    scriptingEngines.compile(EXAMPLE_SCRIPT + ";", SCRIPT_LANGUAGE);
+
+    assertEquals(1, scriptingEngines.getCompiledScriptCache().size());
+  }
+
+  public void testLeastRecentlyUsedCompiledScriptIsEvicted() {
+    ScriptingEngines scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    scriptingEngines.setCompiledScriptCache(new CompiledScriptCache(2));
+
+    CompiledScript firstScript = scriptingEngines.compile(EXAMPLE_SCRIPT, SCRIPT_LANGUAGE);
+    CompiledScript secondScript = scriptingEngines.compile(EXAMPLE_SCRIPT + ";", SCRIPT_LANGUAGE);
+
+    // the first script is used again, the second one is evicted by the next script
+    assertSame(firstScript, scriptingEngines.compile(EXAMPLE_SCRIPT, SCRIPT_LANGUAGE));
+    scriptingEngines.compile(EXAMPLE_SCRIPT + ";;", SCRIPT_LANGUAGE);
+
+    assertEquals(2, scriptingEngines.getCompiledScriptCache().size());
+    assertSame(firstScript, scriptingEngines.compile(EXAMPLE_SCRIPT, SCRIPT_LANGUAGE));
+    assertNotSame(secondScript, scriptingEngines.compile(EXAMPLE_SCRIPT + ";", SCRIPT_LANGUAGE));
+  }
+
+  public void testCompiledScriptsNotCachedWithoutEngineCaching() {
+    ScriptingEngines scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    scriptingEngines.setEnableScriptEngineCaching(false);
+
+    CompiledScript compiledScript = scriptingEngines.compile(EXAMPLE_SCRIPT, SCRIPT_LANGUAGE);
+    assertNotSame(compiledScript, scriptingEngines.compile(EXAMPLE_SCRIPT, SCRIPT_LANGUAGE));
+    assertEquals(0, scriptingEngines.getCompiledScriptCache().size());
+  }
+
+  public void testScriptEnginesWhichAreNotThreadsafePooled() {
+    ScriptingEngines scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    scriptingEngines.setEnableScriptEnginePooling(true);
+    scriptingEngines.addScriptEngineFactory(new SingleThreadedScriptEngineFactory());
+
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage("juel");
+    // not released yet: a new engine is created
+    ScriptEngine otherScriptEngine = scriptingEngines.getScriptEngineForLanguage("juel");
+    assertNotSame(scriptEngine, otherScriptEngine);
+
+    scriptEngine.put("aGlobal", "aValue");
+    scriptingEngines.releaseScriptEngine("juel", scriptEngine);
+    assertSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage("juel"));
+
+    // the engine scope bindings of the previous execution are not kept
+    assertNull(scriptEngine.get("aGlobal"));
+  }
+
+  public void testScriptEnginesNotPooledByDefault() {
+    ScriptingEngines scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    scriptingEngines.addScriptEngineFactory(new SingleThreadedScriptEngineFactory());
+
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage("juel");
+    scriptingEngines.releaseScriptEngine("juel", scriptEngine);
+
+    assertNotSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage("juel"));
+  }
+
+  public void testThreadsafeScriptEnginesCached() {
+    ScriptingEngines scriptingEngines = new ScriptingEngines(new ScriptEngineManager());
+    scriptingEngines.addScriptEngineFactory(new JuelScriptEngineFactory());
+
+    ScriptEngine scriptEngine = scriptingEngines.getScriptEngineForLanguage("juel");
+    assertSame(scriptEngine, scriptingEngines.getScriptEngineForLanguage("juel"));
+  }
+
+  public static class SingleThreadedScriptEngineFactory extends JuelScriptEngineFactory {
+
+    public Object getParameter(String key) {
+      if ("THREADING".equals(key)) {
+        return null;
+      }
+      return super.getParameter(key);
+    }
+
+  }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.variables;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.delegate.ProcessEngineVariableType;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.test.AbstractProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.variable.CompactSerializableType;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.runtime.VariableInstance;
+import org.camunda.bpm.engine.test.Deployment;
+
+public class CompactSerializationTest extends AbstractProcessEngineTestCase {
+
+  protected static final String ONE_TASK_PROCESS = "org/camunda/bpm/engine/test/variables/oneTaskProcess.bpmn20.xml";
+
+  @Override
+  protected void initializeProcessEngine() {
+    ProcessEngineConfigurationImpl engineConfig =
+        (ProcessEngineConfigurationImpl) ProcessEngineConfiguration.createProcessEngineConfigurationFromResource("camunda.cfg.xml");
+
+    engineConfig.setDefaultSerializationFormat(CompactSerializableType.SERIALIZATION_FORMAT);
+
+    processEngine = engineConfig.buildProcessEngine();
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testSerializationAsCompact() {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    List<String> value = new ArrayList<String>();
+    value.add("a String");
+    runtimeService.setVariable(instance.getId(), "listVar", value);
+
+    VariableInstance variable = runtimeService.createVariableInstanceQuery().singleResult();
+    assertEquals(ProcessEngineVariableType.COMPACT_SERIALIZABLE.getName(), variable.getTypeName());
+    assertEquals(value, variable.getValue());
+
+    // no stream header and class metadata
+    byte[] bytes = (byte[]) variable.getSerializedValue().getValue();
+    assertTrue(bytes.length < javaSerialize(value).length);
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testCompressionOfLargeValue() {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    List<String> value = new ArrayList<String>();
+    for (int i = 0; i < 1000; i++) {
+      value.add("a String " + (i % 10));
+    }
+    runtimeService.setVariable(instance.getId(), "listVar", value);
+
+    VariableInstance variable = runtimeService.createVariableInstanceQuery().singleResult();
+    assertEquals(value, variable.getValue());
+
+    byte[] bytes = (byte[]) variable.getSerializedValue().getValue();
+    assertTrue(bytes.length < javaSerialize(value).length / 10);
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testReadJavaSerializedValue() {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    List<String> value = new ArrayList<String>();
+    value.add("a String");
+
+    runtimeService.setVariableFromSerialized(instance.getId(), "compactVar", javaSerialize(value),
+        ProcessEngineVariableType.COMPACT_SERIALIZABLE.getName(), null);
+    runtimeService.setVariableFromSerialized(instance.getId(), "serializableVar", javaSerialize(value),
+        ProcessEngineVariableType.SERIALIZABLE.getName(), null);
+
+    assertEquals(value, runtimeService.getVariable(instance.getId(), "compactVar"));
+    assertEquals(value, runtimeService.getVariable(instance.getId(), "serializableVar"));
+  }
+
+  @Deployment(resources = ONE_TASK_PROCESS)
+  public void testReadValueWrittenWithDifferentFields() {
+    ProcessInstance instance = runtimeService.startProcessInstanceByKey("oneTaskProcess");
+
+    List<String> value = new ArrayList<String>();
+    value.add("a String");
+
+    runtimeService.setVariableFromSerialized(instance.getId(), "compactVar", compactSerializeWithOtherFields(value),
+        ProcessEngineVariableType.COMPACT_SERIALIZABLE.getName(), null);
+
+    try {
+      runtimeService.getVariable(instance.getId(), "compactVar");
+      fail("exception expected");
+    } catch (ProcessEngineException e) {
+      // the value must not be read with the fields of the current class
+      assertTrue(e.getCause() instanceof InvalidClassException);
+    }
+  }
+
+  /**
+   * Writes the value in the compact format, pretending that the classes had other fields.
+   */
+  protected byte[] compactSerializeWithOtherFields(Object value) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    baos.write(0x01);
+    try {
+      ObjectOutputStream oos = new ObjectOutputStream(baos) {
+        protected void writeStreamHeader() throws IOException {
+        }
+        protected void writeClassDescriptor(ObjectStreamClass desc) throws IOException {
+          writeUTF(desc.getName());
+          writeLong(desc.getSerialVersionUID());
+          writeLong(0);
+        }
+      };
+      oos.writeObject(value);
+      oos.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return baos.toByteArray();
+  }
+
+  protected byte[] javaSerialize(Object value) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try {
+      ObjectOutputStream oos = new ObjectOutputStream(baos);
+      oos.writeObject(value);
+      oos.close();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return baos.toByteArray();
+  }
+
+}
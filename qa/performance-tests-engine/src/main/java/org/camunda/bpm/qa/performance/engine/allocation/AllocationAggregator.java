@@ -0,0 +1,69 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.allocation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestResults;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStepResult;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultAggregator;
+import org.camunda.bpm.qa.performance.engine.framework.aggregate.TabularResultSet;
+
+/**
+ * Aggregates the heap allocations recorded by the {@link AllocationPerfTestWatcher}.
+ */
+public class AllocationAggregator extends TabularResultAggregator {
+
+  public static final String TEST_NAME = "Test Name";
+  public static final String STEPS = "Steps";
+  public static final String ALLOCATED_KB = "Allocated (kB)";
+  public static final String ALLOCATED_KB_PER_STEP = "Allocated per Step (kB)";
+
+  public AllocationAggregator(String resultsFolderPath) {
+    super(resultsFolderPath);
+  }
+
+  protected TabularResultSet createAggrgatedResultsInstance() {
+    TabularResultSet tabularResultSet = new TabularResultSet();
+
+    List<String> resultColumnNames = tabularResultSet.getResultColumnNames();
+    resultColumnNames.add(TEST_NAME);
+    resultColumnNames.add(STEPS);
+    resultColumnNames.add(ALLOCATED_KB);
+    resultColumnNames.add(ALLOCATED_KB_PER_STEP);
+
+    return tabularResultSet;
+  }
+
+  protected void processResults(PerfTestResults results, TabularResultSet tabularResultSet) {
+    if(results.getPassResults().isEmpty()) {
+      return;
+    }
+
+    long allocatedBytes = 0;
+    List<PerfTestStepResult> stepResults = results.getPassResults().get(0).getStepResults();
+    for (PerfTestStepResult stepResult : stepResults) {
+      allocatedBytes += ((Number) stepResult.getResultData()).longValue();
+    }
+
+    ArrayList<Object> row = new ArrayList<Object>();
+    row.add(results.getTestName());
+    row.add(stepResults.size());
+    row.add(allocatedBytes / 1024);
+    row.add(stepResults.isEmpty() ? 0 : allocatedBytes / 1024 / stepResults.size());
+
+    tabularResultSet.addResultRow(row);
+  }
+
+}
@@ -0,0 +1,67 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.allocation;
+
+import java.lang.management.ManagementFactory;
+
+import org.camunda.bpm.qa.performance.engine.framework.PerfTest;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestException;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRun;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestStep;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestWatcher;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Records the number of bytes allocated on the heap by the thread
+ * executing a step. Requires a JVM which supports thread allocated
+ * memory measurement.
+ */
+public class AllocationPerfTestWatcher implements PerfTestWatcher {
+
+  protected static ThreadLocal<Long> allocatedBytesBeforeStep = new ThreadLocal<Long>();
+
+  protected ThreadMXBean threadMXBean;
+
+  public AllocationPerfTestWatcher() {
+    java.lang.management.ThreadMXBean platformThreadMXBean = ManagementFactory.getThreadMXBean();
+    if(!(platformThreadMXBean instanceof ThreadMXBean)) {
+      throw new PerfTestException("JVM does not support measuring thread allocated memory");
+    }
+    threadMXBean = (ThreadMXBean) platformThreadMXBean;
+    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+  }
+
+  public void beforeRun(PerfTest test, PerfTestRun run) {
+    // nothing to do
+  }
+
+  public void beforeStep(PerfTestStep step, PerfTestRun run) {
+    allocatedBytesBeforeStep.set(getAllocatedBytes());
+  }
+
+  public void afterStep(PerfTestStep step, PerfTestRun run) {
+    long allocatedBytes = getAllocatedBytes() - allocatedBytesBeforeStep.get();
+    allocatedBytesBeforeStep.remove();
+    run.logStepResult(allocatedBytes);
+  }
+
+  public void afterRun(PerfTest test, PerfTestRun run) {
+    // nothing to do
+  }
+
+  protected long getAllocatedBytes() {
+    return threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+}
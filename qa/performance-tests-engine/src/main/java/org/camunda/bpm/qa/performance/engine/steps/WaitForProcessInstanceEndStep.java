@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestException;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Waits until the job executor completed the process instance.
+ */
+public class WaitForProcessInstanceEndStep extends ProcessEngineAwareStep {
+
+  protected String processInstanceIdVariableName;
+  protected long pollInterval;
+  protected long timeout;
+
+  public WaitForProcessInstanceEndStep(ProcessEngine processEngine, String processInstanceIdVariableName) {
+    this(processEngine, processInstanceIdVariableName, 10, 60 * 1000);
+  }
+
+  public WaitForProcessInstanceEndStep(ProcessEngine processEngine, String processInstanceIdVariableName, long pollInterval, long timeout) {
+    super(processEngine);
+    this.processInstanceIdVariableName = processInstanceIdVariableName;
+    this.pollInterval = pollInterval;
+    this.timeout = timeout;
+  }
+
+  public void execute(PerfTestRunContext context) {
+    String processInstanceId = context.getVariable(processInstanceIdVariableName);
+    long deadline = System.currentTimeMillis() + timeout;
+
+    while (runtimeService.createProcessInstanceQuery().processInstanceId(processInstanceId).count() > 0) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new PerfTestException("Process instance " + processInstanceId + " did not end within " + timeout + " ms");
+      }
+      try {
+        Thread.sleep(pollInterval);
+      } catch (InterruptedException e) {
+        throw new PerfTestException("Interrupted while waiting for process instance " + processInstanceId + " to end");
+      }
+    }
+  }
+
+}
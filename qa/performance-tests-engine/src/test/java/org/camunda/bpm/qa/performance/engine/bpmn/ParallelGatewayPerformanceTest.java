@@ -0,0 +1,38 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.bpmn;
+
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.TASK_ID;
+
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.CompleteTaskStep;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.junit.Test;
+
+/**
+ * Process instances with many concurrent executions: completing a
+ * single task loads and dirty checks the whole execution tree.
+ */
+public class ParallelGatewayPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  @Test
+  @Deployment
+  public void parallel10Tasks() {
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+      .step(new CompleteTaskStep(engine, TASK_ID))
+    .run();
+  }
+
+}
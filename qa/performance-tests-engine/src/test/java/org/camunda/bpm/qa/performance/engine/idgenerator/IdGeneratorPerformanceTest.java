@@ -0,0 +1,90 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.idgenerator;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.cfg.IdGenerator;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
+import org.camunda.bpm.engine.impl.persistence.StrongUuidGenerator;
+import org.camunda.bpm.engine.impl.persistence.TimeOrderedUuidGenerator;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * <p>Compares the insert rate of history and runtime entities using different id generators:
+ * every run starts a process instance passing 15 activities synchronously, inserting a
+ * historic activity instance for each of them.</p>
+ */
+public class IdGeneratorPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final String PROCESS_RESOURCE = "org/camunda/bpm/qa/performance/engine/bpmn/SequencePerformanceTest.syncSequence15Steps.bpmn";
+
+  protected IdGenerator originalIdGenerator;
+
+  @After
+  public void resetIdGenerator() {
+    if (originalIdGenerator != null) {
+      setIdGenerator(originalIdGenerator);
+      originalIdGenerator = null;
+    }
+  }
+
+  @Test
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void dbIdGenerator() {
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+    .run();
+  }
+
+  @Test
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void strongUuidGenerator() {
+    useIdGenerator(new StrongUuidGenerator());
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+    .run();
+  }
+
+  @Test
+  @Deployment(resources = PROCESS_RESOURCE)
+  public void timeOrderedUuidGenerator() {
+    useIdGenerator(new TimeOrderedUuidGenerator());
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+    .run();
+  }
+
+  protected void useIdGenerator(IdGenerator idGenerator) {
+    originalIdGenerator = getProcessEngineConfiguration().getIdGenerator();
+    setIdGenerator(idGenerator);
+  }
+
+  protected void setIdGenerator(IdGenerator idGenerator) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = getProcessEngineConfiguration();
+    processEngineConfiguration.setIdGenerator(idGenerator);
+    processEngineConfiguration.getSessionFactories().put(DbEntityManager.class, new DbEntityManagerFactory(idGenerator));
+  }
+
+  protected ProcessEngineConfigurationImpl getProcessEngineConfiguration() {
+    return ((ProcessEngineImpl) engine).getProcessEngineConfiguration();
+  }
+
+}
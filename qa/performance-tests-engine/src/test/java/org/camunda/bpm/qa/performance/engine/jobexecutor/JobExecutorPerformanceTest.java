@@ -0,0 +1,77 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.jobexecutor;
+
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.*;
+
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.SemaphoreJobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.UnlockRejectedJobsHandler;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.StartProcessInstanceStep;
+import org.camunda.bpm.qa.performance.engine.steps.WaitForProcessInstanceEndStep;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * <p>Compares the job executors on jobs which mostly wait for I/O: every run
+ * starts a process instance with three asynchronous service tasks calling
+ * the {@link IoBoundDelegate} and waits until the job executor completed it.</p>
+ */
+public class JobExecutorPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected JobExecutor jobExecutor;
+
+  @After
+  public void stopJobExecutor() {
+    if (jobExecutor != null) {
+      jobExecutor.shutdown();
+      jobExecutor.unregisterProcessEngine((ProcessEngineImpl) engine);
+      jobExecutor = null;
+    }
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/qa/performance/engine/jobexecutor/JobExecutorPerformanceTest.ioBoundServiceTasks.bpmn")
+  public void ioBoundServiceTasksThreadPool() {
+    startJobExecutor(new DefaultJobExecutor());
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+      .step(new WaitForProcessInstanceEndStep(engine, PROCESS_INSTANCE_ID))
+    .run();
+  }
+
+  @Test
+  @Deployment(resources = "org/camunda/bpm/qa/performance/engine/jobexecutor/JobExecutorPerformanceTest.ioBoundServiceTasks.bpmn")
+  public void ioBoundServiceTasksSemaphore() {
+    startJobExecutor(new SemaphoreJobExecutor());
+
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process"))
+      .step(new WaitForProcessInstanceEndStep(engine, PROCESS_INSTANCE_ID))
+    .run();
+  }
+
+  protected void startJobExecutor(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+    jobExecutor.setRejectedJobsHandler(new UnlockRejectedJobsHandler());
+    jobExecutor.setWaitTimeInMillis(100);
+    jobExecutor.registerProcessEngine((ProcessEngineImpl) engine);
+    jobExecutor.start();
+  }
+
+}